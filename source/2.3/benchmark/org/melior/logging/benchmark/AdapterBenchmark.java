@@ -0,0 +1,125 @@
+/* __  __      _ _            
+  |  \/  |    | (_)           
+  | \  / | ___| |_  ___  _ __ 
+  | |\/| |/ _ \ | |/ _ \| '__|
+  | |  | |  __/ | | (_) | |   
+  |_|  |_|\___|_|_|\___/|_|   
+        Service Harness
+*/
+package org.melior.logging.benchmark;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Measures the cost of logging through the SLF4J adapter, which formats the
+ * message with SLF4J placeholders and resolves the calling method.  The caller
+ * location may be disabled, to separate the cost of the stack walk from the
+ * cost of the formatting.
+ * @author Melior
+ * @since 2.3
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class AdapterBenchmark {
+
+    @Param({"on", "off"})
+    public String level;
+
+    @Param({"enabled", "disabled"})
+    public String location;
+
+    private LoggingSetup setup;
+
+    private Logger logger;
+
+    private long value;
+
+    /**
+     * Initialize logging system.
+     * @throws Exception if unable to initialize the logging system
+     */
+    @Setup
+    public void setup() throws Exception {
+
+        Map<String, Object> properties;
+
+        properties = new HashMap<String, Object>();
+
+        if (location.equals("disabled") == true) {
+
+            properties.put("logging.location.disabled", AdapterBenchmark.class.getName());
+        }
+
+        setup = LoggingSetup.of("file", (level.equals("on") == true) ? "DEBUG" : "INFO", properties);
+
+        logger = LoggerFactory.getLogger(AdapterBenchmark.class);
+
+        value = 1234;
+    }
+
+    /**
+     * Delete log files.
+     * @throws Exception if interrupted while deleting the log files
+     */
+    @TearDown
+    public void tearDown() throws Exception {
+
+        setup.close();
+    }
+
+    /**
+     * Log constant message.
+     */
+    @Benchmark
+    public void constant() {
+
+        logger.debug("Request processed successfully");
+    }
+
+    /**
+     * Log message with one placeholder.
+     */
+    @Benchmark
+    public void oneArgument() {
+
+        logger.debug("Request {} processed successfully", value);
+    }
+
+    /**
+     * Log message with two placeholders.
+     */
+    @Benchmark
+    public void twoArguments() {
+
+        logger.debug("Request {} processed in {} ms", value, 42);
+    }
+
+    /**
+     * Log message with more placeholders than the fixed-arity methods take.
+     */
+    @Benchmark
+    public void manyArguments() {
+
+        logger.debug("Request {} from {} processed in {} ms", value, "client", 42);
+    }
+
+}
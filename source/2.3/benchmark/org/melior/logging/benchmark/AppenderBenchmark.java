@@ -0,0 +1,170 @@
+/* __  __      _ _            
+  |  \/  |    | (_)           
+  | \  / | ___| |_  ___  _ __ 
+  | |\/| |/ _ \ | |/ _ \| '__|
+  | |  | |  __/ | | (_) | |   
+  |_|  |_|\___|_|_|\___/|_|   
+        Service Harness
+*/
+package org.melior.logging.benchmark;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.melior.context.transaction.TransactionContext;
+import org.melior.logging.core.Logger;
+import org.melior.logging.core.LoggerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the write paths of the file and console appenders for trace
+ * entries, for errors with stack traces, and for successful and failed
+ * transactions.  The number of threads is set when the benchmark is run,
+ * see {@link BenchmarkRunner}.
+ * <p>
+ * The console appenders write to the standard output of the benchmark fork,
+ * which the benchmark harness relays, so the console benchmarks should be run
+ * with the standard output redirected and the results written to a file.
+ * @author Melior
+ * @since 2.3
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class AppenderBenchmark {
+
+    @Param({"file", "file-async", "console", "console-non-blocking"})
+    public String appender;
+
+    private LoggingSetup setup;
+
+    private Logger logger;
+
+    private Exception exception;
+
+    /**
+     * Initialize logging system.
+     * @throws Exception if unable to initialize the logging system
+     */
+    @Setup
+    public void setup() throws Exception {
+
+        setup = LoggingSetup.of(appender, "DEBUG");
+
+        logger = LoggerFactory.getLogger(AppenderBenchmark.class);
+
+        exception = createException(16);
+    }
+
+    /**
+     * Delete log files.
+     * @throws Exception if interrupted while deleting the log files
+     */
+    @TearDown
+    public void tearDown() throws Exception {
+
+        setup.close();
+    }
+
+    /**
+     * Log trace entry.
+     * @param state The state of the thread
+     */
+    @Benchmark
+    public void trace(
+        final ThreadState state) {
+
+        logger.info("trace", "Request ", state.sequence++, " processed in ", 42, " ms");
+    }
+
+    /**
+     * Log error with stack trace.
+     */
+    @Benchmark
+    public void error() {
+
+        logger.error("error", "Request failed: ", exception);
+    }
+
+    /**
+     * Log successful transaction.
+     * @param state The state of the thread
+     */
+    @Benchmark
+    public void transaction(
+        final ThreadState state) {
+
+        state.transactionContext.startTransaction();
+        state.transactionContext.setTransactionType("Benchmark");
+        state.transactionContext.addArgument("sequence", Long.toString(state.sequence++));
+
+        logger.transaction("transaction", state.transactionContext);
+    }
+
+    /**
+     * Log failed transaction with stack trace.
+     * @param state The state of the thread
+     */
+    @Benchmark
+    public void failedTransaction(
+        final ThreadState state) {
+
+        state.transactionContext.startTransaction();
+        state.transactionContext.setTransactionType("Benchmark");
+        state.transactionContext.addArgument("sequence", Long.toString(state.sequence++));
+
+        logger.transaction("failedTransaction", state.transactionContext, "Error: ", exception);
+    }
+
+    /**
+     * Create exception with a stack trace of the given depth.
+     * @param depth The number of frames to add to the stack trace
+     * @return The exception
+     */
+    private static Exception createException(
+        final int depth) {
+
+        if (depth > 0) {
+            return createException(depth - 1);
+        }
+
+        return new IllegalStateException("Benchmark failure", new RuntimeException("Root cause"));
+    }
+
+    /**
+     * The state of a benchmark thread, which owns a transaction context.
+     */
+    @State(Scope.Thread)
+    public static class ThreadState {
+
+        private static final AtomicInteger threadCount = new AtomicInteger();
+
+        private TransactionContext transactionContext;
+
+        private long sequence;
+
+        /**
+         * Initialize transaction context of the benchmark thread.
+         */
+        @Setup
+        public void setup() {
+
+            transactionContext = TransactionContext.get();
+            transactionContext.setTransactionId("benchmark-" + threadCount.incrementAndGet());
+        }
+
+    }
+
+}
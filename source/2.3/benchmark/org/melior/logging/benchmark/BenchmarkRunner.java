@@ -0,0 +1,73 @@
+/* __  __      _ _            
+  |  \/  |    | (_)           
+  | \  / | ___| |_  ___  _ __ 
+  | |\/| |/ _ \ | |/ _ \| '__|
+  | |  | |  __/ | | (_) | |   
+  |_|  |_|\___|_|_|\___/|_|   
+        Service Harness
+*/
+package org.melior.logging.benchmark;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the logging benchmarks once for each number of threads, with the
+ * allocation profiler enabled, so that each run reports the throughput,
+ * the latency percentiles and the allocation rate.
+ * <pre>
+ * java org.melior.logging.benchmark.BenchmarkRunner [include] [threads]
+ * </pre>
+ * The include is a regular expression that selects the benchmarks, and
+ * defaults to all of them.  The threads are a comma-separated list, which
+ * defaults to {@code 1,4,16,64}.  The results of each run are written to
+ * {@code logging-benchmark-<threads>.json} in the working folder.
+ * <p>
+ * The benchmarks may also be run with the standard JMH command line, for
+ * example with {@code -t 16 -prof gc}.
+ * @author Melior
+ * @since 2.3
+ */
+public class BenchmarkRunner {
+
+    /**
+     * Constructor.
+     */
+    private BenchmarkRunner() {
+
+        super();
+    }
+
+    /**
+     * Run benchmarks.
+     * @param arguments The command line arguments
+     * @throws Exception if unable to run the benchmarks
+     */
+    public static void main(
+        final String[] arguments) throws Exception {
+
+        String include;
+        String[] threadCounts;
+        ChainedOptionsBuilder options;
+
+        include = (arguments.length > 0) ? arguments[0] : BenchmarkRunner.class.getPackage().getName() + ".*";
+
+        threadCounts = ((arguments.length > 1) ? arguments[1] : "1,4,16,64").split(",");
+
+        for (String threadCount : threadCounts) {
+
+            options = new OptionsBuilder()
+                .include(include)
+                .threads(Integer.parseInt(threadCount.trim()))
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("logging-benchmark-" + threadCount.trim() + ".json");
+
+            new Runner(options.build()).run();
+        }
+
+    }
+
+}
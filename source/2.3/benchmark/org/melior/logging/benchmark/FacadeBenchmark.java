@@ -0,0 +1,106 @@
+/* __  __      _ _            
+  |  \/  |    | (_)           
+  | \  / | ___| |_  ___  _ __ 
+  | |\/| |/ _ \ | |/ _ \| '__|
+  | |  | |  __/ | | (_) | |   
+  |_|  |_|\___|_|_|\___/|_|   
+        Service Harness
+*/
+package org.melior.logging.benchmark;
+import java.util.concurrent.TimeUnit;
+import org.melior.logging.core.Logger;
+import org.melior.logging.core.LoggerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of logging through the logger facade, both when the
+ * logging level is enabled and the entries are written to file, and when
+ * the logging level is disabled and the entries are discarded.  The disabled
+ * case shows what the guard of the facade costs the callers, including the
+ * allocation of the arguments.
+ * @author Melior
+ * @since 2.3
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class FacadeBenchmark {
+
+    @Param({"on", "off"})
+    public String level;
+
+    @Param({"file", "file-async"})
+    public String appender;
+
+    private LoggingSetup setup;
+
+    private Logger logger;
+
+    private long value;
+
+    /**
+     * Initialize logging system.
+     * @throws Exception if unable to initialize the logging system
+     */
+    @Setup
+    public void setup() throws Exception {
+
+        setup = LoggingSetup.of(appender, (level.equals("on") == true) ? "DEBUG" : "INFO");
+
+        logger = LoggerFactory.getLogger(FacadeBenchmark.class);
+
+        value = 1234;
+    }
+
+    /**
+     * Delete log files.
+     * @throws Exception if interrupted while deleting the log files
+     */
+    @TearDown
+    public void tearDown() throws Exception {
+
+        setup.close();
+    }
+
+    /**
+     * Log constant message.
+     */
+    @Benchmark
+    public void constant() {
+
+        logger.debug("constant", "Request processed successfully");
+    }
+
+    /**
+     * Log message that is assembled from a few parts.
+     */
+    @Benchmark
+    public void parts() {
+
+        logger.debug("parts", "Request ", value, " processed in ", 42, " ms");
+    }
+
+    /**
+     * Log message that is only constructed if the logging level is enabled.
+     */
+    @Benchmark
+    public void supplier() {
+
+        logger.debug("supplier", () -> "Request processed successfully");
+    }
+
+}
@@ -0,0 +1,175 @@
+/* __  __      _ _            
+  |  \/  |    | (_)           
+  | \  / | ___| |_  ___  _ __ 
+  | |\/| |/ _ \ | |/ _ \| '__|
+  | |  | |  __/ | | (_) | |   
+  |_|  |_|\___|_|_|\___/|_|   
+        Service Harness
+*/
+package org.melior.logging.benchmark;
+import java.util.concurrent.TimeUnit;
+import org.melior.logging.adapter.LocationResolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the ways of resolving the method that called into a logging facade,
+ * for callers at different depths of the stack.
+ * <ul>
+ * <li>{@code stackTrace} - captures and materializes the stack trace of a {@code Throwable}
+ * and searches it, which is what the SLF4J adapter did before {@code LocationResolver}
+ * <li>{@code stackCapture} - only captures the stack trace of a {@code Throwable}, which is
+ * the least that the reflective {@code Throwable.getStackTraceElement} approach paid on Java 8
+ * <li>{@code stackWalker} - walks the bounded number of frames with {@code LocationResolver}
+ * </ul>
+ * @author Melior
+ * @since 2.3
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class LocationBenchmark {
+
+    @Param({"8", "64", "256"})
+    public int depth;
+
+    private LocationResolver locationResolver;
+
+    /**
+     * Create location resolver.
+     */
+    @Setup
+    public void setup() {
+
+        locationResolver = LocationResolver.of(Facade.class, 32);
+    }
+
+    /**
+     * Resolve caller from the stack trace of a throwable.
+     * @return The method name
+     */
+    @Benchmark
+    public String stackTrace() {
+        return call(depth, 0);
+    }
+
+    /**
+     * Capture the stack trace of a throwable without materializing it.
+     * @return The throwable
+     */
+    @Benchmark
+    public Object stackCapture() {
+        return call(depth, 1);
+    }
+
+    /**
+     * Resolve caller with the location resolver.
+     * @return The method name
+     */
+    @Benchmark
+    public String stackWalker() {
+        return call(depth, 2);
+    }
+
+    /**
+     * Add frames to the stack before calling into the facade.
+     * @param remaining The number of frames to add
+     * @param method The resolution method
+     * @return The result of the resolution method
+     */
+    private String call(
+        final int remaining,
+        final int method) {
+
+        if (remaining > 0) {
+            return call(remaining - 1, method);
+        }
+
+        return caller(method);
+    }
+
+    /**
+     * The method that calls into the facade, which is what must be resolved.
+     * @param method The resolution method
+     * @return The result of the resolution method
+     */
+    private String caller(
+        final int method) {
+
+        if (method == 0) {
+            return Facade.fromStackTrace();
+        }
+        else if (method == 1) {
+            return Facade.fromStackCapture();
+        }
+
+        return Facade.fromStackWalker(locationResolver);
+    }
+
+    /**
+     * Stands in for a logging facade, which is the boundary of the search.
+     */
+    static class Facade {
+
+        /**
+         * Resolve caller from the stack trace of a throwable.
+         * @return The method name
+         */
+        static String fromStackTrace() {
+
+            StackTraceElement[] stackTrace;
+            boolean inBoundary;
+
+            stackTrace = new Throwable().getStackTrace();
+
+            inBoundary = false;
+
+            for (int i = 0; i < stackTrace.length; i++) {
+
+                if (stackTrace[i].getClassName().equals(Facade.class.getName()) == true) {
+
+                    inBoundary = true;
+                }
+                else if (inBoundary == true) {
+
+                    return stackTrace[i].getMethodName();
+                }
+
+            }
+
+            return null;
+        }
+
+        /**
+         * Capture the stack trace of a throwable without materializing it.
+         * @return The class name of the throwable, so that the throwable is not eliminated
+         */
+        static String fromStackCapture() {
+            return new Throwable().getClass().getName();
+        }
+
+        /**
+         * Resolve caller with the location resolver.
+         * @param locationResolver The location resolver
+         * @return The method name
+         */
+        static String fromStackWalker(
+            final LocationResolver locationResolver) {
+            return locationResolver.getMethodName();
+        }
+
+    }
+
+}
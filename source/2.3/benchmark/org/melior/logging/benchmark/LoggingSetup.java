@@ -0,0 +1,167 @@
+/* __  __      _ _            
+  |  \/  |    | (_)           
+  | \  / | ___| |_  ___  _ __ 
+  | |\/| |/ _ \ | |/ _ \| '__|
+  | |  | |  __/ | | (_) | |   
+  |_|  |_|\___|_|_|\___/|_|   
+        Service Harness
+*/
+package org.melior.logging.benchmark;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import org.melior.logging.core.LoggingSystem;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingInitializationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+/**
+ * Initializes the logging system of a benchmark fork through the same entry
+ * point that Spring Boot uses, from a set of application properties.  The
+ * logging level is applied to the root logger as well, as Spring Boot does
+ * for {@code logging.level.root}, so that it also applies to SLF4J loggers.
+ * File appenders write to a temporary folder that is deleted when the
+ * benchmark is torn down.
+ * <p>
+ * The appenders that may be selected are:
+ * <ul>
+ * <li>{@code file} - synchronous file appenders
+ * <li>{@code file-async} - file appenders behind asynchronous ring buffers
+ * <li>{@code console} - synchronous console appenders
+ * <li>{@code console-non-blocking} - console appenders with batched, non-blocking writes
+ * </ul>
+ * @author Melior
+ * @since 2.3
+ */
+class LoggingSetup {
+
+    private File folder;
+
+    /**
+     * Constructor.
+     * @param folder The temporary folder, or null if no files are written
+     */
+    LoggingSetup(
+        final File folder) {
+
+        super();
+
+        this.folder = folder;
+    }
+
+    /**
+     * Initialize logging system.
+     * @param appender The appender
+     * @param loggingLevel The logging level
+     * @param properties The additional application properties
+     * @return The logging setup
+     * @throws IOException if unable to create the temporary folder
+     */
+    static LoggingSetup of(
+        final String appender,
+        final String loggingLevel,
+        final Map<String, Object> properties) throws IOException {
+
+        Map<String, Object> applicationProperties;
+        StandardEnvironment environment;
+        LoggingSystem loggingSystem;
+        File folder;
+
+        applicationProperties = new HashMap<String, Object>(properties);
+        applicationProperties.put("service.name", "benchmark");
+        applicationProperties.put("logging.level", loggingLevel);
+
+        folder = null;
+
+        if (appender.startsWith("file") == true) {
+
+            folder = Files.createTempDirectory("melior-benchmark").toFile();
+
+            applicationProperties.put("logging.file.path", folder.getPath());
+            applicationProperties.put("logging.file.history-path", new File(folder, "archive/%d").getPath());
+            applicationProperties.putIfAbsent("logging.file.max-size", "256MB");
+            applicationProperties.put("logging.async.enabled", Boolean.toString(appender.endsWith("-async")));
+        }
+        else if (appender.equals("console-non-blocking") == true) {
+
+            applicationProperties.put("logging.console.non-blocking", "true");
+        }
+
+        environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("benchmark", applicationProperties));
+
+        loggingSystem = new LoggingSystem(LoggingSetup.class.getClassLoader());
+        loggingSystem.initialize(new LoggingInitializationContext(environment), null, null);
+        loggingSystem.setLogLevel(null, LogLevel.valueOf(loggingLevel));
+
+        return new LoggingSetup(folder);
+    }
+
+    /**
+     * Initialize logging system without additional application properties.
+     * @param appender The appender
+     * @param loggingLevel The logging level
+     * @return The logging setup
+     * @throws IOException if unable to create the temporary folder
+     */
+    static LoggingSetup of(
+        final String appender,
+        final String loggingLevel) throws IOException {
+        return of(appender, loggingLevel, new HashMap<String, Object>());
+    }
+
+    /**
+     * Delete the temporary folder and the log files in it.  The log files
+     * may still be open, in which case they are deleted when they are closed.
+     * Log files that were rolled during the benchmark may still be in the
+     * process of being archived, so the folder is deleted again until it
+     * has stayed deleted for a second, for half a minute at most.
+     * @throws InterruptedException if interrupted while waiting for the archiving
+     */
+    void close() throws InterruptedException {
+
+        int absent;
+
+        if (folder == null) {
+            return;
+        }
+
+        absent = 0;
+
+        for (int i = 0; (i < 120) && (absent < 4); i++) {
+
+            delete(folder);
+
+            Thread.sleep(250);
+
+            absent = (folder.exists() == true) ? 0 : absent + 1;
+        }
+
+    }
+
+    /**
+     * Delete file or folder recursively.
+     * @param file The file or folder
+     */
+    private static void delete(
+        final File file) {
+
+        File[] children;
+
+        children = file.listFiles();
+
+        if (children != null) {
+
+            for (File child : children) {
+                delete(child);
+            }
+
+        }
+
+        file.delete();
+    }
+
+}
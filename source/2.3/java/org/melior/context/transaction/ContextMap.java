@@ -0,0 +1,234 @@
+/* __  __      _ _            
+  |  \/  |    | (_)           
+  | \  / | ___| |_  ___  _ __ 
+  | |\/| |/ _ \ | |/ _ \| '__|
+  | |  | |  __/ | | (_) | |   
+  |_|  |_|\___|_|_|\___/|_|   
+        Service Harness
+*/
+package org.melior.context.transaction;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An immutable map of diagnostic context values that may be added to the
+ * transaction context of a thread.  The values are recorded with each trace
+ * event that is logged by the thread.
+ * <p>
+ * The entries are held in a single array of alternating keys and values, which
+ * is searched linearly.  This is compact and fast for the handful of entries that
+ * a diagnostic context normally holds.  Adding or removing an entry produces a
+ * new map and leaves the original untouched, so a map may be captured by a log
+ * event or inherited by a child thread without being copied.
+ * @author Melior
+ * @since 2.3
+ */
+public class ContextMap {
+
+    private static final ContextMap EMPTY = new ContextMap(new String[0]);
+
+    private String[] entries;
+
+    /**
+     * Constructor.
+     * @param entries The alternating keys and values
+     */
+    ContextMap(
+        final String[] entries) {
+
+        super();
+
+        this.entries = entries;
+    }
+
+    /**
+     * Get instance of empty context map.
+     * @return The context map
+     */
+    public static ContextMap of() {
+        return EMPTY;
+    }
+
+    /**
+     * Get instance of context map with the entries of a map.
+     * @param map The map
+     * @return The context map
+     */
+    public static ContextMap of(
+        final Map<String, String> map) {
+
+        String[] entries;
+        int index;
+
+        if ((map == null) || (map.isEmpty() == true)) {
+            return EMPTY;
+        }
+
+        entries = new String[map.size() * 2];
+        index = 0;
+
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+
+            if (entry.getKey() != null) {
+
+                entries[index++] = entry.getKey();
+                entries[index++] = entry.getValue();
+            }
+
+        }
+
+        return new ContextMap((index == entries.length) ? entries : Arrays.copyOf(entries, index));
+    }
+
+    /**
+     * Get number of entries in context map.
+     * @return The number of entries
+     */
+    public int size() {
+        return entries.length >> 1;
+    }
+
+    /**
+     * Check whether context map is empty.
+     * @return true if the context map is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return entries.length == 0;
+    }
+
+    /**
+     * Get key of entry.
+     * @param index The index of the entry
+     * @return The key
+     */
+    public String getKey(
+        final int index) {
+        return entries[index << 1];
+    }
+
+    /**
+     * Get value of entry.
+     * @param index The index of the entry
+     * @return The value
+     */
+    public String getValue(
+        final int index) {
+        return entries[(index << 1) + 1];
+    }
+
+    /**
+     * Get value of key.
+     * @param key The key
+     * @return The value, or null if the key does not exist
+     */
+    public String get(
+        final String key) {
+
+        int index;
+
+        index = indexOf(key);
+
+        return (index < 0) ? null : entries[index + 1];
+    }
+
+    /**
+     * Get context map with entry added or replaced.
+     * @param key The key
+     * @param value The value
+     * @return The context map, which is this context map if it already holds the entry
+     */
+    public ContextMap with(
+        final String key,
+        final String value) {
+
+        int index;
+        String[] newEntries;
+
+        index = indexOf(key);
+
+        if (index >= 0) {
+
+            if ((value == null) ? (entries[index + 1] == null) : (value.equals(entries[index + 1]) == true)) {
+                return this;
+            }
+
+            newEntries = entries.clone();
+            newEntries[index + 1] = value;
+        }
+        else {
+
+            newEntries = Arrays.copyOf(entries, entries.length + 2);
+            newEntries[entries.length] = key;
+            newEntries[entries.length + 1] = value;
+        }
+
+        return new ContextMap(newEntries);
+    }
+
+    /**
+     * Get context map with entry removed.
+     * @param key The key
+     * @return The context map, which is this context map if it does not hold the key
+     */
+    public ContextMap without(
+        final String key) {
+
+        int index;
+        String[] newEntries;
+
+        index = indexOf(key);
+
+        if (index < 0) {
+            return this;
+        }
+
+        if (entries.length == 2) {
+            return EMPTY;
+        }
+
+        newEntries = new String[entries.length - 2];
+
+        System.arraycopy(entries, 0, newEntries, 0, index);
+        System.arraycopy(entries, index + 2, newEntries, index, entries.length - index - 2);
+
+        return new ContextMap(newEntries);
+    }
+
+    /**
+     * Copy entries of context map to a new map.
+     * @return The map
+     */
+    public Map<String, String> toMap() {
+
+        Map<String, String> map;
+
+        map = new HashMap<String, String>(Math.max(size() * 2, 4));
+
+        for (int i = 0; i < entries.length; i += 2) {
+            map.put(entries[i], entries[i + 1]);
+        }
+
+        return map;
+    }
+
+    /**
+     * Get position of key in entries.
+     * @param key The key
+     * @return The position, or -1 if the key does not exist
+     */
+    private int indexOf(
+        final String key) {
+
+        for (int i = 0; i < entries.length; i += 2) {
+
+            if (entries[i].equals(key) == true) {
+                return i;
+            }
+
+        }
+
+        return -1;
+    }
+
+}
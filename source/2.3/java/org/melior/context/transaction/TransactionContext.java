@@ -45,6 +45,8 @@ public class TransactionContext {
 
     private List<Argument> argumentList;
 
+    private ContextMap contextMap;
+
     /**
      * Constructor.
      */
@@ -53,6 +55,8 @@ public class TransactionContext {
         super();
 
         argumentList = new ArrayList<Argument>();
+
+        contextMap = ContextMap.of();
     }
 
     /**
@@ -92,6 +96,7 @@ public class TransactionContext {
         operation = null;
         transactionType = null;
         argumentList.clear();
+        contextMap = ContextMap.of();
     }
 
     /**
@@ -255,6 +260,23 @@ public class TransactionContext {
         return argumentList;
     }
 
+    /**
+     * Get diagnostic context map.
+     * @return The diagnostic context map
+     */
+    public ContextMap getContextMap() {
+        return contextMap;
+    }
+
+    /**
+     * Set diagnostic context map.
+     * @param contextMap The diagnostic context map
+     */
+    public void setContextMap(
+        final ContextMap contextMap) {
+        this.contextMap = (contextMap == null) ? ContextMap.of() : contextMap;
+    }
+
     /**
      * Add argument if argument value is not {@code null}.
      * @param name The argument name
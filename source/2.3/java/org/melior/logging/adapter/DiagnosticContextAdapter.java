@@ -0,0 +1,105 @@
+/* __  __      _ _            
+  |  \/  |    | (_)           
+  | \  / | ___| |_  ___  _ __ 
+  | |\/| |/ _ \ | |/ _ \| '__|
+  | |  | |  __/ | | (_) | |   
+  |_|  |_|\___|_|_|\___/|_|   
+        Service Harness
+*/
+package org.melior.logging.adapter;
+import java.util.Map;
+import org.melior.context.transaction.ContextMap;
+import org.melior.context.transaction.TransactionContext;
+
+/**
+ * Adapts the SLF4J mapped diagnostic context to the diagnostic context map of
+ * the transaction context of the current thread.  The values that are put into
+ * the mapped diagnostic context are recorded with each trace event that is logged
+ * by the thread, and are inherited by child threads of the daemon thread pool.
+ * The diagnostic context is cleared when the transaction context is reset.
+ * @author Melior
+ * @since 2.3
+ */
+public class DiagnosticContextAdapter implements org.slf4j.spi.MDCAdapter {
+
+    /**
+     * Constructor.
+     */
+    public DiagnosticContextAdapter() {
+
+        super();
+    }
+
+    /**
+     * Put value into diagnostic context.
+     * @param key The key
+     * @param value The value
+     */
+    public void put(
+        final String key,
+        final String value) {
+
+        TransactionContext transactionContext;
+
+        if (key == null) {
+            throw new IllegalArgumentException("Key may not be null.");
+        }
+
+        transactionContext = TransactionContext.get();
+        transactionContext.setContextMap(transactionContext.getContextMap().with(key, value));
+    }
+
+    /**
+     * Get value from diagnostic context.
+     * @param key The key
+     * @return The value, or null if the key does not exist
+     */
+    public String get(
+        final String key) {
+        return (key == null) ? null : TransactionContext.get().getContextMap().get(key);
+    }
+
+    /**
+     * Remove value from diagnostic context.
+     * @param key The key
+     */
+    public void remove(
+        final String key) {
+
+        TransactionContext transactionContext;
+
+        if (key == null) {
+            return;
+        }
+
+        transactionContext = TransactionContext.get();
+        transactionContext.setContextMap(transactionContext.getContextMap().without(key));
+    }
+
+    /**
+     * Clear diagnostic context.
+     */
+    public void clear() {
+
+        TransactionContext.get().setContextMap(ContextMap.of());
+    }
+
+    /**
+     * Get copy of diagnostic context.
+     * @return The copy of the diagnostic context
+     */
+    public Map<String, String> getCopyOfContextMap() {
+        return TransactionContext.get().getContextMap().toMap();
+    }
+
+    /**
+     * Replace diagnostic context with the entries of a map.
+     * @param contextMap The map
+     */
+    public void setContextMap(
+        final Map<String, String> contextMap) {
+
+        TransactionContext.get().setContextMap(ContextMap.of(contextMap));
+    }
+
+}
@@ -0,0 +1,236 @@
+/* __  __      _ _            
+  |  \/  |    | (_)           
+  | \  / | ___| |_  ___  _ __ 
+  | |\/| |/ _ \ | |/ _ \| '__|
+  | |  | |  __/ | | (_) | |   
+  |_|  |_|\___|_|_|\___/|_|   
+        Service Harness
+*/
+package org.melior.logging.adapter;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Resolves the name of the method that called into a logging facade.  Uses
+ * {@code StackWalker} when the JVM provides it, which only materializes the
+ * frames that are actually inspected, and falls back to the stack trace of
+ * a {@code Throwable} otherwise.  The number of frames that are inspected is
+ * bounded, so a caller that is buried deeper than that resolves to null.
+ * <p>
+ * {@code StackWalker} is bound through method handles, so that this class
+ * may still be compiled for, and run on, a JVM that predates it.  The handles
+ * are bound with the lookup of this class, because {@code StackWalker.walk}
+ * is caller sensitive and cannot be bound with the public lookup.
+ * @author Melior
+ * @since 2.3
+ */
+public class LocationResolver {
+
+    private static final MethodHandle walkerFactory;
+
+    private static final MethodHandle walkMethod;
+
+    private static final MethodHandle declaringClassMethod;
+
+    private static final MethodHandle methodNameMethod;
+
+    private Class<?> boundaryClass;
+
+    private int maxDepth;
+
+    private Object stackWalker;
+
+    private Function<Stream<Object>, String> frameFunction;
+
+    /**
+     * Constructor.
+     * @param boundaryClass The class of the logging facade
+     * @param maxDepth The maximum number of frames to inspect
+     */
+    LocationResolver(
+        final Class<?> boundaryClass,
+        final int maxDepth) {
+
+        super();
+
+        this.boundaryClass = boundaryClass;
+
+        this.maxDepth = Math.max(maxDepth, 4);
+
+        try {
+
+            stackWalker = (walkerFactory == null) ? null : walkerFactory.invoke(this.maxDepth + 2);
+        }
+        catch (Throwable exception) {
+
+            stackWalker = null;
+        }
+
+        frameFunction = (frames) -> findCaller(frames);
+    }
+
+    /**
+     * Get instance of location resolver.
+     * @param boundaryClass The class of the logging facade
+     * @param maxDepth The maximum number of frames to inspect
+     * @return The location resolver
+     */
+    public static LocationResolver of(
+        final Class<?> boundaryClass,
+        final int maxDepth) {
+        return new LocationResolver(boundaryClass, maxDepth);
+    }
+
+    /**
+     * Get name of method that called into the logging facade.
+     * @return The method name, or null if the method could not be resolved
+     */
+    public String getMethodName() {
+
+        if (stackWalker != null) {
+
+            try {
+
+                return (String) walkMethod.invoke(stackWalker, frameFunction);
+            }
+            catch (Throwable exception) {
+
+                return null;
+            }
+
+        }
+
+        return getMethodNameFromStackTrace();
+    }
+
+    /**
+     * Find first frame after the frames of the logging facade.
+     * @param frames The stack frames
+     * @return The method name, or null if the method could not be resolved
+     */
+    private String findCaller(
+        final Stream<Object> frames) {
+
+        Iterator<Object> iterator;
+        Object frame;
+        Class<?> frameClass;
+        boolean inBoundary;
+
+        iterator = frames.iterator();
+
+        inBoundary = false;
+
+        try {
+
+            for (int i = 0; (i < maxDepth) && (iterator.hasNext() == true); i++) {
+
+                frame = iterator.next();
+
+                frameClass = (Class<?>) declaringClassMethod.invokeExact(frame);
+
+                if (frameClass == boundaryClass) {
+
+                    inBoundary = true;
+                }
+                else if (inBoundary == true) {
+
+                    return (String) methodNameMethod.invokeExact(frame);
+                }
+
+            }
+
+        }
+        catch (Throwable exception) {
+        }
+
+        return null;
+    }
+
+    /**
+     * Find first frame after the frames of the logging facade in a stack trace.
+     * @return The method name, or null if the method could not be resolved
+     */
+    private String getMethodNameFromStackTrace() {
+
+        StackTraceElement[] stackTrace;
+        String boundaryName;
+        boolean inBoundary;
+
+        stackTrace = new Throwable().getStackTrace();
+
+        boundaryName = boundaryClass.getName();
+
+        inBoundary = false;
+
+        for (int i = 0; (i < maxDepth) && (i < stackTrace.length); i++) {
+
+            if (stackTrace[i].getClassName().equals(boundaryName) == true) {
+
+                inBoundary = true;
+            }
+            else if (inBoundary == true) {
+
+                return stackTrace[i].getMethodName();
+            }
+
+        }
+
+        return null;
+    }
+
+    static {
+
+        MethodHandles.Lookup lookup;
+        Class<?> walkerClass;
+        Class<?> optionClass;
+        Class<?> frameClass;
+        Set<?> options;
+        MethodHandle factory;
+        MethodHandle walk;
+        MethodHandle declaringClass;
+        MethodHandle methodName;
+
+        try {
+
+            lookup = MethodHandles.lookup();
+
+            walkerClass = Class.forName("java.lang.StackWalker");
+            optionClass = Class.forName("java.lang.StackWalker$Option");
+            frameClass = Class.forName("java.lang.StackWalker$StackFrame");
+
+            options = Collections.singleton(optionClass.getField("RETAIN_CLASS_REFERENCE").get(null));
+
+            factory = MethodHandles.insertArguments(lookup.findStatic(walkerClass, "getInstance",
+                MethodType.methodType(walkerClass, Set.class, int.class)), 0, options)
+                .asType(MethodType.methodType(Object.class, int.class));
+
+            walk = lookup.findVirtual(walkerClass, "walk", MethodType.methodType(Object.class, Function.class))
+                .asType(MethodType.methodType(Object.class, Object.class, Function.class));
+
+            declaringClass = lookup.findVirtual(frameClass, "getDeclaringClass", MethodType.methodType(Class.class))
+                .asType(MethodType.methodType(Class.class, Object.class));
+
+            methodName = lookup.findVirtual(frameClass, "getMethodName", MethodType.methodType(String.class))
+                .asType(MethodType.methodType(String.class, Object.class));
+        }
+        catch (Throwable exception) {
+
+            factory = null;
+            walk = null;
+            declaringClass = null;
+            methodName = null;
+        }
+
+        walkerFactory = factory;
+        walkMethod = walk;
+        declaringClassMethod = declaringClass;
+        methodNameMethod = methodName;
+    }
+
+}
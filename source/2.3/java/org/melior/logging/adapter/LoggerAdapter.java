@@ -7,33 +7,26 @@
         Service Harness
 */
 package org.melior.logging.adapter;
-import java.lang.reflect.Method;
 import org.melior.logging.core.Logger;
 import org.slf4j.Marker;
 import org.slf4j.helpers.MessageFormatter;
-import org.springframework.boot.logging.LogLevel;
 
 /**
- * Adapts the SLF4J logger to the internal logger.
+ * Adapts the SLF4J logger to the internal logger.  The adapter holds no
+ * logging level of its own, it asks the internal logger, which holds the
+ * logging level of both.
  * @author Melior
  * @since 2.1
  */
 public class LoggerAdapter implements org.slf4j.Logger {
 
-    private static final int LOGGING_LEVEL_TRACE = LogLevel.TRACE.ordinal();
-    private static final int LOGGING_LEVEL_DEBUG = LogLevel.DEBUG.ordinal();
-    private static final int LOGGING_LEVEL_INFO = LogLevel.INFO.ordinal();
-    private static final int LOGGING_LEVEL_WARN = LogLevel.WARN.ordinal();
-    private static final int LOGGING_LEVEL_ERROR = LogLevel.ERROR.ordinal();
-    private static final int LOGGING_LEVEL_FATAL = LogLevel.FATAL.ordinal();
+    public static final int DEFAULT_LOCATION_DEPTH = 32;
 
-    private static int stackTraceIndex;
-
-    private static Method stackTraceMethod;
+    private static volatile LocationResolver locationResolver = LocationResolver.of(LoggerAdapter.class, DEFAULT_LOCATION_DEPTH);
 
     private Logger logger;
-
-    private int loggingLevel;
+
+    private boolean locationEnabled;
 
     /**
      * Constructor.
@@ -46,7 +39,7 @@ public class LoggerAdapter implements org.slf4j.Logger {
 
         this.logger = logger;
 
-        loggingLevel = LOGGING_LEVEL_ERROR;
+        locationEnabled = true;
     }
 
     /**
@@ -57,14 +50,25 @@ public class LoggerAdapter implements org.slf4j.Logger {
         return logger.getName();
     }
 
+
     /**
-     * Set logging level.
-     * @param loggingLevel The logging level
+     * Set whether the name of the calling method is resolved.
+     * @param locationEnabled true if the name of the calling method is resolved, false otherwise
      */
-    public void setLoggingLevel(
-        final int loggingLevel) {
-
-        this.loggingLevel = loggingLevel;
+    public void setLocationEnabled(
+        final boolean locationEnabled) {
+
+        this.locationEnabled = locationEnabled;
+    }
+
+    /**
+     * Set maximum number of stack frames to inspect when resolving the name of the calling method.
+     * @param maxDepth The maximum number of stack frames
+     */
+    static void setLocationDepth(
+        final int maxDepth) {
+
+        locationResolver = LocationResolver.of(LoggerAdapter.class, maxDepth);
     }
 
     /**
@@ -72,7 +76,7 @@ public class LoggerAdapter implements org.slf4j.Logger {
      * @return true if error level logging is enabled, false otherwise
      */
     public boolean isErrorEnabled() {
-        return loggingLevel <= LOGGING_LEVEL_FATAL;
+        return logger.isErrorEnabled();
     }
 
     /**
@@ -174,7 +178,7 @@ public class LoggerAdapter implements org.slf4j.Logger {
      */
     public boolean isErrorEnabled(
         final Marker marker) {
-        return loggingLevel <= LOGGING_LEVEL_FATAL;
+        return logger.isErrorEnabled();
     }
 
     /**
@@ -284,7 +288,7 @@ public class LoggerAdapter implements org.slf4j.Logger {
      * @return true if warn level logging is enabled, false otherwise
      */
     public boolean isWarnEnabled() {
-        return loggingLevel <= LOGGING_LEVEL_WARN;
+        return logger.isWarnEnabled();
     }
 
     /**
@@ -386,7 +390,7 @@ public class LoggerAdapter implements org.slf4j.Logger {
      */
     public boolean isWarnEnabled(
         final Marker marker) {
-        return loggingLevel <= LOGGING_LEVEL_WARN;
+        return logger.isWarnEnabled();
     }
 
     /**
@@ -496,7 +500,7 @@ public class LoggerAdapter implements org.slf4j.Logger {
      * @return true if info level logging is enabled, false otherwise
      */
     public boolean isInfoEnabled() {
-        return loggingLevel <= LOGGING_LEVEL_INFO;
+        return logger.isInfoEnabled();
     }
 
     /**
@@ -598,7 +602,7 @@ public class LoggerAdapter implements org.slf4j.Logger {
      */
     public boolean isInfoEnabled(
         final Marker marker) {
-        return loggingLevel <= LOGGING_LEVEL_INFO;
+        return logger.isInfoEnabled();
     }
 
     /**
@@ -708,7 +712,7 @@ public class LoggerAdapter implements org.slf4j.Logger {
      * @return true if debug level logging is enabled, false otherwise
      */
     public boolean isDebugEnabled() {
-        return loggingLevel <= LOGGING_LEVEL_DEBUG;
+        return logger.isDebugEnabled();
     }
 
     /**
@@ -810,7 +814,7 @@ public class LoggerAdapter implements org.slf4j.Logger {
      */
     public boolean isDebugEnabled(
         final Marker marker) {
-        return loggingLevel <= LOGGING_LEVEL_DEBUG;
+        return logger.isDebugEnabled();
     }
 
     /**
@@ -920,7 +924,7 @@ public class LoggerAdapter implements org.slf4j.Logger {
      * @return true if trace level logging is enabled, false otherwise
      */
     public boolean isTraceEnabled() {
-        return loggingLevel == LOGGING_LEVEL_TRACE;
+        return logger.isTraceEnabled();
     }
 
     /**
@@ -1022,7 +1026,7 @@ public class LoggerAdapter implements org.slf4j.Logger {
      */
     public boolean isTraceEnabled(
         final Marker marker) {
-        return loggingLevel == LOGGING_LEVEL_TRACE;
+        return logger.isTraceEnabled();
     }
 
     /**
@@ -1127,49 +1131,17 @@ public class LoggerAdapter implements org.slf4j.Logger {
 
     }
 
-    static {
-
-        stackTraceIndex = 0;
-
-        for (StackTraceElement stackTraceElement : Thread.currentThread().getStackTrace()) {
-            stackTraceIndex++;
-
-            if (stackTraceElement.getClassName().equals(LoggerAdapter.class.getName()) == true) {
-                break;
-            }
-
-        }
-
-        try {
-            stackTraceMethod = Throwable.class.getDeclaredMethod("getStackTraceElement", int.class);
-            stackTraceMethod.setAccessible(true);
-        }
-        catch (Exception exception) {
-        }
-
-    }
-
     /**
      * Get name of calling method.
-     * @return The method name
+     * @return The method name, or null if caller resolution is disabled for this logger
      */
     private String getMethodName() {
 
-        StackTraceElement stackTraceElement;
-        String methodName;
-
-        try {
-
-            stackTraceElement = (StackTraceElement) stackTraceMethod.invoke(new Throwable(), stackTraceIndex + 1);
-
-            methodName = stackTraceElement.getMethodName();
-        }
-        catch (Exception exception) {
-
-            methodName = null;
+        if (locationEnabled == false) {
+            return null;
         }
 
-        return methodName;
+        return locationResolver.getMethodName();
     }
 
 }
@@ -42,9 +42,7 @@ public class LoggerFactoryAdapter implements org.slf4j.ILoggerFactory {
 
         if (logger == null) {
 
-            logger = new LoggerAdapter(LoggerFactory.getLogger(loggerName));
-
-            loggerRegistry.addLogger(loggerName, logger);
+            logger = loggerRegistry.addLogger(loggerName, new LoggerAdapter(LoggerFactory.getAdaptedLogger(loggerName)));
         }
 
         return logger;
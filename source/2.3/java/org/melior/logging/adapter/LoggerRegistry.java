@@ -7,26 +7,41 @@
         Service Harness
 */
 package org.melior.logging.adapter;
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import org.springframework.boot.logging.LogLevel;
 
 /**
- * Maintains a registry of the SLF4J loggers and their logging levels.
+ * Maintains a registry of the SLF4J loggers and of the logging levels that
+ * have been set by logger name.  The logging levels also apply to the internal
+ * loggers, except for the logging level of the root logger, which only applies
+ * to the internal loggers that the SLF4J loggers write to.
+ * <p>
+ * The loggers are held in a concurrent map, so that they may be looked up
+ * without locking.  The logging levels are held in a trie of the dotted
+ * segments of the logger names, so that the logging level of a logger is
+ * resolved in time proportional to the length of its name, regardless of
+ * how many loggers or logging levels there are.  The trie is only used
+ * while holding the lock of the registry.  The logging levels are not
+ * pushed to the loggers.  Each internal logger resolves its logging level
+ * from the trie when it is first used after the logging levels have changed.
  * @author Melior
  * @since 2.1
  */
 public class LoggerRegistry {
 
-    private static LoggerRegistry instance;
+    private static final LoggerRegistry instance = new LoggerRegistry();
 
     private Map<String, LoggerAdapter> loggerMap;
 
-    private LogLevel rootLoggingLevel;
-
-    private Map<String, LogLevel> loggingLevelMap;
+    private Node rootNode;
+
+    private List<String> locationDisabledList;
 
     /**
      * Constructor.
@@ -35,11 +50,12 @@ public class LoggerRegistry {
 
         super();
 
-        loggerMap = new HashMap<String, LoggerAdapter>();
+        loggerMap = new ConcurrentHashMap<String, LoggerAdapter>();
 
-        rootLoggingLevel = LogLevel.ERROR;
-
-        loggingLevelMap = new LinkedHashMap<String, LogLevel>();
+        rootNode = new Node();
+        rootNode.loggingLevel = LogLevel.ERROR;
+
+        locationDisabledList = new ArrayList<String>();
     }
 
     /**
@@ -47,12 +63,6 @@ public class LoggerRegistry {
      * @return The singleton instance
      */
     public static LoggerRegistry get() {
-
-        if (instance == null) {
-
-            instance = new LoggerRegistry();
-        }
-
         return instance;
     }
 
@@ -68,66 +78,276 @@ public class LoggerRegistry {
     }
 
     /**
-     * Add logger.
+     * Add logger, unless a logger with the same name has already been added.
      * @param loggerName The logger name
      * @param logger The logger
+     * @return The logger that is registered under the logger name
      */
-    public void addLogger(
+    public synchronized LoggerAdapter addLogger(
         final String loggerName,
         final LoggerAdapter logger) {
 
-        LogLevel loggingLevel;
+        LoggerAdapter existingLogger;
 
-        loggingLevel = rootLoggingLevel;
+        existingLogger = loggerMap.get(loggerName);
 
-        for (String name : loggingLevelMap.keySet()) {
+        if (existingLogger != null) {
+            return existingLogger;
+        }
 
+        logger.setLocationEnabled(isLocationEnabled(loggerName));
+
+        loggerMap.put(loggerName, logger);
+
+        return logger;
+    }
+
+    /**
+     * Configure resolution of the calling method.
+     * @param maxDepth The maximum number of stack frames to inspect
+     * @param disabledList The list of logger name prefixes for which the calling method is not resolved
+     */
+    public synchronized void configureLocation(
+        final int maxDepth,
+        final List<String> disabledList) {
+
+        LoggerAdapter.setLocationDepth(maxDepth);
+
+        locationDisabledList = new ArrayList<String>(disabledList);
+
+        for (Map.Entry<String, LoggerAdapter> entry : loggerMap.entrySet()) {
+
+            entry.getValue().setLocationEnabled(isLocationEnabled(entry.getKey()));
+        }
+
+    }
+
+    /**
+     * Indicate whether the calling method is resolved for logger.
+     * @param loggerName The logger name
+     * @return true if the calling method is resolved, false otherwise
+     */
+    private boolean isLocationEnabled(
+        final String loggerName) {
+
+        for (String name : locationDisabledList) {
+
             if (loggerName.startsWith(name) == true) {
-
-                loggingLevel = loggingLevelMap.get(name);
+                return false;
             }
 
         }
-
-        logger.setLoggingLevel(loggingLevel.ordinal());
-
-        loggerMap.put(loggerName, logger);
+
+        return true;
     }
 
     /**
-     * Set logging level.
+     * Set logging level.  The logging level applies to the logger with the
+     * given name and to all loggers below it in the dotted name hierarchy,
+     * except those for which a more specific logging level has been set.
+     * The loggers only see the logging level once they have been told that
+     * the logging levels have changed.
      * @param loggerName The logger name
      * @param loggingLevel The logging level
      */
-    public void setLoggingLevel(
+    public synchronized void setLoggingLevel(
         final String loggerName,
         final LogLevel loggingLevel) {
 
+        Node node;
+        int start;
+        int end;
+
         if ((loggerName == null) || (loggerName.equals(LoggerAdapter.ROOT_LOGGER_NAME) == true)) {
 
-            rootLoggingLevel = loggingLevel;
-
-            for (LoggerAdapter logger : loggerMap.values()) {
+            rootNode.loggingLevel = (loggingLevel == null) ? LogLevel.ERROR : loggingLevel;
 
-                logger.setLoggingLevel(loggingLevel.ordinal());
+            return;
+        }
+
+        node = rootNode;
+
+        for (start = 0; start <= loggerName.length(); start = end + 1) {
+
+            end = loggerName.indexOf('.', start);
+
+            if (end < 0) {
+
+                end = loggerName.length();
             }
 
+            node = node.getOrCreateChild(loggerName.substring(start, end));
         }
-        else {
-
-            loggingLevelMap.put(loggerName, loggingLevel);
-
-            for (String name : loggerMap.keySet()) {
 
-                if (name.startsWith(loggerName) == true) {
-
-                    LoggerAdapter logger = loggerMap.get(name);
+        node.loggingLevel = loggingLevel;
+    }
 
-                    logger.setLoggingLevel(loggingLevel.ordinal());
-                }
+    /**
+     * Get logging level that has been set for logger.
+     * @param loggerName The logger name
+     * @return The logging level, or null if no logging level has been set for the logger itself
+     */
+    public synchronized LogLevel getLoggingLevel(
+        final String loggerName) {
+
+        Node node;
+
+        node = findNode(loggerName);
+
+        return (node == null) ? null : node.loggingLevel;
+    }
+
+    /**
+     * Resolve logging level of logger from the logging levels that have been set
+     * for the logger and for the loggers above it in the dotted name hierarchy.
+     * The logging level of the root logger is not considered.
+     * @param loggerName The logger name
+     * @param defaultLevel The logging level to use if no logging level applies to the logger
+     * @return The logging level
+     */
+    public synchronized LogLevel resolveLoggingLevel(
+        final String loggerName,
+        final LogLevel defaultLevel) {
+
+        Node node;
+        LogLevel loggingLevel;
+        int start;
+        int end;
+
+        if ((loggerName == null) || (loggerName.equals(LoggerAdapter.ROOT_LOGGER_NAME) == true)) {
+            return defaultLevel;
+        }
+
+        node = rootNode;
+
+        loggingLevel = defaultLevel;
+
+        for (start = 0; start <= loggerName.length(); start = end + 1) {
+
+            end = loggerName.indexOf('.', start);
+
+            if (end < 0) {
+
+                end = loggerName.length();
+            }
+
+            node = node.children.get(loggerName.substring(start, end));
+
+            if (node == null) {
+                break;
+            }
+
+            if (node.loggingLevel != null) {
+
+                loggingLevel = node.loggingLevel;
+            }
+
+        }
+
+        return loggingLevel;
+    }
+
+    /**
+     * Get names of the SLF4J loggers and of the loggers for which a logging level has been set.
+     * @return The sorted set of logger names
+     */
+    public synchronized Set<String> getLoggerNames() {
+
+        Set<String> loggerNames;
+
+        loggerNames = new TreeSet<String>(loggerMap.keySet());
+
+        addLoggerNames(rootNode, null, loggerNames);
+
+        return loggerNames;
+    }
+
+    /**
+     * Add names of the loggers for which a logging level has been set in a branch of the trie.
+     * @param node The node at the top of the branch
+     * @param loggerName The logger name of the node, or null for the root node
+     * @param loggerNames The set of logger names to add to
+     */
+    private void addLoggerNames(
+        final Node node,
+        final String loggerName,
+        final Set<String> loggerNames) {
+
+        if ((loggerName != null) && (node.loggingLevel != null)) {
+
+            loggerNames.add(loggerName);
+        }
+
+        for (Map.Entry<String, Node> child : node.children.entrySet()) {
+
+            addLoggerNames(child.getValue(), (loggerName == null) ? child.getKey() : loggerName + "." + child.getKey(), loggerNames);
+        }
+
+    }
+
+    /**
+     * Find node of logger in the trie.
+     * @param loggerName The logger name
+     * @return The node, or null if the trie holds no node for the logger
+     */
+    private Node findNode(
+        final String loggerName) {
+
+        Node node;
+        int start;
+        int end;
+
+        if ((loggerName == null) || (loggerName.equals(LoggerAdapter.ROOT_LOGGER_NAME) == true)) {
+            return rootNode;
+        }
+
+        node = rootNode;
+
+        for (start = 0; (node != null) && (start <= loggerName.length()); start = end + 1) {
+
+            end = loggerName.indexOf('.', start);
+
+            if (end < 0) {
+
+                end = loggerName.length();
+            }
+
+            node = node.children.get(loggerName.substring(start, end));
+        }
+
+        return node;
+    }
+
+
+    /**
+     * A node in the trie of dotted logger name segments.
+     */
+    private static class Node {
+
+        private Map<String, Node> children = new HashMap<String, Node>();
+
+        private LogLevel loggingLevel;
+
+        /**
+         * Get child node for name segment, creating it if necessary.
+         * @param segment The name segment
+         * @return The child node
+         */
+        private Node getOrCreateChild(
+            final String segment) {
+
+            Node child;
+
+            child = children.get(segment);
+
+            if (child == null) {
+
+                child = new Node();
 
+                children.put(segment, child);
             }
 
+            return child;
         }
 
     }
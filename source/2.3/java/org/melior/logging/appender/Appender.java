@@ -9,6 +9,7 @@
 package org.melior.logging.appender;
 import java.util.List;
 import org.melior.context.transaction.Argument;
+import org.melior.context.transaction.ContextMap;
 import org.melior.service.config.Configuration;
 import org.melior.service.exception.ApplicationException;
 import org.springframework.boot.logging.LogLevel;
@@ -27,7 +28,7 @@ public abstract class Appender {
 
     protected Stream stream;
 
-    protected AppenderConfig configuration;
+    protected volatile AppenderConfig configuration;
 
     /**
      * Constructor.
@@ -48,6 +49,14 @@ public abstract class Appender {
         configure();
     }
 
+    /**
+     * Get stream.
+     * @return The stream
+     */
+    public Stream getStream() {
+        return stream;
+    }
+
     /**
      * Write trace event to log.
      * @param day The day
@@ -58,6 +67,7 @@ public abstract class Appender {
      * @param transactionId The transaction identifier
      * @param location The location [caller]
      * @param messageParts The message parts
+     * @param contextMap The diagnostic context map
      * @param throwable The throwable
      */
     public abstract void write(
@@ -69,6 +79,7 @@ public abstract class Appender {
         final String transactionId,
         final String location,
         final Object[] messageParts,
+        final ContextMap contextMap,
         final Throwable throwable);
 
     /**
@@ -100,6 +111,64 @@ public abstract class Appender {
         final String stackTracePrefix,
         final Throwable throwable);
 
+    /**
+     * Write record to log.  An appender that is able to share the work of
+     * formatting the record with the appenders of other streams should override
+     * this method.  By default, the record is written like any other event.
+     * @param record The record
+     */
+    public void write(
+        final LogEvent record) {
+
+        if (record.isTransaction() == true) {
+
+            write(record.getDay(), record.getTimestamp(), record.getHostName(), record.getThreadId(),
+                record.getTransactionId(), record.getLocation(), record.getTransactionType(), record.getStatus(),
+                record.getDuration(), record.getArgumentList(), record.getStackTracePrefix(), record.getThrowable());
+        }
+        else {
+
+            write(record.getDay(), record.getTimestamp(), record.getLoggingLevel(), record.getHostName(),
+                record.getThreadId(), record.getTransactionId(), record.getLocation(), record.getMessageParts(),
+                record.getContextMap(), record.getThrowable());
+        }
+
+    }
+
+    /**
+     * Flush log entries that have been buffered by the appender.
+     */
+    public void flush() {
+    }
+
+    /**
+     * Notify appender that an asynchronous appender has handed over all the
+     * events that are currently waiting.  An appender that batches log entries
+     * should write its batch at this point.
+     */
+    public void endOfBatch() {
+    }
+
+    /**
+     * Reconfigure appender while it is in use.  The log entries that have been
+     * buffered are flushed and the new configuration is applied under the lock
+     * of the appender, so that each log entry is written with either the old or
+     * the new settings, never with a mix of both.  Settings that determine the
+     * structure of the appender, such as the sizes of its buffers, keep their
+     * values until the appender is created again.
+     * @param configuration The new configuration
+     * @throws ApplicationException if unable to reconfigure the appender
+     */
+    public synchronized void reconfigure(
+        final AppenderConfig configuration) throws ApplicationException {
+
+        flush();
+
+        this.configuration = configuration;
+
+        configure();
+    }
+
     /**
      * Configure appender.
      * @throws ApplicationException if unable to configure the appender
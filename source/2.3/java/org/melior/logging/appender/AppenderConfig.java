@@ -7,6 +7,7 @@
         Service Harness
 */
 package org.melior.logging.appender;
+import org.melior.util.collection.WaitStrategy;
 
 /**
  * The configuration for the internal logging appenders.
@@ -29,12 +30,90 @@ public class AppenderConfig {
 
     private String format;
 
+    private boolean asyncEnabled;
+
+    private int asyncBufferSize;
+
+    private WaitStrategy asyncWaitStrategy;
+
+    private OverflowPolicy asyncOverflowPolicy;
+
+    private int fileBufferSize;
+
+    private int flushSize;
+
+    private long flushInterval;
+
+    private SyncPolicy syncPolicy;
+
+    private boolean memoryMapped;
+
+    private ArchiveCodec archiveCodec;
+
+    private int archiveThreads;
+
+    private int archiveBacklog;
+
+    private boolean consoleNonBlocking;
+
+    private int consoleBufferSize;
+
+    private OverflowPolicy consoleOverflowPolicy;
+
+    private int consoleBatchSize;
+
+    private TransactionFormat transactionFormat;
+
+    private boolean indexEnabled;
+
+    private long indexInterval;
+
+    private int indexBloomSize;
+
     /**
      * Constructor.
      */
     public AppenderConfig() {
 
         super();
+
+        asyncEnabled = false;
+
+        asyncBufferSize = 8192;
+
+        asyncWaitStrategy = WaitStrategy.BLOCKING;
+
+        asyncOverflowPolicy = OverflowPolicy.BLOCK;
+
+        fileBufferSize = 262144;
+
+        flushSize = 65536;
+
+        flushInterval = 200;
+
+        syncPolicy = SyncPolicy.NONE;
+
+        memoryMapped = false;
+
+        archiveThreads = 0;
+
+        archiveBacklog = 256;
+
+        consoleNonBlocking = false;
+
+        consoleBufferSize = 8192;
+
+        consoleOverflowPolicy = OverflowPolicy.DROP_ALL;
+
+        consoleBatchSize = 65536;
+
+        transactionFormat = TransactionFormat.TEXT;
+
+        indexEnabled = false;
+
+        indexInterval = 65536;
+
+        indexBloomSize = 131072;
     }
 
     /**
@@ -135,4 +214,284 @@ public class AppenderConfig {
         this.format = format;
     }
 
+    /**
+     * @return the asyncEnabled
+     */
+    public boolean isAsyncEnabled() {
+        return asyncEnabled;
+    }
+
+    /**
+     * @param asyncEnabled the asyncEnabled to set
+     */
+    public void setAsyncEnabled(boolean asyncEnabled) {
+        this.asyncEnabled = asyncEnabled;
+    }
+
+    /**
+     * @return the asyncBufferSize
+     */
+    public int getAsyncBufferSize() {
+        return asyncBufferSize;
+    }
+
+    /**
+     * @param asyncBufferSize the asyncBufferSize to set
+     */
+    public void setAsyncBufferSize(int asyncBufferSize) {
+        this.asyncBufferSize = asyncBufferSize;
+    }
+
+    /**
+     * @return the asyncWaitStrategy
+     */
+    public WaitStrategy getAsyncWaitStrategy() {
+        return asyncWaitStrategy;
+    }
+
+    /**
+     * @param asyncWaitStrategy the asyncWaitStrategy to set
+     */
+    public void setAsyncWaitStrategy(WaitStrategy asyncWaitStrategy) {
+        this.asyncWaitStrategy = asyncWaitStrategy;
+    }
+
+    /**
+     * @return the asyncOverflowPolicy
+     */
+    public OverflowPolicy getAsyncOverflowPolicy() {
+        return asyncOverflowPolicy;
+    }
+
+    /**
+     * @param asyncOverflowPolicy the asyncOverflowPolicy to set
+     */
+    public void setAsyncOverflowPolicy(OverflowPolicy asyncOverflowPolicy) {
+        this.asyncOverflowPolicy = asyncOverflowPolicy;
+    }
+
+    /**
+     * @return the fileBufferSize
+     */
+    public int getFileBufferSize() {
+        return fileBufferSize;
+    }
+
+    /**
+     * @param fileBufferSize the fileBufferSize to set
+     */
+    public void setFileBufferSize(int fileBufferSize) {
+        this.fileBufferSize = fileBufferSize;
+    }
+
+    /**
+     * @return the flushSize
+     */
+    public int getFlushSize() {
+        return flushSize;
+    }
+
+    /**
+     * @param flushSize the flushSize to set
+     */
+    public void setFlushSize(int flushSize) {
+        this.flushSize = flushSize;
+    }
+
+    /**
+     * @return the flushInterval
+     */
+    public long getFlushInterval() {
+        return flushInterval;
+    }
+
+    /**
+     * @param flushInterval the flushInterval to set
+     */
+    public void setFlushInterval(long flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    /**
+     * @return the syncPolicy
+     */
+    public SyncPolicy getSyncPolicy() {
+        return syncPolicy;
+    }
+
+    /**
+     * @param syncPolicy the syncPolicy to set
+     */
+    public void setSyncPolicy(SyncPolicy syncPolicy) {
+        this.syncPolicy = syncPolicy;
+    }
+
+    /**
+     * @return the memoryMapped
+     */
+    public boolean isMemoryMapped() {
+        return memoryMapped;
+    }
+
+    /**
+     * @param memoryMapped the memoryMapped to set
+     */
+    public void setMemoryMapped(boolean memoryMapped) {
+        this.memoryMapped = memoryMapped;
+    }
+
+    /**
+     * @return the archiveCodec
+     */
+    public ArchiveCodec getArchiveCodec() {
+        return archiveCodec;
+    }
+
+    /**
+     * @param archiveCodec the archiveCodec to set
+     */
+    public void setArchiveCodec(ArchiveCodec archiveCodec) {
+        this.archiveCodec = archiveCodec;
+    }
+
+    /**
+     * @return the archiveThreads
+     */
+    public int getArchiveThreads() {
+        return archiveThreads;
+    }
+
+    /**
+     * @param archiveThreads the archiveThreads to set
+     */
+    public void setArchiveThreads(int archiveThreads) {
+        this.archiveThreads = archiveThreads;
+    }
+
+    /**
+     * @return the archiveBacklog
+     */
+    public int getArchiveBacklog() {
+        return archiveBacklog;
+    }
+
+    /**
+     * @param archiveBacklog the archiveBacklog to set
+     */
+    public void setArchiveBacklog(int archiveBacklog) {
+        this.archiveBacklog = archiveBacklog;
+    }
+
+    /**
+     * @return the consoleNonBlocking
+     */
+    public boolean isConsoleNonBlocking() {
+        return consoleNonBlocking;
+    }
+
+    /**
+     * @param consoleNonBlocking the consoleNonBlocking to set
+     */
+    public void setConsoleNonBlocking(boolean consoleNonBlocking) {
+        this.consoleNonBlocking = consoleNonBlocking;
+    }
+
+    /**
+     * @return the consoleBufferSize
+     */
+    public int getConsoleBufferSize() {
+        return consoleBufferSize;
+    }
+
+    /**
+     * @param consoleBufferSize the consoleBufferSize to set
+     */
+    public void setConsoleBufferSize(int consoleBufferSize) {
+        this.consoleBufferSize = consoleBufferSize;
+    }
+
+    /**
+     * @return the consoleOverflowPolicy
+     */
+    public OverflowPolicy getConsoleOverflowPolicy() {
+        return consoleOverflowPolicy;
+    }
+
+    /**
+     * @param consoleOverflowPolicy the consoleOverflowPolicy to set
+     */
+    public void setConsoleOverflowPolicy(OverflowPolicy consoleOverflowPolicy) {
+        this.consoleOverflowPolicy = consoleOverflowPolicy;
+    }
+
+    /**
+     * @return the consoleBatchSize
+     */
+    public int getConsoleBatchSize() {
+        return consoleBatchSize;
+    }
+
+    /**
+     * @param consoleBatchSize the consoleBatchSize to set
+     */
+    public void setConsoleBatchSize(int consoleBatchSize) {
+        this.consoleBatchSize = consoleBatchSize;
+    }
+
+    /**
+     * @return the transactionFormat
+     */
+    public TransactionFormat getTransactionFormat() {
+        return transactionFormat;
+    }
+
+    /**
+     * @param transactionFormat the transactionFormat to set
+     */
+    public void setTransactionFormat(TransactionFormat transactionFormat) {
+        this.transactionFormat = transactionFormat;
+    }
+
+    /**
+     * @return the indexEnabled
+     */
+    public boolean isIndexEnabled() {
+        return indexEnabled;
+    }
+
+    /**
+     * @param indexEnabled the indexEnabled to set
+     */
+    public void setIndexEnabled(boolean indexEnabled) {
+        this.indexEnabled = indexEnabled;
+    }
+
+    /**
+     * @return the indexInterval
+     */
+    public long getIndexInterval() {
+        return indexInterval;
+    }
+
+    /**
+     * @param indexInterval the indexInterval to set
+     */
+    public void setIndexInterval(long indexInterval) {
+        this.indexInterval = indexInterval;
+    }
+
+    /**
+     * @return the indexBloomSize
+     */
+    public int getIndexBloomSize() {
+        return indexBloomSize;
+    }
+
+    /**
+     * @param indexBloomSize the indexBloomSize to set
+     */
+    public void setIndexBloomSize(int indexBloomSize) {
+        this.indexBloomSize = indexBloomSize;
+    }
+
 }
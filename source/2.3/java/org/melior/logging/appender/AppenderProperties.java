@@ -0,0 +1,80 @@
+/* __  __      _ _            
+  |  \/  |    | (_)           
+  | \  / | ___| |_  ___  _ __ 
+  | |\/| |/ _ \ | |/ _ \| '__|
+  | |  | |  __/ | | (_) | |   
+  |_|  |_|\___|_|_|\___/|_|   
+        Service Harness
+*/
+package org.melior.logging.appender;
+import java.util.function.Function;
+
+/**
+ * Gives an additional appender access to the properties that have been
+ * configured for it under {@code logging.appenders.<name>}.  The properties
+ * are looked up by the part of their name that follows the name of the
+ * appender, for example {@code port} for {@code logging.appenders.agent.port}.
+ * @author Melior
+ * @since 2.3
+ * @see Appender
+ */
+public class AppenderProperties {
+
+    private String name;
+
+    private Function<String, String> source;
+
+    /**
+     * Constructor.
+     * @param name The name of the appender
+     * @param source The function that looks up a property by its relative name
+     */
+    AppenderProperties(
+        final String name,
+        final Function<String, String> source) {
+
+        super();
+
+        this.name = name;
+
+        this.source = source;
+    }
+
+    /**
+     * Get instance of appender properties.
+     * @param name The name of the appender
+     * @param source The function that looks up a property by its relative name
+     * @return The appender properties
+     */
+    public static AppenderProperties of(
+        final String name,
+        final Function<String, String> source) {
+        return new AppenderProperties(name, source);
+    }
+
+    /**
+     * Get name of the appender.
+     * @return The name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get value of property.
+     * @param key The name of the property, relative to the name of the appender
+     * @param defaultValue The value to return if the property is not configured
+     * @return The value of the property, or the default value
+     */
+    public String getProperty(
+        final String key,
+        final String defaultValue) {
+
+        String value;
+
+        value = source.apply(key);
+
+        return ((value == null) || (value.trim().isEmpty() == true)) ? defaultValue : value.trim();
+    }
+
+}
@@ -0,0 +1,70 @@
+/* __  __      _ _            
+  |  \/  |    | (_)           
+  | \  / | ___| |_  ___  _ __ 
+  | |\/| |/ _ \ | |/ _ \| '__|
+  | |  | |  __/ | | (_) | |   
+  |_|  |_|\___|_|_|\___/|_|   
+        Service Harness
+*/
+package org.melior.logging.appender;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+
+/**
+ * Compresses log files when they are archived.  A codec wraps the output
+ * stream of the archive file, so that the bytes of the log file are compressed
+ * as they are written to the archive file.  Custom codecs may be plugged in by
+ * implementing this interface.
+ * @author Melior
+ * @since 2.3
+ * @see FileArchiver
+ */
+public interface ArchiveCodec {
+
+    /**
+     * Get file extension of archive files.
+     * @return The file extension
+     */
+    public String getExtension();
+
+    /**
+     * Wrap output stream of archive file in compressing output stream.
+     * @param outputStream The output stream of the archive file
+     * @param entryName The name of the log file
+     * @return The compressing output stream
+     * @throws IOException if unable to wrap the output stream
+     */
+    public OutputStream wrap(
+        final OutputStream outputStream,
+        final String entryName) throws IOException;
+
+    /**
+     * Get instance of zip codec.
+     * @return The zip codec
+     * @see ZipArchiveCodec
+     */
+    public static ArchiveCodec ofZip() {
+        return new ZipArchiveCodec(Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Get instance of gzip codec.
+     * @return The gzip codec
+     * @see GzipArchiveCodec
+     */
+    public static ArchiveCodec ofGzip() {
+        return new GzipArchiveCodec(Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Get instance of fast codec.  Produces zip archives at the fastest
+     * compression level, which trades archive size for throughput.
+     * @return The fast codec
+     * @see ZipArchiveCodec
+     */
+    public static ArchiveCodec ofFast() {
+        return new ZipArchiveCodec(Deflater.BEST_SPEED);
+    }
+
+}
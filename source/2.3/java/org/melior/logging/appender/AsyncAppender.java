@@ -0,0 +1,499 @@
+/* __  __      _ _            
+  |  \/  |    | (_)           
+  | \  / | ___| |_  ___  _ __ 
+  | |\/| |/ _ \ | |/ _ \| '__|
+  | |  | |  __/ | | (_) | |   
+  |_|  |_|\___|_|_|\___/|_|   
+        Service Harness
+*/
+package org.melior.logging.appender;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.melior.context.transaction.Argument;
+import org.melior.context.transaction.ContextMap;
+import org.melior.service.exception.ApplicationException;
+import org.melior.util.collection.Queue;
+import org.melior.util.collection.RingBuffer;
+import org.melior.util.number.StripedCounter;
+import org.melior.util.thread.DaemonThread;
+import org.melior.util.thread.ThreadControl;
+import org.springframework.boot.logging.LogLevel;
+
+/**
+ * Implementation of internal appender that hands the logging events over to
+ * another appender asynchronously.  The caller copies the event into a
+ * pre-allocated slot of a bounded lock-free ring buffer and returns immediately.
+ * A single consumer thread per stream takes the events from the ring buffer in
+ * order and writes them with the other appender.  When the ring buffer is full,
+ * the overflow policy decides whether the caller waits for capacity to become
+ * available or whether the event is dropped.  The other appender is notified
+ * whenever the ring buffer has been drained, so that it may write the events
+ * that it has received as a single batch.
+ * <p>
+ * The message parts of a trace event are written after the caller has returned,
+ * so the message parts that are not immutable are converted to strings by the
+ * caller before the event is copied into the ring buffer.
+ * @author Melior
+ * @since 2.3
+ * @see Appender
+ * @see OverflowPolicy
+ */
+public class AsyncAppender extends Appender {
+
+    private static final int LOGGING_LEVEL_DEBUG = LogLevel.DEBUG.ordinal();
+
+    private static final long DRAIN_TIMEOUT = 2000;
+
+    private Appender appender;
+
+    private RingBuffer<Event> ringBuffer;
+
+    private OverflowPolicy overflowPolicy;
+
+    private StripedCounter droppedEvents;
+
+    private StripedCounter blockedEvents;
+
+    private StripedCounter failedEvents;
+
+    /**
+     * Constructor.
+     * @param stream The stream
+     * @param configuration The configuration
+     * @param appender The appender to hand the logging events over to
+     * @throws ApplicationException if an error occurs during the construction
+     */
+    public AsyncAppender(
+        final Stream stream,
+        final AppenderConfig configuration,
+        final Appender appender) throws ApplicationException {
+
+        this(stream, configuration, appender, configuration.getAsyncBufferSize(), configuration.getAsyncOverflowPolicy());
+    }
+
+    /**
+     * Constructor.
+     * @param stream The stream
+     * @param configuration The configuration
+     * @param appender The appender to hand the logging events over to
+     * @param bufferSize The size of the ring buffer
+     * @param overflowPolicy The overflow policy
+     * @throws ApplicationException if an error occurs during the construction
+     */
+    public AsyncAppender(
+        final Stream stream,
+        final AppenderConfig configuration,
+        final Appender appender,
+        final int bufferSize,
+        final OverflowPolicy overflowPolicy) throws ApplicationException {
+
+        super(stream, configuration);
+
+        this.appender = appender;
+
+        ringBuffer = Queue.ofRing(bufferSize, () -> new Event(), configuration.getAsyncWaitStrategy());
+
+        this.overflowPolicy = overflowPolicy;
+
+        droppedEvents = StripedCounter.of();
+
+        blockedEvents = StripedCounter.of();
+
+        failedEvents = StripedCounter.of();
+
+        DaemonThread.create(() -> consumeEvents());
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> drainEvents()));
+    }
+
+    /**
+     * Write trace event to log.
+     * @param day The day
+     * @param timestamp The timestamp
+     * @param loggingLevel The logging level
+     * @param hostName The host name
+     * @param threadId The thread identifier
+     * @param transactionId The transaction identifier
+     * @param location The location [caller]
+     * @param messageParts The message parts
+     * @param contextMap The diagnostic context map
+     * @param throwable The throwable
+     */
+    public void write(
+        final int day,
+        final String timestamp,
+        final LogLevel loggingLevel,
+        final String hostName,
+        final String threadId,
+        final String transactionId,
+        final String location,
+        final Object[] messageParts,
+        final ContextMap contextMap,
+        final Throwable throwable) {
+
+        Object[] snapshot;
+        long sequence;
+        Event event;
+
+        snapshot = LogEvent.snapshot(messageParts);
+
+        sequence = ringBuffer.tryClaim();
+
+        if (sequence < 0) {
+
+            if ((overflowPolicy == OverflowPolicy.DROP_ALL)
+                || ((overflowPolicy == OverflowPolicy.DROP_DEBUG) && (loggingLevel.ordinal() <= LOGGING_LEVEL_DEBUG))) {
+
+                droppedEvents.increment();
+
+                return;
+            }
+
+            blockedEvents.increment();
+
+            sequence = ringBuffer.claim();
+        }
+
+        event = ringBuffer.get(sequence);
+        event.transaction = false;
+        event.day = day;
+        event.timestamp = timestamp;
+        event.loggingLevel = loggingLevel;
+        event.hostName = hostName;
+        event.threadId = threadId;
+        event.transactionId = transactionId;
+        event.location = location;
+        event.messageParts = snapshot;
+        event.contextMap = contextMap;
+        event.throwable = throwable;
+
+        ringBuffer.publish(sequence);
+    }
+
+    /**
+     * Write transaction event to log.
+     * @param day The day
+     * @param timestamp The timestamp
+     * @param hostName The host name
+     * @param threadId The thread identifier
+     * @param transactionId The transaction identifier
+     * @param location The location [caller]
+     * @param transactionType The transaction type
+     * @param status The transaction status
+     * @param duration The transaction duration
+     * @param argumentList The transaction argument list
+     * @param stackTracePrefix The stack trace prefix
+     * @param throwable The throwable
+     */
+    public void write(
+        final int day,
+        final String timestamp,
+        final String hostName,
+        final String threadId,
+        final String transactionId,
+        final String location,
+        final String transactionType,
+        final String status,
+        final long duration,
+        final List<Argument> argumentList,
+        final String stackTracePrefix,
+        final Throwable throwable) {
+
+        long sequence;
+        Event event;
+
+        sequence = ringBuffer.tryClaim();
+
+        if (sequence < 0) {
+
+            if (overflowPolicy == OverflowPolicy.DROP_ALL) {
+
+                droppedEvents.increment();
+
+                return;
+            }
+
+            blockedEvents.increment();
+
+            sequence = ringBuffer.claim();
+        }
+
+        event = ringBuffer.get(sequence);
+        event.transaction = true;
+        event.day = day;
+        event.timestamp = timestamp;
+        event.hostName = hostName;
+        event.threadId = threadId;
+        event.transactionId = transactionId;
+        event.location = location;
+        event.transactionType = transactionType;
+        event.status = status;
+        event.duration = duration;
+        event.setArguments(argumentList);
+        event.stackTracePrefix = stackTracePrefix;
+        event.throwable = throwable;
+
+        ringBuffer.publish(sequence);
+    }
+
+    /**
+     * Write record to log.  The slot only holds a reference to a snapshot
+     * of the record, which is the record itself if its message parts are
+     * immutable.
+     * @param record The record
+     */
+    public void write(
+        final LogEvent record) {
+
+        LogEvent snapshot;
+        long sequence;
+        Event event;
+
+        snapshot = record.snapshot();
+
+        sequence = ringBuffer.tryClaim();
+
+        if (sequence < 0) {
+
+            if ((overflowPolicy == OverflowPolicy.DROP_ALL)
+                || ((overflowPolicy == OverflowPolicy.DROP_DEBUG) && (record.isTransaction() == false)
+                && (record.getLoggingLevel().ordinal() <= LOGGING_LEVEL_DEBUG))) {
+
+                droppedEvents.increment();
+
+                return;
+            }
+
+            blockedEvents.increment();
+
+            sequence = ringBuffer.claim();
+        }
+
+        event = ringBuffer.get(sequence);
+        event.record = snapshot;
+
+        ringBuffer.publish(sequence);
+    }
+
+    /**
+     * Take events from the ring buffer and write them with the appender.
+     * The appender is notified at the end of each batch of events.  An event
+     * that the appender fails to write is counted and skipped, so that a broken
+     * appender cannot stop the consumer.  This includes errors, such as a stack
+     * overflow in the string conversion of a message part, as the callers would
+     * otherwise wait for capacity forever once the consumer has stopped.
+     */
+    private void consumeEvents() {
+
+        Event event;
+
+        while (true) {
+
+            event = ringBuffer.take();
+
+            try {
+
+                if (event.record != null) {
+
+                    appender.write(event.record);
+                }
+                else if (event.transaction == true) {
+
+                    appender.write(event.day, event.timestamp, event.hostName, event.threadId, event.transactionId,
+                        event.location, event.transactionType, event.status, event.duration, event.argumentList,
+                        event.stackTracePrefix, event.throwable);
+                }
+                else {
+
+                    appender.write(event.day, event.timestamp, event.loggingLevel, event.hostName, event.threadId,
+                        event.transactionId, event.location, event.messageParts, event.contextMap, event.throwable);
+                }
+
+            }
+            catch (Throwable throwable) {
+
+                failedEvents.increment();
+            }
+            finally {
+
+                event.messageParts = null;
+                event.contextMap = null;
+                event.throwable = null;
+                event.record = null;
+
+                ringBuffer.release();
+            }
+
+            if (ringBuffer.poll() == null) {
+
+                try {
+
+                    appender.endOfBatch();
+                }
+                catch (Throwable throwable) {
+
+                    failedEvents.increment();
+                }
+
+            }
+
+        }
+
+    }
+
+    /**
+     * Wait for the consumer to write the outstanding events when the JVM
+     * terminates, then flush the events that the appender has buffered.
+     */
+    private void drainEvents() {
+
+        long deadline;
+
+        deadline = System.currentTimeMillis() + DRAIN_TIMEOUT;
+
+        while ((ringBuffer.isEmpty() == false) && (System.currentTimeMillis() < deadline)) {
+
+            ThreadControl.sleep(1, TimeUnit.MILLISECONDS);
+        }
+
+        appender.flush();
+    }
+
+    /**
+     * Reconfigure the appender that writes the events.  The ring buffer keeps
+     * its size, wait strategy and overflow policy.  The events that are waiting
+     * in the ring buffer are not lost, they are written with the new settings.
+     * @param configuration The new configuration
+     * @throws ApplicationException if unable to reconfigure the appender
+     */
+    public void reconfigure(
+        final AppenderConfig configuration) throws ApplicationException {
+
+        this.configuration = configuration;
+
+        appender.reconfigure(configuration);
+    }
+
+    /**
+     * Get appender that writes the events.
+     * @return The appender
+     */
+    public Appender getAppender() {
+        return appender;
+    }
+
+    /**
+     * Get number of events that are waiting to be written.
+     * @return The queue depth
+     */
+    public int getQueueDepth() {
+        return ringBuffer.size();
+    }
+
+    /**
+     * Get capacity of the ring buffer.
+     * @return The capacity
+     */
+    public int getQueueCapacity() {
+        return ringBuffer.capacity();
+    }
+
+    /**
+     * Get number of events that have been dropped because the ring buffer was full.
+     * @return The number of dropped events
+     */
+    public long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    /**
+     * Get number of events whose caller had to wait because the ring buffer was full.
+     * @return The number of blocked events
+     */
+    public long getBlockedEvents() {
+        return blockedEvents.get();
+    }
+
+    /**
+     * Get number of events that could not be written because the appender failed.
+     * Failures at the end of a batch are counted once for the batch.
+     * @return The number of failed events
+     */
+    public long getFailedEvents() {
+        return failedEvents.get();
+    }
+
+    /**
+     * A pre-allocated slot in the ring buffer.
+     */
+    private static class Event {
+
+        private boolean transaction;
+
+        private int day;
+
+        private String timestamp;
+
+        private LogLevel loggingLevel;
+
+        private String hostName;
+
+        private String threadId;
+
+        private String transactionId;
+
+        private String location;
+
+        private Object[] messageParts;
+
+        private ContextMap contextMap;
+
+        private String transactionType;
+
+        private String status;
+
+        private long duration;
+
+        private List<Argument> argumentList = new ArrayList<Argument>();
+
+        private List<Argument> argumentPool = new ArrayList<Argument>();
+
+        private String stackTracePrefix;
+
+        private Throwable throwable;
+
+        private LogEvent record;
+
+        /**
+         * Copy transaction arguments into the slot.  The transaction context
+         * may be reset before the event is written, so the arguments are copied
+         * into argument objects that belong to the slot.
+         * @param arguments The transaction arguments
+         */
+        private void setArguments(
+            final List<Argument> arguments) {
+
+            Argument argument;
+
+            argumentList.clear();
+
+            for (int i = 0; i < arguments.size(); i++) {
+
+                if (i == argumentPool.size()) {
+
+                    argumentPool.add(new Argument());
+                }
+
+                argument = argumentPool.get(i);
+                argument.setName(arguments.get(i).getName());
+                argument.setValue(arguments.get(i).getValue());
+
+                argumentList.add(argument);
+            }
+
+        }
+
+    }
+
+}
@@ -0,0 +1,581 @@
+/* __  __      _ _            
+  |  \/  |    | (_)           
+  | \  / | ___| |_  ___  _ __ 
+  | |\/| |/ _ \ | |/ _ \| '__|
+  | |  | |  __/ | | (_) | |   
+  |_|  |_|\___|_|_|\___/|_|   
+        Service Harness
+*/
+package org.melior.logging.appender;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.melior.context.transaction.Argument;
+import org.melior.context.transaction.ContextMap;
+import org.melior.logging.encoder.BinaryEncoder;
+import org.melior.service.exception.ApplicationException;
+import org.melior.util.exception.StackTrace;
+import org.springframework.boot.logging.LogLevel;
+
+/**
+ * Implementation of internal appender that logs transactions to files in a
+ * compact binary format.  Each file starts with a header, which is followed by
+ * a sequence of frames.  Each frame consists of a type byte, the length of the
+ * payload as four bytes in big-endian order, and the payload.
+ * <p>
+ * Strings that repeat from one transaction to the next, such as the host name,
+ * the thread identifier, the location, the transaction type, the status and the
+ * argument names, are replaced by references to a dictionary.  Each dictionary
+ * entry is defined in a frame of its own the first time that the string is used
+ * in a file, so that the dictionary of a file can be rebuilt by skipping from one
+ * definition frame to the next.  Timestamps and durations are encoded as
+ * variable-length integers.
+ * <p>
+ * The dictionary identifiers are assigned once per appender, so transactions
+ * are encoded by the writer threads in parallel.  Only the check whether the
+ * referenced dictionary entries have been defined in the current file is made
+ * under the lock of the appender, together with the write itself.
+ * <p>
+ * The files may be decoded to text or JSON with the {@code BinaryLogDecoder}.
+ * Trace events are not written by this appender.
+ * @author Melior
+ * @since 2.3
+ * @see FileAppender
+ * @see BinaryLogReader
+ */
+public class BinaryFileAppender extends FileAppender {
+
+    static final byte[] MAGIC = {'M', 'T', 'R', 'X'};
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 5;
+
+    static final int FRAME_DEFINITION = 1;
+    static final int FRAME_TRANSACTION = 2;
+    static final int FRAME_HEADER_SIZE = 5;
+
+    private static final int MAX_DICTIONARY_SIZE = 65536;
+    private static final int MAX_DICTIONARY_STRING = 256;
+
+    private static final ThreadLocal<Frame> frames = ThreadLocal.withInitial(() -> new Frame());
+
+    private Map<String, Integer> dictionary;
+
+    private AtomicInteger lastId;
+
+    private BitSet definedIds;
+
+    private BinaryEncoder definitionEncoder;
+
+    private boolean newFile;
+
+    /**
+     * Constructor.
+     * @param stream The stream
+     * @param configuration The configuration
+     * @throws ApplicationException if an error occurs during the construction
+     */
+    public BinaryFileAppender(
+        final Stream stream,
+        final AppenderConfig configuration) throws ApplicationException {
+
+        super(stream, configuration);
+
+        dictionary = new ConcurrentHashMap<String, Integer>();
+
+        lastId = new AtomicInteger(0);
+
+        definedIds = new BitSet();
+
+        definitionEncoder = new BinaryEncoder();
+
+        newFile = false;
+    }
+
+    /**
+     * Write trace event to log.  Trace events are not written to binary transaction logs.
+     * @param day The day
+     * @param timestamp The timestamp
+     * @param loggingLevel The logging level
+     * @param hostName The host name
+     * @param threadId The thread identifier
+     * @param transactionId The transaction identifier
+     * @param location The location [caller]
+     * @param messageParts The message parts
+     * @param contextMap The diagnostic context map
+     * @param throwable The throwable
+     */
+    public void write(
+        final int day,
+        final String timestamp,
+        final LogLevel loggingLevel,
+        final String hostName,
+        final String threadId,
+        final String transactionId,
+        final String location,
+        final Object[] messageParts,
+        final ContextMap contextMap,
+        final Throwable throwable) {
+    }
+
+    /**
+     * Write transaction event to log.
+     * @param day The day
+     * @param timestamp The timestamp
+     * @param hostName The host name
+     * @param threadId The thread identifier
+     * @param transactionId The transaction identifier
+     * @param location The location [caller]
+     * @param transactionType The transaction type
+     * @param status The transaction status
+     * @param duration The transaction duration
+     * @param argumentList The transaction argument list
+     * @param stackTracePrefix The stack trace prefix
+     * @param throwable The throwable
+     */
+    public void write(
+        final int day,
+        final String timestamp,
+        final String hostName,
+        final String threadId,
+        final String transactionId,
+        final String location,
+        final String transactionType,
+        final String status,
+        final long duration,
+        final List<Argument> argumentList,
+        final String stackTracePrefix,
+        final Throwable throwable) {
+
+        Frame frame;
+
+        frame = frames.get().reset();
+
+        encodeTransaction(frame, timestamp, hostName, threadId, transactionId, location, transactionType, status,
+            duration, argumentList, stackTracePrefix, (throwable == null) ? null : StackTrace.getMinimal(throwable));
+
+        writeFrame(day, frame, throwable != null, timestamp, transactionId);
+    }
+
+    /**
+     * Write record to log.  Only transaction records are written.
+     * @param record The record
+     */
+    public void write(
+        final LogEvent record) {
+
+        Frame frame;
+
+        if (record.isTransaction() == false) {
+            return;
+        }
+
+        frame = frames.get().reset();
+
+        encodeTransaction(frame, record.getTimestamp(), record.getHostName(), record.getThreadId(),
+            record.getTransactionId(), record.getLocation(), record.getTransactionType(), record.getStatus(),
+            record.getDuration(), record.getArgumentList(), record.getStackTracePrefix(),
+            (record.getThrowable() == null) ? null : record.getMinimalStackTrace());
+
+        writeFrame(record.getDay(), frame, record.getThrowable() != null, record.getTimestamp(), record.getTransactionId());
+    }
+
+    /**
+     * Encode transaction event as a transaction frame.
+     * @param frame The frame
+     * @param timestamp The timestamp
+     * @param hostName The host name
+     * @param threadId The thread identifier
+     * @param transactionId The transaction identifier
+     * @param location The location [caller]
+     * @param transactionType The transaction type
+     * @param status The transaction status
+     * @param duration The transaction duration
+     * @param argumentList The transaction argument list
+     * @param stackTracePrefix The stack trace prefix
+     * @param stackTrace The rendered stack trace, or null if there is no throwable
+     */
+    private void encodeTransaction(
+        final Frame frame,
+        final String timestamp,
+        final String hostName,
+        final String threadId,
+        final String transactionId,
+        final String location,
+        final String transactionType,
+        final String status,
+        final long duration,
+        final List<Argument> argumentList,
+        final String stackTracePrefix,
+        final String stackTrace) {
+
+        BinaryEncoder encoder;
+
+        encoder = frame.encoder;
+
+        encoder.appendByte(FRAME_TRANSACTION).appendInt(0)
+            .appendVarLong(FileIndex.packTimestamp(timestamp));
+
+        appendReference(frame, hostName);
+        appendReference(frame, threadId);
+        encoder.appendString(transactionId);
+        appendReference(frame, location);
+        appendReference(frame, transactionType);
+        appendReference(frame, status);
+        encoder.appendVarLong(duration).appendVarLong(argumentList.size());
+
+        for (int i = 0; i < argumentList.size(); i++) {
+
+            appendReference(frame, argumentList.get(i).getName());
+            encoder.appendString(argumentList.get(i).getValue());
+        }
+
+        if (stackTrace == null) {
+
+            encoder.appendByte(0);
+        }
+        else {
+
+            encoder.appendByte(1);
+            appendReference(frame, stackTracePrefix);
+            encoder.appendString(stackTrace);
+        }
+
+        encoder.setInt(1, encoder.length() - FRAME_HEADER_SIZE);
+    }
+
+    /**
+     * Encode reference to string.  A string in the dictionary is encoded as its
+     * dictionary identifier, and is added to the dictionary first if it is not in
+     * the dictionary yet.  Strings that are too long, or that no longer fit in the
+     * dictionary, are encoded as zero, followed by the string itself.
+     * @param frame The frame
+     * @param value The string
+     */
+    private void appendReference(
+        final Frame frame,
+        final String value) {
+
+        Integer id;
+
+        if ((value == null) || (value.length() > MAX_DICTIONARY_STRING)) {
+
+            frame.encoder.appendVarLong(0).appendString(value);
+
+            return;
+        }
+
+        id = dictionary.get(value);
+
+        if (id == null) {
+
+            if (dictionary.size() >= MAX_DICTIONARY_SIZE) {
+
+                frame.encoder.appendVarLong(0).appendString(value);
+
+                return;
+            }
+
+            id = dictionary.computeIfAbsent(value, (key) -> lastId.incrementAndGet());
+        }
+
+        frame.addReference(id, value);
+
+        frame.encoder.appendVarLong(id);
+    }
+
+    /**
+     * Write transaction frame to the current file.  The dictionary entries that
+     * the frame refers to, and that have not been defined in the current file yet,
+     * are defined first.  The file is prepared under the lock of the appender, so
+     * that the definitions and the frame always end up in the same file.  The time
+     * spent waiting for the lock is added to the lock wait time of the appender.
+     * @param day The day
+     * @param frame The frame
+     * @param flush true if the write buffer must be committed straight away, false otherwise
+     * @param timestamp The timestamp
+     * @param transactionId The transaction identifier
+     */
+    private void writeFrame(
+        final int day,
+        final Frame frame,
+        final boolean flush,
+        final String timestamp,
+        final String transactionId) {
+
+        long startTime;
+        int start;
+
+        startTime = System.nanoTime();
+
+        synchronized (this) {
+
+            addLockWaitTime(System.nanoTime() - startTime);
+
+            if (prepareFile(day, timestamp) == false) {
+                return;
+            }
+
+            definitionEncoder.reset();
+
+            if (newFile == true) {
+
+                definitionEncoder.appendBytes(MAGIC);
+                definitionEncoder.appendByte(VERSION);
+
+                newFile = false;
+            }
+
+            for (int i = 0; i < frame.referenceCount; i++) {
+
+                if (definedIds.get(frame.ids[i]) == false) {
+
+                    definedIds.set(frame.ids[i]);
+
+                    start = definitionEncoder.length();
+
+                    definitionEncoder.appendByte(FRAME_DEFINITION).appendInt(0)
+                        .appendVarLong(frame.ids[i]).appendString(frame.values[i]);
+
+                    definitionEncoder.setInt(start + 1, definitionEncoder.length() - start - FRAME_HEADER_SIZE);
+                }
+
+            }
+
+            if (definitionEncoder.length() > 0) {
+
+                write(definitionEncoder.buffer(), false);
+            }
+
+            write(frame.encoder.buffer(), flush, timestamp, transactionId);
+        }
+
+    }
+
+    /**
+     * Make file the current file.  The dictionary entries are marked as not
+     * defined, as each file holds its own definitions, and the header is written
+     * with the first transaction.
+     * @param channel The file channel
+     * @throws IOException if unable to activate the file
+     */
+    protected void activateFile(
+        final FileChannel channel) throws IOException {
+
+        super.activateFile(channel);
+
+        definedIds.clear();
+
+        newFile = true;
+    }
+
+    /**
+     * Recover file that has been orphaned by service termination.  Bytes that
+     * follow the last complete frame are truncated from the file, as is a frame
+     * of unknown type and anything that follows it, such as a tail of zeros.  A
+     * file that does not start with a complete and valid header is truncated to
+     * nothing.
+     * @param file The file
+     */
+    protected void recoverFile(
+        final File file) {
+
+        FileChannel channel;
+        ByteBuffer buffer;
+        long size;
+        long position;
+        long next;
+        int type;
+
+        try {
+
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+            try {
+
+                size = channel.size();
+
+                buffer = ByteBuffer.allocate(Math.max(HEADER_SIZE, FRAME_HEADER_SIZE));
+
+                position = (isHeaderValid(channel, buffer) == true) ? HEADER_SIZE : 0;
+
+                while ((position > 0) && (position < size)) {
+
+                    if (read(channel, buffer, position, FRAME_HEADER_SIZE) == false) {
+                        break;
+                    }
+
+                    type = buffer.get(0);
+
+                    if ((type != FRAME_DEFINITION) && (type != FRAME_TRANSACTION)) {
+                        break;
+                    }
+
+                    next = position + FRAME_HEADER_SIZE + (buffer.getInt(1) & 0xFFFFFFFFL);
+
+                    if (next > size) {
+                        break;
+                    }
+
+                    position = next;
+                }
+
+                if (position < size) {
+
+                    channel.truncate(position);
+                }
+
+            }
+            finally {
+
+                channel.close();
+            }
+
+        }
+        catch (Exception exception) {
+        }
+
+    }
+
+    /**
+     * Indicate whether file starts with the magic number and version of the binary format.
+     * @param channel The file channel
+     * @param buffer The buffer to read into
+     * @return true if the header is valid, false otherwise
+     * @throws IOException if unable to read the file
+     */
+    private boolean isHeaderValid(
+        final FileChannel channel,
+        final ByteBuffer buffer) throws IOException {
+
+        if (read(channel, buffer, 0, HEADER_SIZE) == false) {
+            return false;
+        }
+
+        for (int i = 0; i < MAGIC.length; i++) {
+
+            if (buffer.get(i) != MAGIC[i]) {
+                return false;
+            }
+
+        }
+
+        return buffer.get(MAGIC.length) == VERSION;
+    }
+
+    /**
+     * Read given number of bytes from file into the start of the buffer.
+     * @param channel The file channel
+     * @param buffer The buffer to read into
+     * @param position The position in the file
+     * @param length The number of bytes
+     * @return true if the bytes were read, false if the file ends before them
+     * @throws IOException if unable to read the file
+     */
+    private boolean read(
+        final FileChannel channel,
+        final ByteBuffer buffer,
+        final long position,
+        final int length) throws IOException {
+
+        buffer.clear().limit(length);
+
+        while (buffer.hasRemaining() == true) {
+
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                return false;
+            }
+
+        }
+
+        return true;
+    }
+
+    /**
+     * Get file extension of the files that the appender writes to.
+     * @return The file extension
+     */
+    protected String getFileExtension() {
+        return stream.getExtension() + "b";
+    }
+
+    /**
+     * A transaction frame that is encoded by a writer thread, with the
+     * dictionary entries that it refers to.
+     */
+    private static class Frame {
+
+        private BinaryEncoder encoder;
+
+        private int[] ids;
+
+        private String[] values;
+
+        private int referenceCount;
+
+        /**
+         * Constructor.
+         */
+        private Frame() {
+
+            super();
+
+            encoder = new BinaryEncoder();
+
+            ids = new int[16];
+
+            values = new String[16];
+
+            referenceCount = 0;
+        }
+
+        /**
+         * Clear frame for the next transaction.
+         * @return The frame
+         */
+        private Frame reset() {
+
+            encoder.reset();
+
+            for (int i = 0; i < referenceCount; i++) {
+                values[i] = null;
+            }
+
+            referenceCount = 0;
+
+            return this;
+        }
+
+        /**
+         * Add dictionary entry that the frame refers to.
+         * @param id The dictionary identifier
+         * @param value The string
+         */
+        private void addReference(
+            final int id,
+            final String value) {
+
+            if (referenceCount == ids.length) {
+
+                ids = Arrays.copyOf(ids, ids.length * 2);
+
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+
+            ids[referenceCount] = id;
+
+            values[referenceCount] = value;
+
+            referenceCount++;
+        }
+
+    }
+
+}
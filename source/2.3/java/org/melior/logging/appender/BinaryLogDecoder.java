@@ -0,0 +1,262 @@
+/* __  __      _ _            
+  |  \/  |    | (_)           
+  | \  / | ___| |_  ___  _ __ 
+  | |\/| |/ _ \ | |/ _ \| '__|
+  | |  | |  __/ | | (_) | |   
+  |_|  |_|\___|_|_|\___/|_|   
+        Service Harness
+*/
+package org.melior.logging.appender;
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import org.melior.context.transaction.Argument;
+import org.melior.logging.encoder.JsonEncoder;
+
+/**
+ * Decodes binary transaction logs offline, to the text format of the
+ * transaction logs or to JSON with one object per line.  The files may
+ * be binary transaction logs or archives of them in zip or gzip format.
+ * <pre>
+ * java org.melior.logging.appender.BinaryLogDecoder [--json] file...
+ * </pre>
+ * The decoded transactions are written to the standard output.
+ * @author Melior
+ * @since 2.3
+ * @see BinaryLogReader
+ */
+public class BinaryLogDecoder {
+
+    private OutputStream outputStream;
+
+    private boolean json;
+
+    private JsonEncoder encoder;
+
+    /**
+     * Constructor.
+     * @param outputStream The output stream
+     * @param json true to decode to JSON, false to decode to text
+     */
+    BinaryLogDecoder(
+        final OutputStream outputStream,
+        final boolean json) {
+
+        super();
+
+        this.outputStream = outputStream;
+
+        this.json = json;
+
+        encoder = new JsonEncoder();
+    }
+
+    /**
+     * Get instance of binary log decoder.
+     * @param outputStream The output stream
+     * @param json true to decode to JSON, false to decode to text
+     * @return The binary log decoder
+     */
+    public static BinaryLogDecoder of(
+        final OutputStream outputStream,
+        final boolean json) {
+        return new BinaryLogDecoder(outputStream, json);
+    }
+
+    /**
+     * Decode binary transaction logs to the standard output.
+     * @param arguments The command line arguments
+     */
+    public static void main(
+        final String[] arguments) {
+
+        BinaryLogDecoder decoder;
+        boolean json;
+        int first;
+
+        json = (arguments.length > 0) && ("--json".equals(arguments[0]) == true);
+
+        first = (json == true) ? 1 : 0;
+
+        if (arguments.length <= first) {
+
+            System.err.println("Usage: BinaryLogDecoder [--json] file...");
+
+            System.exit(1);
+        }
+
+        decoder = of(new FileOutputStream(FileDescriptor.out), json);
+
+        for (int i = first; i < arguments.length; i++) {
+
+            try {
+
+                decoder.decode(new File(arguments[i]));
+            }
+            catch (IOException exception) {
+
+                System.err.println(arguments[i] + ": " + exception.getMessage());
+
+                System.exit(1);
+            }
+
+        }
+
+    }
+
+    /**
+     * Decode binary transaction log.
+     * @param file The file
+     * @return The number of transactions that were decoded
+     * @throws IOException if unable to read the file or to write the output
+     */
+    public long decode(
+        final File file) throws IOException {
+
+        try (BinaryLogReader reader = BinaryLogReader.of(file)) {
+
+            return decode(reader);
+        }
+
+    }
+
+    /**
+     * Decode the remaining transactions of a binary log reader.
+     * @param reader The binary log reader
+     * @return The number of transactions that were decoded
+     * @throws IOException if unable to read the log or to write the output
+     */
+    public long decode(
+        final BinaryLogReader reader) throws IOException {
+
+        long count;
+
+        count = 0;
+
+        while (reader.next() == true) {
+
+            write(reader);
+
+            count++;
+        }
+
+        flush();
+
+        return count;
+    }
+
+    /**
+     * Decode the current transaction of a binary log reader.  The output
+     * is buffered until it is large enough or until it is flushed.
+     * @param reader The binary log reader
+     * @throws IOException if unable to write the output
+     */
+    public void write(
+        final BinaryLogReader reader) throws IOException {
+
+        if (json == true) {
+
+            encodeJson(reader);
+        }
+        else {
+
+            encodeText(reader);
+        }
+
+        if (encoder.length() >= 65536) {
+
+            flush();
+        }
+
+    }
+
+    /**
+     * Write buffered output to the output stream.
+     * @throws IOException if unable to write the output
+     */
+    public void flush() throws IOException {
+
+        outputStream.write(encoder.bytes(), 0, encoder.length());
+
+        outputStream.flush();
+
+        encoder.reset();
+    }
+
+    /**
+     * Encode transaction in the text format of the transaction logs.
+     * @param reader The binary log reader
+     */
+    private void encodeText(
+        final BinaryLogReader reader) {
+
+        List<Argument> argumentList;
+
+        encoder.append(reader.getTimestamp()).append(", ")
+            .append(reader.getHostName()).append(", ").append(reader.getThreadId()).append(", ")
+            .append(reader.getTransactionId()).append(", ").append(reader.getLocation()).append(", ")
+            .append(reader.getTransactionType()).append(", ").append(reader.getStatus()).append(", ")
+            .append(reader.getDuration());
+
+        argumentList = reader.getArgumentList();
+
+        for (int i = 0; i < argumentList.size(); i++) {
+            encoder.append(", ").append(argumentList.get(i).getName())
+                .append(", ").append(argumentList.get(i).getValue());
+        }
+
+        if (reader.getStackTrace() != null) {
+
+            encoder.append(", ").append(reader.getStackTracePrefix()).append(reader.getStackTrace());
+        }
+
+        encoder.appendLine();
+    }
+
+    /**
+     * Encode transaction as a JSON object on a single line.
+     * @param reader The binary log reader
+     */
+    private void encodeJson(
+        final BinaryLogReader reader) {
+
+        List<Argument> argumentList;
+
+        encoder.beginObject()
+            .appendField("timestamp", reader.getTimestamp()).appendSeparator()
+            .appendField("hostName", reader.getHostName()).appendSeparator()
+            .appendField("threadId", reader.getThreadId()).appendSeparator()
+            .appendField("transactionId", reader.getTransactionId()).appendSeparator()
+            .appendField("location", reader.getLocation()).appendSeparator()
+            .appendField("transactionType", reader.getTransactionType()).appendSeparator()
+            .appendField("status", reader.getStatus()).appendSeparator()
+            .appendField("duration", reader.getDuration()).appendSeparator()
+            .appendName("arguments").beginObject();
+
+        argumentList = reader.getArgumentList();
+
+        for (int i = 0; i < argumentList.size(); i++) {
+
+            if (i > 0) {
+
+                encoder.appendSeparator();
+            }
+
+            encoder.appendField(argumentList.get(i).getName(), argumentList.get(i).getValue());
+        }
+
+        encoder.endObject();
+
+        if (reader.getStackTrace() != null) {
+
+            encoder.appendSeparator().appendName("stackTrace").appendQuote()
+                .appendEscaped(reader.getStackTracePrefix()).appendEscaped(reader.getStackTrace()).appendQuote();
+        }
+
+        encoder.endObject().appendLine();
+    }
+
+}
@@ -0,0 +1,638 @@
+/* __  __      _ _            
+  |  \/  |    | (_)           
+  | \  / | ___| |_  ___  _ __ 
+  | |\/| |/ _ \ | |/ _ \| '__|
+  | |  | |  __/ | | (_) | |   
+  |_|  |_|\___|_|_|\___/|_|   
+        Service Harness
+*/
+package org.melior.logging.appender;
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipInputStream;
+import org.melior.context.transaction.Argument;
+
+/**
+ * Reads the transactions from a binary transaction log, one at a time.  The
+ * dictionary of the file is rebuilt from the definition frames as they are
+ * encountered, so that the dictionary references of each transaction can be
+ * resolved.  A frame that was only partially written at the end of the file
+ * is treated as the end of the file.  A binary log reader is not thread safe.
+ * @author Melior
+ * @since 2.3
+ * @see BinaryFileAppender
+ */
+public class BinaryLogReader implements Closeable {
+
+    private InputStream inputStream;
+
+    private long offset;
+
+    private long frameOffset;
+
+    private byte[] payload;
+
+    private int position;
+
+    private List<String> dictionary;
+
+    private long packedTimestamp;
+
+    private String hostName;
+
+    private String threadId;
+
+    private String transactionId;
+
+    private String location;
+
+    private String transactionType;
+
+    private String status;
+
+    private long duration;
+
+    private List<Argument> argumentList;
+
+    private String stackTracePrefix;
+
+    private String stackTrace;
+
+    /**
+     * Constructor.
+     * @param inputStream The input stream
+     */
+    BinaryLogReader(
+        final InputStream inputStream) {
+
+        super();
+
+        this.inputStream = inputStream;
+
+        offset = 0;
+
+        frameOffset = -1;
+
+        payload = new byte[4096];
+
+        dictionary = new ArrayList<String>();
+
+        argumentList = new ArrayList<Argument>();
+    }
+
+    /**
+     * Get instance of binary log reader.  The header of the binary
+     * transaction log is read from the input stream.
+     * @param inputStream The input stream
+     * @return The binary log reader
+     * @throws IOException if the input stream does not hold a binary transaction log
+     */
+    public static BinaryLogReader of(
+        final InputStream inputStream) throws IOException {
+
+        BinaryLogReader reader;
+
+        reader = new BinaryLogReader(inputStream);
+
+        reader.readHeader();
+
+        return reader;
+    }
+
+    /**
+     * Get instance of binary log reader for file.  The file may be either a
+     * binary transaction log, or an archive of one in zip or gzip format.
+     * @param file The file
+     * @return The binary log reader
+     * @throws IOException if the file cannot be opened or does not hold a binary transaction log
+     */
+    public static BinaryLogReader of(
+        final File file) throws IOException {
+
+        InputStream inputStream;
+
+        inputStream = openStream(file);
+
+        try {
+
+            return of(inputStream);
+        }
+        catch (IOException exception) {
+
+            inputStream.close();
+
+            throw exception;
+        }
+
+    }
+
+    /**
+     * Open log file for reading.  The file may be either a log file,
+     * or an archive of one in zip or gzip format.
+     * @param file The file
+     * @return The input stream, which yields the contents of the log file
+     * @throws IOException if unable to open the file
+     */
+    static InputStream openStream(
+        final File file) throws IOException {
+
+        InputStream inputStream;
+        ZipInputStream zipInputStream;
+
+        inputStream = new BufferedInputStream(new FileInputStream(file), 65536);
+
+        try {
+
+            if (file.getName().endsWith(".gz") == true) {
+
+                inputStream = new BufferedInputStream(new GZIPInputStream(inputStream, 65536), 65536);
+            }
+            else if (file.getName().endsWith(".zip") == true) {
+
+                zipInputStream = new ZipInputStream(inputStream);
+
+                inputStream = zipInputStream;
+
+                if (zipInputStream.getNextEntry() == null) {
+                    throw new IOException("Archive " + file + " is empty.");
+                }
+
+                inputStream = new BufferedInputStream(zipInputStream, 65536);
+            }
+
+            return inputStream;
+        }
+        catch (IOException exception) {
+
+            inputStream.close();
+
+            throw exception;
+        }
+
+    }
+
+    /**
+     * Read header of binary transaction log.
+     * @throws IOException if the header is not the header of a binary transaction log
+     */
+    private void readHeader() throws IOException {
+
+        if ((readFully(BinaryFileAppender.HEADER_SIZE) == false)
+            || (Arrays.equals(Arrays.copyOf(payload, BinaryFileAppender.MAGIC.length), BinaryFileAppender.MAGIC) == false)) {
+            throw new IOException("Input is not a binary transaction log.");
+        }
+
+        if (payload[BinaryFileAppender.MAGIC.length] != BinaryFileAppender.VERSION) {
+            throw new IOException("Binary transaction log version " + payload[BinaryFileAppender.MAGIC.length] + " is not supported.");
+        }
+
+    }
+
+    /**
+     * Read next transaction.  Definition frames are applied to the
+     * dictionary along the way.
+     * @return true if a transaction was read, false at the end of the log
+     * @throws IOException if unable to read the log
+     */
+    public boolean next() throws IOException {
+
+        int type;
+        int size;
+
+        while (true) {
+
+            frameOffset = offset;
+
+            if (readFully(BinaryFileAppender.FRAME_HEADER_SIZE) == false) {
+                return false;
+            }
+
+            type = payload[0];
+
+            size = getFrameSize();
+
+            if ((size < 0) || (readFully(size) == false)) {
+                return false;
+            }
+
+            position = 0;
+
+            try {
+
+                if (type == BinaryFileAppender.FRAME_DEFINITION) {
+
+                    readDefinition();
+                }
+                else if (type == BinaryFileAppender.FRAME_TRANSACTION) {
+
+                    readTransaction();
+
+                    return true;
+                }
+
+            }
+            catch (RuntimeException exception) {
+                throw new IOException("Frame at offset " + frameOffset + " is corrupt.", exception);
+            }
+
+        }
+
+    }
+
+    /**
+     * Skip transactions up to the frame at the given offset from the start of
+     * the log.  Definition frames are still applied to the dictionary, but the
+     * payloads of transaction frames are skipped without being decoded.
+     * @param target The offset of the frame
+     * @throws IOException if unable to read the log
+     */
+    public void skipTo(
+        final long target) throws IOException {
+
+        int type;
+        int size;
+
+        while (offset < target) {
+
+            frameOffset = offset;
+
+            if (readFully(BinaryFileAppender.FRAME_HEADER_SIZE) == false) {
+                return;
+            }
+
+            type = payload[0];
+
+            size = getFrameSize();
+
+            if (size < 0) {
+                return;
+            }
+
+            if (type == BinaryFileAppender.FRAME_DEFINITION) {
+
+                if (readFully(size) == false) {
+                    return;
+                }
+
+                position = 0;
+
+                try {
+
+                    readDefinition();
+                }
+                catch (RuntimeException exception) {
+                    throw new IOException("Frame at offset " + frameOffset + " is corrupt.", exception);
+                }
+
+            }
+            else if (skipFully(size) == false) {
+                return;
+            }
+
+        }
+
+    }
+
+    /**
+     * Get size of the payload of the frame whose header is in the payload buffer.
+     * @return The size of the payload
+     */
+    private int getFrameSize() {
+        return ((payload[1] & 0xFF) << 24) | ((payload[2] & 0xFF) << 16) | ((payload[3] & 0xFF) << 8) | (payload[4] & 0xFF);
+    }
+
+    /**
+     * Apply definition frame to the dictionary.
+     */
+    private void readDefinition() {
+
+        int id;
+        String value;
+
+        id = (int) readVarLong();
+
+        value = readString();
+
+        while (dictionary.size() < id) {
+            dictionary.add(null);
+        }
+
+        dictionary.set(id - 1, value);
+    }
+
+    /**
+     * Decode transaction frame.
+     */
+    private void readTransaction() {
+
+        long count;
+        Argument argument;
+
+        packedTimestamp = readVarLong();
+        hostName = readReference();
+        threadId = readReference();
+        transactionId = readString();
+        location = readReference();
+        transactionType = readReference();
+        status = readReference();
+        duration = readVarLong();
+
+        count = readVarLong();
+
+        argumentList = new ArrayList<Argument>((int) Math.min(count, 64));
+
+        for (long i = 0; i < count; i++) {
+
+            argument = new Argument();
+            argument.setName(readReference());
+            argument.setValue(readString());
+
+            argumentList.add(argument);
+        }
+
+        if (payload[position++] == 0) {
+
+            stackTracePrefix = null;
+            stackTrace = null;
+        }
+        else {
+
+            stackTracePrefix = readReference();
+            stackTrace = readString();
+        }
+
+    }
+
+    /**
+     * Read bytes from the input stream into the payload buffer.
+     * @param size The number of bytes
+     * @return true if all the bytes were read, false if the end of the input stream was reached first
+     * @throws IOException if unable to read the input stream
+     */
+    private boolean readFully(
+        final int size) throws IOException {
+
+        int count;
+        int total;
+
+        if (size > payload.length) {
+
+            payload = new byte[Math.max(size, payload.length * 2)];
+        }
+
+        total = 0;
+
+        while (total < size) {
+
+            count = inputStream.read(payload, total, size - total);
+
+            if (count < 0) {
+                return false;
+            }
+
+            total += count;
+        }
+
+        offset += size;
+
+        return true;
+    }
+
+    /**
+     * Skip bytes of the input stream.
+     * @param size The number of bytes
+     * @return true if all the bytes were skipped, false if the end of the input stream was reached first
+     * @throws IOException if unable to read the input stream
+     */
+    private boolean skipFully(
+        final int size) throws IOException {
+
+        long remaining;
+        long count;
+
+        remaining = size;
+
+        while (remaining > 0) {
+
+            count = inputStream.skip(remaining);
+
+            if (count <= 0) {
+
+                if (inputStream.read() < 0) {
+                    return false;
+                }
+
+                count = 1;
+            }
+
+            remaining -= count;
+        }
+
+        offset += size;
+
+        return true;
+    }
+
+    /**
+     * Decode variable-length quantity.
+     * @return The long integer
+     */
+    private long readVarLong() {
+
+        long value;
+        int shift;
+        byte current;
+
+        value = 0;
+        shift = 0;
+
+        do {
+
+            current = payload[position++];
+
+            value |= (long) (current & 0x7F) << shift;
+
+            shift += 7;
+        }
+        while (current < 0);
+
+        return value;
+    }
+
+    /**
+     * Decode string.
+     * @return The string, or null if a null string was encoded
+     */
+    private String readString() {
+
+        int size;
+        String value;
+
+        size = (int) readVarLong() - 1;
+
+        if (size < 0) {
+            return null;
+        }
+
+        value = new String(payload, position, size, StandardCharsets.UTF_8);
+
+        position += size;
+
+        return value;
+    }
+
+    /**
+     * Decode reference to string, which is either a dictionary
+     * identifier or an inline string.
+     * @return The string
+     */
+    private String readReference() {
+
+        int id;
+
+        id = (int) readVarLong();
+
+        return (id == 0) ? readString() : dictionary.get(id - 1);
+    }
+
+    /**
+     * Get offset of the frame of the current transaction from the start of the log.
+     * @return The offset
+     */
+    public long getOffset() {
+        return frameOffset;
+    }
+
+    /**
+     * Get timestamp packed into a long integer as {@code yyyyMMddHHmmssSSS}.
+     * @return The packed timestamp
+     */
+    public long getPackedTimestamp() {
+        return packedTimestamp;
+    }
+
+    /**
+     * Get timestamp in {@code yyyy-MM-dd HH:mm:ss.SSS} format.
+     * @return The timestamp
+     */
+    public String getTimestamp() {
+
+        char[] characters;
+        long remainder;
+
+        characters = "0000-00-00 00:00:00.000".toCharArray();
+
+        remainder = packedTimestamp;
+
+        for (int i = characters.length - 1; i >= 0; i--) {
+
+            if ((characters[i] >= '0') && (characters[i] <= '9')) {
+
+                characters[i] = (char) ('0' + (remainder % 10));
+
+                remainder /= 10;
+            }
+
+        }
+
+        return new String(characters);
+    }
+
+    /**
+     * Get host name.
+     * @return The host name
+     */
+    public String getHostName() {
+        return hostName;
+    }
+
+    /**
+     * Get thread identifier.
+     * @return The thread identifier
+     */
+    public String getThreadId() {
+        return threadId;
+    }
+
+    /**
+     * Get transaction identifier.
+     * @return The transaction identifier
+     */
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    /**
+     * Get location.
+     * @return The location
+     */
+    public String getLocation() {
+        return location;
+    }
+
+    /**
+     * Get transaction type.
+     * @return The transaction type
+     */
+    public String getTransactionType() {
+        return transactionType;
+    }
+
+    /**
+     * Get transaction status.
+     * @return The transaction status
+     */
+    public String getStatus() {
+        return status;
+    }
+
+    /**
+     * Get transaction duration.
+     * @return The transaction duration
+     */
+    public long getDuration() {
+        return duration;
+    }
+
+    /**
+     * Get transaction argument list.
+     * @return The transaction argument list
+     */
+    public List<Argument> getArgumentList() {
+        return argumentList;
+    }
+
+    /**
+     * Get stack trace prefix.
+     * @return The stack trace prefix
+     */
+    public String getStackTracePrefix() {
+        return stackTracePrefix;
+    }
+
+    /**
+     * Get minimal stack trace.
+     * @return The stack trace, or null if the transaction has no throwable
+     */
+    public String getStackTrace() {
+        return stackTrace;
+    }
+
+    /**
+     * Close input stream.
+     * @throws IOException if unable to close the input stream
+     */
+    public void close() throws IOException {
+        inputStream.close();
+    }
+
+}
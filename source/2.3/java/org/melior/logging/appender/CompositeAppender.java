@@ -0,0 +1,207 @@
+/* __  __      _ _            
+  |  \/  |    | (_)           
+  | \  / | ___| |_  ___  _ __ 
+  | |\/| |/ _ \ | |/ _ \| '__|
+  | |  | |  __/ | | (_) | |   
+  |_|  |_|\___|_|_|\___/|_|   
+        Service Harness
+*/
+package org.melior.logging.appender;
+import java.util.List;
+import org.melior.context.transaction.Argument;
+import org.melior.context.transaction.ContextMap;
+import org.melior.service.exception.ApplicationException;
+import org.springframework.boot.logging.LogLevel;
+
+/**
+ * Implementation of internal appender that writes the logging events of a
+ * stream to the primary appender of the stream and to the additional appenders
+ * that have been attached to the stream.  The primary appender is handed each
+ * event directly, so that it keeps writing without creating any objects.  For
+ * the additional appenders, each event is turned into a single record that they
+ * share, so that the appenders that are able to share the work of formatting
+ * it only format it once.
+ * @author Melior
+ * @since 2.3
+ * @see Appender
+ * @see LogEvent
+ */
+public class CompositeAppender extends Appender {
+
+    private Appender appender;
+
+    private Appender[] additionalAppenders;
+
+    /**
+     * Constructor.
+     * @param stream The stream
+     * @param configuration The configuration
+     * @param appender The primary appender
+     * @param additionalAppenders The additional appenders
+     * @throws ApplicationException if an error occurs during the construction
+     */
+    public CompositeAppender(
+        final Stream stream,
+        final AppenderConfig configuration,
+        final Appender appender,
+        final List<Appender> additionalAppenders) throws ApplicationException {
+
+        super(stream, configuration);
+
+        this.appender = appender;
+
+        this.additionalAppenders = additionalAppenders.toArray(new Appender[additionalAppenders.size()]);
+    }
+
+    /**
+     * Write trace event to log.
+     * @param day The day
+     * @param timestamp The timestamp
+     * @param loggingLevel The logging level
+     * @param hostName The host name
+     * @param threadId The thread identifier
+     * @param transactionId The transaction identifier
+     * @param location The location [caller]
+     * @param messageParts The message parts
+     * @param contextMap The diagnostic context map
+     * @param throwable The throwable
+     */
+    public void write(
+        final int day,
+        final String timestamp,
+        final LogLevel loggingLevel,
+        final String hostName,
+        final String threadId,
+        final String transactionId,
+        final String location,
+        final Object[] messageParts,
+        final ContextMap contextMap,
+        final Throwable throwable) {
+
+        LogEvent record;
+
+        appender.write(day, timestamp, loggingLevel, hostName, threadId, transactionId, location, messageParts,
+            contextMap, throwable);
+
+        record = LogEvent.ofTrace(day, timestamp, loggingLevel, hostName, threadId, transactionId, location,
+            messageParts, contextMap, throwable);
+
+        for (Appender additionalAppender : additionalAppenders) {
+            additionalAppender.write(record);
+        }
+
+    }
+
+    /**
+     * Write transaction event to log.
+     * @param day The day
+     * @param timestamp The timestamp
+     * @param hostName The host name
+     * @param threadId The thread identifier
+     * @param transactionId The transaction identifier
+     * @param location The location [caller]
+     * @param transactionType The transaction type
+     * @param status The transaction status
+     * @param duration The transaction duration
+     * @param argumentList The transaction argument list
+     * @param stackTracePrefix The stack trace prefix
+     * @param throwable The throwable
+     */
+    public void write(
+        final int day,
+        final String timestamp,
+        final String hostName,
+        final String threadId,
+        final String transactionId,
+        final String location,
+        final String transactionType,
+        final String status,
+        final long duration,
+        final List<Argument> argumentList,
+        final String stackTracePrefix,
+        final Throwable throwable) {
+
+        LogEvent record;
+
+        appender.write(day, timestamp, hostName, threadId, transactionId, location, transactionType, status,
+            duration, argumentList, stackTracePrefix, throwable);
+
+        record = LogEvent.ofTransaction(day, timestamp, hostName, threadId, transactionId, location, transactionType,
+            status, duration, argumentList, stackTracePrefix, throwable);
+
+        for (Appender additionalAppender : additionalAppenders) {
+            additionalAppender.write(record);
+        }
+
+    }
+
+    /**
+     * Write record to log with all the appenders.
+     * @param record The record
+     */
+    public void write(
+        final LogEvent record) {
+
+        appender.write(record);
+
+        for (Appender additionalAppender : additionalAppenders) {
+            additionalAppender.write(record);
+        }
+
+    }
+
+    /**
+     * Flush log entries that have been buffered by the appenders.
+     */
+    public void flush() {
+
+        appender.flush();
+
+        for (Appender additionalAppender : additionalAppenders) {
+            additionalAppender.flush();
+        }
+
+    }
+
+    /**
+     * Notify the appenders that an asynchronous appender has handed over all
+     * the events that are currently waiting.
+     */
+    public void endOfBatch() {
+
+        appender.endOfBatch();
+
+        for (Appender additionalAppender : additionalAppenders) {
+            additionalAppender.endOfBatch();
+        }
+
+    }
+
+    /**
+     * Reconfigure the appenders.  The additional appenders keep the properties
+     * that they were created with.
+     * @param configuration The new configuration
+     * @throws ApplicationException if unable to reconfigure the appenders
+     */
+    public void reconfigure(
+        final AppenderConfig configuration) throws ApplicationException {
+
+        this.configuration = configuration;
+
+        appender.reconfigure(configuration);
+
+        for (Appender additionalAppender : additionalAppenders) {
+            additionalAppender.reconfigure(configuration);
+        }
+
+    }
+
+    /**
+     * Get primary appender.
+     * @return The appender
+     */
+    public Appender getAppender() {
+        return appender;
+    }
+
+}
@@ -7,11 +7,18 @@
         Service Harness
 */
 package org.melior.logging.appender;
-import java.io.PrintStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
 import java.util.List;
 import org.melior.context.transaction.Argument;
+import org.melior.context.transaction.ContextMap;
+import org.melior.logging.encoder.JsonEncoder;
 import org.melior.service.exception.ApplicationException;
 import org.melior.util.exception.StackTrace;
+import org.melior.util.number.Counter;
 import org.springframework.boot.logging.LogLevel;
 
 /**
@@ -20,13 +27,34 @@ import org.springframework.boot.logging.LogLevel;
  * transaction context is included in the log entries and may be used for
  * correlation.  The transaction parameters from the transaction context
  * are included when logging to the transaction log.
+ * <p>
+ * The log entries are encoded straight into a reusable UTF-8 byte buffer
+ * that belongs to the writer thread and are written to the channel of the
+ * standard output as bytes, without creating intermediate {@code String}
+ * objects.  In JSON format, the string values are escaped as they are encoded
+ * and the transaction arguments are encoded as a nested object.  The log entries
+ * are encoded outside the lock of the appender, which is only held while the
+ * encoded bytes are written or added to the batch buffer.
+ * <p>
+ * In non-blocking mode, the appender sits behind an asynchronous appender and
+ * collects the log entries that it receives in a batch buffer, which is written
+ * with a single system call at the end of each batch, or when it is full.
  * @author Melior
  * @since 2.1
  * @see Appender
  */
 public class ConsoleAppender extends Appender {
-
-    private PrintStream printStream;
+
+    private static final ThreadLocal<JsonEncoder> encoders = ThreadLocal.withInitial(() -> new JsonEncoder());
+
+    private static final FileChannel consoleChannel = new FileOutputStream(FileDescriptor.out).getChannel();
+
+    private static final String FORMAT_JSON = "console.json";
+    private static final String FORMAT_TEXT = "console.text";
+
+    private ByteBuffer batchBuffer;
+
+    private Counter batchCount;
 
     /**
      * Constructor.
@@ -51,9 +79,10 @@ public class ConsoleAppender extends Appender {
      * @param transactionId The transaction identifier
      * @param location The location [caller]
      * @param messageParts The message parts
+     * @param contextMap The diagnostic context map
      * @param throwable The throwable
      */
-    public synchronized void write(
+    public void write(
         final int day,
         final String timestamp,
         final LogLevel loggingLevel,
@@ -62,77 +91,330 @@ public class ConsoleAppender extends Appender {
         final String transactionId,
         final String location,
         final Object[] messageParts,
+        final ContextMap contextMap,
         final Throwable throwable) {
 
-        StringBuilder stringBuilder;
-        String stackTrace;
-
-        if ("json".equals(configuration.getFormat()) == true) {
-
-            stringBuilder = new StringBuilder(256);
-            stringBuilder.append("{\"stream\": \"").append(stream.getAlias())
-                .append("\", \"timestamp\": \"").append(timestamp)
-                .append("\", \"loggingLevel\": \"").append(loggingLevel)
-                .append("\", \"hostName\": \"").append(hostName)
-                .append("\", \"threadId\": \"").append(threadId)
-                .append("\", \"transactionId\": \"").append(transactionId)
-                .append("\", \"location\": \"").append(location)
-                .append("\", \"message\": \"");
-
-            for (int i = 0; i < messageParts.length; i++) {
-                stringBuilder.append(String.valueOf(messageParts[i]));
-            }
+        boolean json;
+        JsonEncoder encoder;
+
+        json = isJsonFormat();
+
+        encoder = encoders.get().reset();
 
-            if (throwable != null) {
+        encodePrefix(encoder, json);
 
-                printStream.print(stringBuilder.toString());
+        encodeTrace(encoder, json, timestamp, loggingLevel, hostName, threadId, transactionId, location, messageParts,
+            contextMap, (throwable == null) ? null : StackTrace.getCompact(throwable));
+
+        writeConsole(encoder.buffer());
+    }
+
+    /**
+     * Write transaction event to log.
+     * @param day The day
+     * @param timestamp The timestamp
+     * @param hostName The host name
+     * @param threadId The thread identifier
+     * @param transactionId The transaction identifier
+     * @param location The location [caller]
+     * @param transactionType The transaction type
+     * @param status The transaction status
+     * @param duration The transaction duration
+     * @param argumentList The transaction argument list
+     * @param stackTracePrefix The stack trace prefix
+     * @param throwable The throwable
+     */
+    public void write(
+        final int day,
+        final String timestamp,
+        final String hostName,
+        final String threadId,
+        final String transactionId,
+        final String location,
+        final String transactionType,
+        final String status,
+        final long duration,
+        final List<Argument> argumentList,
+        final String stackTracePrefix,
+        final Throwable throwable) {
 
-                stackTrace = StackTrace.getCompact(throwable);
+        boolean json;
+        JsonEncoder encoder;
+
+        json = isJsonFormat();
+
+        encoder = encoders.get().reset();
 
-                printStream.print("\", \"stackTrace\": \"");
-                printStream.print(stackTrace);
-                printStream.println("\"}");
+        encodePrefix(encoder, json);
+
+        encodeTransaction(encoder, json, timestamp, hostName, threadId, transactionId, location, transactionType, status,
+            duration, argumentList, stackTracePrefix, (throwable == null) ? null : StackTrace.getMinimal(throwable));
+
+        writeConsole(encoder.buffer());
+    }
+
+    /**
+     * Write record to log.  The part of the log entry that follows the stream
+     * alias is only encoded if no other console appender has encoded it yet.
+     * @param record The record
+     */
+    public void write(
+        final LogEvent record) {
+
+        boolean json;
+        String formatKey;
+        byte[] bytes;
+        JsonEncoder encoder;
+
+        json = isJsonFormat();
+
+        encoder = encoders.get().reset();
+
+        formatKey = (json == true) ? FORMAT_JSON : FORMAT_TEXT;
+
+        bytes = record.getEncoded(formatKey);
+
+        if (bytes == null) {
+
+            if (record.isTransaction() == true) {
+
+                encodeTransaction(encoder, json, record.getTimestamp(), record.getHostName(), record.getThreadId(),
+                    record.getTransactionId(), record.getLocation(), record.getTransactionType(), record.getStatus(),
+                    record.getDuration(), record.getArgumentList(), record.getStackTracePrefix(),
+                    (record.getThrowable() == null) ? null : record.getMinimalStackTrace());
             }
             else {
-
-                stringBuilder.append("\"}");
-                printStream.println(stringBuilder.toString());
+
+                encodeTrace(encoder, json, record.getTimestamp(), record.getLoggingLevel(), record.getHostName(),
+                    record.getThreadId(), record.getTransactionId(), record.getLocation(), record.getMessageParts(),
+                    record.getContextMap(), (record.getThrowable() == null) ? null : record.getCompactStackTrace());
             }
 
+            bytes = Arrays.copyOf(encoder.bytes(), encoder.length());
+
+            record.setEncoded(formatKey, bytes);
+
+            encoder.reset();
+        }
+
+        encodePrefix(encoder, json);
+
+        encoder.appendBytes(bytes);
+
+        writeConsole(encoder.buffer());
+    }
+
+    /**
+     * Write log entries that have been collected in the batch buffer.
+     */
+    public synchronized void flush() {
+
+        writeBatch();
+    }
+
+    /**
+     * Write log entries that have been collected in the batch buffer
+     * at the end of a batch.
+     */
+    public synchronized void endOfBatch() {
+
+        writeBatch();
+    }
+
+    /**
+     * Get number of batches that have been written in non-blocking mode.
+     * @return The number of batches
+     */
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+
+    /**
+     * Write log entry to the console.  In non-blocking mode, the entry is
+     * added to the batch buffer instead, unless it is larger than the batch
+     * buffer.  This is the only part of writing a log entry that holds the
+     * lock of the appender.
+     * @param buffer The buffer that holds the log entry
+     */
+    private synchronized void writeConsole(
+        final ByteBuffer buffer) {
+
+        if (batchBuffer == null) {
+
+            writeChannel(buffer);
+
+            return;
+        }
+
+        if (buffer.remaining() > batchBuffer.remaining()) {
+
+            writeBatch();
+        }
+
+        if (buffer.remaining() > batchBuffer.remaining()) {
+
+            writeChannel(buffer);
         }
         else {
+
+            batchBuffer.put(buffer);
+        }
+
+    }
+
+    /**
+     * Write the batch buffer to the console.
+     */
+    private void writeBatch() {
+
+        if ((batchBuffer == null) || (batchBuffer.position() == 0)) {
+            return;
+        }
+
+        batchBuffer.flip();
+
+        writeChannel(batchBuffer);
+
+        batchBuffer.clear();
+
+        batchCount.increment();
+    }
+
+    /**
+     * Write bytes to the channel of the standard output.  The bytes are
+     * written with as few system calls as the channel allows, so that entries
+     * from other streams are not interleaved with them.
+     * @param buffer The buffer that holds the bytes
+     */
+    protected void writeChannel(
+        final ByteBuffer buffer) {
+
+        try {
+
+            while (buffer.hasRemaining() == true) {
+                consoleChannel.write(buffer);
+            }
+
+        }
+        catch (Exception exception) {
+        }
+
+    }
+
+    /**
+     * Encode the part of the log entry that identifies the stream.
+     * @param encoder The encoder
+     * @param json true to encode in JSON format, false otherwise
+     */
+    private void encodePrefix(
+        final JsonEncoder encoder,
+        final boolean json) {
+
+        if (json == true) {
 
-            stringBuilder = new StringBuilder(256);
-            stringBuilder.append(stream.getAlias()).append(", ").append(timestamp).append(", ")
-                .append(loggingLevel).append(", ").append(hostName).append(", ")
+            encoder.beginObject().appendField("stream", stream.getAlias()).appendSeparator();
+        }
+        else {
+
+            encoder.append(stream.getAlias()).append(", ");
+        }
+
+    }
+
+    /**
+     * Encode the part of the trace event that follows the stream alias.
+     * @param encoder The encoder
+     * @param json true to encode in JSON format, false otherwise
+     * @param timestamp The timestamp
+     * @param loggingLevel The logging level
+     * @param hostName The host name
+     * @param threadId The thread identifier
+     * @param transactionId The transaction identifier
+     * @param location The location [caller]
+     * @param messageParts The message parts
+     * @param contextMap The diagnostic context map
+     * @param stackTrace The rendered stack trace, or null if there is no throwable
+     */
+    private void encodeTrace(
+        final JsonEncoder encoder,
+        final boolean json,
+        final String timestamp,
+        final LogLevel loggingLevel,
+        final String hostName,
+        final String threadId,
+        final String transactionId,
+        final String location,
+        final Object[] messageParts,
+        final ContextMap contextMap,
+        final String stackTrace) {
+
+        if (json == true) {
+
+            encoder.appendField("timestamp", timestamp).appendSeparator()
+                .appendField("loggingLevel", loggingLevel.name()).appendSeparator()
+                .appendField("hostName", hostName).appendSeparator()
+                .appendField("threadId", threadId).appendSeparator()
+                .appendField("transactionId", transactionId).appendSeparator()
+                .appendField("location", location).appendSeparator()
+                .appendName("message").appendQuote();
+
+            for (int i = 0; i < messageParts.length; i++) {
+                encoder.appendEscaped(messageParts[i]);
+            }
+
+            encoder.appendQuote();
+
+            if ((contextMap != null) && (contextMap.isEmpty() == false)) {
+
+                encoder.appendSeparator().appendName("context").beginObject();
+
+                for (int i = 0; i < contextMap.size(); i++) {
+
+                    if (i > 0) {
+
+                        encoder.appendSeparator();
+                    }
+
+                    encoder.appendField(contextMap.getKey(i), contextMap.getValue(i));
+                }
+
+                encoder.endObject();
+            }
+
+            if (stackTrace != null) {
+
+                encoder.appendSeparator().appendField("stackTrace", stackTrace);
+            }
+
+            encoder.endObject().appendLine();
+        }
+        else {
+
+            encoder.append(timestamp).append(", ")
+                .append(loggingLevel.name()).append(", ").append(hostName).append(", ")
                 .append(threadId).append(", ").append(transactionId).append(", ")
                 .append(location).append(", ");
-
+
             for (int i = 0; i < messageParts.length; i++) {
-                stringBuilder.append(String.valueOf(messageParts[i]));
+                encoder.append(messageParts[i]);
             }
-
-            if (throwable != null) {
-
-                printStream.print(stringBuilder.toString());
-
-                stackTrace = StackTrace.getCompact(throwable);
-
-                printStream.print(", ");
-                printStream.println(stackTrace);
-            }
-            else {
-
-                printStream.println(stringBuilder.toString());
+
+            FileAppender.encodeContextMap(encoder, contextMap);
+
+            if (stackTrace != null) {
+
+                encoder.append(", ").append(stackTrace);
             }
 
+            encoder.appendLine();
         }
 
     }
 
     /**
-     * Write transaction event to log.
-     * @param day The day
+     * Encode the part of the transaction event that follows the stream alias.
+     * @param encoder The encoder
+     * @param json true to encode in JSON format, false otherwise
      * @param timestamp The timestamp
      * @param hostName The host name
      * @param threadId The thread identifier
@@ -143,10 +425,11 @@ public class ConsoleAppender extends Appender {
      * @param duration The transaction duration
      * @param argumentList The transaction argument list
      * @param stackTracePrefix The stack trace prefix
-     * @param throwable The throwable
+     * @param stackTrace The rendered stack trace, or null if there is no throwable
      */
-    public synchronized void write(
-        final int day,
+    private void encodeTransaction(
+        final JsonEncoder encoder,
+        final boolean json,
         final String timestamp,
         final String hostName,
         final String threadId,
@@ -157,51 +440,43 @@ public class ConsoleAppender extends Appender {
         final long duration,
         final List<Argument> argumentList,
         final String stackTracePrefix,
-        final Throwable throwable) {
-
-        StringBuilder stringBuilder;
-        String stackTrace;
-
-        if ("json".equals(configuration.getFormat()) == true) {
-
-            stringBuilder = new StringBuilder(256);
-            stringBuilder.append("{\"stream\": \"").append(stream.getAlias())
-                .append("\", \"timestamp\": \"").append(timestamp)
-                .append("\", \"hostName\": \"").append(hostName)
-                .append("\", \"threadId\": \"").append(threadId)
-                .append("\", \"transactionId\": \"").append(transactionId)
-                .append("\", \"location\": \"").append(location)
-                .append("\", \"transactionType\": \"").append(transactionType)
-                .append("\", \"status\": \"").append(status)
-                .append("\", \"duration\": \"").append(duration);
-
-            for (Argument argument : argumentList) {
-                stringBuilder.append("\", \"").append(argument.getName())
-                    .append("\": \"").append(argument.getValue());
+        final String stackTrace) {
+
+        if (json == true) {
+
+            encoder.appendField("timestamp", timestamp).appendSeparator()
+                .appendField("hostName", hostName).appendSeparator()
+                .appendField("threadId", threadId).appendSeparator()
+                .appendField("transactionId", transactionId).appendSeparator()
+                .appendField("location", location).appendSeparator()
+                .appendField("transactionType", transactionType).appendSeparator()
+                .appendField("status", status).appendSeparator()
+                .appendField("duration", duration).appendSeparator()
+                .appendName("arguments").beginObject();
+
+            for (int i = 0; i < argumentList.size(); i++) {
+
+                if (i > 0) {
+
+                    encoder.appendSeparator();
+                }
+
+                encoder.appendField(argumentList.get(i).getName(), argumentList.get(i).getValue());
             }
+
+            encoder.endObject();
 
-            if (throwable != null) {
-
-                printStream.print(stringBuilder.toString());
-
-                stackTrace = StackTrace.getMinimal(throwable);
-
-                printStream.print("\", \"stackTrace\": \"" + stackTracePrefix);
-                printStream.print(stackTrace);
-                printStream.println("\"}");
-            }
-            else {
+            if (stackTrace != null) {
 
-                stringBuilder.append("\"}");
-                printStream.println(stringBuilder.toString());
+                encoder.appendSeparator().appendName("stackTrace").appendQuote()
+                    .appendEscaped(stackTracePrefix).appendEscaped(stackTrace).appendQuote();
             }
 
+            encoder.endObject().appendLine();
         }
         else {
 
-            stringBuilder = new StringBuilder(256);
-            stringBuilder.append(stream.getAlias()).append(", ")
-                .append(timestamp).append(", ")
+            encoder.append(timestamp).append(", ")
                 .append(hostName).append(", ")
                 .append(threadId).append(", ")
                 .append(transactionId).append(", ")
@@ -210,36 +485,63 @@ public class ConsoleAppender extends Appender {
                 .append(status).append(", ")
                 .append(duration);
 
-            for (Argument argument : argumentList) {
-                stringBuilder.append(", ").append(argument.getName())
-                    .append(", ").append(argument.getValue());
+            for (int i = 0; i < argumentList.size(); i++) {
+                encoder.append(", ").append(argumentList.get(i).getName())
+                    .append(", ").append(argumentList.get(i).getValue());
             }
 
-            if (throwable != null) {
-
-                printStream.print(stringBuilder.toString());
-
-                stackTrace = StackTrace.getMinimal(throwable);
-
-                printStream.print(", " + stackTracePrefix);
-                printStream.println(stackTrace);
-            }
-            else {
+            if (stackTrace != null) {
 
-                printStream.println(stringBuilder.toString());
+                encoder.append(", ").append(stackTracePrefix).append(stackTrace);
             }
 
+            encoder.appendLine();
         }
 
     }
 
     /**
-     * Configure appender.
+     * Indicate whether the log entries are encoded in JSON format.
+     * @return true if the log entries are encoded in JSON format, false otherwise
+     */
+    protected boolean isJsonFormat() {
+        return "json".equals(configuration.getFormat());
+    }
+
+    /**
+     * Get size of the batch buffer.  The log entries are only collected in
+     * a batch buffer in non-blocking mode.
+     * @return The size of the batch buffer, or 0 if the log entries are not batched
+     */
+    protected int getBatchSize() {
+        return (configuration.isConsoleNonBlocking() == true) ? configuration.getConsoleBatchSize() : 0;
+    }
+
+    /**
+     * Configure appender.  The batch buffer is only allocated again if its
+     * size has changed, as it has been flushed when the appender is reconfigured.
      * @throws ApplicationException if unable to configure the appender
      */
     protected void configure() throws ApplicationException {
-
-        printStream = /*((stream == Stream.TRACE_ERROR) || (stream == Stream.TRANSACTION_ERROR)) ? System.err : */System.out;
+
+        int batchSize;
+
+        batchSize = getBatchSize();
+
+        if (batchSize <= 0) {
+
+            batchBuffer = null;
+        }
+        else if ((batchBuffer == null) || (batchBuffer.capacity() != batchSize)) {
+
+            batchBuffer = ByteBuffer.allocateDirect(batchSize);
+        }
+
+        if (batchCount == null) {
+
+            batchCount = Counter.of(0);
+        }
+
     }
 
 }
@@ -0,0 +1,160 @@
+/* __  __      _ _            
+  |  \/  |    | (_)           
+  | \  / | ___| |_  ___  _ __ 
+  | |\/| |/ _ \ | |/ _ \| '__|
+  | |  | |  __/ | | (_) | |   
+  |_|  |_|\___|_|_|\___/|_|   
+        Service Harness
+*/
+package org.melior.logging.appender;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import org.melior.service.exception.ApplicationException;
+import org.melior.service.exception.ExceptionType;
+import org.melior.util.number.Counter;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Implementation of internal appender that sends the log entries to a local
+ * log agent as UDP datagrams, without the round-trip through a log file.
+ * The log entries are encoded like those of the console appender and are
+ * separated by line feeds.  The appender always collects the log entries in
+ * a batch buffer, and each batch is sent as a single datagram at the end of
+ * each batch, or when the batch buffer is full.
+ * <p>
+ * The channel is in non-blocking mode, so a batch that does not fit in the
+ * send buffer of the socket is dropped instead of stalling the appender.  The
+ * appender is intended to sit behind an asynchronous appender, so that the
+ * callers are not held up by the encoding either.
+ * <p>
+ * The appender is configured with the properties:
+ * <ul>
+ * <li>{@code host} - the host of the log agent, {@code localhost} by default
+ * <li>{@code port} - the UDP port of the log agent, 5140 by default
+ * <li>{@code format} - {@code text} or {@code json}, {@code logging.console.format} by default
+ * <li>{@code batch-size} - the largest datagram that is sent, 60KB by default and 65507 bytes at most
+ * </ul>
+ * @author Melior
+ * @since 2.3
+ * @see ConsoleAppender
+ * @see AppenderProperties
+ */
+public class DatagramAppender extends ConsoleAppender {
+
+    public static final int MAX_DATAGRAM_SIZE = 65507;
+
+    private InetSocketAddress address;
+
+    private DatagramChannel channel;
+
+    private String format;
+
+    private int batchSize;
+
+    private Counter sentBytes;
+
+    private Counter droppedBatches;
+
+    /**
+     * Constructor.
+     * @param stream The stream
+     * @param configuration The configuration
+     * @param properties The properties of the appender
+     * @throws ApplicationException if an error occurs during the construction
+     */
+    public DatagramAppender(
+        final Stream stream,
+        final AppenderConfig configuration,
+        final AppenderProperties properties) throws ApplicationException {
+
+        super(stream, configuration);
+
+        format = properties.getProperty("format", null);
+
+        batchSize = (int) Math.min(DataSize.parse(properties.getProperty("batch-size", "60KB")).toBytes(), MAX_DATAGRAM_SIZE);
+
+        sentBytes = Counter.of(0);
+
+        droppedBatches = Counter.of(0);
+
+        try {
+
+            address = new InetSocketAddress(properties.getProperty("host", "localhost"),
+                Integer.parseInt(properties.getProperty("port", "5140")));
+
+            channel = DatagramChannel.open();
+            channel.configureBlocking(false);
+        }
+        catch (Exception exception) {
+            throw new ApplicationException(ExceptionType.LOCAL_APPLICATION, "Failed to open datagram channel: " + exception.getMessage());
+        }
+
+        configure();
+    }
+
+    /**
+     * Get number of bytes that have been sent.
+     * @return The number of bytes
+     */
+    public long getSentBytes() {
+        return sentBytes.get();
+    }
+
+    /**
+     * Get number of batches that could not be sent.
+     * @return The number of batches
+     */
+    public long getDroppedBatches() {
+        return droppedBatches.get();
+    }
+
+    /**
+     * Send bytes to the log agent as a single datagram.
+     * @param buffer The buffer that holds the bytes
+     */
+    protected void writeChannel(
+        final ByteBuffer buffer) {
+
+        int length;
+
+        length = buffer.remaining();
+
+        try {
+
+            if (channel.send(buffer, address) == length) {
+
+                sentBytes.increment(length);
+
+                return;
+            }
+
+        }
+        catch (Exception exception) {
+        }
+
+        buffer.position(buffer.limit());
+
+        droppedBatches.increment();
+    }
+
+    /**
+     * Indicate whether the log entries are encoded in JSON format.
+     * @return true if the log entries are encoded in JSON format, false otherwise
+     */
+    protected boolean isJsonFormat() {
+        return (format == null) ? super.isJsonFormat() : "json".equals(format);
+    }
+
+    /**
+     * Get size of the batch buffer, which is the size of the largest datagram
+     * that is sent.  The batch size is not known yet while the constructor of
+     * the console appender configures the appender, so the batch buffer is only
+     * allocated once the appender is configured again.
+     * @return The size of the batch buffer, or 0 if the batch size is not known yet
+     */
+    protected int getBatchSize() {
+        return batchSize;
+    }
+
+}
@@ -8,23 +8,33 @@
 */
 package org.melior.logging.appender;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
-import java.io.FileWriter;
-import java.io.PrintWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
+import java.util.concurrent.TimeUnit;
 import org.melior.context.transaction.Argument;
+import org.melior.context.transaction.ContextMap;
+import org.melior.logging.encoder.Encoder;
 import org.melior.service.exception.ApplicationException;
 import org.melior.service.exception.ExceptionType;
 import org.melior.util.collection.BlockingQueue;
+import org.melior.util.collection.BloomFilter;
 import org.melior.util.collection.Queue;
 import org.melior.util.exception.StackTrace;
 import org.melior.util.number.Clamp;
+import org.melior.util.number.Counter;
+import org.melior.util.number.StripedCounter;
 import org.melior.util.thread.DaemonThread;
+import org.melior.util.thread.ThreadControl;
 import org.springframework.boot.logging.LogLevel;
 
 /**
@@ -33,6 +43,23 @@ import org.springframework.boot.logging.LogLevel;
  * transaction context is included in the log entries and may be used for
  * correlation.  The transaction parameters from the transaction context
  * are included when logging to the transaction log.
+ * <p>
+ * The log entries are encoded straight into a reusable UTF-8 byte buffer
+ * that belongs to the writer thread and are written to a {@code FileChannel},
+ * without creating intermediate {@code String} objects.
+ * <p>
+ * The encoded log entries are gathered in a large direct write buffer and
+ * are committed to the file in groups, when the buffer holds a given number
+ * of bytes, when a given interval has passed, or straight away for errors and
+ * failed transactions.  Depending on the sync policy, the contents of the file
+ * are forced to the storage device after each group commit.
+ * <p>
+ * Rolling is kept off the write path.  The size of the current file is counted
+ * in bytes as they are written, and the writers only compare it, and the day, to
+ * the thresholds.  The next file is opened ahead of time by a background thread,
+ * and so is the first file of the next day shortly before midnight, so that rolling
+ * only swaps the open files under the lock of the appender.  The file that has been
+ * rolled is closed, its index completed and the file archived in the background.
  * @author Melior
  * @since 2.1
  * @see Appender
@@ -41,7 +68,17 @@ public class FileAppender extends Appender {
 
     private static final String FORMAT_FILE_DATE = "yyyy-MM-dd";
     private static final String FORMAT_FILE_INDEX = "%06d";
+
+    private static final ThreadLocal<Encoder> encoders = ThreadLocal.withInitial(() -> new Encoder());
+
+    private static final long SAMPLE_INTERVAL = 1000;
+
+    private static final long ROLL_INTERVAL = 1000;
+
+    private static final long PREPARE_AHEAD = 60000;
 
+    private static FileArchiver sharedArchiver;
+
     private String baseFileName;
 
     private String fileExtension;
@@ -51,6 +88,8 @@ public class FileAppender extends Appender {
     private String historyPath;
 
     private int maxFileHistory;
+
+    private ArchiveCodec archiveCodec;
 
     private int lastDay;
 
@@ -58,15 +97,51 @@ public class FileAppender extends Appender {
 
     private int currentFileIndex;
 
-    private File currentFile;
+    private long currentFileSize;
 
-    private int currentFileSize;
-
-    private boolean needToRoll;
+    private Segment currentSegment;
+
+    private Segment nextSegment;
+
+    private Segment nextDaySegment;
+
+    private BlockingQueue<Segment> retiredSegments;
+
+    private Object segmentLock;
+
+    private String prunedFileDate;
+
+    private volatile boolean filesLeft;
+
+    private volatile boolean orphansPending;
 
-    private PrintWriter printWriter;
+    private FileChannel fileChannel;
 
-    private BlockingQueue<File> archiveQueue;
+    private ByteBuffer writeBuffer;
+
+    private int flushSize;
+
+    private volatile long flushInterval;
+
+    private boolean forceOnFlush;
+
+    private Counter flushCount;
+
+    private Counter flushedBytes;
+
+    private volatile double flushesPerSecond;
+
+    private volatile long bytesPerFlush;
+
+    private StripedCounter lockWaitTime;
+
+    private Counter rollCount;
+
+    private Counter rollTime;
+
+    private FileArchiver archiver;
+
+    private FileIndexWriter indexWriter;
 
     /**
      * Constructor.
@@ -86,13 +161,33 @@ public class FileAppender extends Appender {
 
         currentFileSize = 0;
 
-        needToRoll = false;
-
-        printWriter = null;
+        retiredSegments = Queue.ofBlocking();
+
+        segmentLock = new Object();
 
-        archiveQueue = Queue.ofBlocking();
+        fileChannel = null;
 
-        DaemonThread.create(() -> archiveFiles());
+        writeBuffer = ByteBuffer.allocateDirect(Clamp.clampInt(configuration.getFileBufferSize(), 4096, Integer.MAX_VALUE));
+
+        configureFlush();
+
+        flushCount = Counter.of(0);
+
+        flushedBytes = Counter.of(0);
+
+        lockWaitTime = StripedCounter.of();
+
+        rollCount = Counter.of(0);
+
+        rollTime = Counter.of(0);
+
+        archiver = getArchiver(configuration);
+
+        DaemonThread.create(() -> flushFiles());
+
+        DaemonThread.create(() -> rollFiles());
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> shutdown()));
 
         archiveOrphanedFiles();
     }
@@ -107,6 +202,7 @@ public class FileAppender extends Appender {
      * @param transactionId The transaction identifier
      * @param location The location [caller]
      * @param messageParts The message parts
+     * @param contextMap The diagnostic context map
      * @param throwable The throwable
      */
     public void write(
@@ -118,72 +214,174 @@ public class FileAppender extends Appender {
         final String transactionId,
         final String location,
         final Object[] messageParts,
+        final ContextMap contextMap,
         final Throwable throwable) {
 
-        String stackTrace;
-        StringBuilder stringBuilder;
-        String fullMessage;
+        Encoder encoder;
 
-        stackTrace = null;
-
-        if (day != lastDay) {
+        encoder = encoders.get().reset();
 
-            if (rollFileOnDate(day) == false) {
-                return;
-            }
+        encodeTrace(encoder, timestamp, loggingLevel, hostName, threadId, transactionId, location, messageParts,
+            contextMap, (throwable == null) ? null : StackTrace.getFull(throwable));
 
-        }
+        write(day, encoder.buffer(), loggingLevel == LogLevel.ERROR, timestamp, transactionId);
+    }
+
+    /**
+     * Write transaction event to log.
+     * @param day The day
+     * @param timestamp The timestamp
+     * @param hostName The host name
+     * @param threadId The thread identifier
+     * @param transactionId The transaction identifier
+     * @param location The location [caller]
+     * @param transactionType The transaction type
+     * @param status The transaction status
+     * @param duration The transaction duration
+     * @param argumentList The transaction argument list
+     * @param stackTracePrefix The stack trace prefix
+     * @param throwable The throwable
+     */
+    public void write(
+        final int day,
+        final String timestamp,
+        final String hostName,
+        final String threadId,
+        final String transactionId,
+        final String location,
+        final String transactionType,
+        final String status,
+        final long duration,
+        final List<Argument> argumentList,
+        final String stackTracePrefix,
+        final Throwable throwable) {
 
-        if ((maxFileSize != 0) && (currentFileSize >= maxFileSize)) {
+        Encoder encoder;
 
-            if (rollFileOnSize() == false) {
-                return;
+        encoder = encoders.get().reset();
+
+        encodeTransaction(encoder, timestamp, hostName, threadId, transactionId, location, transactionType, status,
+            duration, argumentList, stackTracePrefix, (throwable == null) ? null : StackTrace.getMinimal(throwable));
+
+        write(day, encoder.buffer(), throwable != null, timestamp, transactionId);
+    }
+
+    /**
+     * Write record to log.  The record is only encoded if no other file
+     * appender has encoded it yet.
+     * @param record The record
+     */
+    public void write(
+        final LogEvent record) {
+
+        byte[] bytes;
+        Encoder encoder;
+
+        bytes = record.getEncoded(FileAppender.class);
+
+        if (bytes == null) {
+
+            encoder = encoders.get().reset();
+
+            if (record.isTransaction() == true) {
+
+                encodeTransaction(encoder, record.getTimestamp(), record.getHostName(), record.getThreadId(),
+                    record.getTransactionId(), record.getLocation(), record.getTransactionType(), record.getStatus(),
+                    record.getDuration(), record.getArgumentList(), record.getStackTracePrefix(),
+                    (record.getThrowable() == null) ? null : record.getMinimalStackTrace());
             }
+            else {
+
+                encodeTrace(encoder, record.getTimestamp(), record.getLoggingLevel(), record.getHostName(),
+                    record.getThreadId(), record.getTransactionId(), record.getLocation(), record.getMessageParts(),
+                    record.getContextMap(), (record.getThrowable() == null) ? null : record.getFullStackTrace());
+            }
+
+            bytes = Arrays.copyOf(encoder.bytes(), encoder.length());
 
+            record.setEncoded(FileAppender.class, bytes);
         }
-
-        stringBuilder = new StringBuilder(256);
-        stringBuilder.append(timestamp).append(", ").append(loggingLevel).append(", ")
+
+        write(record.getDay(), ByteBuffer.wrap(bytes), (record.isTransaction() == true) ? (record.getThrowable() != null) : (record.getLoggingLevel() == LogLevel.ERROR),
+            record.getTimestamp(), record.getTransactionId());
+    }
+
+    /**
+     * Encode trace event.
+     * @param encoder The encoder
+     * @param timestamp The timestamp
+     * @param loggingLevel The logging level
+     * @param hostName The host name
+     * @param threadId The thread identifier
+     * @param transactionId The transaction identifier
+     * @param location The location [caller]
+     * @param messageParts The message parts
+     * @param contextMap The diagnostic context map
+     * @param stackTrace The rendered stack trace, or null if there is no throwable
+     */
+    private void encodeTrace(
+        final Encoder encoder,
+        final String timestamp,
+        final LogLevel loggingLevel,
+        final String hostName,
+        final String threadId,
+        final String transactionId,
+        final String location,
+        final Object[] messageParts,
+        final ContextMap contextMap,
+        final String stackTrace) {
+
+        encoder.append(timestamp).append(", ").append(loggingLevel.name()).append(", ")
             .append(hostName).append(", ") .append(threadId).append(", ")
             .append(transactionId).append(", ").append(location).append(", ");
-
+
         for (int i = 0; i < messageParts.length; i++) {
-            stringBuilder.append(String.valueOf(messageParts[i]));
+            encoder.append(messageParts[i]);
         }
-
-        fullMessage = stringBuilder.toString();
-
-        if (throwable != null) {
-
-            stackTrace = StackTrace.getFull(throwable);
+
+        encodeContextMap(encoder, contextMap);
+
+        encoder.appendLine();
+
+        if (stackTrace != null) {
+
+            encoder.append(stackTrace).appendLine();
         }
 
-        synchronized (this) {
-
-            if (stackTrace != null) {
-
-                printWriter.println(fullMessage);
-
-                currentFileSize += fullMessage.length();
-
-                printWriter.println(stackTrace);
-
-                currentFileSize += stackTrace.length();
-            }
-            else {
-
-                printWriter.println(fullMessage);
-
-                currentFileSize += fullMessage.length();
+    }
+
+    /**
+     * Encode the entries of the diagnostic context map after the message, as
+     * {@code , {key=value, key=value}}.  Nothing is encoded if the map is empty.
+     * @param encoder The encoder
+     * @param contextMap The diagnostic context map
+     */
+    static void encodeContextMap(
+        final Encoder encoder,
+        final ContextMap contextMap) {
+
+        if ((contextMap == null) || (contextMap.isEmpty() == true)) {
+            return;
+        }
+
+        encoder.append(", {");
+
+        for (int i = 0; i < contextMap.size(); i++) {
+
+            if (i > 0) {
+
+                encoder.append(", ");
             }
 
+            encoder.append(contextMap.getKey(i)).append("=").append(contextMap.getValue(i));
         }
 
+        encoder.append("}");
     }
 
     /**
-     * Write transaction event to log.
-     * @param day The day
+     * Encode transaction event.
+     * @param encoder The encoder
      * @param timestamp The timestamp
      * @param hostName The host name
      * @param threadId The thread identifier
@@ -194,10 +392,10 @@ public class FileAppender extends Appender {
      * @param duration The transaction duration
      * @param argumentList The transaction argument list
      * @param stackTracePrefix The stack trace prefix
-     * @param throwable The throwable
+     * @param stackTrace The rendered stack trace, or null if there is no throwable
      */
-    public void write(
-        final int day,
+    private void encodeTransaction(
+        final Encoder encoder,
         final String timestamp,
         final String hostName,
         final String threadId,
@@ -208,186 +406,998 @@ public class FileAppender extends Appender {
         final long duration,
         final List<Argument> argumentList,
         final String stackTracePrefix,
-        final Throwable throwable) {
+        final String stackTrace) {
+
+        encoder.append(timestamp).append(", ")
+            .append(hostName).append(", ") .append(threadId).append(", ")
+            .append(transactionId).append(", ").append(location).append(", ")
+            .append(transactionType).append(", ").append(status).append(", ")
+            .append(duration);
 
-        String stackTrace;
-        StringBuilder stringBuilder;
-        String fullMessage;
+        for (int i = 0; i < argumentList.size(); i++) {
+            encoder.append(", ").append(argumentList.get(i).getName())
+                .append(", ").append(argumentList.get(i).getValue());
+        }
 
-        stackTrace = null;
+        if (stackTrace != null) {
 
-        if (day != lastDay) {
+            encoder.append(", ").append(stackTracePrefix).append(stackTrace);
+        }
+
+        encoder.appendLine();
+    }
 
-            if (rollFileOnDate(day) == false) {
-                return;
+    /**
+     * Make sure that the current file is open and has room, rolling to
+     * the next file on a new day or when the current file is full.  The
+     * caller must hold the lock of the appender, so that the day and the
+     * number of bytes written are read consistently with the writes.
+     * @param day The day
+     * @param timestamp The timestamp of the log entry
+     * @return true if the current file is ready, false otherwise
+     */
+    protected boolean prepareFile(
+        final int day,
+        final String timestamp) {
+
+        if (day != lastDay) {
+
+            if (rollFileOnDate(day, timestamp) == false) {
+                return false;
             }
 
         }
-
-        if ((maxFileSize != 0) && (currentFileSize >= maxFileSize)) {
-
+
+        if (currentFileSize >= maxFileSize) {
+
             if (rollFileOnSize() == false) {
-                return;
+                return false;
             }
 
         }
+
+        return true;
+    }
 
-        stringBuilder = new StringBuilder(256);
-        stringBuilder.append(timestamp).append(", ")
-            .append(hostName).append(", ") .append(threadId).append(", ")
-            .append(transactionId).append(", ").append(location).append(", ")
-            .append(transactionType).append(", ").append(status).append(", ")
-            .append(duration);
-
-        for (Argument argument : argumentList) {
-            stringBuilder.append(", ").append(argument.getName())
-                .append(", ").append(argument.getValue());
+    /**
+     * Write encoded log entry to the write buffer of the current file.  The
+     * write buffer is committed to the file when it holds enough bytes, or
+     * straight away if requested.
+     * @param buffer The buffer that holds the encoded log entry
+     * @param flush true if the write buffer must be committed straight away, false otherwise
+     */
+    protected synchronized void write(
+        final ByteBuffer buffer,
+        final boolean flush) {
+
+        if (fileChannel == null) {
+            return;
+        }
+
+        currentFileSize += buffer.remaining();
+
+        if (buffer.remaining() > writeBuffer.remaining()) {
+
+            flushBuffer();
+        }
+
+        if (buffer.remaining() > writeBuffer.remaining()) {
+
+            writeChannel(buffer);
+        }
+        else {
+
+            writeBuffer.put(buffer);
+        }
+
+        if ((flush == true) || (flushInterval <= 0) || (writeBuffer.position() >= flushSize)) {
+
+            flushBuffer();
+        }
+
+    }
+
+    /**
+     * Write encoded log entry to the current file, after making sure that the
+     * current file is ready for the day of the log entry.  The time spent waiting
+     * for the lock of the appender is added to the lock wait time.
+     * @param day The day
+     * @param buffer The buffer that holds the encoded log entry
+     * @param flush true if the write buffer must be committed straight away, false otherwise
+     * @param timestamp The timestamp of the log entry
+     * @param transactionId The transaction identifier of the log entry
+     */
+    protected void write(
+        final int day,
+        final ByteBuffer buffer,
+        final boolean flush,
+        final String timestamp,
+        final String transactionId) {
+
+        long startTime;
+
+        startTime = System.nanoTime();
+
+        synchronized (this) {
+
+            lockWaitTime.increment(System.nanoTime() - startTime);
+
+            if (prepareFile(day, timestamp) == false) {
+                return;
+            }
+
+            write(buffer, flush, timestamp, transactionId);
+        }
+
+    }
+
+    /**
+     * Write encoded log entry to the current file and add it to the index
+     * of the current file, if indexing is enabled.  The caller must have
+     * made sure that the current file is ready.
+     * @param buffer The buffer that holds the encoded log entry
+     * @param flush true if the write buffer must be committed straight away, false otherwise
+     * @param timestamp The timestamp of the log entry
+     * @param transactionId The transaction identifier of the log entry
+     */
+    protected synchronized void write(
+        final ByteBuffer buffer,
+        final boolean flush,
+        final String timestamp,
+        final String transactionId) {
+
+        int size;
+        long offset;
+
+        size = buffer.remaining();
+
+        write(buffer, flush);
+
+        if (indexWriter != null) {
+
+            offset = getFilePosition() - size;
+
+            if (offset >= 0) {
+
+                indexWriter.add(offset, timestamp, transactionId);
+            }
+
+        }
+
+    }
+
+    /**
+     * Add time that a writer spent waiting for the lock of the appender
+     * to the lock wait time.
+     * @param time The time in nanoseconds
+     */
+    protected void addLockWaitTime(
+        final long time) {
+
+        lockWaitTime.increment(time);
+    }
+
+    /**
+     * Get number of bytes that have been written to the current file,
+     * including the bytes that are still in the write buffer.
+     * @return The number of bytes
+     */
+    protected long getFilePosition() {
+        return currentFileSize;
+    }
+
+    /**
+     * Commit log entries in the write buffer to the current file.
+     */
+    public synchronized void flush() {
+        flushBuffer();
+    }
+
+    /**
+     * Commit log entries in the write buffer to the current file and
+     * complete the index of the current file, when the service terminates.
+     * The files that have been opened ahead of time are removed, and the
+     * files that are still waiting to be closed are closed, to be archived
+     * when the service starts again.
+     */
+    private synchronized void shutdown() {
+
+        Segment segment;
+
+        flush();
+
+        if (indexWriter != null) {
+
+            indexWriter.close();
+
+            indexWriter = null;
+        }
+
+        if (nextSegment != null) {
+
+            closeSegment(nextSegment, false);
+
+            nextSegment = null;
+        }
+
+        if (nextDaySegment != null) {
+
+            closeSegment(nextDaySegment, false);
+
+            nextDaySegment = null;
+        }
+
+        try {
+
+            while ((segment = retiredSegments.remove(0, TimeUnit.MILLISECONDS)) != null) {
+
+                closeSegment(segment, false);
+            }
+
+        }
+        catch (InterruptedException exception) {
+        }
+
+    }
+
+    /**
+     * Commit log entries in the write buffer to the current file.
+     */
+    private void flushBuffer() {
+
+        if (writeBuffer.position() == 0) {
+            return;
+        }
+
+        writeBuffer.flip();
+
+        writeChannel(writeBuffer);
+
+        writeBuffer.clear();
+    }
+
+    /**
+     * Write bytes to the current file, and force them to the storage device
+     * if the sync policy requires it.
+     * @param buffer The buffer that holds the bytes
+     */
+    private void writeChannel(
+        final ByteBuffer buffer) {
+
+        long size;
+
+        if (fileChannel == null) {
+            return;
+        }
+
+        try {
+
+            size = 0;
+
+            while (buffer.hasRemaining() == true) {
+
+                size += fileChannel.write(buffer);
+            }
+
+            if (forceOnFlush == true) {
+
+                fileChannel.force(false);
+            }
+
+            flushCount.increment();
+            flushedBytes.increment(size);
+        }
+        catch (Exception exception) {
+        }
+
+    }
+
+    /**
+     * Commit log entries in the write buffer at intervals, and sample
+     * the flush statistics.
+     */
+    private void flushFiles() {
+
+        long sampleTime;
+        long sampleCount;
+        long sampleBytes;
+        long currentTime;
+        long count;
+
+        sampleTime = System.currentTimeMillis();
+        sampleCount = 0;
+        sampleBytes = 0;
+
+        while (true) {
+
+            ThreadControl.sleep((flushInterval <= 0) ? SAMPLE_INTERVAL : flushInterval, TimeUnit.MILLISECONDS);
+
+            flush();
+
+            currentTime = System.currentTimeMillis();
+
+            if (currentTime - sampleTime >= SAMPLE_INTERVAL) {
+
+                count = flushCount.get() - sampleCount;
+
+                flushesPerSecond = count * 1000.0 / (currentTime - sampleTime);
+
+                bytesPerFlush = (count == 0) ? 0 : (flushedBytes.get() - sampleBytes) / count;
+
+                sampleTime = currentTime;
+                sampleCount = flushCount.get();
+                sampleBytes = flushedBytes.get();
+            }
+
+        }
+
+    }
+
+    /**
+     * Get number of times that the write buffer has been committed to file.
+     * @return The number of flushes
+     */
+    public long getFlushCount() {
+        return flushCount.get();
+    }
+
+    /**
+     * Get number of bytes that have been committed to file.
+     * @return The number of bytes
+     */
+    public long getFlushedBytes() {
+        return flushedBytes.get();
+    }
+
+    /**
+     * Get number of flushes per second during the last sample interval.
+     * @return The number of flushes per second
+     */
+    public double getFlushesPerSecond() {
+        return flushesPerSecond;
+    }
+
+    /**
+     * Get average number of bytes per flush during the last sample interval.
+     * @return The number of bytes per flush
+     */
+    public long getBytesPerFlush() {
+        return bytesPerFlush;
+    }
+
+    /**
+     * Get time that writers have spent waiting for the lock of the appender.
+     * @return The number of microseconds
+     */
+    public long getLockWaitTime() {
+        return TimeUnit.NANOSECONDS.toMicros(lockWaitTime.get());
+    }
+
+    /**
+     * Get number of times that the file has been rolled.
+     * @return The number of rolls
+     */
+    public long getRollCount() {
+        return rollCount.get();
+    }
+
+    /**
+     * Get time that writers have spent rolling the file, under the lock of the appender.
+     * @return The number of microseconds
+     */
+    public long getRollTime() {
+        return TimeUnit.NANOSECONDS.toMicros(rollTime.get());
+    }
+
+    /**
+     * Roll file to first free sequence number for new day.  The file that has
+     * been opened ahead of time for the new day is used, if there is one.  A
+     * log entry that is written late, with a date that is not later than the
+     * date of the current file, is written to the current file instead.
+     * @param day The day
+     * @param timestamp The timestamp of the log entry
+     * @return true if able to roll to the next file, false otherwise
+     */
+    private synchronized boolean rollFileOnDate(
+        final int day,
+        final String timestamp) {
+
+        String fileDate;
+        Segment segment;
+
+        if ((currentSegment != null) && (currentSegment.isFor(baseFileName, currentFileDate) == true)
+            && (isLaterDate(timestamp, currentFileDate) == false)) {
+            return true;
+        }
+
+        if (day != lastDay) {
+
+            fileDate = LocalDateTime.now().format(DateTimeFormatter.ofPattern(FORMAT_FILE_DATE));
+
+            segment = nextDaySegment;
+            nextDaySegment = null;
+
+            if ((segment == null) || (segment.isFor(baseFileName, fileDate) == false)) {
+
+                releaseSegment(segment);
+
+                segment = openSegment(fileDate, getNextFileIndex(fileDate));
+            }
+
+            if (rollFile(segment) == false) {
+                return false;
+            }
+
+            lastDay = day;
+        }
+
+        return true;
+    }
+
+    /**
+     * Indicate whether the date of the timestamp is later than the given date.
+     * The timestamp starts with the date in the same format as the file date,
+     * so the dates are compared character by character.
+     * @param timestamp The timestamp
+     * @param fileDate The file date
+     * @return true if the date of the timestamp is later, false otherwise
+     */
+    private static boolean isLaterDate(
+        final String timestamp,
+        final String fileDate) {
+
+        if ((timestamp == null) || (timestamp.length() < fileDate.length())) {
+            return true;
+        }
+
+        for (int i = 0; i < fileDate.length(); i++) {
+
+            if (timestamp.charAt(i) != fileDate.charAt(i)) {
+                return timestamp.charAt(i) > fileDate.charAt(i);
+            }
+
+        }
+
+        return false;
+    }
+
+    /**
+     * Roll file to next sequence number for same day.
+     * @return true if able to roll to the next file, false otherwise
+     */
+    private synchronized boolean rollFileOnSize() {
+
+        if (currentFileSize >= maxFileSize) {
+
+            return rollFileOnIndex();
+        }
+
+        return true;
+    }
+
+    /**
+     * Roll file to next sequence number for same day, regardless of the size of the current file.
+     * The file that has been opened ahead of time is used, if there is one.
+     * @return true if able to roll to the next file, false otherwise
+     */
+    protected synchronized boolean rollFileOnIndex() {
+
+        Segment segment;
+
+        segment = nextSegment;
+        nextSegment = null;
+
+        if ((segment == null) || (segment.isFor(baseFileName, currentFileDate) == false)) {
+
+            releaseSegment(segment);
+
+            segment = openSegment(currentFileDate, currentFileIndex + 1);
+        }
+
+        return rollFile(segment);
+    }
+
+    /**
+     * Roll to next file.  The log entries of the current file are committed,
+     * and the current file is handed over to the background thread to be closed,
+     * indexed and archived.
+     * @param segment The next file
+     * @return true if able to roll to the next file, false otherwise
+     */
+    private boolean rollFile(
+        final Segment segment) {
+
+        long startTime;
+
+        if (segment == null) {
+            return false;
+        }
+
+        startTime = System.nanoTime();
+
+        if (currentSegment != null) {
+
+            try {
+
+                deactivateFile(currentSegment.channel);
+            }
+            catch (Exception exception) {
+
+                currentSegment.recover = true;
+            }
+
+            releaseSegment(currentSegment);
+
+            currentSegment = null;
+            fileChannel = null;
+            indexWriter = null;
+        }
+
+        try {
+
+            activateFile(segment.channel);
+        }
+        catch (Exception exception) {
+
+            releaseSegment(segment);
+
+            return false;
+        }
+
+        segment.active = true;
+
+        currentSegment = segment;
+        fileChannel = segment.channel;
+        indexWriter = segment.indexWriter;
+
+        currentFileDate = segment.fileDate;
+        currentFileIndex = segment.fileIndex;
+        currentFileSize = 0;
+
+        rollCount.increment();
+        rollTime.increment(System.nanoTime() - startTime);
+
+        return true;
+    }
+
+    /**
+     * Open file for writing.  The file may be opened ahead of time, so it
+     * must not become the current file until it is activated.
+     * @param file The file
+     * @return The file channel
+     * @throws IOException if unable to open the file
+     */
+    protected FileChannel openFile(
+        final File file) throws IOException {
+
+        return FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Make file the current file.
+     * @param channel The file channel
+     * @throws IOException if unable to activate the file
+     */
+    protected void activateFile(
+        final FileChannel channel) throws IOException {
+    }
+
+    /**
+     * Commit log entries in the write buffer before the file is rolled.
+     * The file is closed in the background.
+     * @param channel The file channel
+     * @throws IOException if unable to commit the log entries
+     */
+    protected void deactivateFile(
+        final FileChannel channel) throws IOException {
+
+        flushBuffer();
+    }
+
+    /**
+     * Create index for file, if indexing is enabled.  Each index has a bloom
+     * filter of its own, as the index of a file that has been rolled is completed
+     * in the background while the next file is written.
+     * @param file The file
+     * @return The index writer, or null if indexing is disabled
+     */
+    private FileIndexWriter openIndex(
+        final File file) {
+
+        if (configuration.isIndexEnabled() == false) {
+            return null;
+        }
+
+        try {
+
+            return new FileIndexWriter(FileIndex.getIndexFile(file), configuration.getIndexInterval(),
+                BloomFilter.of(configuration.getIndexBloomSize(), FileIndex.BLOOM_HASHES));
+        }
+        catch (Exception exception) {
+
+            return null;
+        }
+
+    }
+
+    /**
+     * Close files that have been rolled and open the next files ahead of time.
+     */
+    private void rollFiles() {
+
+        Segment segment;
+
+        while (true) {
+
+            try {
+
+                segment = retiredSegments.remove(ROLL_INTERVAL, TimeUnit.MILLISECONDS);
+            }
+            catch (InterruptedException exception) {
+
+                segment = null;
+            }
+
+            if (segment != null) {
+
+                closeSegment(segment, true);
+            }
+
+            prepareSegments();
+
+            archiveLeftFiles();
+        }
+
+    }
+
+    /**
+     * Hand the files that the file archiver has left in the log file path over
+     * to it again, once it has queued the files that it has deferred.  Only the
+     * files that precede the current file are handed over, after the files that
+     * have been rolled are closed, as the files that follow it are still open.
+     * The files are handed over until the file archiver leaves one of them again.
+     */
+    private void archiveLeftFiles() {
+
+        File baseFile;
+        String lastFileName;
+        String[] names;
+        Segment segment;
+
+        if ((filesLeft == false) || (orphansPending == true) || (archiver.getDeferredFiles() > 0)) {
+            return;
+        }
+
+        synchronized (this) {
+
+            if (currentSegment == null) {
+                return;
+            }
+
+            baseFile = new File(baseFileName);
+
+            lastFileName = new File(getFileName(currentFileDate, currentFileIndex)).getName();
+        }
+
+        filesLeft = false;
+
+        try {
+
+            while ((segment = retiredSegments.remove(0, TimeUnit.MILLISECONDS)) != null) {
+
+                closeSegment(segment, true);
+            }
+
+        }
+        catch (InterruptedException exception) {
+        }
+
+        names = baseFile.getParentFile().list();
+
+        if (names == null) {
+            return;
+        }
+
+        Arrays.sort(names);
+
+        for (int i = 0; (i < names.length) && (filesLeft == false); i++) {
+
+            if ((names[i].startsWith(baseFile.getName() + ".") == true) && (names[i].endsWith(fileExtension) == true)
+                && (names[i].length() == lastFileName.length()) && (names[i].compareTo(lastFileName) < 0)) {
+
+                archiveFile(new File(baseFile.getParentFile(), names[i]), false);
+            }
+
+        }
+
+    }
+
+    /**
+     * Open the next file of the current day ahead of time, if the files are
+     * limited in size, and the first file of the next day shortly before midnight.
+     * Archived files that have aged out of scope are pruned once per day.
+     */
+    private void prepareSegments() {
+
+        String fileDate;
+        int fileIndex;
+        Segment segment;
+        LocalDateTime now;
+
+        synchronized (this) {
+
+            if (currentSegment == null) {
+                return;
+            }
+
+            fileDate = currentFileDate;
+            fileIndex = currentFileIndex;
+            segment = nextSegment;
+        }
+
+        if (fileDate.equals(prunedFileDate) == false) {
+
+            pruneArchivedFiles();
+
+            prunedFileDate = fileDate;
+        }
+
+        if ((isSizeLimited() == true) && ((segment == null) || (segment.isFor(baseFileName, fileDate) == false)
+            || (segment.fileIndex <= fileIndex))) {
+
+            installSegment(openSegment(fileDate, fileIndex + 1), false);
+        }
+
+        now = LocalDateTime.now();
+
+        if (now.until(now.toLocalDate().plusDays(1).atStartOfDay(), ChronoUnit.MILLIS) <= PREPARE_AHEAD) {
+
+            fileDate = now.plusDays(1).format(DateTimeFormatter.ofPattern(FORMAT_FILE_DATE));
+
+            synchronized (this) {
+
+                segment = nextDaySegment;
+            }
+
+            if ((segment == null) || (segment.isFor(baseFileName, fileDate) == false)) {
+
+                installSegment(openSegment(fileDate, getNextFileIndex(fileDate)), true);
+            }
+
+        }
+
+    }
+
+    /**
+     * Make file that has been opened ahead of time available to the writers.
+     * The file that it replaces, if any, is removed.
+     * @param segment The file
+     * @param nextDay true if the file is the first file of the next day, false otherwise
+     */
+    private void installSegment(
+        final Segment segment,
+        final boolean nextDay) {
+
+        Segment previousSegment;
+
+        if (segment == null) {
+            return;
+        }
+
+        synchronized (this) {
+
+            if (nextDay == true) {
+
+                previousSegment = nextDaySegment;
+                nextDaySegment = segment;
+            }
+            else {
+
+                previousSegment = nextSegment;
+                nextSegment = segment;
+            }
+
+        }
+
+        if (previousSegment != null) {
+
+            closeSegment(previousSegment, false);
+        }
+
+    }
+
+    /**
+     * Open file with the first free sequence number, starting at the given
+     * sequence number, together with its index.  The files are opened one at
+     * a time, so that the writers and the background thread never open the
+     * same file.
+     * @param fileDate The file date
+     * @param fileIndex The sequence number to start at
+     * @return The file, or null if unable to open the file
+     */
+    private Segment openSegment(
+        final String fileDate,
+        final int fileIndex) {
+
+        int index;
+        File file;
+        FileChannel channel;
+
+        synchronized (segmentLock) {
+
+            try {
+
+                index = fileIndex;
+
+                file = new File(getFileName(fileDate, index));
+
+                while (fileExists(file) == true) {
+
+                    index++;
+
+                    file = new File(getFileName(fileDate, index));
+                }
+
+                file.getParentFile().mkdirs();
+
+                channel = openFile(file);
+            }
+            catch (Exception exception) {
+
+                return null;
+            }
+
+            return new Segment(baseFileName, fileDate, index, file, channel, openIndex(file));
+        }
+
+    }
+
+    /**
+     * Close file that is no longer written to.  A file that has been opened
+     * ahead of time, but that has never been written to, is removed.  A file
+     * that could not be deactivated, such as a memory-mapped file that could
+     * not be truncated while it was still mapped, is recovered once it has been
+     * closed, so that it is archived without the bytes that follow its last
+     * complete log entry.
+     * @param segment The file
+     * @param archive true if the file must be archived, false otherwise
+     */
+    private void closeSegment(
+        final Segment segment,
+        final boolean archive) {
+
+        try {
+
+            segment.channel.close();
+        }
+        catch (Exception exception) {
         }
-
-        fullMessage = stringBuilder.toString();
-
-        if (throwable != null) {
-
-            stackTrace = StackTrace.getMinimal(throwable);
+
+        if (segment.indexWriter != null) {
+
+            segment.indexWriter.close();
         }
 
-        synchronized (this) {
-
-            if (stackTrace != null) {
-
-                printWriter.print(fullMessage);
-
-                currentFileSize += fullMessage.length();
-
-                printWriter.print(", " + stackTracePrefix);
-                printWriter.println(stackTrace);
-
-                currentFileSize += (stackTracePrefix.length() + stackTrace.length() + 2);
-            }
-            else {
-
-                printWriter.println(fullMessage);
-
-                currentFileSize += fullMessage.length();
-            }
+        if ((segment.active == true) && (segment.recover == true)) {
 
+            recoverFile(segment.file);
+        }
+
+        if (segment.active == false) {
+
+            segment.file.delete();
+
+            FileIndex.getIndexFile(segment.file).delete();
+        }
+        else if (archive == true) {
+
+            archiveFile(segment.file, false);
         }
 
     }
 
     /**
-     * Roll file to starting sequence number for new day.
-     * @return true if able to roll to the next file, false otherwise
+     * Hand file over to the background thread to be closed.
+     * @param segment The file
      */
-    private synchronized boolean rollFileOnDate(
-        final int day) {
-
-        File directory;
-
-        if (day != lastDay) {
-
-            currentFileIndex = 1;
-            currentFileSize = 0;
-            needToRoll = true;
-
-            currentFileDate = LocalDateTime.now().format(DateTimeFormatter.ofPattern(FORMAT_FILE_DATE));
-
-            directory = new File(baseFileName).getParentFile();
-            directory.mkdirs();
-
-            pruneArchivedFiles();
-
-            if (rollFile() == false) {
-                return false;
-            }
-
-            lastDay = day;
+    private void releaseSegment(
+        final Segment segment) {
+
+        if (segment != null) {
+
+            retiredSegments.add(segment);
         }
 
-        return true;
     }
 
     /**
-     * Roll file to next sequence number for same day.
-     * @return true if able to roll to the next file, false otherwise
+     * Indicate whether the files are limited in size, in which case the next
+     * file of the current day is opened ahead of time.
+     * @return true if the files are limited in size, false otherwise
      */
-    private synchronized boolean rollFileOnSize() {
-
-        if ((maxFileSize != 0) && (currentFileSize >= maxFileSize)) {
-
-            currentFileIndex++;
-            needToRoll = true;
-
-            if (rollFile() == false) {
-                return false;
-            }
-
-            currentFileSize = 0;
+    protected boolean isSizeLimited() {
+        return maxFileSize < Long.MAX_VALUE;
+    }
+
+    /**
+     * Get first free sequence number for given day.  The highest sequence
+     * number is taken from a single listing of the log folder and of the
+     * archive folder of the day, rather than by probing for each file.
+     * @param fileDate The file date
+     * @return The sequence number
+     */
+    private int getNextFileIndex(
+        final String fileDate) {
+
+        String prefix;
+        int fileIndex;
+
+        prefix = new File(baseFileName).getName() + "." + fileDate + ".";
+
+        fileIndex = getLastFileIndex(new File(baseFileName).getParentFile(), prefix, fileExtension);
+
+        if (historyPath != null) {
+
+            fileIndex = Math.max(fileIndex, getLastFileIndex(new File(historyPath.replace("%d", fileDate)),
+                prefix, fileExtension + archiveCodec.getExtension()));
         }
 
-        return true;
+        return fileIndex + 1;
     }
 
     /**
-     * Roll to next file.
-     * @return true if able to roll to the next file, false otherwise
+     * Get highest sequence number of the files in given folder.
+     * @param directory The folder
+     * @param prefix The prefix of the file names
+     * @param suffix The suffix of the file names
+     * @return The sequence number, or 0 if there are no files
      */
-    private boolean rollFile() {
-
-        File newFile;
-
-        while (needToRoll == true) {
+    private static int getLastFileIndex(
+        final File directory,
+        final String prefix,
+        final String suffix) {
 
-            try {
-
-                newFile = new File(getFileName());
-            }
-            catch (Exception exception) {
-
-                return false;
-            }
-
-            if (fileExists(newFile) == false) {
-
-                if (printWriter != null) {
-
-                    printWriter.flush();
-                    printWriter.close();
-                    printWriter = null;
-
-                    archiveQueue.add(currentFile);
-                }
+        String[] names;
+        int fileIndex;
+
+        names = directory.list();
+
+        if (names == null) {
+            return 0;
+        }
+
+        fileIndex = 0;
+
+        for (int i = 0; i < names.length; i++) {
+
+            if ((names[i].startsWith(prefix) == true) && (names[i].endsWith(suffix) == true)
+                && (names[i].length() > prefix.length() + suffix.length())) {
 
                 try {
-
-                    printWriter = new PrintWriter(new FileWriter(newFile, true), true);
+
+                    fileIndex = Math.max(fileIndex, Integer.parseInt(names[i].substring(prefix.length(), names[i].length() - suffix.length())));
                 }
-                catch (Exception exception) {
-
-                    return false;
+                catch (NumberFormatException exception) {
                 }
-
-                currentFile = newFile;
-
-                needToRoll = false;
-            }
-            else {
-
-                currentFileIndex++;
+
             }
 
         }
 
-        return true;
+        return fileIndex;
     }
 
     /**
-     * Archive files that have been orphaned by service termination.
+     * Archive files that have been orphaned by service termination.  The files
+     * are recovered and handed over to the file archiver in the background, as the
+     * file archiver has capacity, so that a large number of orphaned files neither
+     * delays the start of the service nor exceeds the backlog of the file archiver.
      */
     private void archiveOrphanedFiles() {
 
         File directory;
         File[] files;
+        List<File> orphanedFiles;
 
         try {
 
@@ -395,15 +1405,20 @@ public class FileAppender extends Appender {
 
             files = directory.listFiles();
 
+            orphanedFiles = new ArrayList<File>();
+
             for (int i = 0; i < files.length; i++) {
 
                 if (files[i].getName().endsWith(fileExtension) == true) {
 
-                    archiveQueue.add(files[i]);
+                    orphanedFiles.add(files[i]);
                 }
 
             }
 
+            orphansPending = true;
+
+            DaemonThread.create(() -> archiveOrphanedFiles(orphanedFiles));
         }
         catch (Exception exception) {
         }
@@ -411,88 +1426,200 @@ public class FileAppender extends Appender {
     }
 
     /**
-     * Archive files that have been completed.
+     * Recover files that have been orphaned by service termination and hand
+     * them over to the file archiver.  Files that hold nothing, such as files
+     * that were opened ahead of time, are removed.  Files that the file archiver
+     * has left in the log file path are not handed over again until all the
+     * orphaned files have been handed over, so that no file is archived twice.
+     * @param files The list of files
      */
-    private void archiveFiles() {
-
-        File file;
-
-        while (true) {
+    private void archiveOrphanedFiles(
+        final List<File> files) {
 
-            try {
-
-                file = archiveQueue.remove();
-
-                archiveFile(file);
+        for (File file : files) {
+
+            recoverFile(file);
+
+            if (file.length() == 0) {
+
+                file.delete();
+
+                FileIndex.getIndexFile(file).delete();
             }
-            catch (Exception exception) {
+            else {
+
+                archiveFile(file, true);
             }
 
         }
 
+        orphansPending = false;
     }
 
     /**
-     * Archive file.  The file is moved to the file history path and compressed.
-     * @param fileName The file name
+     * Recover file that has been orphaned by service termination.  Bytes that
+     * follow the last complete log entry, such as a log entry that was only
+     * partially written or space that was pre-allocated but never written,
+     * are truncated from the file.
+     * @param file The file
      */
-    private void archiveFile(
+    protected void recoverFile(
         final File file) {
-
-        FileInputStream fileInputStream;
-        String archiveFileName;
-        File archiveDirectory;
-        ZipOutputStream zipOutputStream;
-        byte[] buffer;
-        int size;
-
-        if (historyPath == null) {
-            return;
-        }
+
+        FileChannel channel;
+        ByteBuffer buffer;
+        long size;
+        long start;
+        long end;
+        long position;
 
         try {
-
-            fileInputStream = new FileInputStream(file);
+
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
 
             try {
-
-                archiveFileName = getArchiveFileName(file);
-
-                archiveDirectory = new File(archiveFileName).getParentFile();
-                archiveDirectory.mkdirs();
-
-                zipOutputStream = new ZipOutputStream(new FileOutputStream(new File(archiveFileName)));
 
-                try {
-
-                    zipOutputStream.putNextEntry(new ZipEntry(file.getName()));
-
-                    buffer = new byte[1024];
-
-                    while ((size = fileInputStream.read(buffer)) >= 0) {
-                        zipOutputStream.write(buffer, 0, size);
+                size = channel.size();
+
+                buffer = ByteBuffer.allocate(8192);
+
+                end = -1;
+
+                position = size;
+
+                while ((end < 0) && (position > 0)) {
+
+                    start = Math.max(0, position - buffer.capacity());
+
+                    buffer.clear();
+                    buffer.limit((int) (position - start));
+
+                    while (buffer.hasRemaining() == true) {
+
+                        if (channel.read(buffer, start + buffer.position()) < 0) {
+                            break;
+                        }
+
+                    }
+
+                    for (int i = buffer.position() - 1; i >= 0; i--) {
+
+                        if (buffer.get(i) == '\n') {
+
+                            end = start + i + 1;
+
+                            break;
+                        }
+
                     }
 
+                    position = start;
                 }
-                finally {
-
-                    zipOutputStream.flush();
-                    zipOutputStream.close();
+
+                if (end < size) {
+
+                    channel.truncate(Math.max(end, 0));
                 }
 
             }
             finally {
+
+                channel.close();
+            }
+
+        }
+        catch (Exception exception) {
+        }
+
+    }
+
+    /**
+     * Archive file that has been completed.  The file is handed over to the
+     * file archiver, which moves it to the file history path and compresses it.
+     * @param file The file
+     * @param wait true if the caller waits for the file archiver to have capacity, false otherwise
+     */
+    private void archiveFile(
+        final File file,
+        final boolean wait) {
+
+        if (historyPath == null) {
+            return;
+        }
+
+        archiveIndex(file);
+
+        try {
+
+            if (wait == true) {
+
+                archiver.archiveAndWait(file, new File(getArchiveFileName(file)), archiveCodec);
+            }
+            else if (archiver.archive(file, new File(getArchiveFileName(file)), archiveCodec) == false) {
 
-                fileInputStream.close();
+                filesLeft = true;
+            }
+
+        }
+        catch (Exception exception) {
+        }
+
+    }
+
+    /**
+     * Move index of file that has been completed to the file history path,
+     * where it is kept uncompressed alongside the archive file.
+     * @param file The file
+     */
+    private void archiveIndex(
+        final File file) {
+
+        File indexFile;
+        File archiveIndexFile;
+
+        try {
+
+            indexFile = FileIndex.getIndexFile(file);
+
+            if (indexFile.exists() == true) {
+
+                archiveIndexFile = FileIndex.getIndexFile(new File(getArchiveFileName(file)));
+
+                archiveIndexFile.getParentFile().mkdirs();
+
+                Files.move(indexFile.toPath(), archiveIndexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
             }
 
-            file.delete();
         }
         catch (Exception exception) {
         }
 
     }
 
+    /**
+     * Get file archiver that is shared by the file appenders.
+     * @param configuration The configuration
+     * @return The file archiver
+     */
+    private static synchronized FileArchiver getArchiver(
+        final AppenderConfig configuration) {
+
+        if (sharedArchiver == null) {
+
+            sharedArchiver = FileArchiver.of(configuration.getArchiveThreads(), configuration.getArchiveBacklog());
+        }
+
+        return sharedArchiver;
+    }
+
+    /**
+     * Get file archiver.
+     * @return The file archiver
+     */
+    public FileArchiver getArchiver() {
+        return archiver;
+    }
+
     /**
      * Prune archived files which have aged out of scope.
      */
@@ -534,11 +1661,15 @@ public class FileAppender extends Appender {
     }
 
     /**
-     * Build file name from current file parameters.
+     * Build file name from given file parameters.
+     * @param fileDate The file date
+     * @param fileIndex The sequence number
      * @return The file name
      */
-    private String getFileName() {
-        return baseFileName + "." + currentFileDate + "." + String.format(FORMAT_FILE_INDEX, currentFileIndex) + fileExtension;
+    private String getFileName(
+        final String fileDate,
+        final int fileIndex) {
+        return baseFileName + "." + fileDate + "." + String.format(FORMAT_FILE_INDEX, fileIndex) + fileExtension;
     }
 
     /**
@@ -557,7 +1688,7 @@ public class FileAppender extends Appender {
 
         archiveDirectory = new File(historyPath.replace("%d", fileDate));
 
-        archiveFileName = archiveDirectory.getAbsolutePath() + "/" + file.getName() + ".zip";
+        archiveFileName = archiveDirectory.getAbsolutePath() + "/" + file.getName() + archiveCodec.getExtension();
 
         return archiveFileName;
     }
@@ -569,7 +1700,55 @@ public class FileAppender extends Appender {
      */
     private boolean fileExists(
         final File file) {
-        return (file.exists() || new File(getArchiveFileName(file)).exists());
+        return (file.exists() || ((historyPath != null) && new File(getArchiveFileName(file)).exists()));
+    }
+
+    /**
+     * Get file extension of the files that the appender writes to.
+     * @return The file extension
+     */
+    protected String getFileExtension() {
+        return stream.getExtension();
+    }
+
+    /**
+     * Reconfigure appender while it is in use.  The maximum file size, the history
+     * and the flush settings take effect with the next log entry.  If the name of
+     * the log files has changed, the appender rolls to a file with the new name on
+     * the next write.  The size of the write buffer is kept.
+     * @param configuration The new configuration
+     * @throws ApplicationException if unable to reconfigure the appender
+     */
+    public synchronized void reconfigure(
+        final AppenderConfig configuration) throws ApplicationException {
+
+        String previousBaseFileName;
+
+        previousBaseFileName = baseFileName;
+
+        super.reconfigure(configuration);
+
+        configureFlush();
+
+        if (baseFileName.equals(previousBaseFileName) == false) {
+
+            lastDay = 0;
+        }
+
+    }
+
+    /**
+     * Configure when the write buffer is committed to the current file.
+     */
+    private void configureFlush() {
+
+        flushSize = Clamp.clampInt(configuration.getFlushSize(), 1, writeBuffer.capacity());
+
+        flushInterval = configuration.getFlushInterval();
+
+        forceOnFlush = (configuration.getSyncPolicy() == SyncPolicy.ALL)
+            || ((configuration.getSyncPolicy() == SyncPolicy.TRANSACTION)
+            && ((stream == Stream.TRANSACTION) || (stream == Stream.TRANSACTION_ERROR)));
     }
 
     /**
@@ -597,25 +1776,96 @@ public class FileAppender extends Appender {
 
             currentFileIndex = 1;
             currentFileSize = 0;
-            needToRoll = true;
         }
 
         baseFileName = newBaseFileName;
 
-        if ((fileExtension != null) && (fileExtension.equals(stream.getExtension()) == false)) {
+        if ((fileExtension != null) && (fileExtension.equals(getFileExtension()) == false)) {
 
             currentFileIndex = 1;
             currentFileSize = 0;
-            needToRoll = true;
         }
 
-        fileExtension = stream.getExtension();
+        fileExtension = getFileExtension();
 
         maxFileSize = (configuration.getMaxFileSize() <= 0) ? Long.MAX_VALUE : configuration.getMaxFileSize();
 
         historyPath = configuration.getHistoryPath();
 
         maxFileHistory = Clamp.clampInt(configuration.getMaxFileHistory(), 1, Integer.MAX_VALUE);
+
+        archiveCodec = (configuration.getArchiveCodec() == null) ? ArchiveCodec.ofZip() : configuration.getArchiveCodec();
+    }
+
+    /**
+     * A file that has been opened for writing, together with its index.
+     */
+    private static class Segment {
+
+        private String baseFileName;
+
+        private String fileDate;
+
+        private int fileIndex;
+
+        private File file;
+
+        private FileChannel channel;
+
+        private FileIndexWriter indexWriter;
+
+        private boolean active;
+
+        private boolean recover;
+
+        /**
+         * Constructor.
+         * @param baseFileName The base file name
+         * @param fileDate The file date
+         * @param fileIndex The sequence number
+         * @param file The file
+         * @param channel The file channel
+         * @param indexWriter The index writer, or null if indexing is disabled
+         */
+        private Segment(
+            final String baseFileName,
+            final String fileDate,
+            final int fileIndex,
+            final File file,
+            final FileChannel channel,
+            final FileIndexWriter indexWriter) {
+
+            super();
+
+            this.baseFileName = baseFileName;
+
+            this.fileDate = fileDate;
+
+            this.fileIndex = fileIndex;
+
+            this.file = file;
+
+            this.channel = channel;
+
+            this.indexWriter = indexWriter;
+
+            active = false;
+
+            recover = false;
+        }
+
+        /**
+         * Indicate whether the file belongs to given base file name and file date.
+         * @param baseFileName The base file name
+         * @param fileDate The file date
+         * @return true if the file belongs to the base file name and file date, false otherwise
+         */
+        private boolean isFor(
+            final String baseFileName,
+            final String fileDate) {
+            return (this.baseFileName.equals(baseFileName) == true) && (this.fileDate.equals(fileDate) == true);
+        }
+
     }
 
 }
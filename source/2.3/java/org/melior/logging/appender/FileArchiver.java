@@ -0,0 +1,408 @@
+/* __  __      _ _            
+  |  \/  |    | (_)           
+  | \  / | ___| |_  ___  _ __ 
+  | |\/| |/ _ \ | |/ _ \| '__|
+  | |  | |  __/ | | (_) | |   
+  |_|  |_|\___|_|_|\___/|_|   
+        Service Harness
+*/
+package org.melior.logging.appender;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import org.melior.util.collection.BoundedBlockingQueue;
+import org.melior.util.collection.Queue;
+import org.melior.util.number.Clamp;
+import org.melior.util.number.Counter;
+import org.melior.util.thread.DaemonThread;
+
+/**
+ * Archives log files that have been completed.  The files are compressed by a
+ * bounded pool of worker threads, which take the files from a bounded backlog.
+ * Files that are completed when the backlog is full are not queued, so rolling
+ * never waits for archiving.  These files are deferred, which means that they
+ * remain in the log file path and are queued again whenever a worker thread
+ * has archived a file and the backlog has capacity again.  At most as many
+ * files are deferred as the backlog holds.  Files that are completed while
+ * that many files are deferred are left in the log file path, and it is up
+ * to the file appender to hand them over again once the deferred files have
+ * been queued.  The files that are still waiting when the service stops are
+ * archived when it restarts, along with the other files that have been orphaned.
+ * @author Melior
+ * @since 2.3
+ * @see ArchiveCodec
+ */
+public class FileArchiver {
+
+    private static final int BUFFER_SIZE = 262144;
+
+    private BoundedBlockingQueue<Task> backlog;
+
+    private ArrayDeque<Task> deferredTasks;
+
+    private int capacity;
+
+    private Counter archivedFiles;
+
+    private Counter archivedBytes;
+
+    private Counter archiveTime;
+
+    private Counter leftFiles;
+
+    private Counter failedFiles;
+
+    /**
+     * Constructor.
+     * @param threads The number of worker threads
+     * @param capacity The capacity of the backlog
+     */
+    FileArchiver(
+        final int threads,
+        final int capacity) {
+
+        super();
+
+        this.capacity = Clamp.clampInt(capacity, 1, Integer.MAX_VALUE);
+
+        backlog = Queue.ofBoundedBlocking(this.capacity);
+
+        deferredTasks = new ArrayDeque<Task>();
+
+        archivedFiles = Counter.of(0);
+
+        archivedBytes = Counter.of(0);
+
+        archiveTime = Counter.of(0);
+
+        leftFiles = Counter.of(0);
+
+        failedFiles = Counter.of(0);
+
+        for (int i = 0; i < Clamp.clampInt(threads, 1, Integer.MAX_VALUE); i++) {
+
+            DaemonThread.create(() -> archiveFiles());
+        }
+
+    }
+
+    /**
+     * Get instance of file archiver.
+     * @param threads The number of worker threads, or zero to use one worker thread per available processor
+     * @param capacity The capacity of the backlog
+     * @return The file archiver
+     */
+    public static FileArchiver of(
+        final int threads,
+        final int capacity) {
+        return new FileArchiver((threads <= 0) ? Runtime.getRuntime().availableProcessors() : threads, capacity);
+    }
+
+    /**
+     * Queue file to be archived, if the backlog is not full.  Otherwise, the file is
+     * deferred until the backlog has capacity again, unless as many files as the
+     * backlog holds have been deferred already, in which case the file is left in
+     * the log file path.  Files that have been deferred earlier are queued first.
+     * @param file The file
+     * @param archiveFile The archive file
+     * @param codec The archive codec
+     * @return true if the file was queued or deferred, false if the file was left in the log file path
+     */
+    public boolean archive(
+        final File file,
+        final File archiveFile,
+        final ArchiveCodec codec) {
+
+        Task task;
+
+        task = new Task(file, archiveFile, codec);
+
+        requeueDeferredFiles();
+
+        synchronized (deferredTasks) {
+
+            if ((deferredTasks.isEmpty() == true) && (offer(task) == true)) {
+                return true;
+            }
+
+            if (deferredTasks.size() >= capacity) {
+
+                leftFiles.increment();
+
+                return false;
+            }
+
+            deferredTasks.add(task);
+        }
+
+        requeueDeferredFiles();
+
+        return true;
+    }
+
+    /**
+     * Queue file to be archived, waiting for the backlog to have capacity if it is full.
+     * @param file The file
+     * @param archiveFile The archive file
+     * @param codec The archive codec
+     */
+    public void archiveAndWait(
+        final File file,
+        final File archiveFile,
+        final ArchiveCodec codec) {
+
+        try {
+
+            backlog.add(new Task(file, archiveFile, codec));
+        }
+        catch (Exception exception) {
+        }
+
+    }
+
+    /**
+     * Queue the files that have been deferred, for as long as the backlog has capacity.
+     */
+    private void requeueDeferredFiles() {
+
+        synchronized (deferredTasks) {
+
+            while ((deferredTasks.isEmpty() == false) && (offer(deferredTasks.peek()) == true)) {
+
+                deferredTasks.remove();
+            }
+
+        }
+
+    }
+
+    /**
+     * Add task to the backlog, if it is not full.
+     * @param task The task
+     * @return true if the task was added, false if the backlog is full
+     */
+    private boolean offer(
+        final Task task) {
+
+        try {
+
+            return backlog.offer(task);
+        }
+        catch (Exception exception) {
+            return false;
+        }
+
+    }
+
+    /**
+     * Take files from the backlog and archive them.  Once a file has been
+     * archived, the backlog has capacity for a file that has been deferred.
+     */
+    private void archiveFiles() {
+
+        byte[] buffer;
+        Task task;
+
+        buffer = new byte[BUFFER_SIZE];
+
+        while (true) {
+
+            try {
+
+                task = backlog.remove();
+
+                archiveFile(task, buffer);
+
+                requeueDeferredFiles();
+            }
+            catch (Exception exception) {
+            }
+
+        }
+
+    }
+
+    /**
+     * Archive file.  The file is compressed into the archive file and is then deleted.
+     * @param task The task
+     * @param buffer The copy buffer
+     */
+    private void archiveFile(
+        final Task task,
+        final byte[] buffer) {
+
+        long startTime;
+        long size;
+        FileInputStream fileInputStream;
+        OutputStream outputStream;
+        int count;
+
+        startTime = System.nanoTime();
+
+        size = 0;
+
+        try {
+
+            task.archiveFile.getParentFile().mkdirs();
+
+            fileInputStream = new FileInputStream(task.file);
+
+            try {
+
+                outputStream = task.codec.wrap(new BufferedOutputStream(new FileOutputStream(task.archiveFile), BUFFER_SIZE), task.file.getName());
+
+                try {
+
+                    while ((count = fileInputStream.read(buffer)) >= 0) {
+
+                        outputStream.write(buffer, 0, count);
+
+                        size += count;
+                    }
+
+                }
+                finally {
+
+                    outputStream.close();
+                }
+
+            }
+            finally {
+
+                fileInputStream.close();
+            }
+
+            task.file.delete();
+
+            archivedFiles.increment();
+            archivedBytes.increment(size);
+            archiveTime.increment(System.nanoTime() - startTime);
+        }
+        catch (Exception exception) {
+
+            failedFiles.increment();
+        }
+
+    }
+
+    /**
+     * Get number of files that are waiting to be archived.
+     * @return The backlog
+     */
+    public int getBacklog() {
+        return backlog.size();
+    }
+
+    /**
+     * Get capacity of the backlog.
+     * @return The capacity
+     */
+    public int getBacklogCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Get number of files that have been archived.
+     * @return The number of files
+     */
+    public long getArchivedFiles() {
+        return archivedFiles.get();
+    }
+
+    /**
+     * Get number of bytes that have been archived, before compression.
+     * @return The number of bytes
+     */
+    public long getArchivedBytes() {
+        return archivedBytes.get();
+    }
+
+    /**
+     * Get number of files that are currently deferred because the backlog is full.
+     * @return The number of files
+     */
+    public int getDeferredFiles() {
+
+        synchronized (deferredTasks) {
+
+            return deferredTasks.size();
+        }
+
+    }
+
+    /**
+     * Get number of times that a file has been left in the log file path because
+     * the backlog was full and as many files as it holds were deferred already.
+     * @return The number of files
+     */
+    public long getLeftFiles() {
+        return leftFiles.get();
+    }
+
+    /**
+     * Get number of files that could not be archived.
+     * @return The number of files
+     */
+    public long getFailedFiles() {
+        return failedFiles.get();
+    }
+
+    /**
+     * Get time that the worker threads have spent archiving.
+     * @return The number of microseconds
+     */
+    public long getArchiveTime() {
+        return TimeUnit.NANOSECONDS.toMicros(archiveTime.get());
+    }
+
+    /**
+     * Get throughput of a worker thread while it is archiving.
+     * @return The number of bytes per second
+     */
+    public long getThroughput() {
+
+        long time;
+
+        time = archiveTime.get();
+
+        return (time == 0) ? 0 : (long) (archivedBytes.get() * 1e9 / time);
+    }
+
+    /**
+     * A file that is waiting to be archived.
+     */
+    private static class Task {
+
+        private File file;
+
+        private File archiveFile;
+
+        private ArchiveCodec codec;
+
+        /**
+         * Constructor.
+         * @param file The file
+         * @param archiveFile The archive file
+         * @param codec The archive codec
+         */
+        private Task(
+            final File file,
+            final File archiveFile,
+            final ArchiveCodec codec) {
+
+            super();
+
+            this.file = file;
+
+            this.archiveFile = archiveFile;
+
+            this.codec = codec;
+        }
+
+    }
+
+}
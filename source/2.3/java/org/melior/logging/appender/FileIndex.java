@@ -0,0 +1,331 @@
+/* __  __      _ _            
+  |  \/  |    | (_)           
+  | \  / | ___| |_  ___  _ __ 
+  | |\/| |/ _ \ | |/ _ \| '__|
+  | |  | |  __/ | | (_) | |   
+  |_|  |_|\___|_|_|\___/|_|   
+        Service Harness
+*/
+package org.melior.logging.appender;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.melior.util.collection.BloomFilter;
+
+/**
+ * The sidecar index of a log file.  The log file is divided into blocks of
+ * log entries, and the index holds the offset of each block in the log file,
+ * together with the earliest and latest timestamp of the log entries in the
+ * block.  The index of a file that has been completed also holds a bloom
+ * filter of the transaction identifiers of the log entries in the file.
+ * <p>
+ * The index file starts with a header, which is followed by one entry of three
+ * 8-byte integers per block, in big-endian order.  The bloom filter is appended
+ * when the log file is completed, followed by its size, its number of hash functions
+ * and a trailer.  The index of a log file that is still being written, or that has
+ * been orphaned by service termination, holds no bloom filter, and the log entries
+ * that follow the last block in the index are unindexed.
+ * <p>
+ * Timestamps are packed into long integers by concatenating their digits, as
+ * {@code yyyyMMddHHmmssSSS}, so that they may be compared as numbers.
+ * @author Melior
+ * @since 2.3
+ * @see FileIndexWriter
+ * @see LogLookup
+ */
+public class FileIndex {
+
+    static final String EXTENSION = ".idx";
+
+    static final byte[] MAGIC = {'M', 'I', 'D', 'X'};
+    static final byte[] TRAILER = {'M', 'B', 'L', 'M'};
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 5;
+    static final int ENTRY_SIZE = 24;
+    static final int TRAILER_SIZE = 12;
+    static final int BLOOM_HASHES = 5;
+
+    private long[] offsets;
+
+    private long[] minTimestamps;
+
+    private long[] maxTimestamps;
+
+    private BloomFilter bloomFilter;
+
+    /**
+     * Constructor.
+     * @param offsets The offsets of the blocks
+     * @param minTimestamps The earliest timestamps of the blocks
+     * @param maxTimestamps The latest timestamps of the blocks
+     * @param bloomFilter The bloom filter of transaction identifiers, or null if the index is incomplete
+     */
+    FileIndex(
+        final long[] offsets,
+        final long[] minTimestamps,
+        final long[] maxTimestamps,
+        final BloomFilter bloomFilter) {
+
+        super();
+
+        this.offsets = offsets;
+
+        this.minTimestamps = minTimestamps;
+
+        this.maxTimestamps = maxTimestamps;
+
+        this.bloomFilter = bloomFilter;
+    }
+
+    /**
+     * Read index from file.
+     * @param file The index file
+     * @return The index
+     * @throws IOException if unable to read the index file, or if the file is not an index file
+     */
+    public static FileIndex of(
+        final File file) throws IOException {
+
+        ByteBuffer buffer;
+        long size;
+        int end;
+        int bloomSize;
+        int hashCount;
+        BloomFilter bloomFilter;
+        byte[] bits;
+        int count;
+        long[] offsets;
+        long[] minTimestamps;
+        long[] maxTimestamps;
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+
+            size = channel.size();
+
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Index file " + file + " is too large.");
+            }
+
+            buffer = ByteBuffer.allocate((int) size);
+
+            while (buffer.hasRemaining() == true) {
+
+                if (channel.read(buffer) < 0) {
+                    break;
+                }
+
+            }
+
+            buffer.flip();
+        }
+
+        if ((buffer.remaining() < HEADER_SIZE) || (startsWith(buffer, 0, MAGIC) == false) || (buffer.get(MAGIC.length) != VERSION)) {
+            throw new IOException("File " + file + " is not an index file.");
+        }
+
+        end = buffer.limit();
+
+        bloomFilter = null;
+
+        if ((end >= HEADER_SIZE + TRAILER_SIZE) && (startsWith(buffer, end - TRAILER.length, TRAILER) == true)) {
+
+            bloomSize = buffer.getInt(end - TRAILER_SIZE);
+            hashCount = buffer.getInt(end - TRAILER_SIZE + 4);
+
+            if ((bloomSize > 0) && (bloomSize <= end - TRAILER_SIZE - HEADER_SIZE)) {
+
+                end = end - TRAILER_SIZE - bloomSize;
+
+                bits = new byte[bloomSize];
+
+                buffer.position(end);
+                buffer.get(bits);
+
+                bloomFilter = BloomFilter.of(bits, hashCount);
+            }
+
+        }
+
+        count = (end - HEADER_SIZE) / ENTRY_SIZE;
+
+        offsets = new long[count];
+        minTimestamps = new long[count];
+        maxTimestamps = new long[count];
+
+        for (int i = 0; i < count; i++) {
+
+            offsets[i] = buffer.getLong(HEADER_SIZE + i * ENTRY_SIZE);
+            minTimestamps[i] = buffer.getLong(HEADER_SIZE + i * ENTRY_SIZE + 8);
+            maxTimestamps[i] = buffer.getLong(HEADER_SIZE + i * ENTRY_SIZE + 16);
+        }
+
+        return new FileIndex(offsets, minTimestamps, maxTimestamps, bloomFilter);
+    }
+
+    /**
+     * Get index file of log file.  The index file of an archived log file
+     * is named after the log file, without the extension of the archive.
+     * @param file The log file
+     * @return The index file
+     */
+    public static File getIndexFile(
+        final File file) {
+
+        String name;
+
+        name = file.getName();
+
+        if (name.endsWith(".zip") == true) {
+
+            name = name.substring(0, name.length() - 4);
+        }
+        else if (name.endsWith(".gz") == true) {
+
+            name = name.substring(0, name.length() - 3);
+        }
+
+        return new File(file.getParentFile(), name + EXTENSION);
+    }
+
+    /**
+     * Check whether index is complete, which means that it holds
+     * the bloom filter and that all log entries are indexed.
+     * @return true if the index is complete, false otherwise
+     */
+    public boolean isComplete() {
+        return bloomFilter != null;
+    }
+
+    /**
+     * Get number of blocks in index.
+     * @return The number of blocks
+     */
+    public int getBlockCount() {
+        return offsets.length;
+    }
+
+    /**
+     * Check whether log file may hold log entries of transaction.
+     * @param transactionId The transaction identifier
+     * @return true if the log file may hold log entries of the transaction, false if it definitely does not
+     */
+    public boolean mightContain(
+        final String transactionId) {
+        return (bloomFilter == null) || (bloomFilter.mightContain(transactionId) == true);
+    }
+
+    /**
+     * Get ranges of log file that may hold log entries with timestamps in the given
+     * interval.  Each range is returned as its start and end offset, where an end
+     * offset of {@code Long.MAX_VALUE} denotes the end of the log file.  Adjacent
+     * ranges are merged.  If the index is incomplete, the range that starts at
+     * the last block in the index always extends to the end of the log file.
+     * @param from The earliest packed timestamp
+     * @param to The latest packed timestamp
+     * @return The list of ranges
+     */
+    public List<long[]> getRanges(
+        final long from,
+        final long to) {
+
+        List<long[]> ranges;
+        long start;
+        long end;
+        long[] last;
+
+        ranges = new ArrayList<long[]>();
+
+        if (offsets.length == 0) {
+
+            ranges.add(new long[] {0, Long.MAX_VALUE});
+
+            return ranges;
+        }
+
+        for (int i = 0; i < offsets.length; i++) {
+
+            if ((maxTimestamps[i] < from) || (minTimestamps[i] > to)) {
+
+                if ((i < offsets.length - 1) || (isComplete() == true)) {
+                    continue;
+                }
+
+            }
+
+            start = (i == 0) ? 0 : offsets[i];
+
+            end = (i < offsets.length - 1) ? offsets[i + 1] : Long.MAX_VALUE;
+
+            last = ranges.isEmpty() ? null : ranges.get(ranges.size() - 1);
+
+            if ((last != null) && (last[1] == start)) {
+
+                last[1] = end;
+            }
+            else {
+
+                ranges.add(new long[] {start, end});
+            }
+
+        }
+
+        return ranges;
+    }
+
+    /**
+     * Pack timestamp in {@code yyyy-MM-dd HH:mm:ss.SSS} format into
+     * a long integer, by concatenating its digits.
+     * @param timestamp The timestamp
+     * @return The packed timestamp
+     */
+    public static long packTimestamp(
+        final String timestamp) {
+
+        long value;
+        char character;
+
+        value = 0;
+
+        for (int i = 0; i < timestamp.length(); i++) {
+
+            character = timestamp.charAt(i);
+
+            if ((character >= '0') && (character <= '9')) {
+
+                value = value * 10 + (character - '0');
+            }
+
+        }
+
+        return value;
+    }
+
+    /**
+     * Check whether buffer holds bytes at position.
+     * @param buffer The buffer
+     * @param position The position
+     * @param bytes The bytes
+     * @return true if the buffer holds the bytes at the position, false otherwise
+     */
+    private static boolean startsWith(
+        final ByteBuffer buffer,
+        final int position,
+        final byte[] bytes) {
+
+        byte[] actual;
+
+        actual = new byte[bytes.length];
+
+        for (int i = 0; i < bytes.length; i++) {
+            actual[i] = buffer.get(position + i);
+        }
+
+        return Arrays.equals(actual, bytes);
+    }
+
+}
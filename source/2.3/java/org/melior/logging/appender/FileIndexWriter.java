@@ -0,0 +1,219 @@
+/* __  __      _ _            
+  |  \/  |    | (_)           
+  | \  / | ___| |_  ___  _ __ 
+  | |\/| |/ _ \ | |/ _ \| '__|
+  | |  | |  __/ | | (_) | |   
+  |_|  |_|\___|_|_|\___/|_|   
+        Service Harness
+*/
+package org.melior.logging.appender;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import org.melior.util.collection.BloomFilter;
+
+/**
+ * Writes the sidecar index of a log file while the log file is being written.
+ * Each log entry is added to the current block, and the block is written to the
+ * index file when the log entries that follow it start a new block.  The bloom
+ * filter of transaction identifiers is written when the index is closed, after
+ * the last block.  An index writer is not thread safe, and is only used under
+ * the lock of its file appender.
+ * @author Melior
+ * @since 2.3
+ * @see FileIndex
+ */
+class FileIndexWriter {
+
+    private FileChannel channel;
+
+    private long interval;
+
+    private BloomFilter bloomFilter;
+
+    private ByteBuffer buffer;
+
+    private long blockOffset;
+
+    private long minTimestamp;
+
+    private long maxTimestamp;
+
+    private String lastTransactionId;
+
+    /**
+     * Constructor.
+     * @param file The index file
+     * @param interval The minimum number of bytes of log entries per block
+     * @param bloomFilter The bloom filter
+     * @throws IOException if unable to create the index file
+     */
+    FileIndexWriter(
+        final File file,
+        final long interval,
+        final BloomFilter bloomFilter) throws IOException {
+
+        super();
+
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+
+        this.interval = Math.max(interval, 1);
+
+        this.bloomFilter = bloomFilter;
+
+        bloomFilter.clear();
+
+        buffer = ByteBuffer.allocate(FileIndex.ENTRY_SIZE);
+
+        blockOffset = -1;
+
+        lastTransactionId = null;
+
+        buffer.put(FileIndex.MAGIC).put((byte) FileIndex.VERSION).flip();
+
+        writeBuffer();
+    }
+
+    /**
+     * Add log entry to index.
+     * @param offset The offset of the log entry in the log file
+     * @param timestamp The timestamp of the log entry
+     * @param transactionId The transaction identifier of the log entry
+     */
+    void add(
+        final long offset,
+        final String timestamp,
+        final String transactionId) {
+
+        long packedTimestamp;
+
+        if (channel == null) {
+            return;
+        }
+
+        packedTimestamp = FileIndex.packTimestamp(timestamp);
+
+        if ((blockOffset >= 0) && (offset - blockOffset >= interval)) {
+
+            writeBlock();
+
+            blockOffset = -1;
+        }
+
+        if (blockOffset < 0) {
+
+            blockOffset = offset;
+            minTimestamp = packedTimestamp;
+            maxTimestamp = packedTimestamp;
+        }
+        else {
+
+            minTimestamp = Math.min(minTimestamp, packedTimestamp);
+            maxTimestamp = Math.max(maxTimestamp, packedTimestamp);
+        }
+
+        if ((transactionId != null) && (transactionId.isEmpty() == false) && (transactionId.equals(lastTransactionId) == false)) {
+
+            bloomFilter.add(transactionId);
+
+            lastTransactionId = transactionId;
+        }
+
+    }
+
+    /**
+     * Write the current block and the bloom filter, and close the index file.
+     */
+    void close() {
+
+        byte[] bits;
+
+        if (channel == null) {
+            return;
+        }
+
+        if (blockOffset >= 0) {
+
+            writeBlock();
+        }
+
+        bits = bloomFilter.getBits();
+
+        buffer.clear();
+
+        writeBuffer(ByteBuffer.wrap(bits));
+
+        buffer.putInt(bits.length).putInt(bloomFilter.getHashCount()).put(FileIndex.TRAILER).flip();
+
+        writeBuffer();
+
+        try {
+
+            channel.close();
+        }
+        catch (Exception exception) {
+        }
+
+        channel = null;
+    }
+
+    /**
+     * Write the current block to the index file.
+     */
+    private void writeBlock() {
+
+        buffer.clear();
+
+        buffer.putLong(blockOffset).putLong(minTimestamp).putLong(maxTimestamp).flip();
+
+        writeBuffer();
+    }
+
+    /**
+     * Write the contents of the entry buffer to the index file.
+     */
+    private void writeBuffer() {
+
+        writeBuffer(buffer);
+
+        buffer.clear();
+    }
+
+    /**
+     * Write bytes to the index file.  The index file is abandoned if
+     * the bytes cannot be written.
+     * @param bytes The buffer that holds the bytes
+     */
+    private void writeBuffer(
+        final ByteBuffer bytes) {
+
+        if (channel == null) {
+            return;
+        }
+
+        try {
+
+            while (bytes.hasRemaining() == true) {
+
+                channel.write(bytes);
+            }
+
+        }
+        catch (Exception exception) {
+
+            try {
+
+                channel.close();
+            }
+            catch (Exception closeException) {
+            }
+
+            channel = null;
+        }
+
+    }
+
+}
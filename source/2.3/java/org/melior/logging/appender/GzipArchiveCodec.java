@@ -0,0 +1,64 @@
+/* __  __      _ _            
+  |  \/  |    | (_)           
+  | \  / | ___| |_  ___  _ __ 
+  | |\/| |/ _ \ | |/ _ \| '__|
+  | |  | |  __/ | | (_) | |   
+  |_|  |_|\___|_|_|\___/|_|   
+        Service Harness
+*/
+package org.melior.logging.appender;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Implementation of archive codec that compresses log files into gzip archives.
+ * @author Melior
+ * @since 2.3
+ * @see ArchiveCodec
+ */
+public class GzipArchiveCodec implements ArchiveCodec {
+
+    private static final int BUFFER_SIZE = 65536;
+
+    private int level;
+
+    /**
+     * Constructor.
+     * @param level The compression level
+     */
+    GzipArchiveCodec(
+        final int level) {
+
+        super();
+
+        this.level = level;
+    }
+
+    /**
+     * Get file extension of archive files.
+     * @return The file extension
+     */
+    public String getExtension() {
+        return ".gz";
+    }
+
+    /**
+     * Wrap output stream of archive file in compressing output stream.
+     * @param outputStream The output stream of the archive file
+     * @param entryName The name of the log file
+     * @return The compressing output stream
+     * @throws IOException if unable to wrap the output stream
+     */
+    public OutputStream wrap(
+        final OutputStream outputStream,
+        final String entryName) throws IOException {
+
+        return new GZIPOutputStream(outputStream, BUFFER_SIZE) {
+            {
+                def.setLevel(level);
+            }
+        };
+    }
+
+}
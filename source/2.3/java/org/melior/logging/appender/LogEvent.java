@@ -0,0 +1,488 @@
+/* __  __      _ _            
+  |  \/  |    | (_)           
+  | \  / | ___| |_  ___  _ __ 
+  | |\/| |/ _ \ | |/ _ \| '__|
+  | |  | |  __/ | | (_) | |   
+  |_|  |_|\___|_|_|\___/|_|   
+        Service Harness
+*/
+package org.melior.logging.appender;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.melior.context.transaction.Argument;
+import org.melior.context.transaction.ContextMap;
+import org.melior.util.exception.StackTrace;
+import org.springframework.boot.logging.LogLevel;
+
+/**
+ * A logging event that is fanned out to the appenders of more than one stream,
+ * such as an error that is written to both the trace log and the error trace log.
+ * The appenders share the work of formatting the event through the record.  The
+ * stack trace is rendered at most once in each style, and the encoded log entry
+ * is cached in the record, so that an appender that uses the same format as an
+ * appender that has already written the record writes the same bytes.
+ * <p>
+ * A record is immutable once it has been created, apart from these caches,
+ * which are published safely, so a record may be handed over to other threads.
+ * @author Melior
+ * @since 2.3
+ * @see Appender
+ */
+public class LogEvent {
+
+    private boolean transaction;
+
+    private int day;
+
+    private String timestamp;
+
+    private LogLevel loggingLevel;
+
+    private String hostName;
+
+    private String threadId;
+
+    private String transactionId;
+
+    private String location;
+
+    private Object[] messageParts;
+
+    private ContextMap contextMap;
+
+    private String transactionType;
+
+    private String status;
+
+    private long duration;
+
+    private List<Argument> argumentList;
+
+    private String stackTracePrefix;
+
+    private Throwable throwable;
+
+    private volatile String fullStackTrace;
+
+    private volatile String compactStackTrace;
+
+    private volatile String minimalStackTrace;
+
+    private volatile Encoded encoded;
+
+    /**
+     * Constructor.
+     */
+    private LogEvent() {
+
+        super();
+    }
+
+    /**
+     * Get instance of record for trace event.
+     * @param day The day
+     * @param timestamp The timestamp
+     * @param loggingLevel The logging level
+     * @param hostName The host name
+     * @param threadId The thread identifier
+     * @param transactionId The transaction identifier
+     * @param location The location [caller]
+     * @param messageParts The message parts
+     * @param contextMap The diagnostic context map
+     * @param throwable The throwable
+     * @return The record
+     */
+    public static LogEvent ofTrace(
+        final int day,
+        final String timestamp,
+        final LogLevel loggingLevel,
+        final String hostName,
+        final String threadId,
+        final String transactionId,
+        final String location,
+        final Object[] messageParts,
+        final ContextMap contextMap,
+        final Throwable throwable) {
+
+        LogEvent record;
+
+        record = new LogEvent();
+        record.transaction = false;
+        record.day = day;
+        record.timestamp = timestamp;
+        record.loggingLevel = loggingLevel;
+        record.hostName = hostName;
+        record.threadId = threadId;
+        record.transactionId = transactionId;
+        record.location = location;
+        record.messageParts = messageParts;
+        record.contextMap = contextMap;
+        record.throwable = throwable;
+
+        return record;
+    }
+
+    /**
+     * Get instance of record for transaction event.  The transaction arguments
+     * are copied, because the transaction context may be reset before the record
+     * has been written.
+     * @param day The day
+     * @param timestamp The timestamp
+     * @param hostName The host name
+     * @param threadId The thread identifier
+     * @param transactionId The transaction identifier
+     * @param location The location [caller]
+     * @param transactionType The transaction type
+     * @param status The transaction status
+     * @param duration The transaction duration
+     * @param argumentList The transaction argument list
+     * @param stackTracePrefix The stack trace prefix
+     * @param throwable The throwable
+     * @return The record
+     */
+    public static LogEvent ofTransaction(
+        final int day,
+        final String timestamp,
+        final String hostName,
+        final String threadId,
+        final String transactionId,
+        final String location,
+        final String transactionType,
+        final String status,
+        final long duration,
+        final List<Argument> argumentList,
+        final String stackTracePrefix,
+        final Throwable throwable) {
+
+        LogEvent record;
+        List<Argument> arguments;
+        Argument argument;
+
+        arguments = new ArrayList<Argument>(argumentList.size());
+
+        for (int i = 0; i < argumentList.size(); i++) {
+
+            argument = new Argument();
+            argument.setName(argumentList.get(i).getName());
+            argument.setValue(argumentList.get(i).getValue());
+
+            arguments.add(argument);
+        }
+
+        record = new LogEvent();
+        record.transaction = true;
+        record.day = day;
+        record.timestamp = timestamp;
+        record.hostName = hostName;
+        record.threadId = threadId;
+        record.transactionId = transactionId;
+        record.location = location;
+        record.transactionType = transactionType;
+        record.status = status;
+        record.duration = duration;
+        record.argumentList = Collections.unmodifiableList(arguments);
+        record.stackTracePrefix = stackTracePrefix;
+        record.throwable = throwable;
+
+        return record;
+    }
+
+    /**
+     * Get snapshot of message parts that may be written on another thread
+     * after the caller has returned.  The message parts that are not immutable,
+     * that is not strings or boxed primitives, are converted to strings on the
+     * current thread, so that they are written with the state that they had
+     * when they were logged.  The message parts are encoded the same either way.
+     * @param messageParts The message parts
+     * @return The message parts, or a copy of them if any of them have been converted
+     */
+    public static Object[] snapshot(
+        final Object[] messageParts) {
+
+        Object[] snapshot;
+
+        if (messageParts == null) {
+            return null;
+        }
+
+        snapshot = messageParts;
+
+        for (int i = 0; i < messageParts.length; i++) {
+
+            if (isImmutable(messageParts[i]) == false) {
+
+                if (snapshot == messageParts) {
+
+                    snapshot = Arrays.copyOf(messageParts, messageParts.length);
+                }
+
+                snapshot[i] = String.valueOf(messageParts[i]);
+            }
+
+        }
+
+        return snapshot;
+    }
+
+    /**
+     * Indicate whether message part is immutable.
+     * @param messagePart The message part
+     * @return true if the message part is immutable, false otherwise
+     */
+    private static boolean isImmutable(
+        final Object messagePart) {
+
+        return (messagePart == null) || (messagePart instanceof String)
+            || (messagePart instanceof Long) || (messagePart instanceof Integer)
+            || (messagePart instanceof Short) || (messagePart instanceof Byte)
+            || (messagePart instanceof Double) || (messagePart instanceof Float)
+            || (messagePart instanceof Boolean) || (messagePart instanceof Character);
+    }
+
+    /**
+     * Get snapshot of record that may be written on another thread after the
+     * caller has returned.
+     * @return The record, or a copy of it if any of its message parts are not immutable
+     * @see #snapshot(Object[])
+     */
+    public LogEvent snapshot() {
+
+        Object[] snapshot;
+
+        if (transaction == true) {
+            return this;
+        }
+
+        snapshot = snapshot(messageParts);
+
+        return (snapshot == messageParts) ? this : ofTrace(day, timestamp, loggingLevel, hostName, threadId,
+            transactionId, location, snapshot, contextMap, throwable);
+    }
+
+    /**
+     * Indicate whether record is a transaction event.
+     * @return true if the record is a transaction event, false if it is a trace event
+     */
+    public boolean isTransaction() {
+        return transaction;
+    }
+
+    /**
+     * Get day.
+     * @return The day
+     */
+    public int getDay() {
+        return day;
+    }
+
+    /**
+     * Get timestamp.
+     * @return The timestamp
+     */
+    public String getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Get logging level.
+     * @return The logging level
+     */
+    public LogLevel getLoggingLevel() {
+        return loggingLevel;
+    }
+
+    /**
+     * Get host name.
+     * @return The host name
+     */
+    public String getHostName() {
+        return hostName;
+    }
+
+    /**
+     * Get thread identifier.
+     * @return The thread identifier
+     */
+    public String getThreadId() {
+        return threadId;
+    }
+
+    /**
+     * Get transaction identifier.
+     * @return The transaction identifier
+     */
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    /**
+     * Get location.
+     * @return The location [caller]
+     */
+    public String getLocation() {
+        return location;
+    }
+
+    /**
+     * Get message parts.
+     * @return The message parts
+     */
+    public Object[] getMessageParts() {
+        return messageParts;
+    }
+
+    /**
+     * Get diagnostic context map.
+     * @return The diagnostic context map
+     */
+    public ContextMap getContextMap() {
+        return contextMap;
+    }
+
+    /**
+     * Get transaction type.
+     * @return The transaction type
+     */
+    public String getTransactionType() {
+        return transactionType;
+    }
+
+    /**
+     * Get transaction status.
+     * @return The transaction status
+     */
+    public String getStatus() {
+        return status;
+    }
+
+    /**
+     * Get transaction duration.
+     * @return The transaction duration
+     */
+    public long getDuration() {
+        return duration;
+    }
+
+    /**
+     * Get transaction argument list.
+     * @return The transaction argument list
+     */
+    public List<Argument> getArgumentList() {
+        return argumentList;
+    }
+
+    /**
+     * Get stack trace prefix.
+     * @return The stack trace prefix
+     */
+    public String getStackTracePrefix() {
+        return stackTracePrefix;
+    }
+
+    /**
+     * Get throwable.
+     * @return The throwable
+     */
+    public Throwable getThrowable() {
+        return throwable;
+    }
+
+    /**
+     * Get full stack trace of throwable.  The stack trace is only rendered once.
+     * @return The full stack trace
+     */
+    public String getFullStackTrace() {
+
+        if (fullStackTrace == null) {
+
+            fullStackTrace = StackTrace.getFull(throwable);
+        }
+
+        return fullStackTrace;
+    }
+
+    /**
+     * Get compact stack trace of throwable.  The stack trace is only rendered once.
+     * @return The compact stack trace
+     */
+    public String getCompactStackTrace() {
+
+        if (compactStackTrace == null) {
+
+            compactStackTrace = StackTrace.getCompact(throwable);
+        }
+
+        return compactStackTrace;
+    }
+
+    /**
+     * Get minimal stack trace of throwable.  The stack trace is only rendered once.
+     * @return The minimal stack trace
+     */
+    public String getMinimalStackTrace() {
+
+        if (minimalStackTrace == null) {
+
+            minimalStackTrace = StackTrace.getMinimal(throwable);
+        }
+
+        return minimalStackTrace;
+    }
+
+    /**
+     * Get encoded log entry for given format, if the record has already been encoded in that format.
+     * @param format The format
+     * @return The encoded log entry, or null if the record has not been encoded in the format
+     */
+    public byte[] getEncoded(
+        final Object format) {
+
+        Encoded encoded;
+
+        encoded = this.encoded;
+
+        return ((encoded != null) && (encoded.format.equals(format) == true)) ? encoded.bytes : null;
+    }
+
+    /**
+     * Set encoded log entry for given format.  The bytes must not be modified afterwards.
+     * @param format The format
+     * @param bytes The encoded log entry
+     */
+    public void setEncoded(
+        final Object format,
+        final byte[] bytes) {
+
+        encoded = new Encoded(format, bytes);
+    }
+
+    /**
+     * A log entry that has been encoded in a given format.
+     */
+    private static class Encoded {
+
+        private final Object format;
+
+        private final byte[] bytes;
+
+        /**
+         * Constructor.
+         * @param format The format
+         * @param bytes The encoded log entry
+         */
+        private Encoded(
+            final Object format,
+            final byte[] bytes) {
+
+            super();
+
+            this.format = format;
+
+            this.bytes = bytes;
+        }
+
+    }
+
+}
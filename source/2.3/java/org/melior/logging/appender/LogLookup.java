@@ -0,0 +1,732 @@
+/* __  __      _ _            
+  |  \/  |    | (_)           
+  | \  / | ___| |_  ___  _ __ 
+  | |\/| |/ _ \ | |/ _ \| '__|
+  | |  | |  __/ | | (_) | |   
+  |_|  |_|\___|_|_|\___/|_|   
+        Service Harness
+*/
+package org.melior.logging.appender;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Looks up the log entries of a transaction, or the log entries in an interval
+ * of time, in live and archived log files.  The sidecar index of each log file
+ * is used to skip the files whose bloom filter rules out the transaction, and to
+ * skip straight to the blocks of log entries whose timestamps overlap the interval.
+ * Log files without an index are scanned in full.
+ * <pre>
+ * java org.melior.logging.appender.LogLookup [--transaction id] [--from time] [--to time] [--json] path...
+ * </pre>
+ * A path may be a log file, an archive of a log file, or a directory that is searched
+ * for log files recursively.  A time is given as {@code yyyy-MM-dd HH:mm:ss.SSS}, or as
+ * any leading part of it.  The matching log entries are written to the standard output,
+ * with binary transaction logs decoded to text, or to JSON if requested.
+ * @author Melior
+ * @since 2.3
+ * @see FileIndex
+ */
+public class LogLookup {
+
+    private static final String[] EXTENSIONS = {".trc", ".err", ".trx", ".erx", ".trxb", ".erxb"};
+
+    private static final int TIMESTAMP_LENGTH = 23;
+
+    private OutputStream outputStream;
+
+    private String transactionId;
+
+    private byte[] transactionPattern;
+
+    private long from;
+
+    private long to;
+
+    private BinaryLogDecoder decoder;
+
+    private long scannedFiles;
+
+    private long skippedFiles;
+
+    /**
+     * Constructor.
+     * @param outputStream The output stream
+     * @param transactionId The transaction identifier, or null to match any transaction
+     * @param from The earliest packed timestamp
+     * @param to The latest packed timestamp
+     * @param json true to decode binary transaction logs to JSON, false to decode them to text
+     */
+    LogLookup(
+        final OutputStream outputStream,
+        final String transactionId,
+        final long from,
+        final long to,
+        final boolean json) {
+
+        super();
+
+        this.outputStream = outputStream;
+
+        this.transactionId = transactionId;
+
+        this.transactionPattern = (transactionId == null) ? null : (", " + transactionId + ", ").getBytes(StandardCharsets.UTF_8);
+
+        this.from = from;
+
+        this.to = to;
+
+        decoder = BinaryLogDecoder.of(outputStream, json);
+
+        scannedFiles = 0;
+
+        skippedFiles = 0;
+    }
+
+    /**
+     * Get instance of log lookup.
+     * @param outputStream The output stream
+     * @param transactionId The transaction identifier, or null to match any transaction
+     * @param from The earliest time, or null for no lower bound
+     * @param to The latest time, or null for no upper bound
+     * @param json true to decode binary transaction logs to JSON, false to decode them to text
+     * @return The log lookup
+     */
+    public static LogLookup of(
+        final OutputStream outputStream,
+        final String transactionId,
+        final String from,
+        final String to,
+        final boolean json) {
+
+        return new LogLookup(outputStream, transactionId,
+            (from == null) ? 0 : packBound(from, '0'), (to == null) ? Long.MAX_VALUE : packBound(to, '9'), json);
+    }
+
+    /**
+     * Look up log entries and write them to the standard output.
+     * @param arguments The command line arguments
+     */
+    public static void main(
+        final String[] arguments) {
+
+        String transactionId;
+        String from;
+        String to;
+        boolean json;
+        List<File> files;
+        LogLookup lookup;
+        long startTime;
+        long count;
+
+        transactionId = null;
+        from = null;
+        to = null;
+        json = false;
+        files = new ArrayList<File>();
+
+        for (int i = 0; i < arguments.length; i++) {
+
+            if (("--transaction".equals(arguments[i]) == true) && (i + 1 < arguments.length)) {
+
+                transactionId = arguments[++i];
+            }
+            else if (("--from".equals(arguments[i]) == true) && (i + 1 < arguments.length)) {
+
+                from = arguments[++i];
+            }
+            else if (("--to".equals(arguments[i]) == true) && (i + 1 < arguments.length)) {
+
+                to = arguments[++i];
+            }
+            else if ("--json".equals(arguments[i]) == true) {
+
+                json = true;
+            }
+            else {
+
+                collectFiles(new File(arguments[i]), files);
+            }
+
+        }
+
+        if (files.isEmpty() == true) {
+
+            System.err.println("Usage: LogLookup [--transaction id] [--from time] [--to time] [--json] path...");
+
+            System.exit(1);
+        }
+
+        lookup = of(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), 65536), transactionId, from, to, json);
+
+        startTime = System.currentTimeMillis();
+
+        count = 0;
+
+        for (File file : files) {
+
+            try {
+
+                count += lookup.lookup(file);
+            }
+            catch (IOException exception) {
+
+                System.err.println(file + ": " + exception.getMessage());
+            }
+
+        }
+
+        System.err.println("Found " + count + " log entries in " + lookup.getScannedFiles() + " files, skipped "
+            + lookup.getSkippedFiles() + " files, in " + (System.currentTimeMillis() - startTime) + " ms.");
+    }
+
+    /**
+     * Look up log entries in log file.
+     * @param file The log file, or an archive of one in zip or gzip format
+     * @return The number of log entries that were found
+     * @throws IOException if unable to read the log file or to write the output
+     */
+    public long lookup(
+        final File file) throws IOException {
+
+        FileIndex index;
+        List<long[]> ranges;
+        long count;
+
+        index = readIndex(file);
+
+        if ((index != null) && (transactionId != null) && (index.mightContain(transactionId) == false)) {
+
+            skippedFiles++;
+
+            return 0;
+        }
+
+        ranges = (index == null) ? Collections.singletonList(new long[] {0, Long.MAX_VALUE}) : index.getRanges(from, to);
+
+        if (ranges.isEmpty() == true) {
+
+            skippedFiles++;
+
+            return 0;
+        }
+
+        scannedFiles++;
+
+        if (isBinary(getLogName(file)) == true) {
+
+            count = lookupBinary(file, ranges);
+        }
+        else {
+
+            count = lookupText(file, ranges);
+        }
+
+        outputStream.flush();
+
+        return count;
+    }
+
+    /**
+     * Look up log entries in the given ranges of a text log file.  A log entry
+     * starts with a line that starts with a timestamp, and includes any lines that
+     * follow it, such as the lines of a stack trace.
+     * @param file The log file
+     * @param ranges The list of ranges
+     * @return The number of log entries that were found
+     * @throws IOException if unable to read the log file or to write the output
+     */
+    private long lookupText(
+        final File file,
+        final List<long[]> ranges) throws IOException {
+
+        LineReader reader;
+        boolean matched;
+        long count;
+
+        count = 0;
+
+        try (InputStream inputStream = BinaryLogReader.openStream(file)) {
+
+            reader = new LineReader(inputStream);
+
+            for (long[] range : ranges) {
+
+                if (reader.skipTo(range[0]) == false) {
+                    break;
+                }
+
+                matched = false;
+
+                while ((reader.getPosition() < range[1]) && (reader.readLine() == true)) {
+
+                    if (isEntryStart(reader) == true) {
+
+                        matched = matches(reader);
+
+                        if (matched == true) {
+
+                            count++;
+                        }
+
+                    }
+
+                    if (matched == true) {
+
+                        outputStream.write(reader.buffer, reader.lineStart, reader.lineEnd - reader.lineStart);
+                    }
+
+                }
+
+            }
+
+        }
+
+        return count;
+    }
+
+    /**
+     * Look up transactions in the given ranges of a binary transaction log.
+     * @param file The log file
+     * @param ranges The list of ranges
+     * @return The number of transactions that were found
+     * @throws IOException if unable to read the log file or to write the output
+     */
+    private long lookupBinary(
+        final File file,
+        final List<long[]> ranges) throws IOException {
+
+        boolean hasCurrent;
+        long count;
+
+        count = 0;
+
+        try (BinaryLogReader reader = BinaryLogReader.of(file)) {
+
+            hasCurrent = false;
+
+            for (long[] range : ranges) {
+
+                if ((hasCurrent == false) || (reader.getOffset() < range[0])) {
+
+                    reader.skipTo(range[0]);
+
+                    hasCurrent = reader.next();
+                }
+
+                while ((hasCurrent == true) && (reader.getOffset() < range[1])) {
+
+                    if ((reader.getPackedTimestamp() >= from) && (reader.getPackedTimestamp() <= to)
+                        && ((transactionId == null) || (transactionId.equals(reader.getTransactionId()) == true))) {
+
+                        decoder.write(reader);
+
+                        count++;
+                    }
+
+                    hasCurrent = reader.next();
+                }
+
+            }
+
+        }
+
+        decoder.flush();
+
+        return count;
+    }
+
+    /**
+     * Check whether line is the first line of a log entry, which starts with a timestamp.
+     * @param reader The line reader
+     * @return true if the line starts with a timestamp, false otherwise
+     */
+    private boolean isEntryStart(
+        final LineReader reader) {
+
+        byte[] bytes;
+        int start;
+
+        bytes = reader.buffer;
+        start = reader.lineStart;
+
+        return (reader.lineEnd - start >= TIMESTAMP_LENGTH) && (bytes[start + 4] == '-') && (bytes[start + 7] == '-')
+            && (bytes[start + 13] == ':') && (bytes[start + 16] == ':') && (bytes[start + 19] == '.');
+    }
+
+    /**
+     * Check whether log entry matches the transaction identifier and the interval of time.
+     * @param reader The line reader, which holds the first line of the log entry
+     * @return true if the log entry matches, false otherwise
+     */
+    private boolean matches(
+        final LineReader reader) {
+
+        long timestamp;
+        byte character;
+
+        timestamp = 0;
+
+        for (int i = reader.lineStart; i < reader.lineStart + TIMESTAMP_LENGTH; i++) {
+
+            character = reader.buffer[i];
+
+            if ((character >= '0') && (character <= '9')) {
+
+                timestamp = timestamp * 10 + (character - '0');
+            }
+
+        }
+
+        if ((timestamp < from) || (timestamp > to)) {
+            return false;
+        }
+
+        return (transactionPattern == null) || (contains(reader.buffer, reader.lineStart, reader.lineEnd, transactionPattern) == true);
+    }
+
+    /**
+     * Check whether bytes hold a pattern.
+     * @param bytes The bytes
+     * @param start The start of the bytes to search
+     * @param end The end of the bytes to search
+     * @param pattern The pattern
+     * @return true if the bytes hold the pattern, false otherwise
+     */
+    private static boolean contains(
+        final byte[] bytes,
+        final int start,
+        final int end,
+        final byte[] pattern) {
+
+        int j;
+
+        for (int i = start; i <= end - pattern.length; i++) {
+
+            j = 0;
+
+            while ((j < pattern.length) && (bytes[i + j] == pattern[j])) {
+                j++;
+            }
+
+            if (j == pattern.length) {
+                return true;
+            }
+
+        }
+
+        return false;
+    }
+
+    /**
+     * Read index of log file, if it has one.
+     * @param file The log file
+     * @return The index, or null if the log file has no readable index
+     */
+    private static FileIndex readIndex(
+        final File file) {
+
+        File indexFile;
+
+        indexFile = FileIndex.getIndexFile(file);
+
+        if (indexFile.exists() == false) {
+            return null;
+        }
+
+        try {
+
+            return FileIndex.of(indexFile);
+        }
+        catch (IOException exception) {
+
+            return null;
+        }
+
+    }
+
+    /**
+     * Get name of log file, without the extension of the archive.
+     * @param file The log file, or an archive of one
+     * @return The name of the log file
+     */
+    private static String getLogName(
+        final File file) {
+
+        String name;
+
+        name = FileIndex.getIndexFile(file).getName();
+
+        return name.substring(0, name.length() - FileIndex.EXTENSION.length());
+    }
+
+    /**
+     * Check whether log file is a binary transaction log.
+     * @param name The name of the log file
+     * @return true if the log file is a binary transaction log, false otherwise
+     */
+    private static boolean isBinary(
+        final String name) {
+        return (name.endsWith(Stream.TRANSACTION.getExtension() + "b") == true)
+            || (name.endsWith(Stream.TRANSACTION_ERROR.getExtension() + "b") == true);
+    }
+
+    /**
+     * Collect log files in path.  Directories are searched recursively.
+     * @param path The path
+     * @param files The list of log files
+     */
+    private static void collectFiles(
+        final File path,
+        final List<File> files) {
+
+        File[] children;
+        String name;
+
+        if (path.isDirectory() == true) {
+
+            children = path.listFiles();
+
+            if (children != null) {
+
+                Arrays.sort(children);
+
+                for (File child : children) {
+                    collectFiles(child, files);
+                }
+
+            }
+
+            return;
+        }
+
+        name = getLogName(path);
+
+        for (String extension : EXTENSIONS) {
+
+            if (name.endsWith(extension) == true) {
+
+                files.add(path);
+
+                return;
+            }
+
+        }
+
+    }
+
+    /**
+     * Pack time into a long integer by concatenating its digits, padded
+     * to the full length of a packed timestamp.
+     * @param time The time
+     * @param padding The digit to pad with
+     * @return The packed time
+     */
+    private static long packBound(
+        final String time,
+        final char padding) {
+
+        StringBuilder digits;
+
+        digits = new StringBuilder(17);
+
+        for (int i = 0; i < time.length(); i++) {
+
+            if (Character.isDigit(time.charAt(i)) == true) {
+
+                digits.append(time.charAt(i));
+            }
+
+        }
+
+        while (digits.length() < 17) {
+            digits.append(padding);
+        }
+
+        return Long.parseLong(digits.substring(0, 17));
+    }
+
+    /**
+     * Get number of log files that were scanned.
+     * @return The number of log files
+     */
+    public long getScannedFiles() {
+        return scannedFiles;
+    }
+
+    /**
+     * Get number of log files that were skipped on account of their index.
+     * @return The number of log files
+     */
+    public long getSkippedFiles() {
+        return skippedFiles;
+    }
+
+    /**
+     * Reads the lines of a log file, while keeping track of the offset of
+     * each line in the log file.
+     */
+    private static class LineReader {
+
+        private InputStream inputStream;
+
+        private byte[] buffer;
+
+        private int limit;
+
+        private int lineStart;
+
+        private int lineEnd;
+
+        private long bufferOffset;
+
+        /**
+         * Constructor.
+         * @param inputStream The input stream
+         */
+        private LineReader(
+            final InputStream inputStream) {
+
+            super();
+
+            this.inputStream = inputStream;
+
+            buffer = new byte[65536];
+
+            limit = 0;
+
+            lineStart = 0;
+
+            lineEnd = 0;
+
+            bufferOffset = 0;
+        }
+
+        /**
+         * Get offset of the next line in the log file.
+         * @return The offset
+         */
+        private long getPosition() {
+            return bufferOffset + lineEnd;
+        }
+
+        /**
+         * Skip to the line at the given offset in the log file.
+         * @param target The offset
+         * @return true if the offset was reached, false if the end of the log file was reached first
+         * @throws IOException if unable to read the log file
+         */
+        private boolean skipTo(
+            final long target) throws IOException {
+
+            long remaining;
+            long count;
+
+            if (target <= getPosition()) {
+                return true;
+            }
+
+            if (target <= bufferOffset + limit) {
+
+                lineStart = (int) (target - bufferOffset);
+                lineEnd = lineStart;
+
+                return true;
+            }
+
+            remaining = target - bufferOffset - limit;
+
+            while (remaining > 0) {
+
+                count = inputStream.skip(remaining);
+
+                if (count <= 0) {
+
+                    if (inputStream.read() < 0) {
+                        return false;
+                    }
+
+                    count = 1;
+                }
+
+                remaining -= count;
+            }
+
+            bufferOffset = target;
+            limit = 0;
+            lineStart = 0;
+            lineEnd = 0;
+
+            return true;
+        }
+
+        /**
+         * Read next line, including its line terminator.
+         * @return true if a line was read, false at the end of the log file
+         * @throws IOException if unable to read the log file
+         */
+        private boolean readLine() throws IOException {
+
+            int start;
+            int index;
+            int count;
+
+            start = lineEnd;
+            index = start;
+
+            while (true) {
+
+                while (index < limit) {
+
+                    if (buffer[index++] == '\n') {
+
+                        lineStart = start;
+                        lineEnd = index;
+
+                        return true;
+                    }
+
+                }
+
+                if (start > 0) {
+
+                    System.arraycopy(buffer, start, buffer, 0, limit - start);
+
+                    bufferOffset += start;
+                    limit -= start;
+                    index -= start;
+                    start = 0;
+                }
+                else if (limit == buffer.length) {
+
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+
+                count = inputStream.read(buffer, limit, buffer.length - limit);
+
+                if (count < 0) {
+
+                    lineStart = start;
+                    lineEnd = limit;
+
+                    return limit > start;
+                }
+
+                limit += count;
+            }
+
+        }
+
+    }
+
+}
@@ -0,0 +1,178 @@
+/* __  __      _ _            
+  |  \/  |    | (_)           
+  | \  / | ___| |_  ___  _ __ 
+  | |\/| |/ _ \ | |/ _ \| '__|
+  | |  | |  __/ | | (_) | |   
+  |_|  |_|\___|_|_|\___/|_|   
+        Service Harness
+*/
+package org.melior.logging.appender;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+import org.melior.service.exception.ApplicationException;
+
+/**
+ * Implementation of internal appender that logs to memory-mapped files in the
+ * file system.  Each file is pre-allocated to the maximum file size and is
+ * mapped into memory, so that a log entry is written by copying its bytes into
+ * the mapped buffer.  The operating system writes the pages of the mapped buffer
+ * to the file in its own time, so the log entries survive the termination of the
+ * process, even if the process is killed.
+ * <p>
+ * The next file is opened ahead of time, and is pre-allocated and mapped when
+ * it becomes the current file.  When a file is rolled, it is truncated to the
+ * bytes that have been written, and is closed in the background.  A
+ * file that was orphaned by the termination of the process still holds the space
+ * that was pre-allocated, and possibly a log entry that was only partially written.
+ * These are truncated from the file before it is archived.
+ * <p>
+ * This appender is intended for the transaction logs, where each log entry is
+ * a single line.
+ * @author Melior
+ * @since 2.3
+ * @see FileAppender
+ */
+public class MappedFileAppender extends FileAppender {
+
+    private static final long DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private MappedByteBuffer mappedBuffer;
+
+    /**
+     * Constructor.
+     * @param stream The stream
+     * @param configuration The configuration
+     * @throws ApplicationException if an error occurs during the construction
+     */
+    public MappedFileAppender(
+        final Stream stream,
+        final AppenderConfig configuration) throws ApplicationException {
+
+        super(stream, configuration);
+    }
+
+    /**
+     * Write encoded log entry to the mapped buffer of the current file.  When the
+     * log entry does not fit in the remainder of the mapped buffer, the file is
+     * rolled first.  A log entry that does not even fit in an empty file is dropped.
+     * @param buffer The buffer that holds the encoded log entry
+     * @param flush true if the log entry must be forced to the storage device, false otherwise
+     */
+    protected synchronized void write(
+        final ByteBuffer buffer,
+        final boolean flush) {
+
+        if ((mappedBuffer == null) || (buffer.remaining() > mappedBuffer.capacity())) {
+            return;
+        }
+
+        if (buffer.remaining() > mappedBuffer.remaining()) {
+
+            if ((rollFileOnIndex() == false) || (mappedBuffer == null)) {
+                return;
+            }
+
+        }
+
+        mappedBuffer.put(buffer);
+
+        if ((flush == true) && (configuration.getSyncPolicy() != SyncPolicy.NONE)) {
+
+            mappedBuffer.force();
+        }
+
+    }
+
+    /**
+     * Get number of bytes that have been written to the current file.
+     * @return The number of bytes
+     */
+    protected long getFilePosition() {
+        return (mappedBuffer == null) ? 0 : mappedBuffer.position();
+    }
+
+    /**
+     * Force the contents of the mapped buffer to the storage device,
+     * if the sync policy requires it.
+     */
+    public synchronized void flush() {
+
+        if ((mappedBuffer != null) && (configuration.getSyncPolicy() != SyncPolicy.NONE)) {
+
+            mappedBuffer.force();
+        }
+
+    }
+
+    /**
+     * Open file for reading and writing.
+     * @param file The file
+     * @return The file channel
+     * @throws IOException if unable to open the file
+     */
+    protected FileChannel openFile(
+        final File file) throws IOException {
+
+        return FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Make file the current file.  The file is pre-allocated to the maximum
+     * file size and is mapped into memory.
+     * @param channel The file channel
+     * @throws IOException if unable to map the file
+     */
+    protected void activateFile(
+        final FileChannel channel) throws IOException {
+
+        long segmentSize;
+
+        segmentSize = (configuration.getMaxFileSize() <= 0) ? DEFAULT_SEGMENT_SIZE : Math.min(configuration.getMaxFileSize(), Integer.MAX_VALUE);
+
+        mappedBuffer = channel.map(MapMode.READ_WRITE, 0, segmentSize);
+    }
+
+    /**
+     * Truncate file to the bytes that have been written before the file is
+     * rolled.  The file is closed in the background.  Some platforms do not
+     * allow a file to be truncated while it is still mapped, in which case the
+     * file is recovered once it has been closed, before it is archived.
+     * @param channel The file channel
+     * @throws IOException if unable to truncate the file
+     */
+    protected void deactivateFile(
+        final FileChannel channel) throws IOException {
+
+        int size;
+
+        if (mappedBuffer == null) {
+            return;
+        }
+
+        size = mappedBuffer.position();
+
+        if (configuration.getSyncPolicy() != SyncPolicy.NONE) {
+
+            mappedBuffer.force();
+        }
+
+        mappedBuffer = null;
+
+        channel.truncate(size);
+    }
+
+    /**
+     * Indicate whether the files are limited in size.  The files are always
+     * limited to the size of the mapped buffer.
+     * @return true
+     */
+    protected boolean isSizeLimited() {
+        return true;
+    }
+
+}
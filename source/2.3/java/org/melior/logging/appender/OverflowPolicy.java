@@ -0,0 +1,27 @@
+/* __  __      _ _            
+  |  \/  |    | (_)           
+  | \  / | ___| |_  ___  _ __ 
+  | |\/| |/ _ \ | |/ _ \| '__|
+  | |  | |  __/ | | (_) | |   
+  |_|  |_|\___|_|_|\___/|_|   
+        Service Harness
+*/
+package org.melior.logging.appender;
+
+/**
+ * List of policies that an asynchronous appender may apply when
+ * its ring buffer is full.
+ * <ul>
+ * <li>{@code BLOCK} makes the caller wait for capacity to become available
+ * <li>{@code DROP_DEBUG} drops trace events at DEBUG and TRACE logging level, and makes the caller wait otherwise
+ * <li>{@code DROP_ALL} drops all events
+ * </ul>
+ * @author Melior
+ * @since 2.3
+ * @see AsyncAppender
+ */
+public enum OverflowPolicy {
+    BLOCK,
+    DROP_DEBUG,
+    DROP_ALL
+}
@@ -0,0 +1,28 @@
+/* __  __      _ _            
+  |  \/  |    | (_)           
+  | \  / | ___| |_  ___  _ __ 
+  | |\/| |/ _ \ | |/ _ \| '__|
+  | |  | |  __/ | | (_) | |   
+  |_|  |_|\___|_|_|\___/|_|   
+        Service Harness
+*/
+package org.melior.logging.appender;
+
+/**
+ * List of policies that a file appender may apply to force the
+ * contents of a log file to the storage device whenever the write
+ * buffer is flushed.
+ * <ul>
+ * <li>{@code NONE} leaves it to the operating system to write the contents to the storage device
+ * <li>{@code TRANSACTION} forces the contents of the transaction logs to the storage device
+ * <li>{@code ALL} forces the contents of all logs to the storage device
+ * </ul>
+ * @author Melior
+ * @since 2.3
+ * @see FileAppender
+ */
+public enum SyncPolicy {
+    NONE,
+    TRANSACTION,
+    ALL
+}
@@ -0,0 +1,25 @@
+/* __  __      _ _            
+  |  \/  |    | (_)           
+  | \  / | ___| |_  ___  _ __ 
+  | |\/| |/ _ \ | |/ _ \| '__|
+  | |  | |  __/ | | (_) | |   
+  |_|  |_|\___|_|_|\___/|_|   
+        Service Harness
+*/
+package org.melior.logging.appender;
+
+/**
+ * List of formats in which a file appender may write the transaction logs.
+ * <ul>
+ * <li>{@code TEXT} writes each transaction as a line of comma-separated text
+ * <li>{@code BINARY} writes each transaction as a length-prefixed binary record, with
+ * repeated strings replaced by references to a dictionary that is held in the file
+ * </ul>
+ * @author Melior
+ * @since 2.3
+ * @see BinaryFileAppender
+ */
+public enum TransactionFormat {
+    TEXT,
+    BINARY
+}
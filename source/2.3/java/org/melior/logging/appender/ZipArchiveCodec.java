@@ -0,0 +1,66 @@
+/* __  __      _ _            
+  |  \/  |    | (_)           
+  | \  / | ___| |_  ___  _ __ 
+  | |\/| |/ _ \ | |/ _ \| '__|
+  | |  | |  __/ | | (_) | |   
+  |_|  |_|\___|_|_|\___/|_|   
+        Service Harness
+*/
+package org.melior.logging.appender;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Implementation of archive codec that compresses log files into zip
+ * archives, each of which holds a single entry.
+ * @author Melior
+ * @since 2.3
+ * @see ArchiveCodec
+ */
+public class ZipArchiveCodec implements ArchiveCodec {
+
+    private int level;
+
+    /**
+     * Constructor.
+     * @param level The compression level
+     */
+    ZipArchiveCodec(
+        final int level) {
+
+        super();
+
+        this.level = level;
+    }
+
+    /**
+     * Get file extension of archive files.
+     * @return The file extension
+     */
+    public String getExtension() {
+        return ".zip";
+    }
+
+    /**
+     * Wrap output stream of archive file in compressing output stream.
+     * @param outputStream The output stream of the archive file
+     * @param entryName The name of the log file
+     * @return The compressing output stream
+     * @throws IOException if unable to wrap the output stream
+     */
+    public OutputStream wrap(
+        final OutputStream outputStream,
+        final String entryName) throws IOException {
+
+        ZipOutputStream zipOutputStream;
+
+        zipOutputStream = new ZipOutputStream(outputStream);
+        zipOutputStream.setLevel(level);
+        zipOutputStream.putNextEntry(new ZipEntry(entryName));
+
+        return zipOutputStream;
+    }
+
+}
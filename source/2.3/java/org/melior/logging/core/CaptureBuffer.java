@@ -0,0 +1,136 @@
+/* __  __      _ _            
+  |  \/  |    | (_)           
+  | \  / | ___| |_  ___  _ __ 
+  | |\/| |/ _ \ | |/ _ \| '__|
+  | |  | |  __/ | | (_) | |   
+  |_|  |_|\___|_|_|\___/|_|   
+        Service Harness
+*/
+package org.melior.logging.core;
+import org.melior.logging.appender.LogEvent;
+
+/**
+ * Holds the most recent trace events of the transaction that is active on
+ * the current thread, for logging levels that are below the configured logging
+ * level.  The events are only written if the transaction fails, and are
+ * discarded otherwise.  The buffer is bounded, so the oldest events are
+ * overwritten when a transaction logs more events than the buffer can hold.
+ * A capture buffer belongs to a single thread and is not thread safe.
+ * @author Melior
+ * @since 2.3
+ */
+class CaptureBuffer {
+
+    private LogEvent[] records;
+
+    private int start;
+
+    private int size;
+
+    private long overwritten;
+
+    private String transactionId;
+
+    /**
+     * Constructor.
+     * @param capacity The maximum number of events
+     */
+    CaptureBuffer(
+        final int capacity) {
+
+        super();
+
+        records = new LogEvent[Math.max(capacity, 1)];
+
+        start = 0;
+
+        size = 0;
+
+        overwritten = 0;
+    }
+
+    /**
+     * Add event to buffer.  The buffer is cleared first if the event
+     * belongs to another transaction than the events in the buffer.
+     * @param record The record
+     */
+    void add(
+        final LogEvent record) {
+
+        if (record.getTransactionId().equals(transactionId) == false) {
+
+            clear();
+
+            transactionId = record.getTransactionId();
+        }
+
+        if (size == records.length) {
+
+            records[start] = record;
+
+            start = (start + 1) % records.length;
+
+            overwritten++;
+        }
+        else {
+
+            records[(start + size) % records.length] = record;
+
+            size++;
+        }
+
+    }
+
+    /**
+     * Get number of events in buffer.
+     * @return The number of events
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Get event from buffer, in the order in which the events were added.
+     * @param index The index of the event
+     * @return The record
+     */
+    LogEvent get(
+        final int index) {
+        return records[(start + index) % records.length];
+    }
+
+    /**
+     * Get number of events that were overwritten since the buffer was cleared.
+     * @return The number of overwritten events
+     */
+    long getOverwritten() {
+        return overwritten;
+    }
+
+    /**
+     * Get identifier of the transaction that the events belong to.
+     * @return The transaction identifier, or null if the buffer is empty
+     */
+    String getTransactionId() {
+        return transactionId;
+    }
+
+    /**
+     * Clear buffer.
+     */
+    void clear() {
+
+        for (int i = 0; i < size; i++) {
+            records[(start + i) % records.length] = null;
+        }
+
+        start = 0;
+
+        size = 0;
+
+        overwritten = 0;
+
+        transactionId = null;
+    }
+
+}
@@ -0,0 +1,335 @@
+/* __  __      _ _            
+  |  \/  |    | (_)           
+  | \  / | ___| |_  ___  _ __ 
+  | |\/| |/ _ \ | |/ _ \| '__|
+  | |  | |  __/ | | (_) | |   
+  |_|  |_|\___|_|_|\___/|_|   
+        Service Harness
+*/
+package org.melior.logging.core;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import org.springframework.boot.logging.LogLevel;
+
+/**
+ * Output stream that assembles the bytes that are written to it into lines,
+ * and writes each line to a logger as a log entry.  The bytes are gathered in
+ * a reusable buffer until a line feed is written, so a line that is written in
+ * several chunks, or a byte at a time, still becomes a single log entry.  The
+ * line is decoded as a whole, so a character whose bytes are split across chunks
+ * is decoded correctly.  Carriage returns at the end of a line and empty lines
+ * are dropped.
+ * <p>
+ * A line that exceeds the maximum line length is broken into several log entries,
+ * on a character boundary.  When asynchronous logging is enabled, the lines that
+ * are completed by a single write are gathered into a single log entry, up to the
+ * batch size, so that a block of output takes a single slot in the ring buffer
+ * and is kept together.
+ * <p>
+ * The stream is not thread-safe.  It is intended to be wrapped in a {@code PrintStream},
+ * which serializes the writes.
+ * @author Melior
+ * @since 2.3
+ */
+class LineOutputStream extends OutputStream {
+
+    private static final int MIN_LINE_LENGTH = 64;
+
+    private LoggerFacade logger;
+
+    private String location;
+
+    private LogLevel loggingLevel;
+
+    private ByteBuffer lineBuffer;
+
+    private CharBuffer charBuffer;
+
+    private CharsetDecoder decoder;
+
+    private int batchSize;
+
+    private StringBuilder batch;
+
+    /**
+     * Constructor.
+     * @param logger The logger
+     * @param location The location [caller]
+     * @param loggingLevel The logging level
+     * @param charset The charset of the bytes
+     */
+    LineOutputStream(
+        final LoggerFacade logger,
+        final String location,
+        final LogLevel loggingLevel,
+        final Charset charset) {
+
+        super();
+
+        this.logger = logger;
+
+        this.location = location;
+
+        this.loggingLevel = loggingLevel;
+
+        lineBuffer = ByteBuffer.allocate(Math.max(logger.getLogger().getStreamLineLength(), MIN_LINE_LENGTH));
+
+        charBuffer = CharBuffer.allocate(lineBuffer.capacity());
+
+        decoder = charset.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+        batchSize = logger.getLogger().getStreamBatchSize();
+
+        batch = new StringBuilder();
+    }
+
+    /**
+     * Write byte to the current line.
+     * @param b The byte
+     */
+    public void write(
+        final int b) {
+
+        if (isEnabled() == false) {
+            return;
+        }
+
+        append((byte) b);
+
+        writeBatch();
+    }
+
+    /**
+     * Write bytes to the current line.
+     * @param b The byte array
+     * @param o The offset
+     * @param l The length
+     */
+    public void write(
+        final byte[] b,
+        final int o,
+        final int l) {
+
+        int start;
+        int end;
+
+        if (isEnabled() == false) {
+            return;
+        }
+
+        start = o;
+        end = o + l;
+
+        for (int i = o; i < end; i++) {
+
+            if (b[i] == '\n') {
+
+                append(b, start, i - start);
+
+                endLine();
+
+                start = i + 1;
+            }
+
+        }
+
+        append(b, start, end - start);
+
+        writeBatch();
+    }
+
+    /**
+     * Write the current line, if it holds any bytes.
+     */
+    public void close() {
+
+        if (lineBuffer.position() > 0) {
+
+            endLine();
+        }
+
+        writeBatch();
+    }
+
+    /**
+     * Indicate whether log entries at the logging level of the stream are accepted.
+     * @return true if the log entries are accepted, false otherwise
+     */
+    private boolean isEnabled() {
+        return logger.isEnabled(loggingLevel);
+    }
+
+    /**
+     * Append byte to the current line.
+     * @param b The byte
+     */
+    private void append(
+        final byte b) {
+
+        if (b == '\n') {
+
+            endLine();
+
+            return;
+        }
+
+        if (lineBuffer.hasRemaining() == false) {
+
+            breakLine();
+        }
+
+        lineBuffer.put(b);
+    }
+
+    /**
+     * Append bytes, which do not hold a line feed, to the current line.
+     * @param b The byte array
+     * @param o The offset
+     * @param l The length
+     */
+    private void append(
+        final byte[] b,
+        final int o,
+        final int l) {
+
+        int offset;
+        int remaining;
+        int length;
+
+        offset = o;
+        remaining = l;
+
+        while (remaining > 0) {
+
+            if (lineBuffer.hasRemaining() == false) {
+
+                breakLine();
+            }
+
+            length = Math.min(remaining, lineBuffer.remaining());
+
+            lineBuffer.put(b, offset, length);
+
+            offset += length;
+            remaining -= length;
+        }
+
+    }
+
+    /**
+     * Complete the current line and write it.
+     */
+    private void endLine() {
+
+        String line;
+
+        line = decode(true);
+
+        if (line.endsWith("\r") == true) {
+
+            line = line.substring(0, line.length() - 1);
+        }
+
+        if (line.isEmpty() == false) {
+
+            writeLine(line);
+        }
+
+    }
+
+    /**
+     * Write the part of the current line that fills the line buffer.  The bytes
+     * of a character that is not complete yet are kept for the next part.
+     */
+    private void breakLine() {
+
+        writeLine(decode(false));
+    }
+
+    /**
+     * Decode the bytes in the line buffer.
+     * @param endOfLine true if the line is complete, false otherwise
+     * @return The decoded characters
+     */
+    private String decode(
+        final boolean endOfLine) {
+
+        String value;
+
+        lineBuffer.flip();
+
+        charBuffer.clear();
+
+        decoder.decode(lineBuffer, charBuffer, endOfLine);
+
+        if (endOfLine == true) {
+
+            decoder.flush(charBuffer);
+
+            decoder.reset();
+        }
+
+        charBuffer.flip();
+
+        value = charBuffer.toString();
+
+        if (endOfLine == true) {
+
+            lineBuffer.clear();
+        }
+        else {
+
+            lineBuffer.compact();
+        }
+
+        return value;
+    }
+
+    /**
+     * Write line to the logger, or add it to the batch.
+     * @param line The line
+     */
+    private void writeLine(
+        final String line) {
+
+        if (batchSize <= 0) {
+
+            logger.write(loggingLevel, location, new Object[] {line});
+
+            return;
+        }
+
+        if ((batch.length() > 0) && (batch.length() + line.length() >= batchSize)) {
+
+            writeBatch();
+        }
+
+        if (batch.length() > 0) {
+
+            batch.append(System.lineSeparator());
+        }
+
+        batch.append(line);
+    }
+
+    /**
+     * Write the lines in the batch to the logger as a single log entry.
+     */
+    private void writeBatch() {
+
+        if (batch.length() == 0) {
+            return;
+        }
+
+        logger.write(loggingLevel, location, new Object[] {batch.toString()});
+
+        batch.setLength(0);
+    }
+
+}
@@ -7,6 +7,7 @@
         Service Harness
 */
 package org.melior.logging.core;
+import java.util.function.Supplier;
 import org.melior.context.transaction.TransactionContext;
 
 /**
@@ -38,6 +39,166 @@ public interface Logger {
         final String methodName,
         final Object...messageParts);
 
+    /**
+     * Log message at error logging level, if it is enabled.  The message is
+     * only constructed if the logging level is enabled.
+     * @param methodName The method name
+     * @param messageSupplier The supplier of the message
+     */
+    public void error(
+        final String methodName,
+        final Supplier<?> messageSupplier);
+
+    /**
+     * Log message at error logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     */
+    public void error(
+        final String methodName,
+        final Object messagePart1);
+
+    /**
+     * Log message at error logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The message part
+     */
+    public void error(
+        final String methodName,
+        final Object messagePart1,
+        final Object messagePart2);
+
+    /**
+     * Log message at error logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The message part
+     * @param messagePart3 The message part
+     */
+    public void error(
+        final String methodName,
+        final Object messagePart1,
+        final Object messagePart2,
+        final Object messagePart3);
+
+    /**
+     * Log message at error logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The message part
+     * @param messagePart3 The message part
+     * @param messagePart4 The message part
+     */
+    public void error(
+        final String methodName,
+        final Object messagePart1,
+        final Object messagePart2,
+        final Object messagePart3,
+        final Object messagePart4);
+
+    /**
+     * Log message at error logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The message part
+     * @param messagePart3 The message part
+     * @param messagePart4 The message part
+     * @param messagePart5 The message part
+     */
+    public void error(
+        final String methodName,
+        final Object messagePart1,
+        final Object messagePart2,
+        final Object messagePart3,
+        final Object messagePart4,
+        final Object messagePart5);
+
+    /**
+     * Log message at error logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The message part
+     * @param messagePart3 The message part
+     * @param messagePart4 The message part
+     * @param messagePart5 The message part
+     * @param messagePart6 The message part
+     */
+    public void error(
+        final String methodName,
+        final Object messagePart1,
+        final Object messagePart2,
+        final Object messagePart3,
+        final Object messagePart4,
+        final Object messagePart5,
+        final Object messagePart6);
+
+    /**
+     * Log message at error logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The long integer message part
+     */
+    public void error(
+        final String methodName,
+        final Object messagePart1,
+        final long messagePart2);
+
+    /**
+     * Log message at error logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The integer message part
+     */
+    public void error(
+        final String methodName,
+        final Object messagePart1,
+        final int messagePart2);
+
+    /**
+     * Log message at error logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The double message part
+     */
+    public void error(
+        final String methodName,
+        final Object messagePart1,
+        final double messagePart2);
+
+    /**
+     * Log message at error logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The boolean message part
+     */
+    public void error(
+        final String methodName,
+        final Object messagePart1,
+        final boolean messagePart2);
+
+    /**
+     * Log message at error logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The character message part
+     */
+    public void error(
+        final String methodName,
+        final Object messagePart1,
+        final char messagePart2);
+
+    /**
+     * Log message at error logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The float message part
+     */
+    public void error(
+        final String methodName,
+        final Object messagePart1,
+        final float messagePart2);
+
     /**
      * Indicate whether warn level logging is enabled.
      * @return true if warn level logging is enabled, false otherwise
@@ -53,6 +214,166 @@ public interface Logger {
         final String methodName,
         final Object...messageParts);
 
+    /**
+     * Log message at warn logging level, if it is enabled.  The message is
+     * only constructed if the logging level is enabled.
+     * @param methodName The method name
+     * @param messageSupplier The supplier of the message
+     */
+    public void warn(
+        final String methodName,
+        final Supplier<?> messageSupplier);
+
+    /**
+     * Log message at warn logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     */
+    public void warn(
+        final String methodName,
+        final Object messagePart1);
+
+    /**
+     * Log message at warn logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The message part
+     */
+    public void warn(
+        final String methodName,
+        final Object messagePart1,
+        final Object messagePart2);
+
+    /**
+     * Log message at warn logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The message part
+     * @param messagePart3 The message part
+     */
+    public void warn(
+        final String methodName,
+        final Object messagePart1,
+        final Object messagePart2,
+        final Object messagePart3);
+
+    /**
+     * Log message at warn logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The message part
+     * @param messagePart3 The message part
+     * @param messagePart4 The message part
+     */
+    public void warn(
+        final String methodName,
+        final Object messagePart1,
+        final Object messagePart2,
+        final Object messagePart3,
+        final Object messagePart4);
+
+    /**
+     * Log message at warn logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The message part
+     * @param messagePart3 The message part
+     * @param messagePart4 The message part
+     * @param messagePart5 The message part
+     */
+    public void warn(
+        final String methodName,
+        final Object messagePart1,
+        final Object messagePart2,
+        final Object messagePart3,
+        final Object messagePart4,
+        final Object messagePart5);
+
+    /**
+     * Log message at warn logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The message part
+     * @param messagePart3 The message part
+     * @param messagePart4 The message part
+     * @param messagePart5 The message part
+     * @param messagePart6 The message part
+     */
+    public void warn(
+        final String methodName,
+        final Object messagePart1,
+        final Object messagePart2,
+        final Object messagePart3,
+        final Object messagePart4,
+        final Object messagePart5,
+        final Object messagePart6);
+
+    /**
+     * Log message at warn logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The long integer message part
+     */
+    public void warn(
+        final String methodName,
+        final Object messagePart1,
+        final long messagePart2);
+
+    /**
+     * Log message at warn logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The integer message part
+     */
+    public void warn(
+        final String methodName,
+        final Object messagePart1,
+        final int messagePart2);
+
+    /**
+     * Log message at warn logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The double message part
+     */
+    public void warn(
+        final String methodName,
+        final Object messagePart1,
+        final double messagePart2);
+
+    /**
+     * Log message at warn logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The boolean message part
+     */
+    public void warn(
+        final String methodName,
+        final Object messagePart1,
+        final boolean messagePart2);
+
+    /**
+     * Log message at warn logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The character message part
+     */
+    public void warn(
+        final String methodName,
+        final Object messagePart1,
+        final char messagePart2);
+
+    /**
+     * Log message at warn logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The float message part
+     */
+    public void warn(
+        final String methodName,
+        final Object messagePart1,
+        final float messagePart2);
+
     /**
      * Indicate whether info level logging is enabled.
      * @return true if info level logging is enabled, false otherwise
@@ -68,6 +389,166 @@ public interface Logger {
         final String methodName,
         final Object...messageParts);
 
+    /**
+     * Log message at info logging level, if it is enabled.  The message is
+     * only constructed if the logging level is enabled.
+     * @param methodName The method name
+     * @param messageSupplier The supplier of the message
+     */
+    public void info(
+        final String methodName,
+        final Supplier<?> messageSupplier);
+
+    /**
+     * Log message at info logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     */
+    public void info(
+        final String methodName,
+        final Object messagePart1);
+
+    /**
+     * Log message at info logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The message part
+     */
+    public void info(
+        final String methodName,
+        final Object messagePart1,
+        final Object messagePart2);
+
+    /**
+     * Log message at info logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The message part
+     * @param messagePart3 The message part
+     */
+    public void info(
+        final String methodName,
+        final Object messagePart1,
+        final Object messagePart2,
+        final Object messagePart3);
+
+    /**
+     * Log message at info logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The message part
+     * @param messagePart3 The message part
+     * @param messagePart4 The message part
+     */
+    public void info(
+        final String methodName,
+        final Object messagePart1,
+        final Object messagePart2,
+        final Object messagePart3,
+        final Object messagePart4);
+
+    /**
+     * Log message at info logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The message part
+     * @param messagePart3 The message part
+     * @param messagePart4 The message part
+     * @param messagePart5 The message part
+     */
+    public void info(
+        final String methodName,
+        final Object messagePart1,
+        final Object messagePart2,
+        final Object messagePart3,
+        final Object messagePart4,
+        final Object messagePart5);
+
+    /**
+     * Log message at info logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The message part
+     * @param messagePart3 The message part
+     * @param messagePart4 The message part
+     * @param messagePart5 The message part
+     * @param messagePart6 The message part
+     */
+    public void info(
+        final String methodName,
+        final Object messagePart1,
+        final Object messagePart2,
+        final Object messagePart3,
+        final Object messagePart4,
+        final Object messagePart5,
+        final Object messagePart6);
+
+    /**
+     * Log message at info logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The long integer message part
+     */
+    public void info(
+        final String methodName,
+        final Object messagePart1,
+        final long messagePart2);
+
+    /**
+     * Log message at info logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The integer message part
+     */
+    public void info(
+        final String methodName,
+        final Object messagePart1,
+        final int messagePart2);
+
+    /**
+     * Log message at info logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The double message part
+     */
+    public void info(
+        final String methodName,
+        final Object messagePart1,
+        final double messagePart2);
+
+    /**
+     * Log message at info logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The boolean message part
+     */
+    public void info(
+        final String methodName,
+        final Object messagePart1,
+        final boolean messagePart2);
+
+    /**
+     * Log message at info logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The character message part
+     */
+    public void info(
+        final String methodName,
+        final Object messagePart1,
+        final char messagePart2);
+
+    /**
+     * Log message at info logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The float message part
+     */
+    public void info(
+        final String methodName,
+        final Object messagePart1,
+        final float messagePart2);
+
     /**
      * Indicate whether debug level logging is enabled.
      * @return true if debug level logging is enabled, false otherwise
@@ -83,6 +564,166 @@ public interface Logger {
         final String methodName,
         final Object...messageParts);
 
+    /**
+     * Log message at debug logging level, if it is enabled.  The message is
+     * only constructed if the logging level is enabled.
+     * @param methodName The method name
+     * @param messageSupplier The supplier of the message
+     */
+    public void debug(
+        final String methodName,
+        final Supplier<?> messageSupplier);
+
+    /**
+     * Log message at debug logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     */
+    public void debug(
+        final String methodName,
+        final Object messagePart1);
+
+    /**
+     * Log message at debug logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The message part
+     */
+    public void debug(
+        final String methodName,
+        final Object messagePart1,
+        final Object messagePart2);
+
+    /**
+     * Log message at debug logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The message part
+     * @param messagePart3 The message part
+     */
+    public void debug(
+        final String methodName,
+        final Object messagePart1,
+        final Object messagePart2,
+        final Object messagePart3);
+
+    /**
+     * Log message at debug logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The message part
+     * @param messagePart3 The message part
+     * @param messagePart4 The message part
+     */
+    public void debug(
+        final String methodName,
+        final Object messagePart1,
+        final Object messagePart2,
+        final Object messagePart3,
+        final Object messagePart4);
+
+    /**
+     * Log message at debug logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The message part
+     * @param messagePart3 The message part
+     * @param messagePart4 The message part
+     * @param messagePart5 The message part
+     */
+    public void debug(
+        final String methodName,
+        final Object messagePart1,
+        final Object messagePart2,
+        final Object messagePart3,
+        final Object messagePart4,
+        final Object messagePart5);
+
+    /**
+     * Log message at debug logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The message part
+     * @param messagePart3 The message part
+     * @param messagePart4 The message part
+     * @param messagePart5 The message part
+     * @param messagePart6 The message part
+     */
+    public void debug(
+        final String methodName,
+        final Object messagePart1,
+        final Object messagePart2,
+        final Object messagePart3,
+        final Object messagePart4,
+        final Object messagePart5,
+        final Object messagePart6);
+
+    /**
+     * Log message at debug logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The long integer message part
+     */
+    public void debug(
+        final String methodName,
+        final Object messagePart1,
+        final long messagePart2);
+
+    /**
+     * Log message at debug logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The integer message part
+     */
+    public void debug(
+        final String methodName,
+        final Object messagePart1,
+        final int messagePart2);
+
+    /**
+     * Log message at debug logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The double message part
+     */
+    public void debug(
+        final String methodName,
+        final Object messagePart1,
+        final double messagePart2);
+
+    /**
+     * Log message at debug logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The boolean message part
+     */
+    public void debug(
+        final String methodName,
+        final Object messagePart1,
+        final boolean messagePart2);
+
+    /**
+     * Log message at debug logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The character message part
+     */
+    public void debug(
+        final String methodName,
+        final Object messagePart1,
+        final char messagePart2);
+
+    /**
+     * Log message at debug logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The float message part
+     */
+    public void debug(
+        final String methodName,
+        final Object messagePart1,
+        final float messagePart2);
+
     /**
      * Indicate whether trace level logging is enabled.
      * @return true if trace level logging is enabled, false otherwise
@@ -98,6 +739,166 @@ public interface Logger {
         final String methodName,
         final Object...messageParts);
 
+    /**
+     * Log message at trace logging level, if it is enabled.  The message is
+     * only constructed if the logging level is enabled.
+     * @param methodName The method name
+     * @param messageSupplier The supplier of the message
+     */
+    public void trace(
+        final String methodName,
+        final Supplier<?> messageSupplier);
+
+    /**
+     * Log message at trace logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     */
+    public void trace(
+        final String methodName,
+        final Object messagePart1);
+
+    /**
+     * Log message at trace logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The message part
+     */
+    public void trace(
+        final String methodName,
+        final Object messagePart1,
+        final Object messagePart2);
+
+    /**
+     * Log message at trace logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The message part
+     * @param messagePart3 The message part
+     */
+    public void trace(
+        final String methodName,
+        final Object messagePart1,
+        final Object messagePart2,
+        final Object messagePart3);
+
+    /**
+     * Log message at trace logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The message part
+     * @param messagePart3 The message part
+     * @param messagePart4 The message part
+     */
+    public void trace(
+        final String methodName,
+        final Object messagePart1,
+        final Object messagePart2,
+        final Object messagePart3,
+        final Object messagePart4);
+
+    /**
+     * Log message at trace logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The message part
+     * @param messagePart3 The message part
+     * @param messagePart4 The message part
+     * @param messagePart5 The message part
+     */
+    public void trace(
+        final String methodName,
+        final Object messagePart1,
+        final Object messagePart2,
+        final Object messagePart3,
+        final Object messagePart4,
+        final Object messagePart5);
+
+    /**
+     * Log message at trace logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The message part
+     * @param messagePart3 The message part
+     * @param messagePart4 The message part
+     * @param messagePart5 The message part
+     * @param messagePart6 The message part
+     */
+    public void trace(
+        final String methodName,
+        final Object messagePart1,
+        final Object messagePart2,
+        final Object messagePart3,
+        final Object messagePart4,
+        final Object messagePart5,
+        final Object messagePart6);
+
+    /**
+     * Log message at trace logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The long integer message part
+     */
+    public void trace(
+        final String methodName,
+        final Object messagePart1,
+        final long messagePart2);
+
+    /**
+     * Log message at trace logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The integer message part
+     */
+    public void trace(
+        final String methodName,
+        final Object messagePart1,
+        final int messagePart2);
+
+    /**
+     * Log message at trace logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The double message part
+     */
+    public void trace(
+        final String methodName,
+        final Object messagePart1,
+        final double messagePart2);
+
+    /**
+     * Log message at trace logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The boolean message part
+     */
+    public void trace(
+        final String methodName,
+        final Object messagePart1,
+        final boolean messagePart2);
+
+    /**
+     * Log message at trace logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The character message part
+     */
+    public void trace(
+        final String methodName,
+        final Object messagePart1,
+        final char messagePart2);
+
+    /**
+     * Log message at trace logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The float message part
+     */
+    public void trace(
+        final String methodName,
+        final Object messagePart1,
+        final float messagePart2);
+
     /**
      * Log successful transaction.
      * @param methodName The method name
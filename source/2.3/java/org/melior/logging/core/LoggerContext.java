@@ -8,21 +8,40 @@
 */
 package org.melior.logging.core;
 import java.net.InetAddress;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 import org.melior.context.transaction.TransactionContext;
+import org.melior.logging.adapter.LoggerRegistry;
 import org.melior.logging.appender.Appender;
+import org.melior.logging.appender.ArchiveCodec;
 import org.melior.logging.appender.AppenderConfig;
+import org.melior.logging.appender.AppenderProperties;
+import org.melior.logging.appender.AsyncAppender;
+import org.melior.logging.appender.BinaryFileAppender;
+import org.melior.logging.appender.CompositeAppender;
 import org.melior.logging.appender.ConsoleAppender;
+import org.melior.logging.appender.DatagramAppender;
 import org.melior.logging.appender.FileAppender;
+import org.melior.logging.appender.LogEvent;
+import org.melior.logging.appender.MappedFileAppender;
+import org.melior.logging.appender.OverflowPolicy;
 import org.melior.logging.appender.Stream;
-import org.melior.util.number.Clamp;
+import org.melior.logging.appender.SyncPolicy;
+import org.melior.logging.appender.TransactionFormat;
+import org.melior.service.exception.ApplicationException;
+import org.melior.util.collection.WaitStrategy;
+import org.melior.util.exception.StackTraceRenderer;
 import org.melior.util.object.ObjectUtil;
 import org.melior.util.thread.DaemonThread;
 import org.melior.util.thread.ThreadControl;
-import org.melior.util.time.AccurateLocalDateTime;
+import org.melior.util.time.CachedClock;
+import org.springframework.boot.convert.DurationStyle;
 import org.springframework.boot.logging.LogLevel;
 import org.springframework.core.env.Environment;
 import org.springframework.util.unit.DataSize;
@@ -32,17 +51,27 @@ import org.springframework.util.unit.DataSize;
  * configuration and instantiates the relevant internal appenders.  It
  * generates the timestamps for the log entries and directs the logging
  * events at the internal appenders.
+ * <p>
+ * When the logger context is initialized again, for example after the
+ * configuration of the service has been refreshed, the appenders that are
+ * in use are reconfigured in place rather than created again, so that the
+ * log entries that are in flight are neither lost nor written twice, and
+ * the logging levels of the loggers are resolved again.
  * @author Melior
  * @since 2.1
  * @see Appender
  */
 public class LoggerContext {
+
+    private static final String TRIMMED_PACKAGES = "sun.reflect.,jdk.internal.reflect.,java.lang.reflect.,org.springframework.cglib.,org.springframework.aop.";
+
+    private static final long FLUSH_INTERVAL = 1000;
 
     private static LoggerContext instance;
 
     private String hostName;
 
-    private DateTimeFormatter dateTimeFormatter;
+    private CachedClock clock;
 
     private AppenderConfig configuration;
 
@@ -51,11 +80,29 @@ public class LoggerContext {
     private Appender normalTransactionAppender;
     private Appender errorTransactionAppender;
 
+    private Map<String, Appender> additionalAppenders;
+
+    private boolean initialized;
+
+    private Map<String, LoggerFacade> loggers;
+
+    private volatile int generation;
+
     private int loggingLevel;
-
-    private int currentDay;
-
-    private String timestamp;
+
+    private int captureLevel;
+
+    private int captureBufferSize;
+
+    private volatile ThreadLocal<CaptureBuffer> captureBuffers;
+
+    private volatile RateLimiter rateLimiter;
+
+    private int streamLineLength;
+
+    private int streamBatchSize;
+
+    private LoggingMetrics metrics;
 
     /**
      * Constructor.
@@ -72,20 +119,12 @@ public class LoggerContext {
             throw new RuntimeException("Failed to retrieve host name.", exception);
         }
 
-        try {
-
-            dateTimeFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
-        }
-        catch (Exception exception) {
-            throw new RuntimeException("Failed to create date time formatter.", exception);
-        }
-
-        generateTimestamp();
-
-        DaemonThread.create(() -> generateTimestamps());
+        clock = CachedClock.get();
 
         configuration = new AppenderConfig();
 
+        additionalAppenders = new LinkedHashMap<String, Appender>();
+
         try {
 
             normalTraceAppender = new ConsoleAppender(Stream.TRACE, configuration);
@@ -97,7 +136,25 @@ public class LoggerContext {
             throw new RuntimeException("Failed to create default appenders: " + exception.getMessage());
         }
 
+        initialized = false;
+
+        loggers = new ConcurrentHashMap<String, LoggerFacade>();
+
+        generation = 0;
+
         loggingLevel = LogLevel.DEBUG.ordinal();
+
+        captureLevel = LogLevel.OFF.ordinal();
+
+        streamLineLength = 8192;
+
+        streamBatchSize = 8192;
+
+        metrics = LoggingMetrics.get();
+
+        registerMetrics();
+
+        DaemonThread.create(() -> flushRateLimiter());
     }
 
     /**
@@ -115,49 +172,136 @@ public class LoggerContext {
     }
 
     /**
-     * Initialize.
+     * Initialize.  The appenders are created when the logger context is first
+     * initialized, and are reconfigured when it is initialized again.
      * @param environment The environment
      */
-    void initialize(
+    synchronized void initialize(
         final Environment environment) {
 
-        String fileName;
-        String filePath;
-        String serviceName;
-        long maxSize;
-        String historyPath;
-        int maxHistory;
-        String format;
+        AppenderConfig newConfiguration;
+        int captureSize;
 
+        newConfiguration = createConfiguration(environment);
+
         loggingLevel = LogLevel.valueOf(environment.getProperty("logging.level", "DEBUG")).ordinal();
+
+        captureLevel = LogLevel.OFF.ordinal();
+
+        if (Boolean.parseBoolean(environment.getProperty("logging.capture.enabled", "false")) == true) {
+
+            captureSize = Integer.parseInt(environment.getProperty("logging.capture.buffer-size", "256"));
+
+            if ((captureBuffers == null) || (captureSize != captureBufferSize)) {
+
+                captureBufferSize = captureSize;
+
+                captureBuffers = ThreadLocal.withInitial(() -> new CaptureBuffer(captureSize));
+            }
+
+            captureLevel = LogLevel.valueOf(toConstant(environment.getProperty("logging.capture.level", "debug"))).ordinal();
+        }
+        else {
+
+            captureBuffers = null;
+        }
+
+        if (Boolean.parseBoolean(environment.getProperty("logging.rate-limit.enabled", "false")) == true) {
+
+            rateLimiter = createRateLimiter(environment);
+        }
+        else {
+
+            rateLimiter = null;
+        }
+
+        streamLineLength = (int) DataSize.parse(environment.getProperty("logging.stream.max-line-length", "8KB")).toBytes();
+
+        streamBatchSize = (int) DataSize.parse(environment.getProperty("logging.stream.batch-size", "8KB")).toBytes();
+
+        StackTraceRenderer.get().configure(toList(environment.getProperty("logging.stack-trace.trimmed-packages", TRIMMED_PACKAGES)),
+            Boolean.parseBoolean(environment.getProperty("logging.stack-trace.deduplicate", "false")),
+            Integer.parseInt(environment.getProperty("logging.stack-trace.cache-size", "256")));
 
-        fileName = environment.getProperty("logging.file.name");
+        if (initialized == true) {
 
-        filePath = environment.getProperty("logging.file.path");
+            reconfigureAppenders(newConfiguration);
+        }
+        else {
 
-        if ((fileName != null) || (filePath != null)) {
+            configuration = newConfiguration;
 
-            serviceName = environment.getProperty("service.name", environment.getProperty("spring.application.name"));
+            createAppenders();
 
-            maxSize = DataSize.parse(environment.getProperty("logging.file.max-size", "10MB")).toBytes();
+            createAdditionalAppenders(environment);
+
+            initialized = true;
+        }
 
-            historyPath = environment.getProperty("logging.file.history-path");
+        invalidateLoggingLevels();
 
-            maxHistory = Integer.parseInt(environment.getProperty("logging.file.max-history", "7"));
+        registerMetrics();
+    }
 
-            configuration.setServiceName(serviceName);
-            configuration.setFileName(fileName);
-            configuration.setFilePath(filePath);
-            configuration.setMaxFileSize(maxSize);
-            configuration.setHistoryPath(historyPath);
-            configuration.setMaxFileHistory(maxHistory);
+    /**
+     * Create appender configuration from the environment.
+     * @param environment The environment
+     * @return The appender configuration
+     */
+    private AppenderConfig createConfiguration(
+        final Environment environment) {
+
+        AppenderConfig newConfiguration;
+
+        newConfiguration = new AppenderConfig();
+
+        newConfiguration.setAsyncEnabled(Boolean.parseBoolean(environment.getProperty("logging.async.enabled", "false")));
+        newConfiguration.setAsyncBufferSize(Integer.parseInt(environment.getProperty("logging.async.buffer-size", "8192")));
+        newConfiguration.setAsyncWaitStrategy(WaitStrategy.valueOf(toConstant(environment.getProperty("logging.async.wait-strategy", "blocking"))));
+        newConfiguration.setAsyncOverflowPolicy(OverflowPolicy.valueOf(toConstant(environment.getProperty("logging.async.overflow-policy", "block"))));
+
+        newConfiguration.setServiceName(environment.getProperty("service.name", environment.getProperty("spring.application.name")));
+        newConfiguration.setFileName(environment.getProperty("logging.file.name"));
+        newConfiguration.setFilePath(environment.getProperty("logging.file.path"));
+        newConfiguration.setMaxFileSize(DataSize.parse(environment.getProperty("logging.file.max-size", "10MB")).toBytes());
+        newConfiguration.setHistoryPath(environment.getProperty("logging.file.history-path"));
+        newConfiguration.setMaxFileHistory(Integer.parseInt(environment.getProperty("logging.file.max-history", "7")));
+        newConfiguration.setFileBufferSize((int) DataSize.parse(environment.getProperty("logging.file.buffer-size", "256KB")).toBytes());
+        newConfiguration.setFlushSize((int) DataSize.parse(environment.getProperty("logging.file.flush-size", "64KB")).toBytes());
+        newConfiguration.setFlushInterval(DurationStyle.detectAndParse(environment.getProperty("logging.file.flush-interval", "200ms")).toMillis());
+        newConfiguration.setSyncPolicy(SyncPolicy.valueOf(toConstant(environment.getProperty("logging.file.sync-policy", "none"))));
+        newConfiguration.setMemoryMapped(Boolean.parseBoolean(environment.getProperty("logging.file.memory-mapped", "false")));
+        newConfiguration.setTransactionFormat(TransactionFormat.valueOf(toConstant(environment.getProperty("logging.file.transaction-format", "text"))));
+        newConfiguration.setIndexEnabled(Boolean.parseBoolean(environment.getProperty("logging.file.index.enabled", "false")));
+        newConfiguration.setIndexInterval(DataSize.parse(environment.getProperty("logging.file.index.interval", "64KB")).toBytes());
+        newConfiguration.setIndexBloomSize((int) DataSize.parse(environment.getProperty("logging.file.index.bloom-size", "128KB")).toBytes());
+        newConfiguration.setArchiveCodec(createArchiveCodec(environment.getProperty("logging.file.archive-codec", "zip")));
+        newConfiguration.setArchiveThreads(Integer.parseInt(environment.getProperty("logging.file.archive-threads", "0")));
+        newConfiguration.setArchiveBacklog(Integer.parseInt(environment.getProperty("logging.file.archive-backlog", "256")));
+
+        newConfiguration.setFormat(environment.getProperty("logging.console.format"));
+        newConfiguration.setConsoleNonBlocking(Boolean.parseBoolean(environment.getProperty("logging.console.non-blocking", "false")));
+        newConfiguration.setConsoleBufferSize(Integer.parseInt(environment.getProperty("logging.console.buffer-size", "8192")));
+        newConfiguration.setConsoleOverflowPolicy(OverflowPolicy.valueOf(toConstant(environment.getProperty("logging.console.overflow-policy", "drop-all"))));
+        newConfiguration.setConsoleBatchSize((int) DataSize.parse(environment.getProperty("logging.console.batch-size", "64KB")).toBytes());
+
+        return newConfiguration;
+    }
+
+    /**
+     * Create appenders.  File appenders are created if either a file name
+     * or a file path is configured, and console appenders otherwise.
+     */
+    private void createAppenders() {
+
+        if ((configuration.getFileName() != null) || (configuration.getFilePath() != null)) {
 
             try {
 
-                normalTraceAppender = new FileAppender(Stream.TRACE, configuration);
-                errorTraceAppender = new FileAppender(Stream.TRACE_ERROR, configuration);
-                normalTransactionAppender = new FileAppender(Stream.TRANSACTION, configuration);
-                errorTransactionAppender = new FileAppender(Stream.TRANSACTION_ERROR, configuration);
+                normalTraceAppender = createAppender(new FileAppender(Stream.TRACE, configuration));
+                errorTraceAppender = createAppender(new FileAppender(Stream.TRACE_ERROR, configuration));
+                normalTransactionAppender = createAppender(createTransactionAppender(Stream.TRANSACTION));
+                errorTransactionAppender = createAppender(createTransactionAppender(Stream.TRANSACTION_ERROR));
             }
             catch (Exception exception) {
                 throw new RuntimeException("Failed to create appenders: " + exception.getMessage());
@@ -166,132 +310,847 @@ public class LoggerContext {
         }
         else {
 
-            format = environment.getProperty("logging.console.format");
+            try {
 
-            configuration.setFormat(format);
+                normalTraceAppender = createConsoleAppender(Stream.TRACE);
+                errorTraceAppender = createConsoleAppender(Stream.TRACE_ERROR);
+                normalTransactionAppender = createConsoleAppender(Stream.TRANSACTION);
+                errorTransactionAppender = createConsoleAppender(Stream.TRANSACTION_ERROR);
+            }
+            catch (Exception exception) {
+                throw new RuntimeException("Failed to create appenders: " + exception.getMessage());
+            }
+
         }
 
     }
 
     /**
-     * Generate timestamp at intervals.
+     * Create the additional appenders that are listed in {@code logging.appenders.names},
+     * and attach them to the log streams that they are configured for.  Each additional
+     * appender is configured with the properties under {@code logging.appenders.<name>},
+     * and is wrapped in an asynchronous appender with its own buffer size and overflow
+     * policy, so that a slow sink cannot stall the callers.
+     * @param environment The environment
      */
-    private void generateTimestamps() {
-
-        long previousTime;
-        long currentTime;
-        long duration = 500000;
-
-        previousTime = System.nanoTime();
+    private void createAdditionalAppenders(
+        final Environment environment) {
 
-        while (true) {
-
-            ThreadControl.sleep(duration, TimeUnit.NANOSECONDS);
-
-            generateTimestamp();
-
-            currentTime = System.nanoTime();
-
-            duration = Clamp.clampLong(500000 - (currentTime - previousTime - duration), 250000, 500000);
-
-            previousTime = currentTime;
+        AppenderProperties properties;
+        Stream stream;
+
+        for (String name : toList(environment.getProperty("logging.appenders.names", ""))) {
+
+            properties = AppenderProperties.of(name, key -> environment.getProperty("logging.appenders." + name + "." + key));
+
+            for (String alias : toList(properties.getProperty("streams", "trc,trx"))) {
+
+                stream = toStream(alias);
+
+                additionalAppenders.put(stream.getAlias() + "." + name, createAdditionalAppender(stream, properties));
+            }
+
+        }
+
+        try {
+
+            normalTraceAppender = attachAppenders(normalTraceAppender);
+            errorTraceAppender = attachAppenders(errorTraceAppender);
+            normalTransactionAppender = attachAppenders(normalTransactionAppender);
+            errorTransactionAppender = attachAppenders(errorTransactionAppender);
+        }
+        catch (Exception exception) {
+            throw new RuntimeException("Failed to attach appenders: " + exception.getMessage());
         }
 
     }
 
     /**
-     * Generate timestamp.
+     * Create additional appender for given log stream.  The appender is either
+     * the built-in {@code datagram} appender, or the class name of a custom
+     * appender, which must have a public constructor that takes the stream,
+     * the configuration and the appender properties.
+     * @param stream The stream
+     * @param properties The properties of the appender
+     * @return The appender
      */
-    private void generateTimestamp() {
-
-        LocalDateTime localDateTime;
-
-        localDateTime = AccurateLocalDateTime.now();
-
-        currentDay = localDateTime.getDayOfMonth();
-
-        timestamp = localDateTime.format(dateTimeFormatter);
+    private Appender createAdditionalAppender(
+        final Stream stream,
+        final AppenderProperties properties) {
+
+        String type;
+        Appender appender;
+
+        type = properties.getProperty("type", "datagram");
+
+        try {
+
+            if (type.equalsIgnoreCase("datagram") == true) {
+
+                appender = new DatagramAppender(stream, configuration, properties);
+            }
+            else {
+
+                appender = (Appender) Class.forName(type)
+                    .getConstructor(Stream.class, AppenderConfig.class, AppenderProperties.class)
+                    .newInstance(stream, configuration, properties);
+            }
+
+            return new AsyncAppender(stream, configuration, appender,
+                Integer.parseInt(properties.getProperty("buffer-size", "8192")),
+                OverflowPolicy.valueOf(toConstant(properties.getProperty("overflow-policy", "drop-all"))));
+        }
+        catch (Exception exception) {
+            throw new RuntimeException("Failed to create appender " + properties.getName() + ": " + exception.getMessage());
+        }
+
+    }
+
+    /**
+     * Attach the additional appenders of the log stream of given appender to it.
+     * @param appender The primary appender of the log stream
+     * @return The composite appender, or the primary appender if the log stream has no additional appenders
+     * @throws ApplicationException if unable to create the composite appender
+     */
+    private Appender attachAppenders(
+        final Appender appender) throws ApplicationException {
+
+        List<Appender> appenders;
+
+        if (appender == null) {
+            return appender;
+        }
+
+        appenders = new ArrayList<Appender>();
+
+        for (Appender additionalAppender : additionalAppenders.values()) {
+
+            if (additionalAppender.getStream() == appender.getStream()) {
+
+                appenders.add(additionalAppender);
+            }
+
+        }
+
+        return (appenders.isEmpty() == true) ? appender
+            : new CompositeAppender(appender.getStream(), configuration, appender, appenders);
+    }
+
+    /**
+     * Get log stream with given alias.
+     * @param alias The alias
+     * @return The log stream
+     */
+    private Stream toStream(
+        final String alias) {
+
+        for (Stream stream : Stream.values()) {
+
+            if (stream.getAlias().equalsIgnoreCase(alias) == true) {
+                return stream;
+            }
+
+        }
+
+        throw new RuntimeException("Unknown log stream " + alias + ".");
+    }
+
+    /**
+     * Reconfigure the appenders that are in use with new configuration.  The
+     * settings that determine which appenders are in use and the sizes of their
+     * buffers only take effect when the appenders are created, so they keep the
+     * values with which the appenders were created.  The log files keep their
+     * name if neither a file name nor a file path is configured any longer.
+     * The additional appenders are reconfigured along with the primary appenders
+     * of their log streams, but keep the properties that they were created with.
+     * @param newConfiguration The new configuration
+     */
+    private void reconfigureAppenders(
+        final AppenderConfig newConfiguration) {
+
+        newConfiguration.setAsyncEnabled(configuration.isAsyncEnabled());
+        newConfiguration.setAsyncBufferSize(configuration.getAsyncBufferSize());
+        newConfiguration.setAsyncWaitStrategy(configuration.getAsyncWaitStrategy());
+        newConfiguration.setAsyncOverflowPolicy(configuration.getAsyncOverflowPolicy());
+        newConfiguration.setFileBufferSize(configuration.getFileBufferSize());
+        newConfiguration.setMemoryMapped(configuration.isMemoryMapped());
+        newConfiguration.setTransactionFormat(configuration.getTransactionFormat());
+        newConfiguration.setArchiveThreads(configuration.getArchiveThreads());
+        newConfiguration.setArchiveBacklog(configuration.getArchiveBacklog());
+        newConfiguration.setConsoleNonBlocking(configuration.isConsoleNonBlocking());
+        newConfiguration.setConsoleBufferSize(configuration.getConsoleBufferSize());
+        newConfiguration.setConsoleOverflowPolicy(configuration.getConsoleOverflowPolicy());
+
+        if ((newConfiguration.getFileName() == null) && (newConfiguration.getFilePath() == null)) {
+
+            newConfiguration.setServiceName(configuration.getServiceName());
+            newConfiguration.setFileName(configuration.getFileName());
+            newConfiguration.setFilePath(configuration.getFilePath());
+        }
+
+        try {
+
+            normalTraceAppender.reconfigure(newConfiguration);
+            errorTraceAppender.reconfigure(newConfiguration);
+            normalTransactionAppender.reconfigure(newConfiguration);
+            errorTransactionAppender.reconfigure(newConfiguration);
+        }
+        catch (Exception exception) {
+            throw new RuntimeException("Failed to reconfigure appenders: " + exception.getMessage());
+        }
+
+        configuration = newConfiguration;
     }
 
     /**
-     * Get logging level.
+     * Get logger.  Loggers with the same name are shared, so that their
+     * logging levels may be invalidated when the logging levels change.
+     * @param loggerName The logger name
+     * @param adapted true if an SLF4J logger writes to the logger, false otherwise
+     * @return The logger
+     */
+    synchronized LoggerFacade getLogger(
+        final String loggerName,
+        final boolean adapted) {
+
+        LoggerFacade logger;
+
+        logger = loggers.get(loggerName);
+
+        if (logger == null) {
+
+            logger = new LoggerFacade(loggerName, this);
+
+            loggers.put(loggerName, logger);
+        }
+
+        if ((adapted == true) && (logger.isAdapted() == false)) {
+
+            logger.setAdapted(true);
+
+            logger.invalidateLoggingLevel();
+        }
+
+        return logger;
+    }
+
+    /**
+     * Get names of the loggers.
+     * @return The set of logger names
+     */
+    Set<String> getLoggerNames() {
+        return loggers.keySet();
+    }
+
+    /**
+     * Resolve logging level of logger.  This is the logging level that has been
+     * set for the logger or for the loggers above it in the dotted name hierarchy,
+     * or the configured logging level otherwise.
+     * @param loggerName The logger name
      * @return The logging level
      */
-    int getLoggingLevel() {
-        return loggingLevel;
+    LogLevel getLoggingLevel(
+        final String loggerName) {
+
+        LogLevel loggingLevel;
+
+        loggingLevel = LoggerRegistry.get().resolveLoggingLevel(loggerName, null);
+
+        return (loggingLevel == null) ? LogLevel.values()[this.loggingLevel] : loggingLevel;
+    }
+
+    /**
+     * Invalidate the logging levels of all loggers after the logging levels have
+     * changed.  Each logger resolves its logging level again when it is next used.
+     * The generation is advanced before the loggers are invalidated, so that a
+     * logger that resolves its logging level at the same time notices the change.
+     */
+    synchronized void invalidateLoggingLevels() {
+
+        generation++;
+
+        for (LoggerFacade logger : loggers.values()) {
+
+            logger.invalidateLoggingLevel();
+        }
+
+    }
+
+    /**
+     * Resolve logging level of logger.  Log entries below the logging level are
+     * accepted if they are captured for failed transactions.  The logging level
+     * of an SLF4J logger is also subject to the logging level of the root logger,
+     * where FATAL still allows errors through, as it does for SLF4J.  If the logging
+     * levels changed while the logging level was resolved, the logging level of the
+     * logger is invalidated again, so that it is resolved again on the next check.
+     * @param logger The logger
+     * @return The logging level at which log entries are accepted
+     */
+    int resolveLoggingLevel(
+        final LoggerFacade logger) {
+
+        int generation;
+        LoggerRegistry loggerRegistry;
+        LogLevel slf4jLevel;
+        int loggingLevel;
+        int adaptedLevel;
+        int enabledLevel;
+
+        generation = this.generation;
+
+        loggingLevel = getLoggingLevel(logger.getName()).ordinal();
+
+        adaptedLevel = LogLevel.TRACE.ordinal();
+
+        if (logger.isAdapted() == true) {
+
+            loggerRegistry = LoggerRegistry.get();
+
+            slf4jLevel = loggerRegistry.resolveLoggingLevel(logger.getName(), loggerRegistry.getLoggingLevel(LoggingSystem.ROOT_LOGGER_NAME));
+
+            adaptedLevel = ((slf4jLevel == LogLevel.FATAL) ? LogLevel.ERROR : slf4jLevel).ordinal();
+        }
+
+        enabledLevel = Math.max(adaptedLevel, Math.min(loggingLevel, captureLevel));
+
+        logger.setLoggingLevel(Math.max(adaptedLevel, loggingLevel), enabledLevel);
+
+        if (this.generation != generation) {
+
+            logger.invalidateLoggingLevel();
+        }
+
+        return enabledLevel;
+    }
+
+    /**
+     * Register the metrics of the appenders with the metrics registry,
+     * replacing the metrics of the appenders that they replace.  The metrics
+     * of the rate limiter are registered in a group of their own.
+     */
+    private void registerMetrics() {
+
+        RateLimiter rateLimiter;
+
+        metrics.reset();
+
+        rateLimiter = this.rateLimiter;
+
+        if (rateLimiter != null) {
+
+            metrics.register("rateLimit", "bypassedEvents", () -> rateLimiter.getBypassedEvents());
+        }
+
+        for (Appender appender : new Appender[] {normalTraceAppender, errorTraceAppender,
+            normalTransactionAppender, errorTransactionAppender}) {
+
+            if (appender != null) {
+
+                registerMetrics(appender.getStream().getAlias(), appender);
+            }
+
+        }
+
+        for (Map.Entry<String, Appender> additionalAppender : additionalAppenders.entrySet()) {
+
+            registerMetrics(additionalAppender.getKey(), additionalAppender.getValue());
+        }
+
+    }
+
+    /**
+     * Register the metrics of given appender, and of the appender that it wraps,
+     * in given group.  The metrics of the primary appenders are registered in the
+     * group of their log stream, and those of the additional appenders in a group
+     * named {@code <stream>.<name>}.  The metrics of the file archiver are registered
+     * in a group of their own.
+     * @param group The group
+     * @param appender The appender
+     */
+    private void registerMetrics(
+        final String group,
+        final Appender appender) {
+
+        AsyncAppender asyncAppender;
+        FileAppender fileAppender;
+        DatagramAppender datagramAppender;
+        ConsoleAppender consoleAppender;
+
+        if (appender instanceof CompositeAppender) {
+
+            registerMetrics(group, ((CompositeAppender) appender).getAppender());
+        }
+        else if (appender instanceof AsyncAppender) {
+
+            asyncAppender = (AsyncAppender) appender;
+
+            metrics.register(group, "queueDepth", () -> asyncAppender.getQueueDepth());
+            metrics.register(group, "queueCapacity", () -> asyncAppender.getQueueCapacity());
+            metrics.register(group, "droppedEvents", () -> asyncAppender.getDroppedEvents());
+            metrics.register(group, "blockedEvents", () -> asyncAppender.getBlockedEvents());
+            metrics.register(group, "failedEvents", () -> asyncAppender.getFailedEvents());
+
+            registerMetrics(group, asyncAppender.getAppender());
+        }
+        else if (appender instanceof FileAppender) {
+
+            fileAppender = (FileAppender) appender;
+
+            metrics.register(group, "flushCount", () -> fileAppender.getFlushCount());
+            metrics.register(group, "flushedBytes", () -> fileAppender.getFlushedBytes());
+            metrics.register(group, "flushesPerSecond", () -> fileAppender.getFlushesPerSecond());
+            metrics.register(group, "bytesPerFlush", () -> fileAppender.getBytesPerFlush());
+            metrics.register(group, "lockWaitTime", () -> fileAppender.getLockWaitTime());
+            metrics.register(group, "rollCount", () -> fileAppender.getRollCount());
+            metrics.register(group, "rollTime", () -> fileAppender.getRollTime());
+
+            metrics.register("archiver", "backlog", () -> fileAppender.getArchiver().getBacklog());
+            metrics.register("archiver", "backlogCapacity", () -> fileAppender.getArchiver().getBacklogCapacity());
+            metrics.register("archiver", "archivedFiles", () -> fileAppender.getArchiver().getArchivedFiles());
+            metrics.register("archiver", "archivedBytes", () -> fileAppender.getArchiver().getArchivedBytes());
+            metrics.register("archiver", "archiveTime", () -> fileAppender.getArchiver().getArchiveTime());
+            metrics.register("archiver", "deferredFiles", () -> fileAppender.getArchiver().getDeferredFiles());
+            metrics.register("archiver", "leftFiles", () -> fileAppender.getArchiver().getLeftFiles());
+            metrics.register("archiver", "failedFiles", () -> fileAppender.getArchiver().getFailedFiles());
+            metrics.register("archiver", "throughput", () -> fileAppender.getArchiver().getThroughput());
+        }
+        else if (appender instanceof DatagramAppender) {
+
+            datagramAppender = (DatagramAppender) appender;
+
+            metrics.register(group, "datagramCount", () -> datagramAppender.getBatchCount());
+            metrics.register(group, "sentBytes", () -> datagramAppender.getSentBytes());
+            metrics.register(group, "droppedBatches", () -> datagramAppender.getDroppedBatches());
+        }
+        else if (appender instanceof ConsoleAppender) {
+
+            consoleAppender = (ConsoleAppender) appender;
+
+            metrics.register(group, "batchCount", () -> consoleAppender.getBatchCount());
+        }
+
+    }
+
+    /**
+     * Create appender.  The appender is wrapped in an asynchronous
+     * appender if asynchronous logging is enabled.
+     * @param appender The appender
+     * @return The appender
+     * @throws ApplicationException if unable to create the appender
+     */
+    private Appender createAppender(
+        final Appender appender) throws ApplicationException {
+
+        if (configuration.isAsyncEnabled() == false) {
+            return appender;
+        }
+
+        return new AsyncAppender(appender.getStream(), configuration, appender);
+    }
+
+    /**
+     * Create console appender.  In non-blocking mode, the appender is wrapped
+     * in an asynchronous appender with its own buffer size and overflow policy,
+     * so that a slow consumer of the standard output cannot stall the callers.
+     * @param stream The stream
+     * @return The appender
+     * @throws ApplicationException if unable to create the appender
+     */
+    private Appender createConsoleAppender(
+        final Stream stream) throws ApplicationException {
+
+        if (configuration.isConsoleNonBlocking() == true) {
+
+            return new AsyncAppender(stream, configuration, new ConsoleAppender(stream, configuration),
+                configuration.getConsoleBufferSize(), configuration.getConsoleOverflowPolicy());
+        }
+
+        return createAppender(new ConsoleAppender(stream, configuration));
+    }
+
+    /**
+     * Create file appender for transaction stream.  The appender writes to
+     * binary files if the binary transaction format is configured, and
+     * otherwise to memory-mapped files if memory-mapped transaction logs
+     * are enabled.
+     * @param stream The stream
+     * @return The appender
+     * @throws ApplicationException if unable to create the appender
+     */
+    private Appender createTransactionAppender(
+        final Stream stream) throws ApplicationException {
+
+        if (configuration.getTransactionFormat() == TransactionFormat.BINARY) {
+            return new BinaryFileAppender(stream, configuration);
+        }
+
+        if (configuration.isMemoryMapped() == true) {
+            return new MappedFileAppender(stream, configuration);
+        }
+
+        return new FileAppender(stream, configuration);
+    }
+
+    /**
+     * Create archive codec.  The codec is either one of the built-in
+     * codecs, or the class name of a custom codec.
+     * @param codecName The codec name
+     * @return The archive codec
+     */
+    private ArchiveCodec createArchiveCodec(
+        final String codecName) {
+
+        String name;
+
+        name = codecName.trim();
+
+        if (name.equalsIgnoreCase("zip") == true) {
+            return ArchiveCodec.ofZip();
+        }
+        else if (name.equalsIgnoreCase("gzip") == true) {
+            return ArchiveCodec.ofGzip();
+        }
+        else if (name.equalsIgnoreCase("fast") == true) {
+            return ArchiveCodec.ofFast();
+        }
+
+        try {
+
+            return (ArchiveCodec) Class.forName(name).getDeclaredConstructor().newInstance();
+        }
+        catch (Exception exception) {
+            throw new RuntimeException("Failed to create archive codec " + name + ": " + exception.getMessage());
+        }
+
+    }
+
+    /**
+     * Convert property value to enum constant name.
+     * @param value The property value
+     * @return The enum constant name
+     */
+    private String toConstant(
+        final String value) {
+        return value.trim().toUpperCase().replace('-', '_');
+    }
+
+
+    /**
+     * Get maximum number of bytes in a line that is written to a stream sink.
+     * @return The maximum number of bytes
+     */
+    int getStreamLineLength() {
+        return streamLineLength;
     }
 
     /**
-     * Write trace event.
+     * Get maximum number of bytes of the lines that a stream sink gathers
+     * into a single log entry.  Lines are only gathered when asynchronous
+     * logging is enabled.
+     * @return The maximum number of bytes, or 0 if lines are not gathered
+     */
+    int getStreamBatchSize() {
+        return (configuration.isAsyncEnabled() == true) ? streamBatchSize : 0;
+    }
+
+    /**
+     * Convert comma-separated list to list.
+     * @param value The comma-separated list
+     * @return The list
+     */
+    private List<String> toList(
+        final String value) {
+
+        List<String> list;
+
+        list = new ArrayList<String>();
+
+        for (String item : value.split(",")) {
+
+            if (item.trim().isEmpty() == false) {
+
+                list.add(item.trim());
+            }
+
+        }
+
+        return list;
+    }
+
+    /**
+     * Create rate limiter for trace events.
+     * @param environment The environment
+     * @return The rate limiter
+     */
+    private RateLimiter createRateLimiter(
+        final Environment environment) {
+
+        List<LogLevel> levels;
+
+        levels = new ArrayList<LogLevel>();
+
+        for (String level : toList(environment.getProperty("logging.rate-limit.levels", "warn,error"))) {
+
+            levels.add(LogLevel.valueOf(toConstant(level)));
+        }
+
+        return RateLimiter.of(Double.parseDouble(environment.getProperty("logging.rate-limit.rate", "10")),
+            Integer.parseInt(environment.getProperty("logging.rate-limit.burst", "20")), levels,
+            environment.getProperty("logging.rate-limit.overrides"));
+    }
+
+    /**
+     * Write trace event.  Events below the logging level of the logger are captured
+     * for failed transactions instead.  If rate limiting is enabled, the event is
+     * suppressed when its location has exceeded the rate for the logging level, and
+     * the number of suppressed events is reported before the next event that is
+     * allowed through.
+     * @param loggerLevel The logging level of the logger
      * @param loggingLevel The logging level
-     * @param loggerName The logger name
-     * @param methodName The method name
+     * @param location The location [caller]
      * @param messageParts The message parts
      * @param throwable The throwable
      */
     void write(
+        final int loggerLevel,
         final LogLevel loggingLevel,
-        final String loggerName,
-        final String methodName,
+        final String location,
         final Object[] messageParts,
         final Throwable throwable) {
 
+        CachedClock.Tick tick;
+        RateLimiter rateLimiter;
+        long suppressed;
+
+        tick = clock.tick();
+
+        if (loggingLevel.ordinal() < loggerLevel) {
+
+            capture(tick, loggingLevel, location, messageParts, throwable);
+
+            return;
+        }
+
+        rateLimiter = this.rateLimiter;
+
+        if (rateLimiter != null) {
+
+            suppressed = rateLimiter.acquire(loggingLevel, location, tick.getMillis());
+
+            if (suppressed < 0) {
+                return;
+            }
+
+            if (suppressed > 0) {
+
+                write(tick, loggingLevel, location, new Object[] {"Suppressed ", suppressed, " similar log entries"}, null);
+            }
+
+        }
+
+        write(tick, loggingLevel, location, messageParts, throwable);
+    }
+
+    /**
+     * Report the trace events that the rate limiter has suppressed at the
+     * locations that have since fallen quiet, at regular intervals.
+     */
+    private void flushRateLimiter() {
+
+        RateLimiter rateLimiter;
+
+        while (true) {
+
+            ThreadControl.sleep(FLUSH_INTERVAL, TimeUnit.MILLISECONDS);
+
+            rateLimiter = this.rateLimiter;
+
+            if (rateLimiter == null) {
+                continue;
+            }
+
+            try {
+
+                rateLimiter.flush(clock.currentTimeMillis(), (loggingLevel, location, suppressed) -> write(clock.tick(),
+                    loggingLevel, location, new Object[] {"Suppressed ", suppressed, " similar log entries"}, null));
+            }
+            catch (Exception exception) {
+            }
+
+        }
+
+    }
+
+    /**
+     * Capture trace event that is below the configured logging level in the
+     * capture buffer of the current thread.  The event is discarded if no
+     * transaction is active.  The message parts that are not immutable are
+     * converted to strings straight away, so that the captured event shows
+     * their state when they were logged and does not keep them reachable.
+     * @param tick The tick of the clock
+     * @param loggingLevel The logging level
+     * @param location The location [caller]
+     * @param messageParts The message parts
+     * @param throwable The throwable
+     */
+    private void capture(
+        final CachedClock.Tick tick,
+        final LogLevel loggingLevel,
+        final String location,
+        final Object[] messageParts,
+        final Throwable throwable) {
+
+        ThreadLocal<CaptureBuffer> captureBuffers;
+        TransactionContext transactionContext;
+
+        captureBuffers = this.captureBuffers;
+
+        transactionContext = TransactionContext.get();
+
+        if ((captureBuffers == null) || (transactionContext.getTransactionId() == null)) {
+            return;
+        }
+
+        captureBuffers.get().add(LogEvent.ofTrace(tick.getDay(), tick.getTimestamp(), loggingLevel, hostName,
+            transactionContext.getThreadId(), transactionContext.getTransactionId(), location, LogEvent.snapshot(messageParts),
+            transactionContext.getContextMap(), throwable));
+    }
+
+    /**
+     * Write the trace events that have been captured for the transaction to the
+     * trace log if the transaction failed, and discard them otherwise.
+     * @param captureBuffer The capture buffer of the current thread
+     * @param transactionId The transaction identifier
+     * @param failed true if the transaction failed, false otherwise
+     */
+    private void releaseCapture(
+        final CaptureBuffer captureBuffer,
+        final String transactionId,
+        final boolean failed) {
+
+        LogEvent record;
+
+        if ((failed == true) && (captureBuffer.size() > 0) && (transactionId.equals(captureBuffer.getTransactionId()) == true)) {
+
+            record = captureBuffer.get(0);
+
+            if (captureBuffer.getOverwritten() > 0) {
+
+                normalTraceAppender.write(LogEvent.ofTrace(record.getDay(), record.getTimestamp(), record.getLoggingLevel(),
+                    hostName, record.getThreadId(), transactionId, record.getLocation(),
+                    new Object[] {"Discarded ", captureBuffer.getOverwritten(), " earlier captured log entries"},
+                    record.getContextMap(), null));
+
+                metrics.countEvent(Stream.TRACE);
+            }
+
+            for (int i = 0; i < captureBuffer.size(); i++) {
+
+                normalTraceAppender.write(captureBuffer.get(i));
+
+                metrics.countEvent(Stream.TRACE);
+            }
+
+        }
+
+        captureBuffer.clear();
+    }
+
+    /**
+     * Write trace event to the trace appenders.
+     * @param tick The tick of the clock
+     * @param loggingLevel The logging level
+     * @param location The location [caller]
+     * @param messageParts The message parts
+     * @param throwable The throwable
+     */
+    private void write(
+        final CachedClock.Tick tick,
+        final LogLevel loggingLevel,
+        final String location,
+        final Object[] messageParts,
+        final Throwable throwable) {
+
         String transactionId;
-        String location;
         TransactionContext transactionContext;
+        LogEvent record;
 
         transactionContext = TransactionContext.get();
 
         transactionId = ObjectUtil.coalesce(transactionContext.getTransactionId(), "<blank>");
 
-        location = loggerName + ((methodName == null) ? "" : "." + methodName + "()");
-
-        normalTraceAppender.write(currentDay, timestamp, loggingLevel, hostName, transactionContext.getThreadId(),
-            transactionId, location, messageParts, throwable);
-
         if ((errorTraceAppender != null) && (loggingLevel == LogLevel.ERROR)) {
 
-            errorTraceAppender.write(currentDay, timestamp, loggingLevel, hostName, transactionContext.getThreadId(),
-                transactionId, location, messageParts, throwable);
+            record = LogEvent.ofTrace(tick.getDay(), tick.getTimestamp(), loggingLevel, hostName, transactionContext.getThreadId(),
+                transactionId, location, messageParts, transactionContext.getContextMap(), throwable);
+
+            normalTraceAppender.write(record);
+            errorTraceAppender.write(record);
+
+            metrics.countEvent(Stream.TRACE_ERROR);
+        }
+        else {
+
+            normalTraceAppender.write(tick.getDay(), tick.getTimestamp(), loggingLevel, hostName, transactionContext.getThreadId(),
+                transactionId, location, messageParts, transactionContext.getContextMap(), throwable);
         }
 
+        metrics.countEvent(Stream.TRACE);
+
     }
 
     /**
      * Write transaction event.
-     * @param loggerName The logger name
+     * @param location The location [caller]
      * @param methodName The method name
      * @param transactionContext The transaction context
      * @param stackTracePrefix The stack trace prefix, or null if no prefix is required
      * @param throwable The throwable
      */
     void write(
-        final String loggerName,
+        final String location,
         final String methodName,
         final TransactionContext transactionContext,
         final String stackTracePrefix,
         final Throwable throwable) {
 
         String transactionId;
-        String location;
+        CachedClock.Tick tick;
+        ThreadLocal<CaptureBuffer> captureBuffers;
+        LogEvent record;
+
+        tick = clock.tick();
 
         transactionId = ObjectUtil.coalesce(transactionContext.getTransactionId(), "<blank>");
 
-        location = loggerName + ((methodName == null) ? "" : "." + methodName + "()");
-
-        normalTransactionAppender.write(currentDay, timestamp, hostName, transactionContext.getThreadId(),
-            transactionId, location, ObjectUtil.coalesce(transactionContext.getTransactionType(), methodName),
-            (throwable == null) ? "SUCCESSFUL" : "FAILED", transactionContext.getElapsedTimeMillis(),
-            transactionContext.getArgumentList(), (stackTracePrefix == null) ? "" : stackTracePrefix, throwable);
-
+        captureBuffers = this.captureBuffers;
+
+        if (captureBuffers != null) {
+
+            releaseCapture(captureBuffers.get(), transactionId, throwable != null);
+        }
+
         if ((errorTransactionAppender != null) && (throwable != null)) {
 
-            errorTransactionAppender.write(currentDay, timestamp, hostName, transactionContext.getThreadId(),
+            record = LogEvent.ofTransaction(tick.getDay(), tick.getTimestamp(), hostName, transactionContext.getThreadId(),
+                transactionId, location, ObjectUtil.coalesce(transactionContext.getTransactionType(), methodName),
+                "FAILED", transactionContext.getElapsedTimeMillis(), transactionContext.getArgumentList(),
+                (stackTracePrefix == null) ? "" : stackTracePrefix, throwable);
+
+            normalTransactionAppender.write(record);
+            errorTransactionAppender.write(record);
+
+            metrics.countEvent(Stream.TRANSACTION_ERROR);
+        }
+        else {
+
+            normalTransactionAppender.write(tick.getDay(), tick.getTimestamp(), hostName, transactionContext.getThreadId(),
                 transactionId, location, ObjectUtil.coalesce(transactionContext.getTransactionType(), methodName),
                 (throwable == null) ? "SUCCESSFUL" : "FAILED", transactionContext.getElapsedTimeMillis(),
                 transactionContext.getArgumentList(), (stackTracePrefix == null) ? "" : stackTracePrefix, throwable);
         }
 
+        metrics.countEvent(Stream.TRANSACTION);
     }
 
 }
@@ -8,11 +8,26 @@
 */
 package org.melior.logging.core;
 import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import org.melior.context.transaction.TransactionContext;
 import org.springframework.boot.logging.LogLevel;
 
 /**
  * Binds the individual internal loggers to the internal logger context.
+ * Each logger holds its own logging level, which is the logging level that
+ * has been set for the logger or for the loggers above it in the dotted name
+ * hierarchy, or the configured logging level otherwise.  The SLF4J loggers
+ * share the logging level of the internal logger that they write to.
+ * <p>
+ * The lowest enabled logging level is cached in a single volatile field, so
+ * that a check for a disabled logging level is a single read and comparison,
+ * which the JIT compiler is able to inline.  When the logging levels change,
+ * the logger context invalidates the field by setting it below the lowest
+ * logging level, so that the next check falls through to resolving the logging
+ * level again.  The logger context counts the changes, so that a logging level
+ * that was resolved while the logging levels changed is invalidated again.
  * @author Melior
  * @since 2.1
  * @see {@code LoggerContext}
@@ -25,10 +40,22 @@ class LoggerFacade implements Logger {
     private static final int LOGGING_LEVEL_WARN = LogLevel.WARN.ordinal();
     private static final int LOGGING_LEVEL_ERROR = LogLevel.ERROR.ordinal();
 
+    private static final int LOGGING_LEVEL_INVALID = -1;
+
+    private static final int MAX_LOCATIONS = 256;
+
     private String loggerName;
 
     private LoggerContext logger;
 
+    private volatile int loggingLevel;
+
+    private volatile int enabledLevel;
+
+    private volatile boolean adapted;
+
+    private Map<String, String> locationMap;
+
     /**
      * Constructor.
      * @param loggerName The logger name
@@ -43,6 +70,14 @@ class LoggerFacade implements Logger {
         this.loggerName = loggerName;
 
         this.logger = logger;
+
+        loggingLevel = LOGGING_LEVEL_DEBUG;
+
+        enabledLevel = LOGGING_LEVEL_INVALID;
+
+        adapted = false;
+
+        locationMap = new ConcurrentHashMap<String, String>();
     }
 
     /**
@@ -61,12 +96,128 @@ class LoggerFacade implements Logger {
         return logger;
     }
 
+    /**
+     * Indicate whether an SLF4J logger writes to the logger.
+     * @return true if an SLF4J logger writes to the logger, false otherwise
+     */
+    boolean isAdapted() {
+        return adapted;
+    }
+
+    /**
+     * Set whether an SLF4J logger writes to the logger.
+     * @param adapted true if an SLF4J logger writes to the logger, false otherwise
+     */
+    void setAdapted(
+        final boolean adapted) {
+
+        this.adapted = adapted;
+    }
+
+    /**
+     * Set logging level.  The enabled logging level is set last, so that a
+     * thread that sees it also sees the logging level.
+     * @param loggingLevel The logging level at which log entries are written
+     * @param enabledLevel The logging level at which log entries are accepted, which is below
+     * the logging level if log entries are captured for failed transactions
+     */
+    void setLoggingLevel(
+        final int loggingLevel,
+        final int enabledLevel) {
+
+        this.loggingLevel = loggingLevel;
+
+        this.enabledLevel = enabledLevel;
+    }
+
+    /**
+     * Invalidate logging level, so that it is resolved again when the logger is next used.
+     */
+    void invalidateLoggingLevel() {
+
+        enabledLevel = LOGGING_LEVEL_INVALID;
+    }
+
+    /**
+     * Resolve logging level.  This is the slow path of the checks for enabled
+     * logging levels, which is only taken after the logging levels have changed.
+     * @return The logging level at which log entries are accepted
+     */
+    private int resolveLoggingLevel() {
+        return logger.resolveLoggingLevel(this);
+    }
+
+    /**
+     * Indicate whether given logging level is enabled.
+     * @param loggingLevel The logging level
+     * @return true if the logging level is enabled, false otherwise
+     */
+    boolean isEnabled(
+        final LogLevel loggingLevel) {
+
+        int level;
+
+        level = enabledLevel;
+
+        return (level <= loggingLevel.ordinal()) && ((level != LOGGING_LEVEL_INVALID) || (resolveLoggingLevel() <= loggingLevel.ordinal()));
+    }
+
+    /**
+     * Write message at given logging level, on behalf of a stream sink.
+     * @param loggingLevel The logging level
+     * @param location The location [caller]
+     * @param messageParts The message parts
+     */
+    void write(
+        final LogLevel loggingLevel,
+        final String location,
+        final Object[] messageParts) {
+
+        logger.write(this.loggingLevel, loggingLevel, location, messageParts, null);
+    }
+
+    /**
+     * Get location of call site.  The location of each call site is
+     * only constructed once, up to a maximum number of call sites.
+     * @param methodName The method name
+     * @return The location
+     */
+    String getLocation(
+        final String methodName) {
+
+        String location;
+
+        if (methodName == null) {
+            return loggerName;
+        }
+
+        location = locationMap.get(methodName);
+
+        if (location == null) {
+
+            location = loggerName + "." + methodName + "()";
+
+            if (locationMap.size() < MAX_LOCATIONS) {
+
+                locationMap.put(methodName, location);
+            }
+
+        }
+
+        return location;
+    }
+
     /**
      * Indicate whether error level logging is enabled.
      * @return true if error level logging is enabled, false otherwise
      */
     public boolean isErrorEnabled() {
-        return logger.getLoggingLevel() <= LOGGING_LEVEL_ERROR;
+
+        int level;
+
+        level = enabledLevel;
+
+        return (level <= LOGGING_LEVEL_ERROR) && ((level != LOGGING_LEVEL_INVALID) || (resolveLoggingLevel() <= LOGGING_LEVEL_ERROR));
     }
 
     /**
@@ -86,11 +237,11 @@ class LoggerFacade implements Logger {
 
             if (messagePart instanceof Throwable) {
 
-                logger.write(LogLevel.ERROR, loggerName, methodName, Arrays.copyOf(messageParts, messageParts.length - 1), (Throwable) messagePart);
+                logger.write(loggingLevel, LogLevel.ERROR, getLocation(methodName), Arrays.copyOf(messageParts, messageParts.length - 1), (Throwable) messagePart);
             }
             else {
 
-                logger.write(LogLevel.ERROR, loggerName, methodName, messageParts, null);
+                logger.write(loggingLevel, LogLevel.ERROR, getLocation(methodName), messageParts, null);
             }
 
         }
@@ -98,97 +249,1372 @@ class LoggerFacade implements Logger {
     }
 
     /**
-     * Indicate whether warn level logging is enabled.
-     * @return true if warn level logging is enabled, false otherwise
+     * Log message at error logging level, if it is enabled.  The message is
+     * only constructed if the logging level is enabled.
+     * @param methodName The method name
+     * @param messageSupplier The supplier of the message
      */
-    public boolean isWarnEnabled() {
-        return logger.getLoggingLevel() <= LOGGING_LEVEL_WARN;
+    public void error(
+        final String methodName,
+        final Supplier<?> messageSupplier) {
+
+        if (isErrorEnabled() == true) {
+
+            error(methodName, new Object[] {messageSupplier.get()});
+        }
+
     }
 
     /**
-     * Log message at warn logging level, if it is enabled.
+     * Log message at error logging level, if it is enabled.
      * @param methodName The method name
-     * @param messageParts The message parts
+     * @param messagePart1 The message part
      */
-    public void warn(
+    public void error(
         final String methodName,
-        final Object... messageParts) {
-
-        if (isWarnEnabled() == true) {
-
-            logger.write(LogLevel.WARN, loggerName, methodName, messageParts, null);
+        final Object messagePart1) {
+
+        if (isErrorEnabled() == true) {
+
+            error(methodName, new Object[] {messagePart1});
         }
 
     }
 
     /**
-     * Indicate whether info level logging is enabled.
-     * @return true if info level logging is enabled, false otherwise
+     * Log message at error logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The message part
      */
-    public boolean isInfoEnabled() {
-        return logger.getLoggingLevel() <= LOGGING_LEVEL_INFO;
+    public void error(
+        final String methodName,
+        final Object messagePart1,
+        final Object messagePart2) {
+
+        if (isErrorEnabled() == true) {
+
+            error(methodName, new Object[] {messagePart1, messagePart2});
+        }
+
     }
 
     /**
-     * Log message at info logging level, if it is enabled.
+     * Log message at error logging level, if it is enabled.
      * @param methodName The method name
-     * @param messageParts The message parts
+     * @param messagePart1 The message part
+     * @param messagePart2 The message part
+     * @param messagePart3 The message part
      */
-    public void info(
+    public void error(
         final String methodName,
-        final Object... messageParts) {
-
-        if (isInfoEnabled() == true) {
-
-            logger.write(LogLevel.INFO, loggerName, methodName, messageParts, null);
+        final Object messagePart1,
+        final Object messagePart2,
+        final Object messagePart3) {
+
+        if (isErrorEnabled() == true) {
+
+            error(methodName, new Object[] {messagePart1, messagePart2, messagePart3});
         }
 
     }
 
     /**
-     * Indicate whether debug level logging is enabled.
-     * @return true if debug level logging is enabled, false otherwise
+     * Log message at error logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The message part
+     * @param messagePart3 The message part
+     * @param messagePart4 The message part
      */
-    public boolean isDebugEnabled() {
-        return logger.getLoggingLevel() <= LOGGING_LEVEL_DEBUG;
+    public void error(
+        final String methodName,
+        final Object messagePart1,
+        final Object messagePart2,
+        final Object messagePart3,
+        final Object messagePart4) {
+
+        if (isErrorEnabled() == true) {
+
+            error(methodName, new Object[] {messagePart1, messagePart2, messagePart3, messagePart4});
+        }
+
     }
 
     /**
-     * Log message at debug logging level, if it is enabled.
+     * Log message at error logging level, if it is enabled.
      * @param methodName The method name
-     * @param messageParts The message parts
+     * @param messagePart1 The message part
+     * @param messagePart2 The message part
+     * @param messagePart3 The message part
+     * @param messagePart4 The message part
+     * @param messagePart5 The message part
      */
-    public void debug(
+    public void error(
         final String methodName,
-        final Object... messageParts) {
-
-        if (isDebugEnabled() == true) {
-
-            logger.write(LogLevel.DEBUG, loggerName, methodName, messageParts, null);
+        final Object messagePart1,
+        final Object messagePart2,
+        final Object messagePart3,
+        final Object messagePart4,
+        final Object messagePart5) {
+
+        if (isErrorEnabled() == true) {
+
+            error(methodName, new Object[] {messagePart1, messagePart2, messagePart3, messagePart4, messagePart5});
         }
 
     }
 
     /**
-     * Indicate whether trace level logging is enabled.
-     * @return true if trace level logging is enabled, false otherwise
+     * Log message at error logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The message part
+     * @param messagePart3 The message part
+     * @param messagePart4 The message part
+     * @param messagePart5 The message part
+     * @param messagePart6 The message part
      */
-    public boolean isTraceEnabled() {
-        return logger.getLoggingLevel() == LOGGING_LEVEL_TRACE;
+    public void error(
+        final String methodName,
+        final Object messagePart1,
+        final Object messagePart2,
+        final Object messagePart3,
+        final Object messagePart4,
+        final Object messagePart5,
+        final Object messagePart6) {
+
+        if (isErrorEnabled() == true) {
+
+            error(methodName, new Object[] {messagePart1, messagePart2, messagePart3, messagePart4, messagePart5, messagePart6});
+        }
+
     }
 
     /**
-     * Log message at trace logging level, if it is enabled.
+     * Log message at error logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The long integer message part
+     */
+    public void error(
+        final String methodName,
+        final Object messagePart1,
+        final long messagePart2) {
+
+        if (isErrorEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.ERROR, getLocation(methodName), new Object[] {messagePart1, messagePart2}, null);
+        }
+
+    }
+
+    /**
+     * Log message at error logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The integer message part
+     */
+    public void error(
+        final String methodName,
+        final Object messagePart1,
+        final int messagePart2) {
+
+        if (isErrorEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.ERROR, getLocation(methodName), new Object[] {messagePart1, messagePart2}, null);
+        }
+
+    }
+
+    /**
+     * Log message at error logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The double message part
+     */
+    public void error(
+        final String methodName,
+        final Object messagePart1,
+        final double messagePart2) {
+
+        if (isErrorEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.ERROR, getLocation(methodName), new Object[] {messagePart1, messagePart2}, null);
+        }
+
+    }
+
+    /**
+     * Log message at error logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The boolean message part
+     */
+    public void error(
+        final String methodName,
+        final Object messagePart1,
+        final boolean messagePart2) {
+
+        if (isErrorEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.ERROR, getLocation(methodName), new Object[] {messagePart1, messagePart2}, null);
+        }
+
+    }
+
+    /**
+     * Log message at error logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The character message part
+     */
+    public void error(
+        final String methodName,
+        final Object messagePart1,
+        final char messagePart2) {
+
+        if (isErrorEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.ERROR, getLocation(methodName), new Object[] {messagePart1, String.valueOf(messagePart2)}, null);
+        }
+
+    }
+
+    /**
+     * Log message at error logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The float message part
+     */
+    public void error(
+        final String methodName,
+        final Object messagePart1,
+        final float messagePart2) {
+
+        if (isErrorEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.ERROR, getLocation(methodName), new Object[] {messagePart1, String.valueOf(messagePart2)}, null);
+        }
+
+    }
+
+    /**
+     * Indicate whether warn level logging is enabled.
+     * @return true if warn level logging is enabled, false otherwise
+     */
+    public boolean isWarnEnabled() {
+
+        int level;
+
+        level = enabledLevel;
+
+        return (level <= LOGGING_LEVEL_WARN) && ((level != LOGGING_LEVEL_INVALID) || (resolveLoggingLevel() <= LOGGING_LEVEL_WARN));
+    }
+
+    /**
+     * Log message at warn logging level, if it is enabled.
      * @param methodName The method name
      * @param messageParts The message parts
      */
-    public void trace(
+    public void warn(
         final String methodName,
         final Object... messageParts) {
 
-        if (isTraceEnabled() == true) {
+        if (isWarnEnabled() == true) {
 
-            logger.write(LogLevel.TRACE, loggerName, methodName, messageParts, null);
+            logger.write(loggingLevel, LogLevel.WARN, getLocation(methodName), messageParts, null);
+        }
+
+    }
+
+    /**
+     * Log message at warn logging level, if it is enabled.  The message is
+     * only constructed if the logging level is enabled.
+     * @param methodName The method name
+     * @param messageSupplier The supplier of the message
+     */
+    public void warn(
+        final String methodName,
+        final Supplier<?> messageSupplier) {
+
+        if (isWarnEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.WARN, getLocation(methodName), new Object[] {messageSupplier.get()}, null);
+        }
+
+    }
+
+    /**
+     * Log message at warn logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     */
+    public void warn(
+        final String methodName,
+        final Object messagePart1) {
+
+        if (isWarnEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.WARN, getLocation(methodName), new Object[] {messagePart1}, null);
+        }
+
+    }
+
+    /**
+     * Log message at warn logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The message part
+     */
+    public void warn(
+        final String methodName,
+        final Object messagePart1,
+        final Object messagePart2) {
+
+        if (isWarnEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.WARN, getLocation(methodName), new Object[] {messagePart1, messagePart2}, null);
+        }
+
+    }
+
+    /**
+     * Log message at warn logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The message part
+     * @param messagePart3 The message part
+     */
+    public void warn(
+        final String methodName,
+        final Object messagePart1,
+        final Object messagePart2,
+        final Object messagePart3) {
+
+        if (isWarnEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.WARN, getLocation(methodName), new Object[] {messagePart1, messagePart2, messagePart3}, null);
+        }
+
+    }
+
+    /**
+     * Log message at warn logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The message part
+     * @param messagePart3 The message part
+     * @param messagePart4 The message part
+     */
+    public void warn(
+        final String methodName,
+        final Object messagePart1,
+        final Object messagePart2,
+        final Object messagePart3,
+        final Object messagePart4) {
+
+        if (isWarnEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.WARN, getLocation(methodName), new Object[] {messagePart1, messagePart2, messagePart3, messagePart4}, null);
+        }
+
+    }
+
+    /**
+     * Log message at warn logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The message part
+     * @param messagePart3 The message part
+     * @param messagePart4 The message part
+     * @param messagePart5 The message part
+     */
+    public void warn(
+        final String methodName,
+        final Object messagePart1,
+        final Object messagePart2,
+        final Object messagePart3,
+        final Object messagePart4,
+        final Object messagePart5) {
+
+        if (isWarnEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.WARN, getLocation(methodName), new Object[] {messagePart1, messagePart2, messagePart3, messagePart4, messagePart5}, null);
+        }
+
+    }
+
+    /**
+     * Log message at warn logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The message part
+     * @param messagePart3 The message part
+     * @param messagePart4 The message part
+     * @param messagePart5 The message part
+     * @param messagePart6 The message part
+     */
+    public void warn(
+        final String methodName,
+        final Object messagePart1,
+        final Object messagePart2,
+        final Object messagePart3,
+        final Object messagePart4,
+        final Object messagePart5,
+        final Object messagePart6) {
+
+        if (isWarnEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.WARN, getLocation(methodName), new Object[] {messagePart1, messagePart2, messagePart3, messagePart4, messagePart5, messagePart6}, null);
+        }
+
+    }
+
+    /**
+     * Log message at warn logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The long integer message part
+     */
+    public void warn(
+        final String methodName,
+        final Object messagePart1,
+        final long messagePart2) {
+
+        if (isWarnEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.WARN, getLocation(methodName), new Object[] {messagePart1, messagePart2}, null);
+        }
+
+    }
+
+    /**
+     * Log message at warn logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The integer message part
+     */
+    public void warn(
+        final String methodName,
+        final Object messagePart1,
+        final int messagePart2) {
+
+        if (isWarnEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.WARN, getLocation(methodName), new Object[] {messagePart1, messagePart2}, null);
+        }
+
+    }
+
+    /**
+     * Log message at warn logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The double message part
+     */
+    public void warn(
+        final String methodName,
+        final Object messagePart1,
+        final double messagePart2) {
+
+        if (isWarnEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.WARN, getLocation(methodName), new Object[] {messagePart1, messagePart2}, null);
+        }
+
+    }
+
+    /**
+     * Log message at warn logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The boolean message part
+     */
+    public void warn(
+        final String methodName,
+        final Object messagePart1,
+        final boolean messagePart2) {
+
+        if (isWarnEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.WARN, getLocation(methodName), new Object[] {messagePart1, messagePart2}, null);
+        }
+
+    }
+
+    /**
+     * Log message at warn logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The character message part
+     */
+    public void warn(
+        final String methodName,
+        final Object messagePart1,
+        final char messagePart2) {
+
+        if (isWarnEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.WARN, getLocation(methodName), new Object[] {messagePart1, String.valueOf(messagePart2)}, null);
+        }
+
+    }
+
+    /**
+     * Log message at warn logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The float message part
+     */
+    public void warn(
+        final String methodName,
+        final Object messagePart1,
+        final float messagePart2) {
+
+        if (isWarnEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.WARN, getLocation(methodName), new Object[] {messagePart1, String.valueOf(messagePart2)}, null);
+        }
+
+    }
+
+    /**
+     * Indicate whether info level logging is enabled.
+     * @return true if info level logging is enabled, false otherwise
+     */
+    public boolean isInfoEnabled() {
+
+        int level;
+
+        level = enabledLevel;
+
+        return (level <= LOGGING_LEVEL_INFO) && ((level != LOGGING_LEVEL_INVALID) || (resolveLoggingLevel() <= LOGGING_LEVEL_INFO));
+    }
+
+    /**
+     * Log message at info logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messageParts The message parts
+     */
+    public void info(
+        final String methodName,
+        final Object... messageParts) {
+
+        if (isInfoEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.INFO, getLocation(methodName), messageParts, null);
+        }
+
+    }
+
+    /**
+     * Log message at info logging level, if it is enabled.  The message is
+     * only constructed if the logging level is enabled.
+     * @param methodName The method name
+     * @param messageSupplier The supplier of the message
+     */
+    public void info(
+        final String methodName,
+        final Supplier<?> messageSupplier) {
+
+        if (isInfoEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.INFO, getLocation(methodName), new Object[] {messageSupplier.get()}, null);
+        }
+
+    }
+
+    /**
+     * Log message at info logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     */
+    public void info(
+        final String methodName,
+        final Object messagePart1) {
+
+        if (isInfoEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.INFO, getLocation(methodName), new Object[] {messagePart1}, null);
+        }
+
+    }
+
+    /**
+     * Log message at info logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The message part
+     */
+    public void info(
+        final String methodName,
+        final Object messagePart1,
+        final Object messagePart2) {
+
+        if (isInfoEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.INFO, getLocation(methodName), new Object[] {messagePart1, messagePart2}, null);
+        }
+
+    }
+
+    /**
+     * Log message at info logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The message part
+     * @param messagePart3 The message part
+     */
+    public void info(
+        final String methodName,
+        final Object messagePart1,
+        final Object messagePart2,
+        final Object messagePart3) {
+
+        if (isInfoEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.INFO, getLocation(methodName), new Object[] {messagePart1, messagePart2, messagePart3}, null);
+        }
+
+    }
+
+    /**
+     * Log message at info logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The message part
+     * @param messagePart3 The message part
+     * @param messagePart4 The message part
+     */
+    public void info(
+        final String methodName,
+        final Object messagePart1,
+        final Object messagePart2,
+        final Object messagePart3,
+        final Object messagePart4) {
+
+        if (isInfoEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.INFO, getLocation(methodName), new Object[] {messagePart1, messagePart2, messagePart3, messagePart4}, null);
+        }
+
+    }
+
+    /**
+     * Log message at info logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The message part
+     * @param messagePart3 The message part
+     * @param messagePart4 The message part
+     * @param messagePart5 The message part
+     */
+    public void info(
+        final String methodName,
+        final Object messagePart1,
+        final Object messagePart2,
+        final Object messagePart3,
+        final Object messagePart4,
+        final Object messagePart5) {
+
+        if (isInfoEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.INFO, getLocation(methodName), new Object[] {messagePart1, messagePart2, messagePart3, messagePart4, messagePart5}, null);
+        }
+
+    }
+
+    /**
+     * Log message at info logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The message part
+     * @param messagePart3 The message part
+     * @param messagePart4 The message part
+     * @param messagePart5 The message part
+     * @param messagePart6 The message part
+     */
+    public void info(
+        final String methodName,
+        final Object messagePart1,
+        final Object messagePart2,
+        final Object messagePart3,
+        final Object messagePart4,
+        final Object messagePart5,
+        final Object messagePart6) {
+
+        if (isInfoEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.INFO, getLocation(methodName), new Object[] {messagePart1, messagePart2, messagePart3, messagePart4, messagePart5, messagePart6}, null);
+        }
+
+    }
+
+    /**
+     * Log message at info logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The long integer message part
+     */
+    public void info(
+        final String methodName,
+        final Object messagePart1,
+        final long messagePart2) {
+
+        if (isInfoEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.INFO, getLocation(methodName), new Object[] {messagePart1, messagePart2}, null);
+        }
+
+    }
+
+    /**
+     * Log message at info logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The integer message part
+     */
+    public void info(
+        final String methodName,
+        final Object messagePart1,
+        final int messagePart2) {
+
+        if (isInfoEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.INFO, getLocation(methodName), new Object[] {messagePart1, messagePart2}, null);
+        }
+
+    }
+
+    /**
+     * Log message at info logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The double message part
+     */
+    public void info(
+        final String methodName,
+        final Object messagePart1,
+        final double messagePart2) {
+
+        if (isInfoEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.INFO, getLocation(methodName), new Object[] {messagePart1, messagePart2}, null);
+        }
+
+    }
+
+    /**
+     * Log message at info logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The boolean message part
+     */
+    public void info(
+        final String methodName,
+        final Object messagePart1,
+        final boolean messagePart2) {
+
+        if (isInfoEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.INFO, getLocation(methodName), new Object[] {messagePart1, messagePart2}, null);
+        }
+
+    }
+
+    /**
+     * Log message at info logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The character message part
+     */
+    public void info(
+        final String methodName,
+        final Object messagePart1,
+        final char messagePart2) {
+
+        if (isInfoEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.INFO, getLocation(methodName), new Object[] {messagePart1, String.valueOf(messagePart2)}, null);
+        }
+
+    }
+
+    /**
+     * Log message at info logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The float message part
+     */
+    public void info(
+        final String methodName,
+        final Object messagePart1,
+        final float messagePart2) {
+
+        if (isInfoEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.INFO, getLocation(methodName), new Object[] {messagePart1, String.valueOf(messagePart2)}, null);
+        }
+
+    }
+
+    /**
+     * Indicate whether debug level logging is enabled.
+     * @return true if debug level logging is enabled, false otherwise
+     */
+    public boolean isDebugEnabled() {
+
+        int level;
+
+        level = enabledLevel;
+
+        return (level <= LOGGING_LEVEL_DEBUG) && ((level != LOGGING_LEVEL_INVALID) || (resolveLoggingLevel() <= LOGGING_LEVEL_DEBUG));
+    }
+
+    /**
+     * Log message at debug logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messageParts The message parts
+     */
+    public void debug(
+        final String methodName,
+        final Object... messageParts) {
+
+        if (isDebugEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.DEBUG, getLocation(methodName), messageParts, null);
+        }
+
+    }
+
+    /**
+     * Log message at debug logging level, if it is enabled.  The message is
+     * only constructed if the logging level is enabled.
+     * @param methodName The method name
+     * @param messageSupplier The supplier of the message
+     */
+    public void debug(
+        final String methodName,
+        final Supplier<?> messageSupplier) {
+
+        if (isDebugEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.DEBUG, getLocation(methodName), new Object[] {messageSupplier.get()}, null);
+        }
+
+    }
+
+    /**
+     * Log message at debug logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     */
+    public void debug(
+        final String methodName,
+        final Object messagePart1) {
+
+        if (isDebugEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.DEBUG, getLocation(methodName), new Object[] {messagePart1}, null);
+        }
+
+    }
+
+    /**
+     * Log message at debug logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The message part
+     */
+    public void debug(
+        final String methodName,
+        final Object messagePart1,
+        final Object messagePart2) {
+
+        if (isDebugEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.DEBUG, getLocation(methodName), new Object[] {messagePart1, messagePart2}, null);
+        }
+
+    }
+
+    /**
+     * Log message at debug logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The message part
+     * @param messagePart3 The message part
+     */
+    public void debug(
+        final String methodName,
+        final Object messagePart1,
+        final Object messagePart2,
+        final Object messagePart3) {
+
+        if (isDebugEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.DEBUG, getLocation(methodName), new Object[] {messagePart1, messagePart2, messagePart3}, null);
+        }
+
+    }
+
+    /**
+     * Log message at debug logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The message part
+     * @param messagePart3 The message part
+     * @param messagePart4 The message part
+     */
+    public void debug(
+        final String methodName,
+        final Object messagePart1,
+        final Object messagePart2,
+        final Object messagePart3,
+        final Object messagePart4) {
+
+        if (isDebugEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.DEBUG, getLocation(methodName), new Object[] {messagePart1, messagePart2, messagePart3, messagePart4}, null);
+        }
+
+    }
+
+    /**
+     * Log message at debug logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The message part
+     * @param messagePart3 The message part
+     * @param messagePart4 The message part
+     * @param messagePart5 The message part
+     */
+    public void debug(
+        final String methodName,
+        final Object messagePart1,
+        final Object messagePart2,
+        final Object messagePart3,
+        final Object messagePart4,
+        final Object messagePart5) {
+
+        if (isDebugEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.DEBUG, getLocation(methodName), new Object[] {messagePart1, messagePart2, messagePart3, messagePart4, messagePart5}, null);
+        }
+
+    }
+
+    /**
+     * Log message at debug logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The message part
+     * @param messagePart3 The message part
+     * @param messagePart4 The message part
+     * @param messagePart5 The message part
+     * @param messagePart6 The message part
+     */
+    public void debug(
+        final String methodName,
+        final Object messagePart1,
+        final Object messagePart2,
+        final Object messagePart3,
+        final Object messagePart4,
+        final Object messagePart5,
+        final Object messagePart6) {
+
+        if (isDebugEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.DEBUG, getLocation(methodName), new Object[] {messagePart1, messagePart2, messagePart3, messagePart4, messagePart5, messagePart6}, null);
+        }
+
+    }
+
+    /**
+     * Log message at debug logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The long integer message part
+     */
+    public void debug(
+        final String methodName,
+        final Object messagePart1,
+        final long messagePart2) {
+
+        if (isDebugEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.DEBUG, getLocation(methodName), new Object[] {messagePart1, messagePart2}, null);
+        }
+
+    }
+
+    /**
+     * Log message at debug logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The integer message part
+     */
+    public void debug(
+        final String methodName,
+        final Object messagePart1,
+        final int messagePart2) {
+
+        if (isDebugEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.DEBUG, getLocation(methodName), new Object[] {messagePart1, messagePart2}, null);
+        }
+
+    }
+
+    /**
+     * Log message at debug logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The double message part
+     */
+    public void debug(
+        final String methodName,
+        final Object messagePart1,
+        final double messagePart2) {
+
+        if (isDebugEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.DEBUG, getLocation(methodName), new Object[] {messagePart1, messagePart2}, null);
+        }
+
+    }
+
+    /**
+     * Log message at debug logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The boolean message part
+     */
+    public void debug(
+        final String methodName,
+        final Object messagePart1,
+        final boolean messagePart2) {
+
+        if (isDebugEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.DEBUG, getLocation(methodName), new Object[] {messagePart1, messagePart2}, null);
+        }
+
+    }
+
+    /**
+     * Log message at debug logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The character message part
+     */
+    public void debug(
+        final String methodName,
+        final Object messagePart1,
+        final char messagePart2) {
+
+        if (isDebugEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.DEBUG, getLocation(methodName), new Object[] {messagePart1, String.valueOf(messagePart2)}, null);
+        }
+
+    }
+
+    /**
+     * Log message at debug logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The float message part
+     */
+    public void debug(
+        final String methodName,
+        final Object messagePart1,
+        final float messagePart2) {
+
+        if (isDebugEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.DEBUG, getLocation(methodName), new Object[] {messagePart1, String.valueOf(messagePart2)}, null);
+        }
+
+    }
+
+    /**
+     * Indicate whether trace level logging is enabled.
+     * @return true if trace level logging is enabled, false otherwise
+     */
+    public boolean isTraceEnabled() {
+
+        int level;
+
+        level = enabledLevel;
+
+        return (level <= LOGGING_LEVEL_TRACE) && ((level != LOGGING_LEVEL_INVALID) || (resolveLoggingLevel() <= LOGGING_LEVEL_TRACE));
+    }
+
+    /**
+     * Log message at trace logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messageParts The message parts
+     */
+    public void trace(
+        final String methodName,
+        final Object... messageParts) {
+
+        if (isTraceEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.TRACE, getLocation(methodName), messageParts, null);
+        }
+
+    }
+
+    /**
+     * Log message at trace logging level, if it is enabled.  The message is
+     * only constructed if the logging level is enabled.
+     * @param methodName The method name
+     * @param messageSupplier The supplier of the message
+     */
+    public void trace(
+        final String methodName,
+        final Supplier<?> messageSupplier) {
+
+        if (isTraceEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.TRACE, getLocation(methodName), new Object[] {messageSupplier.get()}, null);
+        }
+
+    }
+
+    /**
+     * Log message at trace logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     */
+    public void trace(
+        final String methodName,
+        final Object messagePart1) {
+
+        if (isTraceEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.TRACE, getLocation(methodName), new Object[] {messagePart1}, null);
+        }
+
+    }
+
+    /**
+     * Log message at trace logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The message part
+     */
+    public void trace(
+        final String methodName,
+        final Object messagePart1,
+        final Object messagePart2) {
+
+        if (isTraceEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.TRACE, getLocation(methodName), new Object[] {messagePart1, messagePart2}, null);
+        }
+
+    }
+
+    /**
+     * Log message at trace logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The message part
+     * @param messagePart3 The message part
+     */
+    public void trace(
+        final String methodName,
+        final Object messagePart1,
+        final Object messagePart2,
+        final Object messagePart3) {
+
+        if (isTraceEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.TRACE, getLocation(methodName), new Object[] {messagePart1, messagePart2, messagePart3}, null);
+        }
+
+    }
+
+    /**
+     * Log message at trace logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The message part
+     * @param messagePart3 The message part
+     * @param messagePart4 The message part
+     */
+    public void trace(
+        final String methodName,
+        final Object messagePart1,
+        final Object messagePart2,
+        final Object messagePart3,
+        final Object messagePart4) {
+
+        if (isTraceEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.TRACE, getLocation(methodName), new Object[] {messagePart1, messagePart2, messagePart3, messagePart4}, null);
+        }
+
+    }
+
+    /**
+     * Log message at trace logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The message part
+     * @param messagePart3 The message part
+     * @param messagePart4 The message part
+     * @param messagePart5 The message part
+     */
+    public void trace(
+        final String methodName,
+        final Object messagePart1,
+        final Object messagePart2,
+        final Object messagePart3,
+        final Object messagePart4,
+        final Object messagePart5) {
+
+        if (isTraceEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.TRACE, getLocation(methodName), new Object[] {messagePart1, messagePart2, messagePart3, messagePart4, messagePart5}, null);
+        }
+
+    }
+
+    /**
+     * Log message at trace logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The message part
+     * @param messagePart3 The message part
+     * @param messagePart4 The message part
+     * @param messagePart5 The message part
+     * @param messagePart6 The message part
+     */
+    public void trace(
+        final String methodName,
+        final Object messagePart1,
+        final Object messagePart2,
+        final Object messagePart3,
+        final Object messagePart4,
+        final Object messagePart5,
+        final Object messagePart6) {
+
+        if (isTraceEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.TRACE, getLocation(methodName), new Object[] {messagePart1, messagePart2, messagePart3, messagePart4, messagePart5, messagePart6}, null);
+        }
+
+    }
+
+    /**
+     * Log message at trace logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The long integer message part
+     */
+    public void trace(
+        final String methodName,
+        final Object messagePart1,
+        final long messagePart2) {
+
+        if (isTraceEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.TRACE, getLocation(methodName), new Object[] {messagePart1, messagePart2}, null);
+        }
+
+    }
+
+    /**
+     * Log message at trace logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The integer message part
+     */
+    public void trace(
+        final String methodName,
+        final Object messagePart1,
+        final int messagePart2) {
+
+        if (isTraceEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.TRACE, getLocation(methodName), new Object[] {messagePart1, messagePart2}, null);
+        }
+
+    }
+
+    /**
+     * Log message at trace logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The double message part
+     */
+    public void trace(
+        final String methodName,
+        final Object messagePart1,
+        final double messagePart2) {
+
+        if (isTraceEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.TRACE, getLocation(methodName), new Object[] {messagePart1, messagePart2}, null);
+        }
+
+    }
+
+    /**
+     * Log message at trace logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The boolean message part
+     */
+    public void trace(
+        final String methodName,
+        final Object messagePart1,
+        final boolean messagePart2) {
+
+        if (isTraceEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.TRACE, getLocation(methodName), new Object[] {messagePart1, messagePart2}, null);
+        }
+
+    }
+
+    /**
+     * Log message at trace logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The character message part
+     */
+    public void trace(
+        final String methodName,
+        final Object messagePart1,
+        final char messagePart2) {
+
+        if (isTraceEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.TRACE, getLocation(methodName), new Object[] {messagePart1, String.valueOf(messagePart2)}, null);
+        }
+
+    }
+
+    /**
+     * Log message at trace logging level, if it is enabled.
+     * @param methodName The method name
+     * @param messagePart1 The message part
+     * @param messagePart2 The float message part
+     */
+    public void trace(
+        final String methodName,
+        final Object messagePart1,
+        final float messagePart2) {
+
+        if (isTraceEnabled() == true) {
+
+            logger.write(loggingLevel, LogLevel.TRACE, getLocation(methodName), new Object[] {messagePart1, String.valueOf(messagePart2)}, null);
         }
 
     }
@@ -202,7 +1628,7 @@ class LoggerFacade implements Logger {
         final String methodName,
         final TransactionContext transactionContext) {
 
-        logger.write(loggerName, methodName, transactionContext, null, null);
+        logger.write(getLocation(methodName), methodName, transactionContext, null, null);
     }
 
     /**
@@ -219,7 +1645,7 @@ class LoggerFacade implements Logger {
         final String stackTracePrefix,
         final Throwable throwable) {
 
-        logger.write(loggerName, methodName, transactionContext, stackTracePrefix, throwable);
+        logger.write(getLocation(methodName), methodName, transactionContext, stackTracePrefix, throwable);
     }
 
 }
@@ -35,14 +35,26 @@ public class LoggerFactory {
     }
 
     /**
-     * Get logger.
+     * Get logger.  Loggers with the same name are shared.
      * @param loggerName The logger name
      * @return The logger
      */
     public static synchronized Logger getLogger(
         final String loggerName) {
 
-        return new LoggerFacade(loggerName, LoggerContext.get());
+        return LoggerContext.get().getLogger(loggerName, false);
+    }
+
+    /**
+     * Get logger that an SLF4J logger writes to.  The logging level of the
+     * root logger also applies to the logger, as it does to SLF4J loggers.
+     * @param loggerName The logger name
+     * @return The logger
+     */
+    public static synchronized Logger getAdaptedLogger(
+        final String loggerName) {
+
+        return LoggerContext.get().getLogger(loggerName, true);
     }
 
 }
@@ -0,0 +1,327 @@
+/* __  __      _ _            
+  |  \/  |    | (_)           
+  | \  / | ___| |_  ___  _ __ 
+  | |\/| |/ _ \ | |/ _ \| '__|
+  | |  | |  __/ | | (_) | |   
+  |_|  |_|\___|_|_|\___/|_|   
+        Service Harness
+*/
+package org.melior.logging.core;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.melior.logging.appender.Stream;
+import org.melior.util.number.StripedCounter;
+import org.melior.util.thread.DaemonThread;
+import org.melior.util.thread.ThreadControl;
+
+/**
+ * Registry of the metrics of the logging system itself.  The metrics are
+ * organized in groups, one per log stream and one for the file archiver, and
+ * each group is exposed as an MBean named {@code org.melior.logging:type=LoggingMetrics,name=<group>}.
+ * The metrics may also be read programmatically with {@link #snapshot()}, for
+ * example to correlate the logging overhead with the latency of requests.
+ * <p>
+ * The number of events that are written to each log stream is counted with
+ * striped counters, so that counting is cheap enough to be always on.  The other
+ * metrics are read from the appenders and the file archiver only when a snapshot
+ * is taken or an MBean is read.  Times are reported in microseconds.
+ * @author Melior
+ * @since 2.3
+ */
+public class LoggingMetrics {
+
+    private static final String DOMAIN = "org.melior.logging";
+
+    private static final long SAMPLE_INTERVAL = 1000;
+
+    private static final LoggingMetrics instance = new LoggingMetrics();
+
+    private StripedCounter[] events;
+
+    private volatile double[] eventsPerSecond;
+
+    private volatile Map<String, Map<String, Supplier<Number>>> groups;
+
+    private MBeanServer beanServer;
+
+    /**
+     * Constructor.
+     */
+    private LoggingMetrics() {
+
+        super();
+
+        events = new StripedCounter[Stream.values().length];
+
+        for (int i = 0; i < events.length; i++) {
+
+            events[i] = StripedCounter.of();
+        }
+
+        eventsPerSecond = new double[events.length];
+
+        groups = Collections.emptyMap();
+
+        try {
+
+            beanServer = ManagementFactory.getPlatformMBeanServer();
+        }
+        catch (Exception exception) {
+
+            beanServer = null;
+        }
+
+        reset();
+
+        DaemonThread.create(() -> sampleEvents());
+    }
+
+    /**
+     * Get singleton instance.
+     * @return The singleton instance
+     */
+    public static LoggingMetrics get() {
+        return instance;
+    }
+
+    /**
+     * Count event that has been written to given log stream.
+     * @param stream The stream
+     */
+    void countEvent(
+        final Stream stream) {
+
+        events[stream.ordinal()].increment();
+    }
+
+    /**
+     * Remove the metrics of the appenders, when the appenders are replaced.
+     * The event counts of the log streams are kept.
+     */
+    synchronized void reset() {
+
+        for (String group : groups.keySet()) {
+
+            unregisterBean(group);
+        }
+
+        groups = Collections.emptyMap();
+
+        for (Stream stream : Stream.values()) {
+
+            register(stream.getAlias(), "events", () -> events[stream.ordinal()].get());
+            register(stream.getAlias(), "eventsPerSecond", () -> eventsPerSecond[stream.ordinal()]);
+        }
+
+    }
+
+    /**
+     * Register metric in given group.  A metric that is already registered
+     * under the same name is replaced.
+     * @param group The group
+     * @param name The name of the metric
+     * @param metric The supplier of the value of the metric
+     */
+    synchronized void register(
+        final String group,
+        final String name,
+        final Supplier<Number> metric) {
+
+        Map<String, Map<String, Supplier<Number>>> newGroups;
+        Map<String, Supplier<Number>> newMetrics;
+        boolean newGroup;
+
+        newGroups = new LinkedHashMap<String, Map<String, Supplier<Number>>>(groups);
+
+        newGroup = (newGroups.containsKey(group) == false);
+
+        newMetrics = (newGroup == true) ? new LinkedHashMap<String, Supplier<Number>>()
+            : new LinkedHashMap<String, Supplier<Number>>(newGroups.get(group));
+
+        newMetrics.put(name, metric);
+
+        newGroups.put(group, Collections.unmodifiableMap(newMetrics));
+
+        groups = Collections.unmodifiableMap(newGroups);
+
+        if (newGroup == true) {
+
+            registerBean(group);
+        }
+
+    }
+
+    /**
+     * Get metrics of given group.
+     * @param group The group
+     * @return The suppliers of the values of the metrics, by name
+     */
+    Map<String, Supplier<Number>> getMetrics(
+        final String group) {
+
+        Map<String, Supplier<Number>> metrics;
+
+        metrics = groups.get(group);
+
+        return (metrics == null) ? Collections.emptyMap() : metrics;
+    }
+
+    /**
+     * Take snapshot of all metrics.  The metrics are named {@code <group>.<name>}.
+     * @return The values of the metrics, by name
+     */
+    public Map<String, Number> snapshot() {
+
+        Map<String, Number> snapshot;
+
+        snapshot = new LinkedHashMap<String, Number>();
+
+        for (Map.Entry<String, Map<String, Supplier<Number>>> group : groups.entrySet()) {
+
+            for (Map.Entry<String, Supplier<Number>> metric : group.getValue().entrySet()) {
+
+                snapshot.put(group.getKey() + "." + metric.getKey(), metric.getValue().get());
+            }
+
+        }
+
+        return snapshot;
+    }
+
+    /**
+     * Take snapshot of the metrics of given group.
+     * @param group The group, which is the alias of a log stream or {@code archiver}
+     * @return The values of the metrics, by name
+     */
+    public Map<String, Number> snapshot(
+        final String group) {
+
+        Map<String, Number> snapshot;
+
+        snapshot = new LinkedHashMap<String, Number>();
+
+        for (Map.Entry<String, Supplier<Number>> metric : getMetrics(group).entrySet()) {
+
+            snapshot.put(metric.getKey(), metric.getValue().get());
+        }
+
+        return snapshot;
+    }
+
+    /**
+     * Register MBean for given group.
+     * @param group The group
+     */
+    private void registerBean(
+        final String group) {
+
+        ObjectName name;
+
+        if (beanServer == null) {
+            return;
+        }
+
+        try {
+
+            name = getBeanName(group);
+
+            if (beanServer.isRegistered(name) == true) {
+
+                beanServer.unregisterMBean(name);
+            }
+
+            beanServer.registerMBean(new MetricsBean(this, group), name);
+        }
+        catch (Exception exception) {
+        }
+
+    }
+
+    /**
+     * Unregister MBean for given group.
+     * @param group The group
+     */
+    private void unregisterBean(
+        final String group) {
+
+        ObjectName name;
+
+        if (beanServer == null) {
+            return;
+        }
+
+        try {
+
+            name = getBeanName(group);
+
+            if (beanServer.isRegistered(name) == true) {
+
+                beanServer.unregisterMBean(name);
+            }
+
+        }
+        catch (Exception exception) {
+        }
+
+    }
+
+    /**
+     * Get name of MBean for given group.
+     * @param group The group
+     * @return The name of the MBean
+     * @throws Exception if the name is not valid
+     */
+    private static ObjectName getBeanName(
+        final String group) throws Exception {
+        return ObjectName.getInstance(DOMAIN + ":type=LoggingMetrics,name=" + group);
+    }
+
+    /**
+     * Sample the number of events per second that are written to each log stream.
+     */
+    private void sampleEvents() {
+
+        long[] sampleCounts;
+        long sampleTime;
+        long currentTime;
+        long count;
+        double[] rates;
+
+        sampleCounts = new long[events.length];
+        sampleTime = System.currentTimeMillis();
+
+        while (true) {
+
+            ThreadControl.sleep(SAMPLE_INTERVAL, TimeUnit.MILLISECONDS);
+
+            currentTime = System.currentTimeMillis();
+
+            if (currentTime <= sampleTime) {
+                continue;
+            }
+
+            rates = new double[events.length];
+
+            for (int i = 0; i < events.length; i++) {
+
+                count = events[i].get();
+
+                rates[i] = (count - sampleCounts[i]) * 1000.0 / (currentTime - sampleTime);
+
+                sampleCounts[i] = count;
+            }
+
+            eventsPerSecond = rates;
+
+            sampleTime = currentTime;
+        }
+
+    }
+
+}
@@ -7,16 +7,27 @@
         Service Harness
 */
 package org.melior.logging.core;
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import org.melior.logging.adapter.LoggerAdapter;
 import org.melior.logging.adapter.LoggerRegistry;
 import org.springframework.boot.logging.LogFile;
 import org.springframework.boot.logging.LogLevel;
 import org.springframework.boot.logging.LoggerConfiguration;
 import org.springframework.boot.logging.LoggingInitializationContext;
+import org.springframework.core.env.Environment;
 
 /**
- * Initializes the internal logging system.
+ * Initializes the internal logging system.  The logging system may be
+ * reconfigured while the service is running, for example after the
+ * configuration of the service has been refreshed, without creating
+ * the appenders again.  The logging levels that are set apply to both
+ * the SLF4J loggers and the internal loggers, and are reported as the
+ * logger configurations, for example by the actuator loggers endpoint.
  * @author Melior
  * @since 2.1
  */
@@ -49,7 +60,30 @@ public class LoggingSystem extends org.springframework.boot.logging.LoggingSyste
         final String configLocation,
         final LogFile logFile) {
 
-        LoggerContext.get().initialize(initializationContext.getEnvironment());
+        reconfigure(initializationContext.getEnvironment());
+    }
+
+    /**
+     * Reconfigure logging system from the environment.  The appenders that are
+     * in use are reconfigured in place, so that the log entries that are in flight
+     * are not lost.  Settings that determine which appenders are in use, such as
+     * asynchronous logging and the sizes of the buffers, take effect on restart.
+     * @param environment The environment
+     */
+    public void reconfigure(
+        final Environment environment) {
+
+        int locationDepth;
+        List<String> locationDisabledList;
+
+        LoggerContext.get().initialize(environment);
+
+        locationDepth = environment.getProperty("logging.location.max-depth", Integer.class, LoggerAdapter.DEFAULT_LOCATION_DEPTH);
+
+        locationDisabledList = Arrays.stream(environment.getProperty("logging.location.disabled", "").split(","))
+            .map(String::trim).filter(name -> name.isEmpty() == false).collect(Collectors.toList());
+
+        LoggerRegistry.get().configureLocation(locationDepth, locationDisabledList);
     }
 
     /**
@@ -62,24 +96,76 @@ public class LoggingSystem extends org.springframework.boot.logging.LoggingSyste
         final LogLevel loggingLevel)  {
 
         LoggerRegistry.get().setLoggingLevel((loggerName == null) ? ROOT_LOGGER_NAME : loggerName, loggingLevel);
+
+        LoggerContext.get().invalidateLoggingLevels();
     }
 
     /**
-     * Get logger configurations.
+     * Get logger configurations.  The configuration of the root logger comes
+     * first, followed by the configurations of the other loggers by name.
      * @return The list of logger configurations
      */
     public List<LoggerConfiguration> getLoggerConfigurations() {
-        return Collections.emptyList();
+
+        Set<String> loggerNames;
+        List<LoggerConfiguration> loggerConfigurations;
+
+        loggerNames = new TreeSet<String>(LoggerRegistry.get().getLoggerNames());
+        loggerNames.addAll(LoggerContext.get().getLoggerNames());
+        loggerNames.remove(ROOT_LOGGER_NAME);
+
+        loggerConfigurations = new ArrayList<LoggerConfiguration>(loggerNames.size() + 1);
+        loggerConfigurations.add(getLoggerConfiguration(ROOT_LOGGER_NAME));
+
+        for (String loggerName : loggerNames) {
+
+            loggerConfigurations.add(getLoggerConfiguration(loggerName));
+        }
+
+        return loggerConfigurations;
     }
 
     /**
-     * Get logger configuration.
+     * Get logger configuration.  The effective logging level of an SLF4J logger is
+     * the more restrictive of its own logging level and that of the internal logger
+     * that it writes to, as the latter does not inherit the logging level of the root
+     * logger.
      * @param loggerName The logger name
      * @return The logger configuration
      */
     public LoggerConfiguration getLoggerConfiguration(
         final String loggerName) {
-        return null;
+
+        String name;
+        LoggerRegistry loggerRegistry;
+        LogLevel configuredLevel;
+        LogLevel effectiveLevel;
+        LogLevel loggingLevel;
+
+        name = (loggerName == null) ? ROOT_LOGGER_NAME : loggerName;
+
+        loggerRegistry = LoggerRegistry.get();
+
+        configuredLevel = loggerRegistry.getLoggingLevel(name);
+
+        if (name.equals(ROOT_LOGGER_NAME) == true) {
+            return new LoggerConfiguration(name, configuredLevel, configuredLevel);
+        }
+
+        effectiveLevel = LoggerContext.get().getLoggingLevel(name);
+
+        if (loggerRegistry.getLogger(name) != null) {
+
+            loggingLevel = loggerRegistry.resolveLoggingLevel(name, loggerRegistry.getLoggingLevel(ROOT_LOGGER_NAME));
+
+            if (loggingLevel.ordinal() > effectiveLevel.ordinal()) {
+
+                effectiveLevel = loggingLevel;
+            }
+
+        }
+
+        return new LoggerConfiguration(name, configuredLevel, effectiveLevel);
     }
 
 }
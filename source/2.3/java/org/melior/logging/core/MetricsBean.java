@@ -0,0 +1,160 @@
+/* __  __      _ _            
+  |  \/  |    | (_)           
+  | \  / | ___| |_  ___  _ __ 
+  | |\/| |/ _ \ | |/ _ \| '__|
+  | |  | |  __/ | | (_) | |   
+  |_|  |_|\___|_|_|\___/|_|   
+        Service Harness
+*/
+package org.melior.logging.core;
+import java.util.Map;
+import java.util.function.Supplier;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.ReflectionException;
+
+/**
+ * Exposes a group of logging metrics as the read-only attributes of an MBean.
+ * The attributes are read from the metrics registry each time, so that metrics
+ * that are registered after the MBean also become visible.
+ * @author Melior
+ * @since 2.3
+ * @see LoggingMetrics
+ */
+class MetricsBean implements DynamicMBean {
+
+    private LoggingMetrics registry;
+
+    private String group;
+
+    /**
+     * Constructor.
+     * @param registry The metrics registry
+     * @param group The group
+     */
+    MetricsBean(
+        final LoggingMetrics registry,
+        final String group) {
+
+        super();
+
+        this.registry = registry;
+
+        this.group = group;
+    }
+
+    /**
+     * Get value of attribute.
+     * @param attribute The name of the attribute
+     * @return The value of the attribute
+     * @throws AttributeNotFoundException if the attribute does not exist
+     */
+    public Object getAttribute(
+        final String attribute) throws AttributeNotFoundException {
+
+        Supplier<Number> metric;
+
+        metric = registry.getMetrics(group).get(attribute);
+
+        if (metric == null) {
+            throw new AttributeNotFoundException(attribute);
+        }
+
+        return metric.get();
+    }
+
+    /**
+     * Set value of attribute.  The attributes are read-only.
+     * @param attribute The attribute
+     * @throws AttributeNotFoundException always
+     */
+    public void setAttribute(
+        final Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException("Logging metrics are read-only: " + attribute.getName());
+    }
+
+    /**
+     * Get values of attributes.
+     * @param attributes The names of the attributes
+     * @return The list of attributes that exist
+     */
+    public AttributeList getAttributes(
+        final String[] attributes) {
+
+        Map<String, Supplier<Number>> metrics;
+        AttributeList attributeList;
+        Supplier<Number> metric;
+
+        metrics = registry.getMetrics(group);
+
+        attributeList = new AttributeList();
+
+        for (String attribute : attributes) {
+
+            metric = metrics.get(attribute);
+
+            if (metric != null) {
+
+                attributeList.add(new Attribute(attribute, metric.get()));
+            }
+
+        }
+
+        return attributeList;
+    }
+
+    /**
+     * Set values of attributes.  The attributes are read-only.
+     * @param attributes The attributes
+     * @return An empty list
+     */
+    public AttributeList setAttributes(
+        final AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    /**
+     * Invoke operation.  There are no operations.
+     * @param actionName The name of the operation
+     * @param params The parameters
+     * @param signature The signature
+     * @return Nothing
+     * @throws ReflectionException always
+     */
+    public Object invoke(
+        final String actionName,
+        final Object[] params,
+        final String[] signature) throws ReflectionException {
+        throw new ReflectionException(new NoSuchMethodException(actionName));
+    }
+
+    /**
+     * Get description of the MBean.
+     * @return The description
+     */
+    public MBeanInfo getMBeanInfo() {
+
+        Map<String, Supplier<Number>> metrics;
+        MBeanAttributeInfo[] attributeInfo;
+        int i;
+
+        metrics = registry.getMetrics(group);
+
+        attributeInfo = new MBeanAttributeInfo[metrics.size()];
+
+        i = 0;
+
+        for (Map.Entry<String, Supplier<Number>> metric : metrics.entrySet()) {
+
+            attributeInfo[i++] = new MBeanAttributeInfo(metric.getKey(), metric.getValue().get().getClass().getName(),
+                metric.getKey(), true, false, false);
+        }
+
+        return new MBeanInfo(getClass().getName(), "Logging metrics of " + group, attributeInfo, null, null, null);
+    }
+
+}
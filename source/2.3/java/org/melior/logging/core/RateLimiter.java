@@ -0,0 +1,435 @@
+/* __  __      _ _            
+  |  \/  |    | (_)           
+  | \  / | ___| |_  ___  _ __ 
+  | |\/| |/ _ \ | |/ _ \| '__|
+  | |  | |  __/ | | (_) | |   
+  |_|  |_|\___|_|_|\___/|_|   
+        Service Harness
+*/
+package org.melior.logging.core;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.melior.util.number.Counter;
+import org.springframework.boot.logging.LogLevel;
+
+/**
+ * Limits the rate at which trace events are logged per location and logging
+ * level.  Each combination of location and logging level has its own token
+ * bucket, which allows a burst of events and then refills at a fixed rate.
+ * Events that find the bucket empty are suppressed and counted, and the count
+ * is reported with the next event that is allowed through, or when the rate
+ * limiter is flushed once the bucket has refilled, whichever comes first.
+ * <p>
+ * The buckets are held in concurrent maps and are updated with compare-and-set
+ * only, so the rate limiter does not lock and may stay on permanently.  Buckets
+ * that are full and have nothing to report are evicted when the rate limiter is
+ * flushed, as they are no different from new buckets.  Events from locations
+ * that find the maps full are not limited, but they are counted.  The rate and
+ * burst may be overridden for locations that start with a given logger name prefix.
+ * @author Melior
+ * @since 2.3
+ */
+public class RateLimiter {
+
+    private static final int MAX_BUCKETS = 4096;
+
+    private static final long NANOS_PER_SECOND = 1000000000L;
+
+    private static final Bucket UNLIMITED = new Bucket(0, 0);
+
+    private boolean[] limitedLevels;
+
+    private List<Map<String, Bucket>> bucketMaps;
+
+    private Limit defaultLimit;
+
+    private List<Limit> prefixLimits;
+
+    private Counter bypassedEvents;
+
+    /**
+     * Constructor.
+     * @param rate The number of events per second that are allowed per location and logging level
+     * @param burst The number of events that are allowed in a burst
+     * @param levels The logging levels that are limited
+     * @param overrides Comma-separated list of overrides in prefix:rate[:burst] format
+     */
+    RateLimiter(
+        final double rate,
+        final int burst,
+        final List<LogLevel> levels,
+        final String overrides) {
+
+        super();
+
+        limitedLevels = new boolean[LogLevel.values().length];
+
+        for (LogLevel level : levels) {
+
+            limitedLevels[level.ordinal()] = true;
+        }
+
+        bucketMaps = new ArrayList<Map<String, Bucket>>(limitedLevels.length);
+
+        for (int i = 0; i < limitedLevels.length; i++) {
+
+            bucketMaps.add((limitedLevels[i] == true) ? new ConcurrentHashMap<String, Bucket>() : null);
+        }
+
+        defaultLimit = new Limit(null, rate, burst);
+
+        prefixLimits = new ArrayList<Limit>();
+
+        bypassedEvents = Counter.of(0);
+
+        if (overrides != null) {
+
+            addOverrides(overrides, burst);
+        }
+
+    }
+
+    /**
+     * Get instance of rate limiter.
+     * @param rate The number of events per second that are allowed per location and logging level
+     * @param burst The number of events that are allowed in a burst
+     * @param levels The logging levels that are limited
+     * @param overrides Comma-separated list of overrides in prefix:rate[:burst] format
+     * @return The rate limiter
+     */
+    public static RateLimiter of(
+        final double rate,
+        final int burst,
+        final List<LogLevel> levels,
+        final String overrides) {
+        return new RateLimiter(rate, burst, levels, overrides);
+    }
+
+    /**
+     * Try to acquire permission to log an event.
+     * @param loggingLevel The logging level
+     * @param location The location [caller]
+     * @param millis The current time in milliseconds
+     * @return The number of events that were suppressed since the previous event was
+     * allowed through, or -1 if this event must be suppressed
+     */
+    public long acquire(
+        final LogLevel loggingLevel,
+        final String location,
+        final long millis) {
+
+        Map<String, Bucket> bucketMap;
+        Bucket bucket;
+
+        if ((location == null) || (limitedLevels[loggingLevel.ordinal()] == false)) {
+            return 0;
+        }
+
+        bucketMap = bucketMaps.get(loggingLevel.ordinal());
+
+        bucket = bucketMap.get(location);
+
+        if (bucket == null) {
+
+            if (bucketMap.size() >= MAX_BUCKETS) {
+
+                bypassedEvents.increment();
+
+                return 0;
+            }
+
+            bucket = bucketMap.computeIfAbsent(location, (key) -> createBucket(key));
+        }
+
+        if (bucket == UNLIMITED) {
+            return 0;
+        }
+
+        if (bucket.tryAcquire(millis * 1000000L) == false) {
+
+            bucket.suppressed.increment();
+
+            return -1;
+        }
+
+        return (bucket.suppressed.get() == 0) ? 0 : bucket.suppressed.reset();
+    }
+
+    /**
+     * Report the events that have been suppressed at the locations whose bucket
+     * has refilled since, so that the count is not held back until the next event
+     * from the location is allowed through.  The buckets that are full and have
+     * nothing to report are evicted.
+     * @param millis The current time in milliseconds
+     * @param reporter The reporter of the suppressed events
+     */
+    public void flush(
+        final long millis,
+        final Reporter reporter) {
+
+        Map<String, Bucket> bucketMap;
+        Bucket bucket;
+        long suppressed;
+
+        for (int i = 0; i < bucketMaps.size(); i++) {
+
+            bucketMap = bucketMaps.get(i);
+
+            if (bucketMap == null) {
+                continue;
+            }
+
+            for (Map.Entry<String, Bucket> entry : bucketMap.entrySet()) {
+
+                bucket = entry.getValue();
+
+                if ((bucket == UNLIMITED) || (bucket.isAvailable(millis * 1000000L) == false)) {
+                    continue;
+                }
+
+                if ((bucket.suppressed.get() == 0) && (bucket.isFull(millis * 1000000L) == true)) {
+
+                    bucketMap.remove(entry.getKey(), bucket);
+                }
+
+                suppressed = bucket.suppressed.reset();
+
+                if (suppressed > 0) {
+
+                    reporter.report(LogLevel.values()[i], entry.getKey(), suppressed);
+                }
+
+            }
+
+        }
+
+    }
+
+    /**
+     * Get number of events that were not limited because the maximum number
+     * of buckets had been reached.
+     * @return The number of events
+     */
+    public long getBypassedEvents() {
+        return bypassedEvents.get();
+    }
+
+    /**
+     * Add the overrides of the rate and burst for logger name prefixes.
+     * @param overrides Comma-separated list of overrides in prefix:rate[:burst] format
+     * @param burst The default number of events that are allowed in a burst
+     */
+    private void addOverrides(
+        final String overrides,
+        final int burst) {
+
+        String[] fields;
+
+        for (String entry : overrides.split(",")) {
+
+            fields = entry.trim().split(":");
+
+            if ((fields.length >= 2) && (fields[0].trim().isEmpty() == false)) {
+
+                prefixLimits.add(new Limit(fields[0].trim(), Double.parseDouble(fields[1].trim()),
+                    (fields.length > 2) ? Integer.parseInt(fields[2].trim()) : burst));
+            }
+
+        }
+
+    }
+
+    /**
+     * Create bucket for location.  The limit of the longest matching
+     * prefix applies, or the default limit if no prefix matches.
+     * @param location The location
+     * @return The bucket
+     */
+    private Bucket createBucket(
+        final String location) {
+
+        Limit limit;
+
+        limit = defaultLimit;
+
+        for (Limit prefixLimit : prefixLimits) {
+
+            if ((prefixLimit.matches(location) == true)
+                && ((limit.prefix == null) || (prefixLimit.prefix.length() > limit.prefix.length()))) {
+
+                limit = prefixLimit;
+            }
+
+        }
+
+        if ((limit.rate <= 0) || (limit.burst <= 0)) {
+            return UNLIMITED;
+        }
+
+        return new Bucket((long) (NANOS_PER_SECOND / limit.rate), limit.burst);
+    }
+
+    /**
+     * Reports the events that have been suppressed at a location.
+     */
+    @FunctionalInterface
+    public interface Reporter {
+
+        /**
+         * Report the events that have been suppressed at a location.
+         * @param loggingLevel The logging level
+         * @param location The location [caller]
+         * @param suppressed The number of events that have been suppressed
+         */
+        public void report(
+            final LogLevel loggingLevel,
+            final String location,
+            final long suppressed);
+
+    }
+
+    /**
+     * The rate and burst that apply to the locations that start with a prefix.
+     */
+    private static class Limit {
+
+        private String prefix;
+
+        private double rate;
+
+        private int burst;
+
+        /**
+         * Constructor.
+         * @param prefix The prefix, or null for the default limit
+         * @param rate The number of events per second
+         * @param burst The number of events in a burst
+         */
+        private Limit(
+            final String prefix,
+            final double rate,
+            final int burst) {
+
+            super();
+
+            this.prefix = prefix;
+
+            this.rate = rate;
+
+            this.burst = burst;
+        }
+
+        /**
+         * Check whether location starts with the prefix on a name boundary.
+         * @param location The location
+         * @return true if the location matches, false otherwise
+         */
+        private boolean matches(
+            final String location) {
+
+            char character;
+
+            if (location.startsWith(prefix) == false) {
+                return false;
+            }
+
+            if (location.length() == prefix.length()) {
+                return true;
+            }
+
+            character = location.charAt(prefix.length());
+
+            return (character == '.') || (character == '(');
+        }
+
+    }
+
+    /**
+     * A token bucket that is implemented as a generic cell rate algorithm.
+     * The bucket holds the theoretical arrival time of the next event, which
+     * moves ahead by one emission interval for each event that is allowed.
+     */
+    private static class Bucket {
+
+        private long interval;
+
+        private long tolerance;
+
+        private AtomicLong arrivalTime;
+
+        private Counter suppressed;
+
+        /**
+         * Constructor.
+         * @param interval The emission interval in nanoseconds
+         * @param burst The number of events in a burst
+         */
+        private Bucket(
+            final long interval,
+            final int burst) {
+
+            super();
+
+            this.interval = interval;
+
+            this.tolerance = interval * Math.max(burst - 1, 0);
+
+            arrivalTime = new AtomicLong(Long.MIN_VALUE / 2);
+
+            suppressed = Counter.of(0);
+        }
+
+        /**
+         * Try to take a token from the bucket.
+         * @param nanos The current time in nanoseconds
+         * @return true if a token was taken, false if the bucket is empty
+         */
+        private boolean tryAcquire(
+            final long nanos) {
+
+            long currentTime;
+
+            while (true) {
+
+                currentTime = arrivalTime.get();
+
+                if (currentTime - nanos > tolerance) {
+                    return false;
+                }
+
+                if (arrivalTime.compareAndSet(currentTime, Math.max(currentTime, nanos) + interval) == true) {
+                    return true;
+                }
+
+            }
+
+        }
+
+        /**
+         * Check whether the bucket holds a token, without taking it.
+         * @param nanos The current time in nanoseconds
+         * @return true if the bucket holds a token, false if the bucket is empty
+         */
+        private boolean isAvailable(
+            final long nanos) {
+
+            return arrivalTime.get() - nanos <= tolerance;
+        }
+
+        /**
+         * Check whether the bucket has refilled completely.
+         * @param nanos The current time in nanoseconds
+         * @return true if the bucket is full, false otherwise
+         */
+        private boolean isFull(
+            final long nanos) {
+
+            return arrivalTime.get() <= nanos;
+        }
+
+    }
+
+}
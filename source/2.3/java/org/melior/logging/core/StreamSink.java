@@ -7,23 +7,23 @@
         Service Harness
 */
 package org.melior.logging.core;
-import java.io.IOException;
-import java.io.OutputStream;
 import java.io.PrintStream;
+import java.nio.charset.Charset;
 import org.springframework.boot.logging.LogLevel;
 
 /**
  * Allows any of the "standard" system output streams to be redirected to a logger.
+ * The output is assembled into lines, so that a line that is printed in pieces
+ * still becomes a single log entry.
  * @author Melior
  * @since 2.3
+ * @see LineOutputStream
  */
 public class StreamSink {
 
-    private LoggerContext logger;
+    private LoggerFacade logger;
 
-    private String loggerName;
-
-    private String methodName;
+    private String location;
 
     private LogLevel loggingLevel;
 
@@ -54,78 +54,21 @@ public class StreamSink {
 
         super();
 
-        this.logger = ((LoggerFacade) logger).getLogger();
-
-        this.loggerName = logger.getName();
+        this.logger = (LoggerFacade) logger;
 
-        this.methodName = methodName;
+        this.location = ((LoggerFacade) logger).getLocation(methodName);
 
         this.loggingLevel = loggingLevel;
     }
 
     /**
-     * Get stream that will redirect to the logger.
+     * Get stream that will redirect to the logger.  The bytes that are written
+     * to the stream are assembled into lines, and each line is written to the
+     * logger as a log entry.
      * @return The stream
      */
     public PrintStream getStream() {
-
-        return new PrintStream(new OutputStream() {
-
-            /**
-             * Write byte array to logger.
-             * @param b The byte array
-             * @throws IOException if an error occurs while writing to the logger
-             */
-            public void write(
-                final byte[] b) throws IOException {
-                write(new String(b));
-            }
-
-            /**
-             * Write byte array to logger.
-             * @param b The byte array
-             * @param o The offset
-             * @param l The length
-             * @throws IOException if an error occurs while writing to the logger
-             */
-            public void write(
-                final byte[] b,
-                final int o,
-                final int l) throws IOException {
-                write(new String(b, o, l));
-            }
-
-            /**
-             * Write integer to logger.
-             * @param b The integer
-             * @throws IOException if an error occurs while writing to the logger
-             */
-            public void write(
-                final int b) throws IOException {
-                write(String.valueOf(b));
-            }
-
-            /**
-             * Write string to logger.
-             * @param s The string
-             * @throws IOException if an error occurs while writing to the logger
-             */
-            private void write(
-                final String s) throws IOException {
-
-                if (logger.getLoggingLevel() <= loggingLevel.ordinal()) {
-
-                    if (s.equals(System.lineSeparator()) == false) {
-
-                        logger.write(loggingLevel, loggerName, methodName, new String[] {s}, null);
-                    }
-
-                }
-
-            }
-
-        });
-
+        return new PrintStream(new LineOutputStream(logger, location, loggingLevel, Charset.defaultCharset()));
     }
 
 }
@@ -0,0 +1,194 @@
+/* __  __      _ _            
+  |  \/  |    | (_)           
+  | \  / | ___| |_  ___  _ __ 
+  | |\/| |/ _ \ | |/ _ \| '__|
+  | |  | |  __/ | | (_) | |   
+  |_|  |_|\___|_|_|\___/|_|   
+        Service Harness
+*/
+package org.melior.logging.encoder;
+
+/**
+ * Encodes binary log records straight into a reusable byte buffer.  Integers
+ * are encoded as variable-length quantities with seven bits per byte, least
+ * significant group first, and strings are encoded as their UTF-8 length
+ * followed by their UTF-8 bytes.  Like the {@code Encoder}, a binary encoder
+ * is not thread safe.
+ * @author Melior
+ * @since 2.3
+ * @see Encoder
+ */
+public class BinaryEncoder extends Encoder {
+
+    /**
+     * Constructor.
+     */
+    public BinaryEncoder() {
+
+        super();
+    }
+
+    /**
+     * Clear encoder for the next record.
+     * @return The encoder
+     */
+    public BinaryEncoder reset() {
+
+        super.reset();
+
+        return this;
+    }
+
+    /**
+     * Encode single byte.
+     * @param value The byte
+     * @return The encoder
+     */
+    public BinaryEncoder appendByte(
+        final int value) {
+
+        ensureCapacity(1);
+
+        bytes[length++] = (byte) value;
+
+        return this;
+    }
+
+    /**
+     * Encode integer as four bytes in big-endian order.
+     * @param value The integer
+     * @return The encoder
+     */
+    public BinaryEncoder appendInt(
+        final int value) {
+
+        ensureCapacity(4);
+
+        setInt(length, value);
+
+        length += 4;
+
+        return this;
+    }
+
+    /**
+     * Overwrite four bytes that have already been encoded with an integer
+     * in big-endian order.  This is used to fill in the length of a record
+     * once its payload has been encoded.
+     * @param position The position of the first byte
+     * @param value The integer
+     * @return The encoder
+     */
+    public BinaryEncoder setInt(
+        final int position,
+        final int value) {
+
+        bytes[position] = (byte) (value >>> 24);
+        bytes[position + 1] = (byte) (value >>> 16);
+        bytes[position + 2] = (byte) (value >>> 8);
+        bytes[position + 3] = (byte) value;
+
+        return this;
+    }
+
+    /**
+     * Encode unsigned long integer as a variable-length quantity.
+     * @param value The long integer
+     * @return The encoder
+     */
+    public BinaryEncoder appendVarLong(
+        final long value) {
+
+        long remainder;
+
+        ensureCapacity(10);
+
+        remainder = value;
+
+        while ((remainder & ~0x7FL) != 0) {
+
+            bytes[length++] = (byte) ((remainder & 0x7F) | 0x80);
+
+            remainder >>>= 7;
+        }
+
+        bytes[length++] = (byte) remainder;
+
+        return this;
+    }
+
+    /**
+     * Encode string as its UTF-8 length plus one, followed by its UTF-8 bytes.
+     * A null string is encoded as a length of zero.
+     * @param value The string
+     * @return The encoder
+     */
+    public BinaryEncoder appendString(
+        final String value) {
+
+        if (value == null) {
+            return appendVarLong(0);
+        }
+
+        appendVarLong(utf8Length(value) + 1);
+
+        append(value);
+
+        return this;
+    }
+
+    /**
+     * Get number of bytes in the UTF-8 encoding of a string.  Unpaired
+     * surrogates count as one byte, as they are encoded as a question mark.
+     * @param value The string
+     * @return The number of bytes
+     */
+    private static long utf8Length(
+        final String value) {
+
+        long size;
+        char character;
+
+        size = 0;
+
+        for (int i = 0; i < value.length(); i++) {
+
+            character = value.charAt(i);
+
+            if (character < 0x80) {
+
+                size++;
+            }
+            else if (character < 0x800) {
+
+                size += 2;
+            }
+            else if (Character.isHighSurrogate(character) == true) {
+
+                if ((i + 1 < value.length()) && (Character.isLowSurrogate(value.charAt(i + 1)) == true)) {
+
+                    size += 4;
+
+                    i++;
+                }
+                else {
+
+                    size++;
+                }
+
+            }
+            else if (Character.isLowSurrogate(character) == true) {
+
+                size++;
+            }
+            else {
+
+                size += 3;
+            }
+
+        }
+
+        return size;
+    }
+
+}
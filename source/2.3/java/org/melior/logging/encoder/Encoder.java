@@ -0,0 +1,423 @@
+/* __  __      _ _            
+  |  \/  |    | (_)           
+  | \  / | ___| |_  ___  _ __ 
+  | |\/| |/ _ \ | |/ _ \| '__|
+  | |  | |  __/ | | (_) | |   
+  |_|  |_|\___|_|_|\___/|_|   
+        Service Harness
+*/
+package org.melior.logging.encoder;
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes the parts of a log entry straight into a reusable byte buffer in
+ * UTF-8, without creating intermediate {@code String} objects.  Numbers,
+ * booleans and characters are encoded without boxing or conversion.  An
+ * encoder is not thread safe, so each writer thread should use its own
+ * encoder, for example one that is held in a {@code ThreadLocal}.
+ * @author Melior
+ * @since 2.3
+ */
+public class Encoder {
+
+    public static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private static final int INITIAL_CAPACITY = 512;
+    private static final int RETAINED_CAPACITY = 65536;
+
+    private static final byte[] MIN_LONG = "-9223372036854775808".getBytes();
+    private static final byte[] TRUE = "true".getBytes();
+    private static final byte[] FALSE = "false".getBytes();
+    protected static final byte[] NULL = "null".getBytes();
+    private static final byte[] DECIMAL_ZERO = ".0".getBytes();
+
+    protected byte[] bytes;
+
+    protected int length;
+
+    private ByteBuffer buffer;
+
+    /**
+     * Constructor.
+     */
+    public Encoder() {
+
+        super();
+
+        bytes = new byte[INITIAL_CAPACITY];
+
+        buffer = ByteBuffer.wrap(bytes);
+
+        length = 0;
+    }
+
+    /**
+     * Clear encoder for the next log entry.  A buffer that has grown well
+     * beyond the size of a normal log entry is released.
+     * @return The encoder
+     */
+    public Encoder reset() {
+
+        if (bytes.length > RETAINED_CAPACITY) {
+
+            bytes = new byte[INITIAL_CAPACITY];
+
+            buffer = ByteBuffer.wrap(bytes);
+        }
+
+        length = 0;
+
+        return this;
+    }
+
+    /**
+     * Get number of bytes that have been encoded.
+     * @return The number of bytes
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Get encoded bytes.  Only the first {@code length()} bytes are valid.
+     * @return The byte array
+     */
+    public byte[] bytes() {
+        return bytes;
+    }
+
+    /**
+     * Get encoded bytes as a buffer that is ready to be written.
+     * @return The byte buffer
+     */
+    public ByteBuffer buffer() {
+
+        buffer.clear();
+        buffer.limit(length);
+
+        return buffer;
+    }
+
+    /**
+     * Encode string.
+     * @param value The string
+     * @return The encoder
+     */
+    public Encoder append(
+        final String value) {
+
+        int size;
+        char character;
+
+        if (value == null) {
+            return appendBytes(NULL);
+        }
+
+        size = value.length();
+
+        ensureCapacity(size * 3);
+
+        for (int i = 0; i < size; i++) {
+
+            character = value.charAt(i);
+
+            if (character < 0x80) {
+
+                bytes[length++] = (byte) character;
+            }
+            else {
+
+                i = appendChar(value, i, character);
+            }
+
+        }
+
+        return this;
+    }
+
+    /**
+     * Encode character sequence.
+     * @param value The character sequence
+     * @return The encoder
+     */
+    public Encoder append(
+        final CharSequence value) {
+
+        int size;
+        char character;
+
+        if (value == null) {
+            return appendBytes(NULL);
+        }
+
+        size = value.length();
+
+        ensureCapacity(size * 3);
+
+        for (int i = 0; i < size; i++) {
+
+            character = value.charAt(i);
+
+            if (character < 0x80) {
+
+                bytes[length++] = (byte) character;
+            }
+            else {
+
+                i = appendChar(value, i, character);
+            }
+
+        }
+
+        return this;
+    }
+
+    /**
+     * Encode character.
+     * @param value The character
+     * @return The encoder
+     */
+    public Encoder append(
+        final char value) {
+
+        ensureCapacity(3);
+
+        if (value < 0x80) {
+
+            bytes[length++] = (byte) value;
+        }
+        else {
+
+            appendChar(null, 0, value);
+        }
+
+        return this;
+    }
+
+    /**
+     * Encode integer in decimal.
+     * @param value The integer
+     * @return The encoder
+     */
+    public Encoder append(
+        final int value) {
+        return append((long) value);
+    }
+
+    /**
+     * Encode long integer in decimal.
+     * @param value The long integer
+     * @return The encoder
+     */
+    public Encoder append(
+        final long value) {
+
+        long remainder;
+        int digits;
+        int position;
+
+        if (value == Long.MIN_VALUE) {
+            return appendBytes(MIN_LONG);
+        }
+
+        ensureCapacity(20);
+
+        if (value < 0) {
+
+            bytes[length++] = '-';
+
+            remainder = -value;
+        }
+        else {
+
+            remainder = value;
+        }
+
+        digits = 1;
+
+        for (long limit = 10; (digits < 19) && (remainder >= limit); limit *= 10) {
+            digits++;
+        }
+
+        position = length + digits;
+
+        do {
+            bytes[--position] = (byte) ('0' + (remainder % 10));
+            remainder /= 10;
+        }
+        while (remainder != 0);
+
+        length += digits;
+
+        return this;
+    }
+
+    /**
+     * Encode double.
+     * @param value The double
+     * @return The encoder
+     */
+    public Encoder append(
+        final double value) {
+
+        if ((value == (long) value) && (Math.abs(value) < 1e7) && ((value != 0) || (1 / value > 0))) {
+            return append((long) value).appendBytes(DECIMAL_ZERO);
+        }
+
+        return append(Double.toString(value));
+    }
+
+    /**
+     * Encode boolean.
+     * @param value The boolean
+     * @return The encoder
+     */
+    public Encoder append(
+        final boolean value) {
+        return appendBytes((value == true) ? TRUE : FALSE);
+    }
+
+    /**
+     * Encode object.  Strings, numbers, booleans and characters are encoded
+     * directly.  Other objects are encoded from their {@code String} representation.
+     * @param value The object
+     * @return The encoder
+     */
+    public Encoder append(
+        final Object value) {
+
+        if (value instanceof String) {
+            return append((String) value);
+        }
+        else if ((value instanceof Long) || (value instanceof Integer) || (value instanceof Short) || (value instanceof Byte)) {
+            return append(((Number) value).longValue());
+        }
+        else if (value instanceof Double) {
+            return append(((Double) value).doubleValue());
+        }
+        else if (value instanceof Boolean) {
+            return append(((Boolean) value).booleanValue());
+        }
+        else if (value instanceof Character) {
+            return append(((Character) value).charValue());
+        }
+        else if (value instanceof CharSequence) {
+            return append((CharSequence) value);
+        }
+
+        return append(String.valueOf(value));
+    }
+
+    /**
+     * Encode line separator.
+     * @return The encoder
+     */
+    public Encoder appendLine() {
+        return append(LINE_SEPARATOR);
+    }
+
+    /**
+     * Append bytes that are already encoded.
+     * @param value The bytes
+     * @return The encoder
+     */
+    public Encoder appendBytes(
+        final byte[] value) {
+
+        return appendBytes(value, 0, value.length);
+    }
+
+    /**
+     * Append bytes that are already encoded.
+     * @param value The bytes
+     * @param offset The offset of the first byte
+     * @param size The number of bytes
+     * @return The encoder
+     */
+    public Encoder appendBytes(
+        final byte[] value,
+        final int offset,
+        final int size) {
+
+        ensureCapacity(size);
+
+        System.arraycopy(value, offset, bytes, length, size);
+
+        length += size;
+
+        return this;
+    }
+
+    /**
+     * Encode non-ASCII character.  The capacity must already have been ensured.
+     * @param value The character sequence that contains the character, or null if the character stands alone
+     * @param index The index of the character in the character sequence
+     * @param character The character
+     * @return The index of the last character that was consumed
+     */
+    protected int appendChar(
+        final CharSequence value,
+        final int index,
+        final char character) {
+
+        char low;
+        int codePoint;
+
+        if (character < 0x800) {
+
+            bytes[length++] = (byte) (0xC0 | (character >> 6));
+            bytes[length++] = (byte) (0x80 | (character & 0x3F));
+        }
+        else if (Character.isHighSurrogate(character) == true) {
+
+            if ((value != null) && (index + 1 < value.length()) && (Character.isLowSurrogate(low = value.charAt(index + 1)) == true)) {
+
+                codePoint = Character.toCodePoint(character, low);
+
+                bytes[length++] = (byte) (0xF0 | (codePoint >> 18));
+                bytes[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                bytes[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                bytes[length++] = (byte) (0x80 | (codePoint & 0x3F));
+
+                return index + 1;
+            }
+
+            bytes[length++] = '?';
+        }
+        else if (Character.isLowSurrogate(character) == true) {
+
+            bytes[length++] = '?';
+        }
+        else {
+
+            bytes[length++] = (byte) (0xE0 | (character >> 12));
+            bytes[length++] = (byte) (0x80 | ((character >> 6) & 0x3F));
+            bytes[length++] = (byte) (0x80 | (character & 0x3F));
+        }
+
+        return index;
+    }
+
+    /**
+     * Ensure that the buffer has room for the given number of additional bytes.
+     * @param size The number of additional bytes
+     */
+    protected void ensureCapacity(
+        final int size) {
+
+        byte[] newBytes;
+
+        if (length + size > bytes.length) {
+
+            newBytes = new byte[Math.max(bytes.length * 2, length + size)];
+
+            System.arraycopy(bytes, 0, newBytes, 0, length);
+
+            bytes = newBytes;
+
+            buffer = ByteBuffer.wrap(bytes);
+        }
+
+    }
+
+}
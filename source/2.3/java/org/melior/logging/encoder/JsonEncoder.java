@@ -0,0 +1,260 @@
+/* __  __      _ _            
+  |  \/  |    | (_)           
+  | \  / | ___| |_  ___  _ __ 
+  | |\/| |/ _ \ | |/ _ \| '__|
+  | |  | |  __/ | | (_) | |   
+  |_|  |_|\___|_|_|\___/|_|   
+        Service Harness
+*/
+package org.melior.logging.encoder;
+
+/**
+ * Encodes JSON straight into a reusable byte buffer in UTF-8.  String values
+ * are escaped as they are encoded, so that quotes, backslashes and control
+ * characters such as line breaks in messages and stack traces cannot break
+ * the structure of the document.  Like the {@code Encoder}, a JSON encoder is
+ * not thread safe.
+ * @author Melior
+ * @since 2.3
+ * @see Encoder
+ */
+public class JsonEncoder extends Encoder {
+
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes();
+
+    /**
+     * Constructor.
+     */
+    public JsonEncoder() {
+
+        super();
+    }
+
+    /**
+     * Clear encoder for the next document.
+     * @return The encoder
+     */
+    public JsonEncoder reset() {
+
+        super.reset();
+
+        return this;
+    }
+
+    /**
+     * Encode start of object.
+     * @return The encoder
+     */
+    public JsonEncoder beginObject() {
+
+        append('{');
+
+        return this;
+    }
+
+    /**
+     * Encode end of object.
+     * @return The encoder
+     */
+    public JsonEncoder endObject() {
+
+        append('}');
+
+        return this;
+    }
+
+    /**
+     * Encode separator between the members of an object.
+     * @return The encoder
+     */
+    public JsonEncoder appendSeparator() {
+
+        append(", ");
+
+        return this;
+    }
+
+    /**
+     * Encode quote that opens or closes a string value that is
+     * encoded in parts with {@code appendEscaped}.
+     * @return The encoder
+     */
+    public JsonEncoder appendQuote() {
+
+        append('"');
+
+        return this;
+    }
+
+    /**
+     * Encode name of object member.
+     * @param name The name
+     * @return The encoder
+     */
+    public JsonEncoder appendName(
+        final String name) {
+
+        appendString(name);
+
+        append(": ");
+
+        return this;
+    }
+
+    /**
+     * Encode object member with string value.
+     * @param name The name
+     * @param value The value, which is encoded from its {@code String} representation
+     * @return The encoder
+     */
+    public JsonEncoder appendField(
+        final String name,
+        final Object value) {
+
+        return appendName(name).appendString(value);
+    }
+
+    /**
+     * Encode object member with numeric value.
+     * @param name The name
+     * @param value The value
+     * @return The encoder
+     */
+    public JsonEncoder appendField(
+        final String name,
+        final long value) {
+
+        appendName(name).append(value);
+
+        return this;
+    }
+
+    /**
+     * Encode string value in quotes.  A null value is encoded as {@code null}.
+     * @param value The value, which is encoded from its {@code String} representation
+     * @return The encoder
+     */
+    public JsonEncoder appendString(
+        final Object value) {
+
+        if (value == null) {
+
+            appendBytes(NULL);
+
+            return this;
+        }
+
+        return appendQuote().appendEscaped(value).appendQuote();
+    }
+
+    /**
+     * Encode value as part of a string value, without quotes.  Numbers and
+     * booleans are encoded directly.  Other objects are encoded from their
+     * {@code String} representation.
+     * @param value The value
+     * @return The encoder
+     */
+    public JsonEncoder appendEscaped(
+        final Object value) {
+
+        if (value instanceof CharSequence) {
+
+            appendEscaped((CharSequence) value);
+        }
+        else if ((value instanceof Long) || (value instanceof Integer) || (value instanceof Short) || (value instanceof Byte)
+            || (value instanceof Double) || (value instanceof Boolean)) {
+
+            append(value);
+        }
+        else {
+
+            appendEscaped(String.valueOf(value));
+        }
+
+        return this;
+    }
+
+    /**
+     * Encode character sequence as part of a string value, without quotes.
+     * @param value The character sequence
+     * @return The encoder
+     */
+    public JsonEncoder appendEscaped(
+        final CharSequence value) {
+
+        int size;
+        char character;
+
+        size = value.length();
+
+        ensureCapacity(size * 6);
+
+        for (int i = 0; i < size; i++) {
+
+            character = value.charAt(i);
+
+            if (character >= 0x80) {
+
+                i = appendChar(value, i, character);
+            }
+            else if (character >= 0x20) {
+
+                if ((character == '"') || (character == '\\')) {
+
+                    bytes[length++] = '\\';
+                }
+
+                bytes[length++] = (byte) character;
+            }
+            else {
+
+                appendControl(character);
+            }
+
+        }
+
+        return this;
+    }
+
+    /**
+     * Encode control character as an escape sequence.  The capacity
+     * must already have been ensured.
+     * @param character The control character
+     */
+    private void appendControl(
+        final char character) {
+
+        bytes[length++] = '\\';
+
+        if (character == '\n') {
+
+            bytes[length++] = 'n';
+        }
+        else if (character == '\r') {
+
+            bytes[length++] = 'r';
+        }
+        else if (character == '\t') {
+
+            bytes[length++] = 't';
+        }
+        else if (character == '\b') {
+
+            bytes[length++] = 'b';
+        }
+        else if (character == '\f') {
+
+            bytes[length++] = 'f';
+        }
+        else {
+
+            bytes[length++] = 'u';
+            bytes[length++] = '0';
+            bytes[length++] = '0';
+            bytes[length++] = HEX_DIGITS[character >> 4];
+            bytes[length++] = HEX_DIGITS[character & 0x0F];
+        }
+
+    }
+
+}
@@ -0,0 +1,179 @@
+/* __  __      _ _            
+  |  \/  |    | (_)           
+  | \  / | ___| |_  ___  _ __ 
+  | |\/| |/ _ \ | |/ _ \| '__|
+  | |  | |  __/ | | (_) | |   
+  |_|  |_|\___|_|_|\___/|_|   
+        Service Harness
+*/
+package org.melior.util.collection;
+import java.util.Arrays;
+
+/**
+ * Implements a compact bloom filter of strings.  A bloom filter answers whether
+ * a string may have been added to it.  It may answer that a string has been added
+ * when it has not, but never the other way around.  The probability of a false
+ * positive depends on the number of bits and hash functions relative to the
+ * number of strings that have been added.
+ * <p>
+ * The hash functions are derived from a single 64-bit FNV-1a hash of the string
+ * with double hashing.  The bits may be exported to and imported from a byte array,
+ * so that a bloom filter may be stored alongside the data that it describes.  A
+ * bloom filter is not thread safe.
+ * @author Melior
+ * @since 2.3
+ */
+public class BloomFilter {
+
+    private static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+
+    private byte[] bits;
+
+    private long bitCount;
+
+    private int hashCount;
+
+    /**
+     * Constructor.
+     * @param bits The bits
+     * @param hashCount The number of hash functions
+     */
+    BloomFilter(
+        final byte[] bits,
+        final int hashCount) {
+
+        super();
+
+        this.bits = bits;
+
+        this.bitCount = (long) bits.length * 8;
+
+        this.hashCount = Math.max(hashCount, 1);
+    }
+
+    /**
+     * Get instance of empty bloom filter.
+     * @param size The size of the bloom filter in bytes
+     * @param hashCount The number of hash functions
+     * @return The bloom filter
+     */
+    public static BloomFilter of(
+        final int size,
+        final int hashCount) {
+        return new BloomFilter(new byte[Math.max(size, 1)], hashCount);
+    }
+
+    /**
+     * Get instance of bloom filter from bits that have been exported before.
+     * @param bits The bits
+     * @param hashCount The number of hash functions
+     * @return The bloom filter
+     */
+    public static BloomFilter of(
+        final byte[] bits,
+        final int hashCount) {
+        return new BloomFilter(bits, hashCount);
+    }
+
+    /**
+     * Add string to bloom filter.
+     * @param value The string
+     */
+    public void add(
+        final CharSequence value) {
+
+        long hash;
+        long increment;
+        long index;
+
+        hash = hash(value);
+
+        increment = (hash >>> 32) | 1;
+
+        for (int i = 0; i < hashCount; i++) {
+
+            index = Long.remainderUnsigned(hash + i * increment, bitCount);
+
+            bits[(int) (index >>> 3)] |= (byte) (1 << (index & 7));
+        }
+
+    }
+
+    /**
+     * Check whether string may have been added to bloom filter.
+     * @param value The string
+     * @return true if the string may have been added, false if it has definitely not been added
+     */
+    public boolean mightContain(
+        final CharSequence value) {
+
+        long hash;
+        long increment;
+        long index;
+
+        hash = hash(value);
+
+        increment = (hash >>> 32) | 1;
+
+        for (int i = 0; i < hashCount; i++) {
+
+            index = Long.remainderUnsigned(hash + i * increment, bitCount);
+
+            if ((bits[(int) (index >>> 3)] & (1 << (index & 7))) == 0) {
+                return false;
+            }
+
+        }
+
+        return true;
+    }
+
+    /**
+     * Clear bloom filter.
+     */
+    public void clear() {
+        Arrays.fill(bits, (byte) 0);
+    }
+
+    /**
+     * Get bits of bloom filter.  The array is not copied.
+     * @return The bits
+     */
+    public byte[] getBits() {
+        return bits;
+    }
+
+    /**
+     * Get number of hash functions.
+     * @return The number of hash functions
+     */
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    /**
+     * Calculate 64-bit FNV-1a hash of string.
+     * @param value The string
+     * @return The hash
+     */
+    private static long hash(
+        final CharSequence value) {
+
+        long hash;
+        char character;
+
+        hash = FNV_OFFSET_BASIS;
+
+        for (int i = 0; i < value.length(); i++) {
+
+            character = value.charAt(i);
+
+            hash = (hash ^ (character & 0xFF)) * FNV_PRIME;
+            hash = (hash ^ (character >>> 8)) * FNV_PRIME;
+        }
+
+        return hash;
+    }
+
+}
@@ -56,6 +56,38 @@ public class BoundedBlockingQueue<T> {
 
         producerSemaphore.acquire();
 
+        synchronized (this) {
+
+            result = list.add(item);
+        }
+
+        if (result == true) {
+
+            consumerSemaphore.release();
+        }
+        else {
+
+            producerSemaphore.release();
+        }
+
+        return result;
+    }
+
+    /**
+     * Add item to queue, if capacity is available.  Otherwise, return without waiting.
+     * @param item The item
+     * @return true if the item was added, false if the queue is full
+     * @throws InterruptedException if the thread is interrupted
+     */
+    public boolean offer(
+        final T item) throws InterruptedException {
+
+        boolean result;
+
+        if (producerSemaphore.acquire(0, TimeUnit.NANOSECONDS) == false) {
+            return false;
+        }
+
         synchronized (this) {
 
             result = list.add(item);
@@ -7,9 +7,10 @@
         Service Harness
 */
 package org.melior.util.collection;
+import java.util.function.Supplier;
 
 /**
- * Create blocking queues, bounded or unbounded.
+ * Create blocking queues, bounded or unbounded, and ring buffers.
  * @author Melior
  * @since 2.3
  */
@@ -37,4 +38,20 @@ public interface Queue {
         return new BoundedBlockingQueue<T>(capacity);
     }
 
+    /**
+     * Get instance of ring buffer with pre-allocated slots.
+     * @param <T> The type
+     * @param capacity The capacity of the ring buffer
+     * @param slotFactory The factory that creates the slots
+     * @param waitStrategy The wait strategy
+     * @return The ring buffer
+     * @see RingBuffer
+     */
+    public static <T> RingBuffer<T> ofRing(
+        final int capacity,
+        final Supplier<T> slotFactory,
+        final WaitStrategy waitStrategy) {
+        return new RingBuffer<T>(capacity, slotFactory, waitStrategy);
+    }
+
 }
@@ -0,0 +1,337 @@
+/* __  __      _ _            
+  |  \/  |    | (_)           
+  | \  / | ___| |_  ___  _ __ 
+  | |\/| |/ _ \ | |/ _ \| '__|
+  | |  | |  __/ | | (_) | |   
+  |_|  |_|\___|_|_|\___/|_|   
+        Service Harness
+*/
+package org.melior.util.collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+import org.melior.util.number.Clamp;
+
+/**
+ * Implements a bounded lock-free ring buffer of pre-allocated slots.  Any number
+ * of producers may claim a slot, populate it and publish it.  A single consumer
+ * takes the published slots in sequence and releases each slot for re-use when
+ * it is done with it.  The slots are allocated when the ring buffer is created,
+ * so neither the producers nor the consumer allocate memory after that.
+ * <p>
+ * The capacity of the ring buffer is rounded up to the next power of two.
+ * @author Melior
+ * @since 2.3
+ * @see WaitStrategy
+ */
+public class RingBuffer<T> {
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 200;
+    private static final long SLEEP_NANOS = 100000;
+    private static final long PARK_NANOS = 10000000;
+
+    private int capacity;
+
+    private int mask;
+
+    private Object[] slots;
+
+    private AtomicLongArray sequences;
+
+    private AtomicLong producerSequence;
+
+    private volatile long consumerSequence;
+
+    private volatile Thread consumerThread;
+
+    private WaitStrategy waitStrategy;
+
+    /**
+     * Constructor.
+     * @param capacity The capacity of the ring buffer
+     * @param slotFactory The factory that creates the slots
+     * @param waitStrategy The wait strategy
+     */
+    RingBuffer(
+        final int capacity,
+        final Supplier<T> slotFactory,
+        final WaitStrategy waitStrategy) {
+
+        super();
+
+        this.capacity = Integer.highestOneBit(Clamp.clampInt(capacity, 2, 1 << 30) - 1) << 1;
+
+        mask = this.capacity - 1;
+
+        slots = new Object[this.capacity];
+
+        sequences = new AtomicLongArray(this.capacity);
+
+        for (int i = 0; i < this.capacity; i++) {
+            slots[i] = slotFactory.get();
+            sequences.set(i, i);
+        }
+
+        producerSequence = new AtomicLong(0);
+
+        consumerSequence = 0;
+
+        this.waitStrategy = (waitStrategy == null) ? WaitStrategy.BLOCKING : waitStrategy;
+    }
+
+    /**
+     * Claim next slot, if one is available.
+     * @return The sequence of the claimed slot, or -1 if the ring buffer is full
+     */
+    public long tryClaim() {
+
+        long sequence;
+        long difference;
+
+        while (true) {
+
+            sequence = producerSequence.get();
+
+            difference = sequences.get((int) sequence & mask) - sequence;
+
+            if (difference == 0) {
+
+                if (producerSequence.compareAndSet(sequence, sequence + 1) == true) {
+                    return sequence;
+                }
+
+            }
+            else if (difference < 0) {
+                return -1;
+            }
+
+        }
+
+    }
+
+    /**
+     * Claim next slot, if one is available.  Otherwise, wait for the consumer
+     * to release a slot.
+     * @return The sequence of the claimed slot
+     */
+    public long claim() {
+
+        long sequence;
+        int counter;
+
+        counter = 0;
+
+        while ((sequence = tryClaim()) < 0) {
+
+            counter = idle(counter, 0);
+        }
+
+        return sequence;
+    }
+
+    /**
+     * Get slot.
+     * @param sequence The sequence of the slot
+     * @return The slot
+     */
+    @SuppressWarnings("unchecked")
+    public T get(
+        final long sequence) {
+        return (T) slots[(int) sequence & mask];
+    }
+
+    /**
+     * Publish slot to the consumer.
+     * @param sequence The sequence of the slot
+     */
+    public void publish(
+        final long sequence) {
+
+        Thread thread;
+
+        if (waitStrategy == WaitStrategy.BLOCKING) {
+
+            sequences.set((int) sequence & mask, sequence + 1);
+
+            thread = consumerThread;
+
+            if (thread != null) {
+
+                LockSupport.unpark(thread);
+            }
+
+        }
+        else {
+
+            sequences.lazySet((int) sequence & mask, sequence + 1);
+        }
+
+    }
+
+    /**
+     * Get next published slot, if one is available.  The consumer must release
+     * the slot when it is done with it.
+     * @return The slot, or null if no slot has been published
+     */
+    @SuppressWarnings("unchecked")
+    public T poll() {
+
+        long sequence;
+
+        sequence = consumerSequence;
+
+        if (sequences.get((int) sequence & mask) != sequence + 1) {
+            return null;
+        }
+
+        return (T) slots[(int) sequence & mask];
+    }
+
+    /**
+     * Get next published slot, if one is available.  Otherwise, wait for a slot
+     * to be published.  The consumer must release the slot when it is done with it.
+     * @return The slot
+     */
+    public T take() {
+
+        T slot;
+        int counter;
+
+        counter = 0;
+
+        while ((slot = poll()) == null) {
+
+            counter = idle(counter, PARK_NANOS);
+        }
+
+        return slot;
+    }
+
+    /**
+     * Get next published slot, if one is available.  Otherwise, wait for a slot
+     * to be published.  The consumer must release the slot when it is done with it.
+     * @param timeout The time to wait
+     * @param timeUnit The time unit
+     * @return The slot, or null if no slot has been published within the time to wait
+     */
+    public T take(
+        final long timeout,
+        final TimeUnit timeUnit) {
+
+        T slot;
+        long deadline;
+        long remaining;
+        int counter;
+
+        deadline = System.nanoTime() + timeUnit.toNanos(timeout);
+
+        counter = 0;
+
+        while ((slot = poll()) == null) {
+
+            remaining = deadline - System.nanoTime();
+
+            if (remaining <= 0) {
+                return null;
+            }
+
+            counter = idle(counter, Math.min(remaining, PARK_NANOS));
+        }
+
+        return slot;
+    }
+
+    /**
+     * Release current slot back to the producers.
+     */
+    public void release() {
+
+        long sequence;
+
+        sequence = consumerSequence;
+
+        sequences.lazySet((int) sequence & mask, sequence + capacity);
+
+        consumerSequence = sequence + 1;
+    }
+
+    /**
+     * Wait according to the wait strategy.
+     * @param counter The number of times that the caller has waited so far
+     * @param parkNanos The maximum time for the consumer to park for, or 0 if the caller is a producer
+     * @return The updated number of times that the caller has waited
+     */
+    private int idle(
+        final int counter,
+        final long parkNanos) {
+
+        if (waitStrategy == WaitStrategy.BUSY_SPIN) {
+            return counter;
+        }
+
+        if (counter < SPIN_TRIES) {
+            return counter + 1;
+        }
+
+        if (waitStrategy == WaitStrategy.YIELDING) {
+
+            Thread.yield();
+        }
+        else if (waitStrategy == WaitStrategy.SLEEPING) {
+
+            if (counter < SPIN_TRIES + YIELD_TRIES) {
+
+                Thread.yield();
+
+                return counter + 1;
+            }
+
+            LockSupport.parkNanos(SLEEP_NANOS);
+        }
+        else if (parkNanos == 0) {
+
+            LockSupport.parkNanos(SLEEP_NANOS);
+        }
+        else {
+
+            consumerThread = Thread.currentThread();
+
+            if (poll() == null) {
+
+                LockSupport.parkNanos(this, parkNanos);
+            }
+
+            consumerThread = null;
+        }
+
+        return counter;
+    }
+
+    /**
+     * Get capacity.
+     * @return The capacity
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Get number of slots that have been claimed and not yet released.
+     * @return The size
+     */
+    public int size() {
+        return (int) Clamp.clampLong(producerSequence.get() - consumerSequence, 0, capacity);
+    }
+
+    /**
+     * Indicate whether ring buffer is empty.
+     * @return true if the ring buffer is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return producerSequence.get() == consumerSequence;
+    }
+
+}
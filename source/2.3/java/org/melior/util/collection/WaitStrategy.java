@@ -0,0 +1,30 @@
+/* __  __      _ _            
+  |  \/  |    | (_)           
+  | \  / | ___| |_  ___  _ __ 
+  | |\/| |/ _ \ | |/ _ \| '__|
+  | |  | |  __/ | | (_) | |   
+  |_|  |_|\___|_|_|\___/|_|   
+        Service Harness
+*/
+package org.melior.util.collection;
+
+/**
+ * List of strategies that a consumer may use to wait for an item to
+ * become available in a ring buffer, or that a producer may use to wait
+ * for capacity to become available in a ring buffer.
+ * <ul>
+ * <li>{@code BLOCKING} parks the thread until it is signalled.  Lowest CPU usage, highest latency
+ * <li>{@code SLEEPING} spins, then yields, then parks the thread for short intervals
+ * <li>{@code YIELDING} spins, then yields the thread
+ * <li>{@code BUSY_SPIN} spins continuously.  Lowest latency, occupies a full core
+ * </ul>
+ * @author Melior
+ * @since 2.3
+ * @see RingBuffer
+ */
+public enum WaitStrategy {
+    BLOCKING,
+    SLEEPING,
+    YIELDING,
+    BUSY_SPIN
+}
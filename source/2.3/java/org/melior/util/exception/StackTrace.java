@@ -7,8 +7,6 @@
         Service Harness
 */
 package org.melior.util.exception;
-import java.io.PrintWriter;
-import java.io.StringWriter;
 
 /**
  * Writes an exception stack trace to a {@code String} in either
@@ -19,23 +17,16 @@ import java.io.StringWriter;
 public interface StackTrace {
 
     /**
-     * Get full stack trace of {@code Throwable} as a {@code String}.
+     * Get full stack trace of {@code Throwable} as a {@code String}.  The stack
+     * trace is rendered by the shared {@code StackTraceRenderer}, which reuses the
+     * rendered frames of stack traces that it has seen before.
      * @param throwable The throwable
      * @return The full stack trace as a string
+     * @see StackTraceRenderer
      */
     public static String getFull(
         final Throwable throwable) {
-
-        StringWriter stringWriter;
-        PrintWriter printWriter;
-        String stackTrace;
-
-        stringWriter = new StringWriter();
-        printWriter = new PrintWriter(stringWriter);
-        throwable.printStackTrace(printWriter);
-        stackTrace = stringWriter.toString();
-
-        return stackTrace;
+        return StackTraceRenderer.get().render(throwable);
     }
 
     /**
@@ -0,0 +1,519 @@
+/* __  __      _ _            
+  |  \/  |    | (_)           
+  | \  / | ___| |_  ___  _ __ 
+  | |\/| |/ _ \ | |/ _ \| '__|
+  | |  | |  __/ | | (_) | |   
+  |_|  |_|\___|_|_|\___/|_|   
+        Service Harness
+*/
+package org.melior.util.exception;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Renders the stack trace of a {@code Throwable} in the format of
+ * {@code printStackTrace}, including causes and suppressed exceptions.
+ * The rendered stack frames are held in a bounded cache that is keyed by the
+ * shape of the stack trace, which consists of the stack frames of the throwable,
+ * its causes and its suppressed exceptions.  A throwable with the same shape as
+ * one that has been rendered before only needs its messages to be rendered.
+ * <p>
+ * Frames of packages that are configured to be trimmed, such as reflection and
+ * proxy frames, are collapsed into a single line per run of trimmed frames.
+ * When deduplication is enabled, a shape that has been rendered before is
+ * rendered as its messages followed by a reference to the first rendering.
+ * @author Melior
+ * @since 2.3
+ */
+public class StackTraceRenderer {
+
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private static final StackTraceRenderer instance = new StackTraceRenderer();
+
+    private volatile String[] trimmedPackages;
+
+    private volatile boolean deduplicate;
+
+    private volatile int maxEntries;
+
+    private Map<Key, Entry> cache;
+
+    private AtomicInteger nextId;
+
+    /**
+     * Constructor.
+     */
+    StackTraceRenderer() {
+
+        super();
+
+        trimmedPackages = new String[0];
+
+        deduplicate = false;
+
+        maxEntries = 256;
+
+        cache = new ConcurrentHashMap<Key, Entry>();
+
+        nextId = new AtomicInteger(0);
+    }
+
+    /**
+     * Get shared instance of stack trace renderer.
+     * @return The stack trace renderer
+     */
+    public static StackTraceRenderer get() {
+        return instance;
+    }
+
+    /**
+     * Configure stack trace renderer.  The cache is cleared.
+     * @param trimmedPackageList The list of package prefixes whose frames are trimmed
+     * @param deduplicate true if shapes that have been rendered before are rendered as a reference
+     * @param maxEntries The maximum number of shapes in the cache
+     */
+    public void configure(
+        final List<String> trimmedPackageList,
+        final boolean deduplicate,
+        final int maxEntries) {
+
+        this.trimmedPackages = trimmedPackageList.toArray(new String[0]);
+
+        this.deduplicate = deduplicate;
+
+        this.maxEntries = Math.max(maxEntries, 1);
+
+        cache.clear();
+    }
+
+    /**
+     * Render stack trace of throwable.
+     * @param throwable The throwable
+     * @return The stack trace
+     */
+    public String render(
+        final Throwable throwable) {
+
+        List<Visit> visits;
+        List<Throwable> throwables;
+        Key key;
+        Entry entry;
+        StringBuilder stringBuilder;
+        long seen;
+        Visit visit;
+
+        visits = new ArrayList<Visit>();
+
+        throwables = new ArrayList<Throwable>();
+
+        collectVisits(visits, throwables, throwable, "", "", null,
+            Collections.newSetFromMap(new IdentityHashMap<Throwable, Boolean>()));
+
+        key = new Key(visits);
+
+        entry = cache.get(key);
+
+        if (entry == null) {
+
+            if (cache.size() >= maxEntries) {
+
+                cache.clear();
+            }
+
+            entry = cache.computeIfAbsent(key, (shape) -> createEntry(shape));
+        }
+
+        seen = entry.seen.incrementAndGet();
+
+        stringBuilder = new StringBuilder(256);
+
+        for (int i = 0; i < visits.size(); i++) {
+
+            visit = visits.get(i);
+
+            stringBuilder.append(visit.prefix).append(visit.caption);
+
+            if (visit.circular == true) {
+
+                stringBuilder.append("[CIRCULAR REFERENCE: ").append(throwables.get(i)).append(']').append(LINE_SEPARATOR);
+            }
+            else {
+
+                stringBuilder.append(throwables.get(i)).append(LINE_SEPARATOR);
+
+                if ((deduplicate == false) || (seen == 1)) {
+
+                    stringBuilder.append(entry.bodies[i]);
+                }
+
+            }
+
+        }
+
+        if (deduplicate == true) {
+
+            stringBuilder.append("\t... trace #").append(entry.id);
+
+            if (seen > 1) {
+
+                stringBuilder.append(" seen ").append(seen).append(" times");
+            }
+
+            stringBuilder.append(LINE_SEPARATOR);
+        }
+
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Collect the throwables of the stack trace in the order in which they
+     * are rendered.  This follows the order of {@code printStackTrace}.
+     * @param visits The list of visits
+     * @param throwables The list of throwables that belong to the visits
+     * @param throwable The throwable
+     * @param caption The caption of the throwable
+     * @param prefix The prefix of the lines of the throwable
+     * @param enclosingFrames The frames of the enclosing throwable, or null for the top-level throwable
+     * @param seenSet The set of throwables that have been visited, to detect circular references
+     */
+    private void collectVisits(
+        final List<Visit> visits,
+        final List<Throwable> throwables,
+        final Throwable throwable,
+        final String caption,
+        final String prefix,
+        final StackTraceElement[] enclosingFrames,
+        final Set<Throwable> seenSet) {
+
+        StackTraceElement[] frames;
+
+        throwables.add(throwable);
+
+        if (seenSet.add(throwable) == false) {
+
+            visits.add(new Visit(throwable.getClass(), caption, prefix, null, null, true));
+
+            return;
+        }
+
+        frames = throwable.getStackTrace();
+
+        visits.add(new Visit(throwable.getClass(), caption, prefix, frames, enclosingFrames, false));
+
+        for (Throwable suppressed : throwable.getSuppressed()) {
+
+            collectVisits(visits, throwables, suppressed, "Suppressed: ", prefix + "\t", frames, seenSet);
+        }
+
+        if (throwable.getCause() != null) {
+
+            collectVisits(visits, throwables, throwable.getCause(), "Caused by: ", prefix, frames, seenSet);
+        }
+
+    }
+
+    /**
+     * Create cache entry by rendering the frames of each throwable of the shape.
+     * @param key The shape
+     * @return The cache entry
+     */
+    private Entry createEntry(
+        final Key key) {
+
+        String[] bodies;
+        StringBuilder stringBuilder;
+
+        bodies = new String[key.visits.size()];
+
+        stringBuilder = new StringBuilder(1024);
+
+        for (int i = 0; i < bodies.length; i++) {
+
+            stringBuilder.setLength(0);
+
+            renderFrames(stringBuilder, key.visits.get(i));
+
+            bodies[i] = stringBuilder.toString();
+        }
+
+        return new Entry(nextId.incrementAndGet(), bodies);
+    }
+
+    /**
+     * Render the frames of a throwable.  Frames that are in common with
+     * the enclosing throwable are left out, and runs of trimmed frames are
+     * collapsed into a single line.
+     * @param stringBuilder The string builder
+     * @param visit The visit
+     */
+    private void renderFrames(
+        final StringBuilder stringBuilder,
+        final Visit visit) {
+
+        int last;
+        int enclosingLast;
+        int trimmed;
+
+        if (visit.circular == true) {
+            return;
+        }
+
+        last = visit.frames.length - 1;
+
+        if (visit.enclosingFrames != null) {
+
+            enclosingLast = visit.enclosingFrames.length - 1;
+
+            while ((last >= 0) && (enclosingLast >= 0) && (visit.frames[last].equals(visit.enclosingFrames[enclosingLast]) == true)) {
+                last--;
+                enclosingLast--;
+            }
+
+        }
+
+        trimmed = 0;
+
+        for (int i = 0; i <= last; i++) {
+
+            if (isTrimmed(visit.frames[i].getClassName()) == true) {
+
+                trimmed++;
+
+                continue;
+            }
+
+            appendTrimmed(stringBuilder, visit.prefix, trimmed);
+
+            trimmed = 0;
+
+            stringBuilder.append(visit.prefix).append("\tat ").append(visit.frames[i]).append(LINE_SEPARATOR);
+        }
+
+        appendTrimmed(stringBuilder, visit.prefix, trimmed);
+
+        if (last < visit.frames.length - 1) {
+
+            stringBuilder.append(visit.prefix).append("\t... ").append(visit.frames.length - 1 - last).append(" more").append(LINE_SEPARATOR);
+        }
+
+    }
+
+    /**
+     * Render the line that replaces a run of trimmed frames.
+     * @param stringBuilder The string builder
+     * @param prefix The prefix of the line
+     * @param trimmed The number of trimmed frames
+     */
+    private void appendTrimmed(
+        final StringBuilder stringBuilder,
+        final String prefix,
+        final int trimmed) {
+
+        if (trimmed > 0) {
+
+            stringBuilder.append(prefix).append("\t... ").append(trimmed).append(" trimmed").append(LINE_SEPARATOR);
+        }
+
+    }
+
+    /**
+     * Check whether frames of class are trimmed.
+     * @param className The class name
+     * @return true if the frames are trimmed, false otherwise
+     */
+    private boolean isTrimmed(
+        final String className) {
+
+        for (String trimmedPackage : trimmedPackages) {
+
+            if (className.startsWith(trimmedPackage) == true) {
+                return true;
+            }
+
+        }
+
+        return false;
+    }
+
+    /**
+     * A throwable in the order in which the stack trace is rendered.
+     * Only the parts of the throwable that make up its shape are held.
+     */
+    private static class Visit {
+
+        private Class<?> throwableClass;
+
+        private String caption;
+
+        private String prefix;
+
+        private StackTraceElement[] frames;
+
+        private StackTraceElement[] enclosingFrames;
+
+        private boolean circular;
+
+        /**
+         * Constructor.
+         * @param throwableClass The class of the throwable
+         * @param caption The caption
+         * @param prefix The prefix
+         * @param frames The frames, or null for a circular reference
+         * @param enclosingFrames The frames of the enclosing throwable, or null for the top-level throwable
+         * @param circular true if the throwable is a circular reference
+         */
+        private Visit(
+            final Class<?> throwableClass,
+            final String caption,
+            final String prefix,
+            final StackTraceElement[] frames,
+            final StackTraceElement[] enclosingFrames,
+            final boolean circular) {
+
+            super();
+
+            this.throwableClass = throwableClass;
+
+            this.caption = caption;
+
+            this.prefix = prefix;
+
+            this.frames = frames;
+
+            this.enclosingFrames = enclosingFrames;
+
+            this.circular = circular;
+        }
+
+    }
+
+    /**
+     * The shape of a stack trace.  Two stack traces have the same shape if their
+     * throwables are of the same classes, are nested in the same way and have the
+     * same stack frames.  The throwables themselves are not retained by the cache,
+     * which only holds on to their classes and frames.
+     */
+    private static class Key {
+
+        private List<Visit> visits;
+
+        private int hashCode;
+
+        /**
+         * Constructor.
+         * @param visits The visits
+         */
+        private Key(
+            final List<Visit> visits) {
+
+            super();
+
+            int hash;
+
+            this.visits = visits;
+
+            hash = 1;
+
+            for (Visit visit : visits) {
+
+                hash = 31 * hash + visit.throwableClass.hashCode();
+                hash = 31 * hash + visit.caption.hashCode();
+                hash = 31 * hash + visit.prefix.length();
+                hash = 31 * hash + Arrays.hashCode(visit.frames);
+            }
+
+            hashCode = hash;
+        }
+
+        /**
+         * Get hash code.
+         * @return The hash code
+         */
+        public int hashCode() {
+            return hashCode;
+        }
+
+        /**
+         * Check whether key has the same shape as another key.
+         * @param object The other key
+         * @return true if the shapes are equal, false otherwise
+         */
+        public boolean equals(
+            final Object object) {
+
+            Key key;
+            Visit visit;
+            Visit otherVisit;
+
+            if ((object instanceof Key) == false) {
+                return false;
+            }
+
+            key = (Key) object;
+
+            if ((key.hashCode != hashCode) || (key.visits.size() != visits.size())) {
+                return false;
+            }
+
+            for (int i = 0; i < visits.size(); i++) {
+
+                visit = visits.get(i);
+                otherVisit = key.visits.get(i);
+
+                if ((visit.throwableClass != otherVisit.throwableClass)
+                    || (visit.circular != otherVisit.circular)
+                    || (visit.caption.equals(otherVisit.caption) == false)
+                    || (visit.prefix.equals(otherVisit.prefix) == false)
+                    || (Arrays.equals(visit.frames, otherVisit.frames) == false)
+                    || (Arrays.equals(visit.enclosingFrames, otherVisit.enclosingFrames) == false)) {
+                    return false;
+                }
+
+            }
+
+            return true;
+        }
+
+    }
+
+    /**
+     * The rendered frames of a shape, with the number of times that it has been seen.
+     */
+    private static class Entry {
+
+        private int id;
+
+        private String[] bodies;
+
+        private AtomicLong seen;
+
+        /**
+         * Constructor.
+         * @param id The identifier of the shape
+         * @param bodies The rendered frames of each throwable of the shape
+         */
+        private Entry(
+            final int id,
+            final String[] bodies) {
+
+            super();
+
+            this.id = id;
+
+            this.bodies = bodies;
+
+            seen = new AtomicLong(0);
+        }
+
+    }
+
+}
@@ -0,0 +1,79 @@
+/* __  __      _ _            
+  |  \/  |    | (_)           
+  | \  / | ___| |_  ___  _ __ 
+  | |\/| |/ _ \ | |/ _ \| '__|
+  | |  | |  __/ | | (_) | |   
+  |_|  |_|\___|_|_|\___/|_|   
+        Service Harness
+*/
+package org.melior.util.number;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Implements an unbounded counter that is spread over several cells, so that
+ * threads that increment it at the same time do not contend for a single value.
+ * It wraps a {@code LongAdder} to provide the same cosmetics as {@code Counter}.
+ * Reading the count is more expensive than incrementing it, so it suits counters
+ * that are incremented often and read rarely.
+ * @author Melior
+ * @since 2.3
+ * @see Counter
+ */
+public class StripedCounter {
+
+    private LongAdder count;
+
+    /**
+     * Constructor.
+     */
+    StripedCounter() {
+
+        super();
+
+        count = new LongAdder();
+    }
+
+    /**
+     * Get instance of counter with a count of 0.
+     * @return The counter
+     */
+    public static StripedCounter of() {
+        return new StripedCounter();
+    }
+
+    /**
+     * Get count.
+     * @return The count
+     */
+    public long get() {
+        return count.sum();
+    }
+
+    /**
+     * Increment count.
+     */
+    public void increment() {
+
+        count.increment();
+    }
+
+    /**
+     * Increment count.
+     * @param value The value to increment by
+     */
+    public void increment(
+        final long value) {
+
+        count.add(value);
+    }
+
+    /**
+     * Reset count.  Increments that happen during the reset may be lost.
+     * @return The current count
+     */
+    public long reset() {
+
+        return count.sumThenReset();
+    }
+
+}
@@ -16,6 +16,7 @@ import java.util.concurrent.Future;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
+import org.melior.context.transaction.ContextMap;
 import org.melior.context.transaction.TransactionContext;
 import org.melior.util.number.Clamp;
 import org.melior.util.time.Timer;
@@ -79,6 +80,7 @@ public class DaemonThreadPool {
      * <ul>
      * <li>The origin identifier
      * <li>The transaction identifier
+     * <li>The diagnostic context map
      * </ul>
      * @param <T> The type
      * @param callable The callable to execute
@@ -90,10 +92,12 @@ public class DaemonThreadPool {
         TransactionContext callerContext;
         String originId;
         String transactionId;
+        ContextMap contextMap;
 
         callerContext = TransactionContext.get();
         originId = callerContext.getOriginId();
         transactionId = callerContext.getTransactionId();
+        contextMap = callerContext.getContextMap();
 
         return executor.submit(new Callable<T>() {
 
@@ -104,6 +108,7 @@ public class DaemonThreadPool {
                 childContext = TransactionContext.get();
                 childContext.setOriginId(originId);
                 childContext.setTransactionId(transactionId);
+                childContext.setContextMap(contextMap);
 
                 return callable.call();
             }
@@ -118,6 +123,7 @@ public class DaemonThreadPool {
      * <ul>
      * <li>The origin identifier
      * <li>The transaction identifier
+     * <li>The diagnostic context map
      * </ul>
      * @param <T> The type
      * @param timeout The maximum amount of time to wait
@@ -194,6 +200,7 @@ public class DaemonThreadPool {
      * <ul>
      * <li>The origin identifier
      * <li>The transaction identifier
+     * <li>The diagnostic context map
      * </ul>
      * @param runnable The runnable to execute
      * @return The future for the callable
@@ -204,10 +211,12 @@ public class DaemonThreadPool {
         TransactionContext callerContext;
         String originId;
         String transactionId;
+        ContextMap contextMap;
 
         callerContext = TransactionContext.get();
         originId = callerContext.getOriginId();
         transactionId = callerContext.getTransactionId();
+        contextMap = callerContext.getContextMap();
 
         return executor.submit(new Runnable() {
 
@@ -218,6 +227,7 @@ public class DaemonThreadPool {
                 childContext = TransactionContext.get();
                 childContext.setOriginId(originId);
                 childContext.setTransactionId(transactionId);
+                childContext.setContextMap(contextMap);
 
                 runnable.run();
             }
@@ -232,6 +242,7 @@ public class DaemonThreadPool {
      * <ul>
      * <li>The origin identifier
      * <li>The transaction identifier
+     * <li>The diagnostic context map
      * </ul>
      * @param timeout The maximum amount of time to wait
      * @param timeUnit The time unit of the timeout
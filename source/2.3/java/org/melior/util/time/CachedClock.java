@@ -0,0 +1,294 @@
+/* __  __      _ _            
+  |  \/  |    | (_)           
+  | \  / | ___| |_  ___  _ __ 
+  | |\/| |/ _ \ | |/ _ \| '__|
+  | |  | |  __/ | | (_) | |   
+  |_|  |_|\___|_|_|\___/|_|   
+        Service Harness
+*/
+package org.melior.util.time;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Implements a clock that caches the current time together with its
+ * {@code yyyy-MM-dd HH:mm:ss.SSS} representation.  The clock does not use a
+ * background thread.  Each call checks the system time, and the cached time is
+ * only renewed when the millisecond has changed since the previous call, so a
+ * clock that is not used costs nothing.
+ * <p>
+ * When the time is renewed within the same second, only the millisecond digits
+ * of the reusable character buffer are rewritten.  The date and time digits are
+ * only rewritten when the second changes.  Each renewed time is published as an
+ * immutable {@code Tick}, so readers always observe a millisecond value, day and
+ * timestamp that belong together.
+ * @author Melior
+ * @since 2.3
+ */
+public class CachedClock {
+
+    private static final int TIMESTAMP_LENGTH = 23;
+
+    private static final CachedClock instance = new CachedClock();
+
+    private ZoneId zoneId;
+
+    private AtomicBoolean renewing;
+
+    private char[] buffer;
+
+    private long secondStart;
+
+    private int secondDay;
+
+    private volatile Tick tick;
+
+    /**
+     * Constructor.
+     */
+    CachedClock() {
+
+        super();
+
+        zoneId = ZoneId.systemDefault();
+
+        renewing = new AtomicBoolean(false);
+
+        buffer = new char[TIMESTAMP_LENGTH];
+
+        secondStart = Long.MIN_VALUE;
+
+        tick = renew(System.currentTimeMillis());
+    }
+
+    /**
+     * Get shared instance of cached clock.
+     * @return The cached clock
+     */
+    public static CachedClock get() {
+        return instance;
+    }
+
+    /**
+     * Get current tick of the clock.
+     * @return The tick
+     */
+    public Tick tick() {
+
+        long millis;
+        Tick currentTick;
+
+        millis = System.currentTimeMillis();
+
+        currentTick = tick;
+
+        if (currentTick.millis == millis) {
+            return currentTick;
+        }
+
+        if (renewing.compareAndSet(false, true) == false) {
+            return format(millis, new char[TIMESTAMP_LENGTH]);
+        }
+
+        try {
+
+            currentTick = renew(millis);
+
+            tick = currentTick;
+        }
+        finally {
+
+            renewing.set(false);
+        }
+
+        return currentTick;
+    }
+
+    /**
+     * Get current time in milliseconds.  The time is read from the system clock
+     * that the ticks are taken from, without renewing the cached tick, so that
+     * callers that only need the time do not pay for formatting a timestamp.
+     * @return The current time
+     */
+    public long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * Renew the cached time in the reusable character buffer.  Only
+     * the thread that holds the renewal flag may call this method.
+     * @param millis The time in milliseconds
+     * @return The tick
+     */
+    private Tick renew(
+        final long millis) {
+
+        if ((millis >= secondStart) && (millis < secondStart + 1000)) {
+
+            formatMillis(buffer, (int) (millis - secondStart));
+
+            return new Tick(millis, secondDay, new String(buffer));
+        }
+
+        secondStart = millis - Math.floorMod(millis, 1000L);
+
+        secondDay = formatSecond(buffer, secondStart);
+
+        formatMillis(buffer, (int) (millis - secondStart));
+
+        return new Tick(millis, secondDay, new String(buffer));
+    }
+
+    /**
+     * Format the time into the given character buffer in full.  This is
+     * used by a thread that finds another thread renewing the cached time.
+     * @param millis The time in milliseconds
+     * @param characters The character buffer
+     * @return The tick
+     */
+    private Tick format(
+        final long millis,
+        final char[] characters) {
+
+        long second;
+        int day;
+
+        second = millis - Math.floorMod(millis, 1000L);
+
+        day = formatSecond(characters, second);
+
+        formatMillis(characters, (int) (millis - second));
+
+        return new Tick(millis, day, new String(characters));
+    }
+
+    /**
+     * Format the date and time up to the second into the character buffer.
+     * @param characters The character buffer
+     * @param second The start of the second in milliseconds
+     * @return The day of the month
+     */
+    private int formatSecond(
+        final char[] characters,
+        final long second) {
+
+        ZoneOffset zoneOffset;
+        LocalDateTime localDateTime;
+
+        zoneOffset = zoneId.getRules().getOffset(Instant.ofEpochMilli(second));
+
+        localDateTime = LocalDateTime.ofEpochSecond(Math.floorDiv(second, 1000L), 0, zoneOffset);
+
+        formatDigits(characters, 0, 4, localDateTime.getYear());
+        characters[4] = '-';
+        formatDigits(characters, 5, 2, localDateTime.getMonthValue());
+        characters[7] = '-';
+        formatDigits(characters, 8, 2, localDateTime.getDayOfMonth());
+        characters[10] = ' ';
+        formatDigits(characters, 11, 2, localDateTime.getHour());
+        characters[13] = ':';
+        formatDigits(characters, 14, 2, localDateTime.getMinute());
+        characters[16] = ':';
+        formatDigits(characters, 17, 2, localDateTime.getSecond());
+        characters[19] = '.';
+
+        return localDateTime.getDayOfMonth();
+    }
+
+    /**
+     * Format the milliseconds into the character buffer.
+     * @param characters The character buffer
+     * @param millis The milliseconds within the second
+     */
+    private void formatMillis(
+        final char[] characters,
+        final int millis) {
+
+        formatDigits(characters, 20, 3, millis);
+    }
+
+    /**
+     * Format number into the character buffer as a fixed number of decimal digits.
+     * @param characters The character buffer
+     * @param offset The offset of the first digit
+     * @param digits The number of digits
+     * @param value The number
+     */
+    private void formatDigits(
+        final char[] characters,
+        final int offset,
+        final int digits,
+        final int value) {
+
+        int remainder;
+
+        remainder = value;
+
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            characters[i] = (char) ('0' + (remainder % 10));
+            remainder /= 10;
+        }
+
+    }
+
+    /**
+     * An immutable reading of the cached clock.
+     */
+    public static final class Tick {
+
+        private final long millis;
+
+        private final int day;
+
+        private final String timestamp;
+
+        /**
+         * Constructor.
+         * @param millis The time in milliseconds
+         * @param day The day of the month
+         * @param timestamp The timestamp
+         */
+        private Tick(
+            final long millis,
+            final int day,
+            final String timestamp) {
+
+            super();
+
+            this.millis = millis;
+
+            this.day = day;
+
+            this.timestamp = timestamp;
+        }
+
+        /**
+         * Get time in milliseconds.
+         * @return The time
+         */
+        public long getMillis() {
+            return millis;
+        }
+
+        /**
+         * Get day of the month.
+         * @return The day
+         */
+        public int getDay() {
+            return day;
+        }
+
+        /**
+         * Get timestamp in {@code yyyy-MM-dd HH:mm:ss.SSS} format.
+         * @return The timestamp
+         */
+        public String getTimestamp() {
+            return timestamp;
+        }
+
+    }
+
+}
@@ -10,10 +10,13 @@ package org.melior.util.time;
 import java.util.concurrent.TimeUnit;
 
 /**
- * Implements a simple timer with millisecond precision.
+ * Implements a simple timer with millisecond precision.  The time is
+ * taken from the shared {@code CachedClock}, so that it matches the
+ * timestamps of the log entries that are written during the timing.
  * @author Melior
  * @since 2.2
  * @see Timer
+ * @see CachedClock
  */
 public class MilliTimer implements Timer {
 
@@ -35,7 +38,7 @@ public class MilliTimer implements Timer {
      */
     public Timer start() {
 
-        startTime = System.currentTimeMillis();
+        startTime = CachedClock.get().currentTimeMillis();
 
         return this;
     }
@@ -46,7 +49,7 @@ public class MilliTimer implements Timer {
      */
     public Timer stop() {
 
-        stopTime = System.currentTimeMillis();
+        stopTime = CachedClock.get().currentTimeMillis();
 
         return this;
     }
@@ -72,7 +75,7 @@ public class MilliTimer implements Timer {
      * @return The elapsed time
      */
     public long elapsedTime() {
-        return ((stopTime == 0) ? System.currentTimeMillis() : stopTime) - startTime;
+        return ((stopTime == 0) ? CachedClock.get().currentTimeMillis() : stopTime) - startTime;
     }
 
     /**
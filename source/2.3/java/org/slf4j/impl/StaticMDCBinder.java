@@ -7,11 +7,12 @@
         Service Harness
 */
 package org.slf4j.impl;
-import org.slf4j.helpers.NOPMDCAdapter;
+import org.melior.logging.adapter.DiagnosticContextAdapter;
 import org.slf4j.spi.MDCAdapter;
 
 /**
- * Binds the SLF4J MDC adapter to a NOOP handler.
+ * Binds the SLF4J MDC adapter to the diagnostic context of the
+ * transaction context.
  * @author Melior
  * @since 2.1
  */
@@ -28,7 +29,7 @@ public class StaticMDCBinder {
 
         super();
 
-        mdcAdapter = new NOPMDCAdapter();
+        mdcAdapter = new DiagnosticContextAdapter();
     }
 
     /**